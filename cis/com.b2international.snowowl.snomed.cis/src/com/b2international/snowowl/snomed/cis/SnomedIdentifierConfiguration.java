@@ -32,6 +32,7 @@ public class SnomedIdentifierConfiguration {
 	}
 
 	public static final int DEFAULT_ID_GENERATION_ATTEMPTS = 100_000;
+	public static final long DEFAULT_ID_POOL_MAX_AGE = 3_600_000L; // 1 hour
 
 	@JsonProperty(value = "strategy", required = false)
 	private IdGenerationStrategy strategy = IdGenerationStrategy.EMBEDDED;
@@ -67,6 +68,22 @@ public class SnomedIdentifierConfiguration {
 	@Max(50000)
 	private int requestBulkLimit = 10_000;
 	
+	// number of identifiers below which a namespace and category specific identifier pool is refilled
+	@Min(0)
+	@JsonProperty(required = false)
+	private int idPoolLowWatermark = 0;
+	
+	// number of identifiers to keep reserved in each identifier pool, zero disables pooling
+	@Min(0)
+	@Max(50000)
+	@JsonProperty(required = false)
+	private int idPoolHighWatermark = 0;
+	
+	// maximum time in milliseconds an identifier is kept in the pool before it is released instead of being used
+	@Min(1)
+	@JsonProperty(required = false)
+	private long idPoolMaxAge = DEFAULT_ID_POOL_MAX_AGE;
+	
 	public IdGenerationStrategy getStrategy() {
 		return strategy;
 	}
@@ -162,4 +179,35 @@ public class SnomedIdentifierConfiguration {
 	public void setRequestBulkLimit(int requestBulkLimit) {
 		this.requestBulkLimit = requestBulkLimit;
 	}
+	
+	public int getIdPoolLowWatermark() {
+		return idPoolLowWatermark;
+	}
+	
+	public void setIdPoolLowWatermark(int idPoolLowWatermark) {
+		this.idPoolLowWatermark = idPoolLowWatermark;
+	}
+	
+	public int getIdPoolHighWatermark() {
+		return idPoolHighWatermark;
+	}
+	
+	public void setIdPoolHighWatermark(int idPoolHighWatermark) {
+		this.idPoolHighWatermark = idPoolHighWatermark;
+	}
+	
+	public long getIdPoolMaxAge() {
+		return idPoolMaxAge;
+	}
+	
+	public void setIdPoolMaxAge(long idPoolMaxAge) {
+		this.idPoolMaxAge = idPoolMaxAge;
+	}
+	
+	/**
+	 * @return <code>true</code> if identifiers should be reserved ahead of time, see {@link SnomedIdentifierPool}
+	 */
+	public boolean isIdPoolEnabled() {
+		return idPoolHighWatermark > 0;
+	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2021 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -136,6 +136,11 @@ public final class SnomedIdentifierPlugin extends Plugin {
 		}
 
 		env.services().registerService(ISnomedIdentifierService.class, identifierService);
+		
+		if (conf.isIdPoolEnabled()) {
+			env.services().registerService(SnomedIdentifierPool.class, new SnomedIdentifierPool(identifierService, conf));
+			LOGGER.info("Keeping {}-{} SNOMED CT identifiers reserved ahead of time per namespace and component category.", conf.getIdPoolLowWatermark(), conf.getIdPoolHighWatermark());
+		}
 		LOGGER.info("Snow Owl is configured to use {} based identifier service.", conf.getStrategy());
 	}
 
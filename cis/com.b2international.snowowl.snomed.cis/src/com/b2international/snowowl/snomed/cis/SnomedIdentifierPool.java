@@ -0,0 +1,232 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.cis;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.b2international.snowowl.core.IDisposableService;
+import com.b2international.snowowl.core.terminology.ComponentCategory;
+import com.b2international.snowowl.snomed.cis.domain.SctId;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Keeps a number of SNOMED CT identifiers reserved ahead of time for each namespace and component category, so that identifier reservations
+ * for new components can be served from memory instead of a round trip to the {@link ISnomedIdentifierService}.
+ * <p>
+ * Pools are created on first use and refilled in the background up to the high watermark whenever their size drops below the low
+ * watermark. Requests that can not be served from the pool entirely reserve the missing identifiers directly. Identifiers that have been
+ * kept in the pool for longer than the configured maximum age are released instead of being handed out, as external identifier services
+ * let reservations expire after a while. All remaining identifiers are released when the pool is disposed.
+ *
+ * @since 9.3
+ */
+public final class SnomedIdentifierPool implements IDisposableService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger("snomedids");
+
+	private static final Set<ComponentCategory> POOLED_CATEGORIES = EnumSet.of(ComponentCategory.CONCEPT, ComponentCategory.DESCRIPTION, ComponentCategory.RELATIONSHIP);
+
+	private record Key(String namespace, ComponentCategory category) {
+	}
+
+	private record PooledId(SctId sctId, long reservedAt) {
+	}
+
+	private static final class Pool {
+		private final Deque<PooledId> ids = new ArrayDeque<>();
+		private final AtomicBoolean refilling = new AtomicBoolean();
+	}
+
+	private final ISnomedIdentifierService identifiers;
+	private final int lowWatermark;
+	private final int highWatermark;
+	private final long maxAge;
+
+	private final ConcurrentMap<Key, Pool> pools = new ConcurrentHashMap<>();
+	private final ExecutorService refiller;
+	private volatile boolean disposed;
+
+	public SnomedIdentifierPool(ISnomedIdentifierService identifiers, SnomedIdentifierConfiguration config) {
+		this(identifiers, config.getIdPoolLowWatermark(), config.getIdPoolHighWatermark(), config.getIdPoolMaxAge());
+	}
+
+	public SnomedIdentifierPool(ISnomedIdentifierService identifiers, int lowWatermark, int highWatermark, long maxAge) {
+		checkArgument(lowWatermark >= 0 && lowWatermark <= highWatermark, "Low watermark must be between zero and the high watermark (%s), got: %s", highWatermark, lowWatermark);
+		checkArgument(maxAge > 0, "Maximum age of pooled identifiers must be positive, got: %s", maxAge);
+		this.identifiers = identifiers;
+		this.lowWatermark = lowWatermark;
+		this.highWatermark = highWatermark;
+		this.maxAge = maxAge;
+		this.refiller = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+				.setNameFormat("sctid-pool-refill-%d")
+				.setDaemon(true)
+				.build());
+	}
+
+	/**
+	 * Reserves the given number of SNOMED CT identifiers, taking them from the pool of the namespace and category when possible.
+	 *
+	 * @param namespace - the extension namespace of the identifiers, <code>null</code> for the international namespace
+	 * @param category - the component category of the identifiers
+	 * @param quantity - the number of identifiers to reserve
+	 * @return the reserved {@link SctId}s (in Reserved state) keyed by their identifier
+	 * @see ISnomedIdentifierService#reserveSctIds(String, ComponentCategory, int)
+	 */
+	public Map<String, SctId> reserve(String namespace, ComponentCategory category, int quantity) {
+		if (disposed || !POOLED_CATEGORIES.contains(category)) {
+			return identifiers.reserveSctIds(namespace, category, quantity);
+		}
+
+		final Key key = new Key(namespace, category);
+		final Pool pool = pools.computeIfAbsent(key, unused -> new Pool());
+
+		final Map<String, SctId> reserved = new LinkedHashMap<>(quantity);
+		final Set<String> expiredIds = new HashSet<>();
+		final long now = System.currentTimeMillis();
+
+		synchronized (pool) {
+			while (reserved.size() < quantity && !pool.ids.isEmpty()) {
+				final PooledId next = pool.ids.poll();
+				if (now - next.reservedAt() > maxAge) {
+					expiredIds.add(next.sctId().getSctid());
+				} else {
+					reserved.put(next.sctId().getSctid(), next.sctId());
+				}
+			}
+		}
+
+		if (!expiredIds.isEmpty()) {
+			try {
+				refiller.execute(() -> release(expiredIds));
+			} catch (RejectedExecutionException e) {
+				release(expiredIds);
+			}
+		}
+
+		if (reserved.size() < quantity) {
+			reserved.putAll(identifiers.reserveSctIds(namespace, category, quantity - reserved.size()));
+		}
+
+		refillIfNeeded(key, pool);
+		return reserved;
+	}
+
+	/**
+	 * @return the number of identifiers currently available in the pool of the given namespace and category
+	 */
+	public int size(String namespace, ComponentCategory category) {
+		final Pool pool = pools.get(new Key(namespace, category));
+		if (pool == null) {
+			return 0;
+		}
+		synchronized (pool) {
+			return pool.ids.size();
+		}
+	}
+
+	private void refillIfNeeded(Key key, Pool pool) {
+		final int size;
+		synchronized (pool) {
+			size = pool.ids.size();
+		}
+
+		if (size < lowWatermark || (size == 0 && highWatermark > 0)) {
+			if (pool.refilling.compareAndSet(false, true)) {
+				try {
+					refiller.execute(() -> refill(key, pool));
+				} catch (RejectedExecutionException e) {
+					// disposed in the meantime
+					pool.refilling.set(false);
+				}
+			}
+		}
+	}
+
+	private void refill(Key key, Pool pool) {
+		try {
+			final int missing;
+			synchronized (pool) {
+				missing = highWatermark - pool.ids.size();
+			}
+
+			if (missing <= 0 || disposed) {
+				return;
+			}
+
+			final Map<String, SctId> reserved = identifiers.reserveSctIds(key.namespace(), key.category(), missing);
+			final long now = System.currentTimeMillis();
+			synchronized (pool) {
+				reserved.values().forEach(sctId -> pool.ids.add(new PooledId(sctId, now)));
+			}
+			LOGGER.debug("Reserved {} {} identifiers for the pool of namespace '{}'.", reserved.size(), key.category().getDisplayName(), key.namespace());
+		} catch (RuntimeException e) {
+			LOGGER.warn("Failed to refill {} identifier pool of namespace '{}'.", key.category().getDisplayName(), key.namespace(), e);
+		} finally {
+			pool.refilling.set(false);
+		}
+	}
+
+	private void release(Set<String> componentIds) {
+		try {
+			identifiers.release(componentIds);
+		} catch (RuntimeException e) {
+			LOGGER.warn("Failed to release {} pooled identifiers.", componentIds.size(), e);
+		}
+	}
+
+	@Override
+	public void dispose() {
+		if (disposed) {
+			return;
+		}
+
+		disposed = true;
+		refiller.shutdown();
+		try {
+			if (!refiller.awaitTermination(1L, TimeUnit.MINUTES)) {
+				refiller.shutdownNow();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		// give back all identifiers that were not used
+		final Set<String> unusedIds = new HashSet<>();
+		for (Pool pool : pools.values()) {
+			synchronized (pool) {
+				pool.ids.forEach(pooledId -> unusedIds.add(pooledId.sctId().getSctid()));
+				pool.ids.clear();
+			}
+		}
+
+		if (!unusedIds.isEmpty()) {
+			release(unusedIds);
+		}
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return disposed;
+	}
+
+}
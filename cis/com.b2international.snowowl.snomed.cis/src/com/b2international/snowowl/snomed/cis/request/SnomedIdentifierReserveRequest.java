@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2019 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,9 +15,13 @@
  */
 package com.b2international.snowowl.snomed.cis.request;
 
+import java.util.Map;
+
 import com.b2international.snowowl.core.ServiceProvider;
 import com.b2international.snowowl.core.terminology.ComponentCategory;
 import com.b2international.snowowl.snomed.cis.ISnomedIdentifierService;
+import com.b2international.snowowl.snomed.cis.SnomedIdentifierPool;
+import com.b2international.snowowl.snomed.cis.domain.SctId;
 import com.b2international.snowowl.snomed.cis.domain.SctIds;
 
 final class SnomedIdentifierReserveRequest extends AbstractSnomedIdentifierCountedRequest {
@@ -28,7 +32,11 @@ final class SnomedIdentifierReserveRequest extends AbstractSnomedIdentifierCount
 	
 	@Override
 	public SctIds execute(ServiceProvider context) {
-		return new SctIds(context.service(ISnomedIdentifierService.class).reserveSctIds(namespace(), category(), quantity()).values());
+		// serve reservations from the identifier pool, if there is one
+		final Map<String, SctId> reserved = context.optionalService(SnomedIdentifierPool.class)
+				.map(pool -> pool.reserve(namespace(), category(), quantity()))
+				.orElseGet(() -> context.service(ISnomedIdentifierService.class).reserveSctIds(namespace(), category(), quantity()));
+		return new SctIds(reserved.values());
 	}
 
 }
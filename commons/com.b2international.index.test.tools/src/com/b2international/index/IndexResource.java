@@ -38,6 +38,7 @@ import com.b2international.index.es.EsIndexClientFactory;
 import com.b2international.index.es.EsNode;
 import com.b2international.index.mapping.Mappings;
 import com.b2international.index.revision.Commit;
+import com.b2international.index.revision.CommitDetailChunk;
 import com.b2international.index.revision.DefaultRevisionIndex;
 import com.b2international.index.revision.RevisionBranch;
 import com.b2international.index.revision.TimestampProvider;
@@ -152,6 +153,7 @@ public final class IndexResource extends ExternalResource {
 				.addAll(types)
 				.add(RevisionBranch.class)
 				.add(Commit.class)
+				.add(CommitDetailChunk.class)
 				.build());
 	}
 	
@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.Test;
@@ -115,6 +116,104 @@ public class StreamTest extends BaseIndexTest {
 		assertThat(hits).hasSize(NUM_DOCS);
 	}
 	
+	@Test
+	public void searchAndReturnAllHitsWithPointInTimeStream() throws Exception {
+		indexDocs(NUM_DOCS);
+		List<Data> hits = newArrayListWithExpectedSize(NUM_DOCS);
+		List<Integer> pageSizes = new ArrayList<>();
+		
+		Stopwatch w = Stopwatch.createStarted();
+		
+		final Query<Data> query = Query.select(Data.class)
+			.where(Expressions.matchAll())
+			.limit(1000)
+			.build();
+		
+		index().read(searcher -> {
+			searcher.stream(query, page -> {
+				pageSizes.add(page.getHits().size());
+				assertThat(page.getTotal()).isEqualTo(NUM_DOCS);
+				hits.addAll(page.getHits());
+			});
+			return null;
+		});
+		System.err.println("searchAndReturnAllHitsWithPointInTimeStream took " + w);
+		assertThat(hits).hasSize(NUM_DOCS);
+		assertThat(hits).extracting(Data::getId).doesNotHaveDuplicates();
+		assertThat(pageSizes).hasSize(NUM_DOCS / 1000).containsOnly(1000);
+	}
+	
+	@Test
+	public void searchAndReturnAllPartialHitsWithPointInTimeStream() throws Exception {
+		indexDocs(NUM_DOCS + 1);
+		List<String> hits = newArrayListWithExpectedSize(NUM_DOCS + 1);
+		
+		final Query<String> query = Query.select(String.class)
+			.from(Data.class)
+			.fields("field1")
+			.where(Expressions.matchAll())
+			.limit(1000)
+			.build();
+		
+		index().read(searcher -> {
+			searcher.stream(query, page -> hits.addAll(page.getHits()));
+			return null;
+		});
+		assertThat(hits).hasSize(NUM_DOCS + 1);
+		assertThat(hits).doesNotHaveDuplicates();
+	}
+	
+	@Test
+	public void searchAsyncWithinResultWindow() throws Exception {
+		indexDocs(NUM_DOCS);
+		
+		final Query<String> query = Query.select(String.class)
+			.from(Data.class)
+			.fields("field1")
+			.where(Expressions.matchAll())
+			.limit(100)
+			.build();
+		
+		final Hits<String> hits = index().read(searcher -> searcher.searchAsync(query).join());
+		assertThat(hits.getTotal()).isEqualTo(NUM_DOCS);
+		assertThat(hits).hasSize(100);
+		assertThat(hits.getSearchAfter()).isNotNull();
+	}
+	
+	@Test
+	public void searchAsyncBeyondResultWindow() throws Exception {
+		indexDocs(20_000);
+		
+		final Query<Data> query = Query.select(Data.class)
+			.where(Expressions.matchAll())
+			.limit(Integer.MAX_VALUE)
+			.build();
+		
+		final Hits<Data> hits = index().read(searcher -> searcher.searchAsync(query).join());
+		assertThat(hits).hasSize(20_000);
+		assertThat(hits).extracting(Data::getId).doesNotHaveDuplicates();
+	}
+	
+	@Test
+	public void searchAsyncConcurrently() throws Exception {
+		indexDocs(NUM_DOCS);
+		
+		final Query<Data> first = Query.select(Data.class)
+			.where(Expressions.matchAny("field1", List.of("field10", "field11")))
+			.build();
+		final Query<Data> second = Query.select(Data.class)
+			.where(Expressions.exactMatch("field1", "field12"))
+			.build();
+		
+		final List<Hits<Data>> results = index().read(searcher -> {
+			final CompletableFuture<Hits<Data>> firstHits = searcher.searchAsync(first);
+			final CompletableFuture<Hits<Data>> secondHits = searcher.searchAsync(second);
+			return List.of(firstHits.join(), secondHits.join());
+		});
+		assertThat(results.get(0)).extracting(Data::getField1).containsOnly("field10", "field11");
+		assertThat(results.get(1)).extracting(Data::getField1).containsOnly("field12");
+	}
+	
 	private void indexDocs(int numberOfDocs) {
 		final List<Data> docsToIndex = new ArrayList<>(numberOfDocs);
 		for (int i = 0; i < numberOfDocs; i++) {
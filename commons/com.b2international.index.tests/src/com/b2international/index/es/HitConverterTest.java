@@ -0,0 +1,103 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.es;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.CompositeBytesReference;
+import org.elasticsearch.search.SearchHit;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Charsets;
+
+/**
+ * @since 9.3
+ */
+public class HitConverterTest {
+
+	private static final String SOURCE = "{"
+			+ "\"id\":\"1234567011\","
+			+ "\"released\":true,"
+			+ "\"effectiveTime\":20240131,"
+			+ "\"moduleId\":\"900000000000207008\","
+			+ "\"score\":1.5,"
+			+ "\"acceptability\":{\"900000000000509007\":\"PREFERRED\"},"
+			+ "\"memberOf\":[\"900000000000509007\",\"900000000000508004\"],"
+			+ "\"caseSignificanceId\":null,"
+			+ "\"term\":\"Clinical finding\""
+			+ "}";
+
+	private static final List<String> FIELDS = List.of("term", "id", "effectiveTime", "released", "score", "memberOf", "acceptability", "caseSignificanceId", "missing", "id");
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	public void sourceAsStringArray() throws Exception {
+		final HitConverter<String[]> converter = HitConverter.getConverter(mapper, String[].class, List.of(Object.class), true, FIELDS);
+		assertArrayEquals(convertSourceAsMap(hit(SOURCE)), converter.convert(hit(SOURCE)));
+		assertArrayEquals(convertSourceAsMap(hit(SOURCE)), converter.convert(compositeHit(SOURCE)));
+	}
+
+	@Test
+	public void sourceAsMap() throws Exception {
+		@SuppressWarnings("rawtypes") final HitConverter<Map> converter = HitConverter.getConverter(mapper, Map.class, List.of(Object.class), true, List.of());
+		assertEquals(hit(SOURCE).getSourceAsMap(), converter.convert(hit(SOURCE)));
+	}
+
+	@Test
+	public void sourceAsJsonNode() throws Exception {
+		final HitConverter<JsonNode> converter = HitConverter.getConverter(mapper, JsonNode.class, List.of(Object.class), true, List.of());
+		assertEquals(mapper.readTree(SOURCE), converter.convert(compositeHit(SOURCE)));
+	}
+
+	@Test
+	public void cachedConverters() throws Exception {
+		final HitConverterCache cache = new HitConverterCache(mapper);
+		final HitConverter<String[]> converter = cache.getConverter(String[].class, List.of(Object.class), true, List.of("id", "term"));
+		assertSame(converter, cache.getConverter(String[].class, List.of(Object.class), true, Arrays.asList("id", "term")));
+		assertArrayEquals(new String[] { "1234567011", "Clinical finding" }, converter.convert(hit(SOURCE)));
+	}
+
+	private static String[] convertSourceAsMap(SearchHit hit) {
+		final Map<String, Object> source = hit.getSourceAsMap();
+		return FIELDS.stream()
+				.map(source::get)
+				.map(value -> value != null ? String.valueOf(value) : null)
+				.toArray(String[]::new);
+	}
+
+	private static SearchHit hit(String source) {
+		return new SearchHit(0, "id", null, Map.of(), Map.of()).sourceRef(new BytesArray(source));
+	}
+
+	private static SearchHit compositeHit(String source) {
+		final byte[] bytes = source.getBytes(Charsets.UTF_8);
+		final int split = bytes.length / 2;
+		final BytesReference sourceRef = CompositeBytesReference.of(new BytesArray(bytes, 0, split), new BytesArray(bytes, split, bytes.length - split));
+		return new SearchHit(0, "id", null, Map.of(), Map.of()).sourceRef(sourceRef);
+	}
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.revision;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Base64;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import com.google.common.base.Strings;
+
+/**
+ * @since 9.3
+ */
+public class CommitDetailsTest {
+
+	private static final String CONCEPT = "concept";
+	private static final String DESCRIPTION = "description";
+
+	@Test
+	public void encodeDecode() throws Exception {
+		final List<CommitDetail> details = List.of(
+			CommitDetail.added(CONCEPT, CONCEPT).putObjects(ObjectId.ROOT, Set.of("138875005", "404684003")).build(),
+			CommitDetail.added(CONCEPT, DESCRIPTION).putObjects("404684003", Set.of("1234567011", "0123", "a0d1e5b2-uuid")).build(),
+			CommitDetail.changedProperty("term", "Clinical finding", Strings.repeat("x", 70_000), DESCRIPTION, List.of("1234567011")),
+			CommitDetail.changedProperty("active", null, "true", CONCEPT, List.of("138875005", "404684003")),
+			CommitDetail.removed(CONCEPT, DESCRIPTION).putObjects("138875005", Set.of()).build()
+		);
+
+		assertThat(CommitDetailCodec.decode(CommitDetailCodec.encode(details))).isEqualTo(details);
+	}
+
+	@Test
+	public void smallCommitIsNotSplit() throws Exception {
+		final List<CommitDetail> details = List.of(CommitDetail.added(CONCEPT, CONCEPT).putObjects(ObjectId.ROOT, ids(0, 10)).build());
+
+		final List<CommitDetailChunk> chunks = CommitDetails.toChunks("commit", details, 10);
+		assertThat(chunks).hasSize(1);
+		assertThat(decode(chunks)).isEqualTo(details);
+	}
+
+	@Test
+	public void splitLargeComponentSets() throws Exception {
+		final List<CommitDetail> details = List.of(
+			CommitDetail.added(CONCEPT, CONCEPT).putObjects(ObjectId.ROOT, ids(0, 25)).build(),
+			CommitDetail.changed(CONCEPT, DESCRIPTION).putObjects("1", ids(100, 3)).putObjects("2", ids(200, 3)).build(),
+			CommitDetail.changedProperty("active", "true", "false", CONCEPT, List.copyOf(ids(300, 12)))
+		);
+
+		final List<CommitDetailChunk> chunks = CommitDetails.toChunks("commit", details, 10);
+
+		assertThat(chunks).extracting(CommitDetailChunk::getChunk).containsExactly(0, 1, 2, 3, 4, 5);
+		assertThat(chunks).extracting(CommitDetailChunk::getCommitId).containsOnly("commit");
+		assertThat(chunks).allSatisfy(chunk -> assertThat(CommitDetails.size(decode(List.of(chunk)))).isLessThanOrEqualTo(10));
+
+		// all changes are preserved in their original order
+		final List<CommitDetail> decoded = decode(chunks);
+		assertThat(CommitDetails.size(decoded)).isEqualTo(CommitDetails.size(details));
+		assertThat(decoded.stream().filter(detail -> !detail.isPropertyChange()).flatMap(detail -> detail.getComponents().stream()).flatMap(Set::stream))
+			.containsExactlyElementsOf(IntStream.concat(IntStream.range(0, 25), IntStream.concat(IntStream.range(100, 103), IntStream.range(200, 203)))
+				.mapToObj(Integer::toString)
+				.collect(Collectors.toList()));
+
+		// affected objects are indexed with each chunk
+		assertThat(chunks.get(0).getObjects()).contains(ObjectId.ROOT, "0", "9");
+		assertThat(chunks.get(3).getObjects()).containsExactly("1", "100", "101", "102", "2", "200", "201", "202");
+	}
+
+	private static Set<String> ids(int from, int count) {
+		return IntStream.range(from, from + count)
+				.mapToObj(Integer::toString)
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+	}
+
+	private static List<CommitDetail> decode(List<CommitDetailChunk> chunks) {
+		return chunks.stream()
+				.flatMap(chunk -> CommitDetailCodec.decode(Base64.getDecoder().decode(chunk.getData())).stream())
+				.collect(Collectors.toList());
+	}
+
+}
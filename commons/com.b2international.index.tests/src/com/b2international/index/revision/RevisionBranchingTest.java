@@ -284,6 +284,29 @@ public class RevisionBranchingTest extends BaseRevisionIndexTest {
 		assertEquals(ImmutableMap.<String, Object>of("test", 1), branch.metadata());
 	}
 	
+	@Test
+	public void cachedBranchRefShouldBeReusedUntilNextCommit() throws Exception {
+		final String branchA = createBranch(MAIN, "a");
+		final RevisionBranchRef refBeforeCommit = branching().getBranchRef(branchA);
+		assertThat(branching().getBranchRef(branchA)).isSameAs(refBeforeCommit);
+		
+		final Commit commit = indexRevision(branchA, rev1);
+		
+		assertThat(getBranch(branchA).getHeadTimestamp()).isEqualTo(commit.getTimestamp());
+		assertThat(branching().getBranchRef(branchA)).isNotSameAs(refBeforeCommit);
+		assertNotNull(getRevision(branchA, RevisionData.class, rev1.getId()));
+	}
+	
+	@Test
+	public void cachedBranchShouldBeEvictedOnDelete() throws Exception {
+		final String branchA = createBranch(MAIN, "a");
+		assertThat(getBranch(branchA).isDeleted()).isFalse();
+		
+		branching().delete(branchA);
+		
+		assertThat(getBranch(branchA).isDeleted()).isTrue();
+	}
+	
 	private ObjectAssert<RevisionBranch> assertBranchCreate(String branchName) {
 		final String branchPath = branching().createBranch(MAIN, branchName, null, false);
 		return assertThat(branching().getBranch(branchPath));
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.revision;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSortedSet;
+
+/**
+ * @since 9.3
+ */
+public class RevisionCompareCacheTest {
+
+	private static final long MAIN = 1L;
+	private static final long TASK = 2L;
+
+	@Test
+	public void extendLastSegment() throws Exception {
+		final RevisionCompareCache.Entry entry = entry(ref(new RevisionSegment(MAIN, 10L, 20L), new RevisionSegment(TASK, 30L, 40L)));
+
+		final RevisionBranchRef extension = entry.extension(ref(new RevisionSegment(MAIN, 10L, 20L), new RevisionSegment(TASK, 30L, 50L)));
+
+		assertThat(extension.branchId()).isEqualTo(TASK);
+		assertThat(extension.segments()).containsExactly(new RevisionSegment(TASK, 41L, 50L));
+	}
+
+	@Test
+	public void noExtensionWhenCommitsWouldBeAppliedOutOfOrder() throws Exception {
+		// the grown segment is not the most recent one, the new commits happened before commits of another segment that were already applied
+		final RevisionCompareCache.Entry entry = entry(ref(new RevisionSegment(MAIN, 10L, 20L), new RevisionSegment(TASK, 5L, 40L)));
+
+		assertThat(entry.extension(ref(new RevisionSegment(MAIN, 10L, 30L), new RevisionSegment(TASK, 5L, 40L)))).isNull();
+	}
+
+	@Test
+	public void noExtensionWhenSegmentsChanged() throws Exception {
+		final RevisionCompareCache.Entry entry = entry(ref(new RevisionSegment(MAIN, 10L, 20L), new RevisionSegment(TASK, 30L, 40L)));
+
+		// moved start (eg. after a rebase)
+		assertThat(entry.extension(ref(new RevisionSegment(MAIN, 10L, 25L), new RevisionSegment(TASK, 35L, 50L)))).isNull();
+		// segment added
+		assertThat(entry.extension(ref(new RevisionSegment(MAIN, 10L, 20L), new RevisionSegment(TASK, 30L, 40L), new RevisionSegment(3L, 45L, 50L)))).isNull();
+		// shrinking segment
+		assertThat(entry.extension(ref(new RevisionSegment(MAIN, 10L, 20L), new RevisionSegment(TASK, 30L, 35L)))).isNull();
+		// no change
+		assertThat(entry.extension(ref(new RevisionSegment(MAIN, 10L, 20L), new RevisionSegment(TASK, 30L, 40L)))).isNull();
+	}
+
+	private static RevisionCompareCache.Entry entry(RevisionBranchRef compare) {
+		return new RevisionCompareCache.Entry(compare, RevisionCompare.builder(ref(), compare, RevisionCompareOptions.DEFAULT));
+	}
+
+	private static RevisionBranchRef ref(RevisionSegment...segments) {
+		return new RevisionBranchRef(TASK, "MAIN/task", ImmutableSortedSet.copyOf(segments), false);
+	}
+
+}
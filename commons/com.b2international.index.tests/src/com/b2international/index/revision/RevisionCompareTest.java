@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -49,6 +49,18 @@ public class RevisionCompareTest extends BaseRevisionIndexTest {
 		assertThat(compare.getDetails()).isEmpty();
 	}
 	
+	@Test
+	public void compareBranchWithSelfAtTimestamp() throws Exception {
+		final Commit commit = indexRevision(MAIN, new RevisionData(STORAGE_KEY1, "field1", "field2"));
+		assertThat(index().compare(RevisionIndex.toBranchAtPath(MAIN, commit.getTimestamp()), MAIN).getDetails()).isEmpty();
+		
+		indexRevision(MAIN, new RevisionData(STORAGE_KEY2, "field1", "field2"));
+		final RevisionCompare compare = index().compare(RevisionIndex.toBranchAtPath(MAIN, commit.getTimestamp()), MAIN);
+		assertThat(compare.getDetails()).containsOnly(
+			RevisionCompareDetail.componentChange(Operation.ADD, ROOT, ObjectId.of(DOC_TYPE, STORAGE_KEY2))
+		);
+	}
+	
 	@Test
 	public void compareBranchWithoutChangesReturnsEmptyCompare() throws Exception {
 		final String branch = createBranch(MAIN, "a");
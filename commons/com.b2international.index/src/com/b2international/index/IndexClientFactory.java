@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -78,6 +78,11 @@ public interface IndexClientFactory {
 	 */
 	String INDEX_BY_QUERY_CONCURRENCY_LEVEL = "indexByQueryConcurrencyLevel";
 	
+	/**
+	 * Configuration key to specify the number of threads converting the responses of asynchronous searches.
+	 */
+	String SEARCH_CONCURRENCY_LEVEL = "searchConcurrencyLevel";
+	
 	/**
 	 * Configuration key to specify the name of the embedded or TCP based Elasticsearch cluster to connect to.
 	 */
@@ -198,6 +203,12 @@ public interface IndexClientFactory {
 	 */
 	int DEFAULT_INDEX_BY_QUERY_CONCURRENCY_LEVEL = 4;
 	
+	/**
+	 * The default number of threads converting the responses of asynchronous searches depends on the number of cores you have <code>max(1, cores / 2)</code>.
+	 * Elasticsearch module only configuration key.
+	 */
+	int DEFAULT_SEARCH_CONCURRENCY_LEVEL = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+	
 	/**
 	 * The default index prefix is empty
 	 */
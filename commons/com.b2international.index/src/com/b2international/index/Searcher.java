@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 package com.b2international.index;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import com.b2international.commons.metric.Metrics;
@@ -41,6 +43,24 @@ public interface Searcher {
 	 */
 	<T> Hits<T> search(Query<T> query) throws IOException;
 	
+	/**
+	 * Execute the given query among all stored items without blocking the calling thread while the matches are being retrieved. Independent
+	 * queries can be issued this way concurrently, without occupying a thread for each of them while waiting for the results.
+	 * <p>
+	 * The default implementation executes the query synchronously and returns an already completed future.
+	 * 
+	 * @param query
+	 *            - the query to execute
+	 * @return - a future that completes with the matching values, or completes exceptionally if the query fails
+	 */
+	default <T> CompletableFuture<Hits<T>> searchAsync(Query<T> query) {
+		try {
+			return CompletableFuture.completedFuture(search(query));
+		} catch (IOException | RuntimeException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+	
 	/**
 	 * Execute an aggregation among all stored documents.
 	 * 
@@ -97,6 +117,22 @@ public interface Searcher {
 		return Streams.stream(new SearchAfterIterator<T>(this, query)); 
 	}
 	
+	/**
+	 * Computes all matches of the given query and hands them over to the given consumer one page at a time, where the page size is defined by the
+	 * query limit. Unlike {@link #stream(Query)}, implementations are allowed to read the matches from a consistent point-in-time view of the
+	 * index and to prefetch the next page while the current one is being processed by the consumer, so the memory required for scanning large
+	 * result sets depends only on the page size, not on the total number of hits.
+	 * <p>
+	 * Pages handed over to the consumer do not carry a {@link Hits#getSearchAfter() searchAfter} token.
+	 * 
+	 * @param query - the query to execute, its limit defines the size of a page
+	 * @param consumer - the consumer to receive the converted pages in sort order
+	 * @throws IOException - if something goes wrong during the execution of the query
+	 */
+	default <T> void stream(Query<T> query, Consumer<? super Hits<T>> consumer) throws IOException {
+		stream(query).forEachOrdered(consumer);
+	}
+	
 	/**
 	 * Optionally injectable {@link Metrics} to measure query performance.
 	 * 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2017-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,7 +24,10 @@ import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.apache.lucene.search.TotalHits;
@@ -33,8 +36,11 @@ import org.apache.solr.common.util.JavaBinCodec;
 import org.elasticsearch.ElasticsearchStatusException;
 import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.search.ClosePointInTimeRequest;
+import org.elasticsearch.action.search.OpenPointInTimeRequest;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.rest.RestStatus;
 import org.elasticsearch.search.SearchHit;
@@ -47,6 +53,7 @@ import org.elasticsearch.search.aggregations.bucket.terms.Terms;
 import org.elasticsearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
 import org.elasticsearch.search.aggregations.metrics.TopHits;
 import org.elasticsearch.search.aggregations.metrics.TopHitsAggregationBuilder;
+import org.elasticsearch.search.builder.PointInTimeBuilder;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.search.fetch.subphase.FetchSourceContext;
 import org.elasticsearch.search.sort.SortBuilders;
@@ -92,6 +99,12 @@ public class EsDocumentSearcher implements Searcher {
 
 	private static final List<String> STORED_FIELDS_ID_ONLY = List.of("_id");
 	private static final List<String> STORED_FIELDS_NONE = List.of("_none_");
+	
+	/*
+	 * Point-in-time views opened for streaming need to stay alive only until the next page is requested, but consumers might need some time to
+	 * process a page, so allow a few minutes between subsequent requests.
+	 */
+	private static final TimeValue POINT_IN_TIME_KEEP_ALIVE = TimeValue.timeValueMinutes(5);
 
 	private final EsIndexAdmin admin;
 	private final IndexMapping indexMapping;
@@ -154,21 +167,282 @@ public class EsDocumentSearcher implements Searcher {
 		final List<DocumentMapping> mappings = this.indexMapping.getDocumentMapping(query);
 		final DocumentMapping primaryMapping = Iterables.getFirst(mappings, null);
 		
-		// Restrict variables to the theoretical maximum
 		final int limit = query.getLimit();
-		final int toRead = Ints.min(limit, resultWindow);
+		final boolean isLocalStreaming = limit > resultWindow;
 		
-		// TODO support multiple document mappings during query building
-		final EsQueryBuilder esQueryBuilder = new EsQueryBuilder(primaryMapping, admin.settings(), admin.log());
-		final QueryBuilder esQuery = esQueryBuilder.build(query.getWhere());
+		final String[] indicesToQuery = this.indexMapping.getTypeIndexes(mappings).toArray(String[]::new);
+		final SearchRequest req = new SearchRequest(indicesToQuery);
+		final SearchSourceBuilder reqSource = req.source();
+		final boolean fetchSource = configureSearchRequest(query, primaryMapping, req);
+		
+		// perform search
+		SearchResponse response = executeSearch(client, req); 
+
+		SearchHits responseHits = response.getHits();
+
+		final TotalHits total = responseHits.getTotalHits();
+		checkState(total.relation == Relation.EQUAL_TO, "Searches should always track total hits accurately");
+		final int totalHitCount = (int) total.value;
+		
+		final SearchHit[] firstHits = responseHits.getHits();
+		final int firstCount = firstHits.length;
+		int remainingCount = Math.min(limit, totalHitCount) - firstCount;
+		
+		final Class<T> select = query.getSelection().getSelect();
+		final List<Class<?>> from = query.getSelection().getFrom();
+		final HitConverter<T> hitConverter = admin.hitConverters().getConverter(select, from, fetchSource, query.getFields());
+		
+		// Convert the first set of results, raw hits are not retained after conversion
+		final ImmutableList.Builder<T> allValues = ImmutableList.builder();
+		Object[] searchAfterSortValues = convertHits(hitConverter, Arrays.asList(firstHits), allValues);
+		
+		// If the client requested all data at once and there are more hits to retrieve, collect them all as part of the request 
+		if (isLocalStreaming && firstCount > 0 && remainingCount > 0) {
+
+			admin.log().warn("Requesting a result set of size '{}' larger than the currently configured result_window '{}'"
+				+" (for a total hit count of '{}') might not be the most efficient way of getting the data. Consider using"
+				+" the index pagination API (searchAfter) or the streaming API (stream).", 
+				limit, resultWindow, totalHitCount);
+			
+			// total hit count is already known, no need to track it for subsequent pages
+			reqSource.trackTotalHits(false);
+			
+			while (remainingCount > 0 && searchAfterSortValues != null) {
+				// Use searchAfter values of the last hit for the next set of results
+				reqSource.searchAfter(searchAfterSortValues);
+				
+				// Read at most "resultWindow" sized blocks
+				final int toReadBatch = Math.min(remainingCount, resultWindow);
+				reqSource.size(toReadBatch);
+				
+				// Request more search results, converting them right away
+				response = executeSearch(client, req);
+				final SearchHit[] nextHits = response.getHits().getHits();
+				if (nextHits.length == 0) {
+					break;
+				}
+				searchAfterSortValues = convertHits(hitConverter, Arrays.asList(nextHits), allValues);
+
+				// Update the number of requested documents remaining
+				remainingCount -= nextHits.length;
+			}
+		}
+
+		final Hits<T> hits = new Hits<T>(allValues.build(), toSearchAfterToken(searchAfterSortValues), limit, totalHitCount);
+		metrics.withLongMetric(String.format("%s.search_response_time", Arrays.toString(indicesToQuery)), w.elapsed(TimeUnit.MILLISECONDS));
+		metrics.withIntegerMetric(String.format("%s.search_call_count", Arrays.toString(indicesToQuery)), 1);
+		admin.log().trace("Executed query '{}' in '{}'", query, w);
+		return hits;
+	}
+	
+	@Override
+	public <T> CompletableFuture<Hits<T>> searchAsync(Query<T> query) {
+		final Stopwatch w = Stopwatch.createStarted();
+		admin.log().trace("Executing query '{}' asynchronously", query);
+		
+		final EsClient client = admin.client();
+		final List<DocumentMapping> mappings = this.indexMapping.getDocumentMapping(query);
+		final DocumentMapping primaryMapping = Iterables.getFirst(mappings, null);
+		
+		final int limit = query.getLimit();
+		final boolean isLocalStreaming = limit > resultWindow;
 		
 		final String[] indicesToQuery = this.indexMapping.getTypeIndexes(mappings).toArray(String[]::new);
 		final SearchRequest req = new SearchRequest(indicesToQuery);
+		final SearchSourceBuilder reqSource = req.source();
+		final boolean fetchSource = configureSearchRequest(query, primaryMapping, req);
+		
+		final Class<T> select = query.getSelection().getSelect();
+		final List<Class<?>> from = query.getSelection().getFrom();
+		final HitConverter<T> hitConverter = admin.hitConverters().getConverter(select, from, fetchSource, query.getFields());
+		final ImmutableList.Builder<T> allValues = ImmutableList.builder();
+		
+		// hits are converted on a separate thread, the threads of the client should only be used for receiving responses
+		return executeSearchAsync(client, req).thenComposeAsync(response -> {
+			final TotalHits total = response.getHits().getTotalHits();
+			checkState(total.relation == Relation.EQUAL_TO, "Searches should always track total hits accurately");
+			final int totalHitCount = (int) total.value;
+			
+			final SearchHit[] firstHits = response.getHits().getHits();
+			final int remainingCount = Math.min(limit, totalHitCount) - firstHits.length;
+			final Object[] searchAfterSortValues = convertHitsAsync(hitConverter, firstHits, allValues);
+			
+			final CompletableFuture<Object[]> lastSortValues;
+			if (isLocalStreaming && firstHits.length > 0 && remainingCount > 0) {
+				// total hit count is already known, no need to track it for subsequent pages
+				reqSource.trackTotalHits(false);
+				lastSortValues = collectRemainingAsync(client, req, hitConverter, allValues, searchAfterSortValues, remainingCount);
+			} else {
+				lastSortValues = CompletableFuture.completedFuture(searchAfterSortValues);
+			}
+			
+			return lastSortValues.thenApply(sortValues -> {
+				final Hits<T> hits = new Hits<T>(allValues.build(), toSearchAfterToken(sortValues), limit, totalHitCount);
+				metrics.withLongMetric(String.format("%s.search_response_time", Arrays.toString(indicesToQuery)), w.elapsed(TimeUnit.MILLISECONDS));
+				metrics.withIntegerMetric(String.format("%s.search_call_count", Arrays.toString(indicesToQuery)), 1);
+				admin.log().trace("Executed query '{}' asynchronously in '{}'", query, w);
+				return hits;
+			});
+		}, admin.searchExecutor());
+	}
+	
+	/*
+	 * Requests the remaining pages of a result set larger than the result window one after the other, without waiting for the responses on the
+	 * calling thread. Completes with the sort values of the last hit converted.
+	 */
+	private <T> CompletableFuture<Object[]> collectRemainingAsync(
+			final EsClient client, 
+			final SearchRequest req, 
+			final HitConverter<T> hitConverter, 
+			final ImmutableList.Builder<T> allValues, 
+			final Object[] searchAfterSortValues, 
+			final int remainingCount) {
+		
+		if (remainingCount <= 0 || searchAfterSortValues == null) {
+			return CompletableFuture.completedFuture(searchAfterSortValues);
+		}
+		
+		// Use searchAfter values of the last hit for the next set of results, read at most "resultWindow" sized blocks
+		req.source().searchAfter(searchAfterSortValues);
+		req.source().size(Math.min(remainingCount, resultWindow));
+		
+		return executeSearchAsync(client, req).thenComposeAsync(response -> {
+			final SearchHit[] nextHits = response.getHits().getHits();
+			if (nextHits.length == 0) {
+				return CompletableFuture.completedFuture(searchAfterSortValues);
+			}
+			final Object[] nextSortValues = convertHitsAsync(hitConverter, nextHits, allValues);
+			return collectRemainingAsync(client, req, hitConverter, allValues, nextSortValues, remainingCount - nextHits.length);
+		}, admin.searchExecutor());
+	}
+	
+	private <T> Object[] convertHitsAsync(final HitConverter<T> hitConverter, final SearchHit[] hits, final ImmutableList.Builder<T> result) {
+		try {
+			return convertHits(hitConverter, Arrays.asList(hits), result);
+		} catch (IOException e) {
+			throw new IndexException("Couldn't convert search hits: " + e.getMessage(), e);
+		}
+	}
+	
+	@Override
+	public <T> void stream(Query<T> query, Consumer<? super Hits<T>> consumer) throws IOException {
+		Stopwatch w = Stopwatch.createStarted();
+		admin.log().trace("Streaming query '{}'", query);
+		
+		final EsClient client = admin.client();
+		final List<DocumentMapping> mappings = this.indexMapping.getDocumentMapping(query);
+		final DocumentMapping primaryMapping = Iterables.getFirst(mappings, null);
+		
+		// each page is limited by the result window 
+		final int pageSize = Ints.min(query.getLimit(), resultWindow);
+		checkArgument(pageSize > 0, "Page size must be greater than zero when streaming query results, got: %s", query.getLimit());
+		
+		final String[] indicesToQuery = this.indexMapping.getTypeIndexes(mappings).toArray(String[]::new);
+		
+		// point-in-time searches must not specify the indices, they are part of the point-in-time
+		final SearchRequest req = new SearchRequest();
+		req.requestCache(query.isCached());
+		
+		final SearchSourceBuilder reqSource = req.source();
+		final boolean fetchSource = configureSearchSource(query, primaryMapping, pageSize, reqSource);
+		if (!Strings.isNullOrEmpty(query.getSearchAfter())) {
+			reqSource.searchAfter(fromSearchAfterToken(query.getSearchAfter()));
+		}
+		
+		final Class<T> select = query.getSelection().getSelect();
+		final List<Class<?>> from = query.getSelection().getFrom();
+		final HitConverter<T> hitConverter = admin.hitConverters().getConverter(select, from, fetchSource, query.getFields());
+		
+		String pointInTimeId = openPointInTime(client, indicesToQuery);
+		CompletableFuture<SearchResponse> nextPage = null;
+		int pages = 0;
+		try {
+			reqSource.pointInTimeBuilder(new PointInTimeBuilder(pointInTimeId).setKeepAlive(POINT_IN_TIME_KEEP_ALIVE));
+			nextPage = executeSearchAsync(client, req);
+			
+			int totalHitCount = -1;
+			while (nextPage != null) {
+				final SearchResponse response = getPage(nextPage);
+				nextPage = null;
+				
+				if (totalHitCount == -1) {
+					totalHitCount = (int) response.getHits().getTotalHits().value;
+					// total hit count is already known, no need to track it for subsequent pages
+					reqSource.trackTotalHits(false);
+				}
+				
+				final SearchHit[] pageHits = response.getHits().getHits();
+				if (pageHits.length == 0) {
+					break;
+				}
+				
+				// the point-in-time identifier might change between search requests, always use the most recent one
+				if (!Strings.isNullOrEmpty(response.pointInTimeId())) {
+					pointInTimeId = response.pointInTimeId();
+				}
+				
+				// prefetch the next page while the current one is being converted and consumed
+				if (pageHits.length == pageSize) {
+					reqSource.searchAfter(pageHits[pageHits.length - 1].getSortValues());
+					reqSource.pointInTimeBuilder(new PointInTimeBuilder(pointInTimeId).setKeepAlive(POINT_IN_TIME_KEEP_ALIVE));
+					nextPage = executeSearchAsync(client, req);
+				}
+				
+				final ImmutableList.Builder<T> values = ImmutableList.builder();
+				convertHits(hitConverter, Arrays.asList(pageHits), values);
+				consumer.accept(new Hits<T>(values.build(), null, pageSize, totalHitCount));
+				pages++;
+			}
+		} finally {
+			if (nextPage != null) {
+				nextPage.cancel(true);
+			}
+			closePointInTime(client, pointInTimeId);
+		}
+		
+		metrics.withLongMetric(String.format("%s.stream_response_time", Arrays.toString(indicesToQuery)), w.elapsed(TimeUnit.MILLISECONDS));
+		metrics.withIntegerMetric(String.format("%s.search_call_count", Arrays.toString(indicesToQuery)), pages);
+		admin.log().trace("Streamed query '{}' in '{}' pages in '{}'", query, pages, w);
+	}
+	
+	/*
+	 * Configures a search request of a single page or, for limits larger than the result window, of the first page of a locally collected result
+	 * set. Sets caching, the first page's size, the query clause, field selection, sort and the searchAfter value of the query. Returns whether
+	 * the _source needs to be fetched for the hits or not.
+	 */
+	private <T> boolean configureSearchRequest(Query<T> query, DocumentMapping primaryMapping, SearchRequest req) {
+		// Restrict variables to the theoretical maximum
+		final int limit = query.getLimit();
+		final int toRead = Ints.min(limit, resultWindow);
 		
 		// configure caching
 		req.requestCache(query.isCached());
 		
-		final SearchSourceBuilder reqSource = req.source()
+		final SearchSourceBuilder reqSource = req.source();
+		final boolean fetchSource = configureSearchSource(query, primaryMapping, toRead, reqSource);
+		
+		// paging config
+		final boolean isLocalStreaming = limit > resultWindow;
+		final boolean isLiveStreaming = !Strings.isNullOrEmpty(query.getSearchAfter());
+		if (isLocalStreaming) {
+			checkArgument(!isLiveStreaming, "Cannot use searchAfter when requesting more items (%s) than the configured result window (%s).", limit, resultWindow);
+		} else if (isLiveStreaming) {
+			reqSource.searchAfter(fromSearchAfterToken(query.getSearchAfter()));
+		}
+		
+		return fetchSource;
+	}
+	
+	/*
+	 * Applies the query clause, size, field selection and sort configuration of the given query to the search source. Returns whether the _source
+	 * needs to be fetched for the hits or not.
+	 */
+	private <T> boolean configureSearchSource(Query<T> query, DocumentMapping primaryMapping, int toRead, SearchSourceBuilder reqSource) {
+		// TODO support multiple document mappings during query building
+		final EsQueryBuilder esQueryBuilder = new EsQueryBuilder(primaryMapping, admin.settings(), admin.log());
+		final QueryBuilder esQuery = esQueryBuilder.build(query.getWhere());
+		
+		reqSource
 			.size(toRead)
 			.query(esQuery)
 			.trackScores(esQueryBuilder.needsScoring())
@@ -192,15 +466,6 @@ public class EsDocumentSearcher implements Searcher {
 			reqSource.storedFields(STORED_FIELDS_NONE);
 		}
 		
-		// paging config
-		final boolean isLocalStreaming = limit > resultWindow;
-		final boolean isLiveStreaming = !Strings.isNullOrEmpty(query.getSearchAfter());
-		if (isLocalStreaming) {
-			checkArgument(!isLiveStreaming, "Cannot use searchAfter when requesting more items (%s) than the configured result window (%s).", limit, resultWindow);
-		} else if (isLiveStreaming) {
-			reqSource.searchAfter(fromSearchAfterToken(query.getSearchAfter()));
-		}
-		
 		// sorting config with a default sort field based on scroll config
 		addSort(primaryMapping, reqSource, query.getSortBy());
 		// disable explain explicitly, just in case
@@ -208,73 +473,72 @@ public class EsDocumentSearcher implements Searcher {
 		// disable version field explicitly, just in case
 		reqSource.version(false);
 		
-		// perform search
-		SearchResponse response = null; 
+		return fetchSource;
+	}
+	
+	private SearchResponse executeSearch(EsClient client, SearchRequest req) {
 		try {
-			response = client.search(req);
+			return client.search(req);
 		} catch (Exception e) {
-			if (e instanceof ElasticsearchStatusException && ((ElasticsearchStatusException) e).status() == RestStatus.BAD_REQUEST) {
-				throw new IllegalArgumentException(e.getMessage(), e);
-			}
-			admin.log().error("Couldn't execute search request '{}'", req, e);
-			throw new IndexException("Couldn't search request: " + e.getMessage(), null);
+			throw toIndexException(req, e);
 		}
-
-		SearchHits responseHits = response.getHits();
-
-		final TotalHits total = responseHits.getTotalHits();
-		checkState(total.relation == Relation.EQUAL_TO, "Searches should always track total hits accurately");
-		final int totalHitCount = (int) total.value;
-		
-		final SearchHit[] firstHits = responseHits.getHits();
-		final int firstCount = firstHits.length;
-		int remainingCount = Math.min(limit, totalHitCount) - firstCount;
+	}
+	
+	private CompletableFuture<SearchResponse> executeSearchAsync(EsClient client, SearchRequest req) {
+		// copy the source, so the caller can prepare the subsequent request while this one is still in flight
+		final SearchRequest reqCopy = new SearchRequest(req);
+		reqCopy.source(req.source().shallowCopy());
 		
-		// Add the first set of results
-		final ImmutableList.Builder<SearchHit> allHits = ImmutableList.builder();
-		allHits.addAll(responseHits);
+		final CompletableFuture<SearchResponse> response;
+		try {
+			response = client.searchAsync(reqCopy);
+		} catch (Exception e) {
+			return CompletableFuture.failedFuture(toIndexException(reqCopy, e));
+		}
 		
-		// If the client requested all data at once and there are more hits to retrieve, collect them all as part of the request 
-		if (isLocalStreaming && firstCount > 0 && remainingCount > 0) {
-
-			admin.log().warn("Requesting a result set of size '{}' larger than the currently configured result_window '{}'"
-				+" (for a total hit count of '{}') might not be the most efficient way of getting the data. Consider using"
-				+" the index pagination API (searchAfter).", 
-				limit, resultWindow, totalHitCount);
-			
-			while (remainingCount > 0) {
-				// Extract searchAfter values for the next set of results
-				final SearchHit lastHit = Iterables.getLast(responseHits, null);
-				if (lastHit == null) {
-					break;
-				}
-				
-				reqSource.searchAfter(lastHit.getSortValues());
-				
-				// Read at most "resultWindow" sized blocks
-				final int toReadBatch = Math.min(remainingCount, resultWindow);
-				reqSource.size(toReadBatch);
-				
-				// Request more search results, adding them to the list builder
-				response = client.search(req);
-				responseHits = response.getHits();
-				allHits.addAll(responseHits);
-
-				// Update the number of requested documents remaining
-				final SearchHit[] nextHits = responseHits.getHits();
-				final int nextCount = nextHits.length;
-				remainingCount -= nextCount;
+		return response.handle((res, error) -> {
+			if (error != null) {
+				throw toIndexException(reqCopy, error instanceof CompletionException ? error.getCause() : error);
+			}
+			return res;
+		});
+	}
+	
+	private SearchResponse getPage(CompletableFuture<SearchResponse> page) {
+		try {
+			return page.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
 			}
+			throw new IndexException("Couldn't search request: " + e.getMessage(), e.getCause());
+		}
+	}
+	
+	private RuntimeException toIndexException(SearchRequest req, Throwable e) {
+		if (e instanceof ElasticsearchStatusException && ((ElasticsearchStatusException) e).status() == RestStatus.BAD_REQUEST) {
+			return new IllegalArgumentException(e.getMessage(), e);
+		}
+		admin.log().error("Couldn't execute search request '{}'", req, e);
+		return new IndexException("Couldn't search request: " + e.getMessage(), null);
+	}
+	
+	private String openPointInTime(EsClient client, String[] indices) {
+		try {
+			return client.openPointInTime(new OpenPointInTimeRequest(indices).keepAlive(POINT_IN_TIME_KEEP_ALIVE)).getPointInTimeId();
+		} catch (Exception e) {
+			admin.log().error("Couldn't open point-in-time for indices '{}'", Arrays.toString(indices), e);
+			throw new IndexException("Couldn't open point-in-time: " + e.getMessage(), null);
+		}
+	}
+	
+	private void closePointInTime(EsClient client, String pointInTimeId) {
+		try {
+			client.closePointInTime(new ClosePointInTimeRequest(pointInTimeId));
+		} catch (Exception e) {
+			// point-in-time will be released by the cluster when its keep alive expires
+			admin.log().warn("Couldn't close point-in-time '{}'", pointInTimeId, e);
 		}
-
-		final Class<T> select = query.getSelection().getSelect();
-		final List<Class<?>> from = query.getSelection().getFrom();
-		
-		final Hits<T> hits = toHits(select, from, query.getFields(), fetchSource, limit, totalHitCount, allHits.build());
-		metrics.withLongMetric(String.format("%s.search_response_time", Arrays.toString(indicesToQuery)), w.elapsed(TimeUnit.MILLISECONDS));
-		metrics.withIntegerMetric(String.format("%s.search_call_count", Arrays.toString(indicesToQuery)), 1);
-		admin.log().trace("Executed query '{}' in '{}'", query, w);
-		return hits;
 	}
 
 	private <T> boolean applySourceFiltering(List<String> fields, final DocumentMapping mapping, final SearchSourceBuilder reqSource) {
@@ -326,9 +590,17 @@ public class EsDocumentSearcher implements Searcher {
 			final int limit, 
 			final int totalHits, 
 			final Iterable<SearchHit> hits) throws IOException {
-		final HitConverter<T> hitConverter = HitConverter.getConverter(mapper, select, from, fetchSource, fields);
-		Object[] searchAfterSortValues = null;
+		final HitConverter<T> hitConverter = admin.hitConverters().getConverter(select, from, fetchSource, fields);
 		final ImmutableList.Builder<T> result = ImmutableList.builder();
+		final Object[] searchAfterSortValues = convertHits(hitConverter, hits, result);
+		return new Hits<T>(result.build(), toSearchAfterToken(searchAfterSortValues), limit, totalHits);
+	}
+	
+	/*
+	 * Converts the given hits and adds them to the result builder. Returns the sort values of the last hit, or null if there were no hits to convert.
+	 */
+	private <T> Object[] convertHits(final HitConverter<T> hitConverter, final Iterable<SearchHit> hits, final ImmutableList.Builder<T> result) throws IOException {
+		Object[] searchAfterSortValues = null;
 		for (Iterator<SearchHit> iterator = hits.iterator(); iterator.hasNext();) {
 			SearchHit hit = iterator.next();
 			// if this was the last value then collect the sort values for searchAfter
@@ -341,7 +613,7 @@ public class EsDocumentSearcher implements Searcher {
 				searchAfterSortValues = hit.getSortValues();
 			}
 		}
-		return new Hits<T>(result.build(), toSearchAfterToken(searchAfterSortValues), limit, totalHits);
+		return searchAfterSortValues;
 	}
 	
 	private String toSearchAfterToken(final Object[] searchAfter) {
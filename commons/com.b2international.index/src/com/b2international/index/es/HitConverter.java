@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2018-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,11 +27,15 @@ import org.elasticsearch.common.document.DocumentField;
 import org.elasticsearch.search.SearchHit;
 
 import com.b2international.commons.CompareUtils;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Maps;
 import com.google.common.primitives.Ints;
 import com.google.common.primitives.Primitives;
@@ -69,15 +73,17 @@ public interface HitConverter<T> {
 	
 	final class SourceAsMapHitConverter<T> implements HitConverter<T> {
 
+		private final ObjectReader reader;
 		private final Class<T> select;
 
-		private SourceAsMapHitConverter(Class<T> select) {
+		private SourceAsMapHitConverter(ObjectMapper mapper, Class<T> select) {
+			this.reader = mapper.readerFor(Map.class);
 			this.select = select;
 		}
 		
 		@Override
-		public T convert(SearchHit hit) {
-			return select.cast(hit.getSourceAsMap());
+		public T convert(SearchHit hit) throws IOException {
+			return select.cast(readSource(reader, hit));
 		}
 		
 	}
@@ -102,28 +108,76 @@ public interface HitConverter<T> {
 		
 	}
 	
+	/*
+	 * Reads the requested top-level fields of the source with a streaming parser, skipping over all other fields and stopping as soon as each
+	 * requested field has been read.
+	 */
 	final class SourceAsStringArrayHitConverter<T> implements HitConverter<T> {
 		
+		private final ObjectReader reader;
 		private final Class<T> select;
-		private final List<String> fields;
+		private final int numberOfFields;
+		private final ListMultimap<String, Integer> fieldIndexes;
 
-		private SourceAsStringArrayHitConverter(Class<T> select, List<String> fields) {
+		private SourceAsStringArrayHitConverter(ObjectMapper mapper, Class<T> select, List<String> fields) {
+			this.reader = mapper.readerFor(Object.class);
 			this.select = select;
-			this.fields = fields;
+			this.numberOfFields = fields.size();
+			final ImmutableListMultimap.Builder<String, Integer> fieldIndexes = ImmutableListMultimap.builder();
+			for (int i = 0; i < fields.size(); i++) {
+				fieldIndexes.put(fields.get(i), i);
+			}
+			this.fieldIndexes = fieldIndexes.build();
 		}
 		
 		@Override
-		public T convert(SearchHit hit) {
-			final Map<String, Object> source = hit.getSourceAsMap();
-			final String[] val = new String[fields.size()];
-			for (int i = 0; i < fields.size(); i++) {
-				String field = fields.get(i);
-				Object value = source.get(field);
-				val[i] = (value != null) ? String.valueOf(value) : null;
+		public T convert(SearchHit hit) throws IOException {
+			final String[] val = new String[numberOfFields];
+			final BytesReference source = hit.getSourceRef();
+			if (source == null) {
+				return select.cast(val);
+			}
+			
+			try (final JsonParser parser = createSourceParser(reader, source)) {
+				checkState(parser.nextToken() == JsonToken.START_OBJECT, "Document source of '%s' is not a JSON object.", hit.getId());
+				int remainingFields = fieldIndexes.keySet().size();
+				while (remainingFields > 0 && parser.nextToken() == JsonToken.FIELD_NAME) {
+					final List<Integer> indexes = fieldIndexes.get(parser.getCurrentName());
+					final JsonToken token = parser.nextToken();
+					if (indexes.isEmpty()) {
+						parser.skipChildren();
+					} else {
+						final String value = readValueAsString(parser, token);
+						for (int i : indexes) {
+							val[i] = value;
+						}
+						remainingFields--;
+					}
+				}
 			}
+			
 			return select.cast(val);
 		}
 		
+		// matches the String representation of the values returned by SearchHit.getSourceAsMap()
+		private String readValueAsString(JsonParser parser, JsonToken token) throws IOException {
+			switch (token) {
+			case VALUE_NULL:
+				return null;
+			case VALUE_STRING:
+				return parser.getText();
+			case VALUE_NUMBER_INT:
+			case VALUE_NUMBER_FLOAT:
+				return String.valueOf(parser.getNumberValue());
+			case VALUE_TRUE:
+			case VALUE_FALSE:
+				return String.valueOf(parser.getBooleanValue());
+			default:
+				final Object value = reader.readValue(parser);
+				return (value != null) ? String.valueOf(value) : null;
+			}
+		}
+		
 	}
 	
 	final class FieldsAsStringArrayHitConverter<T> implements HitConverter<T> {
@@ -165,8 +219,7 @@ public interface HitConverter<T> {
 		
 		@Override
 		public T convert(SearchHit hit) throws IOException {
-			final byte[] bytes = BytesReference.toBytes(hit.getSourceRef());
-			return reader.readValue(bytes, 0, bytes.length);
+			return readSource(reader, hit);
 		}
 		
 	}
@@ -190,17 +243,17 @@ public interface HitConverter<T> {
 	
 	final class SourceAsJsonNodeHitConverter<T> implements HitConverter<T> {
 		
-		private final ObjectMapper mapper;
+		private final ObjectReader reader;
 		private final Class<T> select;
 		
 		public SourceAsJsonNodeHitConverter(ObjectMapper mapper, Class<T> select) {
-			this.mapper = mapper;
+			this.reader = mapper.readerFor(JsonNode.class);
 			this.select = select;
 		}
 		
 		@Override
 		public T convert(SearchHit hit) throws IOException {
-			return select.cast(mapper.convertValue(hit.getSourceAsMap(), JsonNode.class));
+			return select.cast(readSource(reader, hit));
 		}
 		
 	}
@@ -222,13 +275,13 @@ public interface HitConverter<T> {
 			return new FieldValueHitConverter<>(select);
 		} else if (Map.class.isAssignableFrom(select)) {
 			if (fetchSource) {
-				return new SourceAsMapHitConverter<>(select);
+				return new SourceAsMapHitConverter<>(mapper, select);
 			} else {
 				return new FieldsAsMapHitConverter<>(select);
 			}
 		} else if (String[].class.isAssignableFrom(select)) {
 			if (fetchSource) {
-				return new SourceAsStringArrayHitConverter<>(select, fields);
+				return new SourceAsStringArrayHitConverter<>(mapper, select, fields);
 			} else {
 				return new FieldsAsStringArrayHitConverter<>(select, fields);
 			}
@@ -249,4 +302,25 @@ public interface HitConverter<T> {
 				: mapper.readerFor(select);
 	}
 	
+	/*
+	 * Deserializes the document source directly from the bytes of the hit, without building the intermediate Map representation first.
+	 */
+	private static <V> V readSource(ObjectReader reader, SearchHit hit) throws IOException {
+		final BytesReference source = hit.getSourceRef();
+		if (source == null) {
+			return null;
+		}
+		try (final JsonParser parser = createSourceParser(reader, source)) {
+			return reader.readValue(parser);
+		}
+	}
+	
+	private static JsonParser createSourceParser(ObjectReader reader, BytesReference source) throws IOException {
+		if (source.hasArray()) {
+			return reader.createParser(source.array(), source.arrayOffset(), source.length());
+		} else {
+			return reader.createParser(source.streamInput());
+		}
+	}
+	
 }
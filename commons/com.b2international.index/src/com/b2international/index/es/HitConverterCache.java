@@ -0,0 +1,53 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.es;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Keeps {@link HitConverter}s, along with the {@link ObjectReader}s they use, for each combination of selected type, source types and
+ * requested fields, so that searches returning the same shape of results do not need to set up their converters again.
+ *
+ * @since 9.3
+ */
+public final class HitConverterCache {
+
+	private static final long MAXIMUM_SIZE = 1_000L;
+
+	private record Key(Class<?> select, List<Class<?>> froms, boolean fetchSource, List<String> fields) {}
+
+	private final ObjectMapper mapper;
+	private final Cache<Key, HitConverter<?>> converters;
+
+	public HitConverterCache(ObjectMapper mapper) {
+		this.mapper = mapper;
+		this.converters = CacheBuilder.newBuilder()
+				.maximumSize(MAXIMUM_SIZE)
+				.build();
+	}
+
+	@SuppressWarnings("unchecked")
+	public <T> HitConverter<T> getConverter(Class<T> select, List<Class<?>> froms, boolean fetchSource, List<String> fields) {
+		final Key key = new Key(select, List.copyOf(froms), fetchSource, fields == null ? List.of() : List.copyOf(fields));
+		return (HitConverter<T>) converters.asMap().computeIfAbsent(key, k -> HitConverter.getConverter(mapper, select, k.froms(), fetchSource, k.fields()));
+	}
+
+}
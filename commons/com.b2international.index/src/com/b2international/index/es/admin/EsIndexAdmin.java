@@ -27,6 +27,10 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -67,6 +71,7 @@ import com.b2international.index.admin.IndexAdmin;
 import com.b2international.index.es.EsDocumentSearcher;
 import com.b2international.index.es.EsDocumentWriter;
 import com.b2international.index.es.HitConverter.SourceAsJsonNodeHitConverter;
+import com.b2international.index.es.HitConverterCache;
 import com.b2international.index.es.client.EsClient;
 import com.b2international.index.es.query.EsQueryBuilder;
 import com.b2international.index.es.reindex.ReindexResult;
@@ -90,6 +95,7 @@ import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.ImmutableSortedSet;
 import com.google.common.collect.Sets;
 import com.google.common.primitives.Primitives;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * @since 5.10
@@ -123,7 +129,8 @@ public final class EsIndexAdmin implements IndexAdmin {
 	private final ObjectMapper mapper;
 	private final String name;
 	private final Map<String, Object> settings;
-	
+	private final HitConverterCache hitConverters;
+	private final ExecutorService searchExecutor;
 	
 	private final Logger log;
 	private final String prefix;
@@ -141,6 +148,7 @@ public final class EsIndexAdmin implements IndexAdmin {
 		this.mapper = mapper;
 		this.name = name.toLowerCase();
 		this.settings = newHashMap(settings);
+		this.hitConverters = new HitConverterCache(mapper);
 		
 		this.log = IndexAdmin.createIndexLogger(name);
 		
@@ -154,6 +162,7 @@ public final class EsIndexAdmin implements IndexAdmin {
 		// local configuration settings for bulk writes, monitoring, etc.
 		this.settings.putIfAbsent(IndexClientFactory.COMMIT_CONCURRENCY_LEVEL, IndexClientFactory.DEFAULT_COMMIT_CONCURRENCY_LEVEL);
 		this.settings.putIfAbsent(IndexClientFactory.INDEX_BY_QUERY_CONCURRENCY_LEVEL, IndexClientFactory.DEFAULT_INDEX_BY_QUERY_CONCURRENCY_LEVEL);
+		this.settings.putIfAbsent(IndexClientFactory.SEARCH_CONCURRENCY_LEVEL, IndexClientFactory.DEFAULT_SEARCH_CONCURRENCY_LEVEL);
 		this.settings.putIfAbsent(IndexClientFactory.BULK_ACTIONS_SIZE, IndexClientFactory.DEFAULT_BULK_ACTIONS_SIZE);
 		this.settings.putIfAbsent(IndexClientFactory.BULK_ACTIONS_SIZE_IN_MB, IndexClientFactory.DEFAULT_BULK_ACTIONS_SIZE_IN_MB);
 		this.settings.putIfAbsent(IndexClientFactory.COMMIT_WATERMARK_LOW_KEY, IndexClientFactory.DEFAULT_COMMIT_WATERMARK_LOW_VALUE);
@@ -163,6 +172,20 @@ public final class EsIndexAdmin implements IndexAdmin {
 		this.prefix = prefix.isEmpty() ? "" : prefix + ".";
 		
 		this.indexMapping = new IndexMapping(mappings);
+		this.searchExecutor = createSearchExecutor((int) this.settings.get(IndexClientFactory.SEARCH_CONCURRENCY_LEVEL));
+	}
+	
+	/*
+	 * Threads are started on demand and stop after being idle for a while, as the admin has no lifecycle to shut down the pool with
+	 */
+	private ExecutorService createSearchExecutor(int numberOfThreads) {
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(numberOfThreads, numberOfThreads, 1L, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), 
+				new ThreadFactoryBuilder()
+					.setNameFormat(name + "-search-async-%d")
+					.setDaemon(true)
+					.build());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
 	}
 
 	public EsIndexAdmin withEs8Client(Es8Client es8Client) {
@@ -923,6 +946,21 @@ public final class EsIndexAdmin implements IndexAdmin {
 		return client;
 	}
 	
+	/**
+	 * @return the converters of search hits shared by all searchers of this index
+	 */
+	public HitConverterCache hitConverters() {
+		return hitConverters;
+	}
+	
+	/**
+	 * @return the bounded pool converting the responses of asynchronous searches, shared by all searchers of this index
+	 * @see IndexClientFactory#SEARCH_CONCURRENCY_LEVEL
+	 */
+	public ExecutorService searchExecutor() {
+		return searchExecutor;
+	}
+	
 	@Override
 	public Es8Client es8Client() throws UnsupportedOperationException {
 		if (es8Client == null) {
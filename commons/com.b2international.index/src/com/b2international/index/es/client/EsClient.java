@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2018-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,10 +19,15 @@ import static com.google.common.base.Preconditions.checkState;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
 
 import org.elasticsearch.action.bulk.BulkProcessor;
 import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.search.ClosePointInTimeRequest;
+import org.elasticsearch.action.search.ClosePointInTimeResponse;
+import org.elasticsearch.action.search.OpenPointInTimeRequest;
+import org.elasticsearch.action.search.OpenPointInTimeResponse;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.update.UpdateRequest;
@@ -72,6 +77,32 @@ public interface EsClient extends AutoCloseable {
 	
 	SearchResponse search(SearchRequest req) throws IOException;
 	
+	/**
+	 * Executes the given search request without blocking the calling thread while the response is being waited for.
+	 * 
+	 * @param req - the search request to execute
+	 * @return a future that completes with the search response, or completes exceptionally if the request fails
+	 */
+	CompletableFuture<SearchResponse> searchAsync(SearchRequest req);
+	
+	/**
+	 * Opens a point-in-time view of the given indices, which can be used to page through a consistent snapshot of the documents with searchAfter.
+	 * 
+	 * @param req - the request describing the indices to open the point-in-time for and its keep alive value
+	 * @return the response containing the point-in-time identifier, never <code>null</code>
+	 * @throws IOException
+	 */
+	OpenPointInTimeResponse openPointInTime(OpenPointInTimeRequest req) throws IOException;
+	
+	/**
+	 * Closes a point-in-time view previously opened with {@link #openPointInTime(OpenPointInTimeRequest)}.
+	 * 
+	 * @param req - the request referencing the point-in-time to close
+	 * @return the response of the close operation
+	 * @throws IOException
+	 */
+	ClosePointInTimeResponse closePointInTime(ClosePointInTimeRequest req) throws IOException;
+	
 	UpdateResponse update(UpdateRequest req) throws IOException;
 	
 	BulkProcessor.Builder bulk(BulkProcessor.Listener listener);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2018-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,15 +22,21 @@
 package com.b2international.index.es.client.http;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.bulk.BulkProcessor;
 import org.elasticsearch.action.bulk.BulkProcessor.Builder;
 import org.elasticsearch.action.bulk.BulkProcessor.Listener;
 import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.search.ClosePointInTimeRequest;
+import org.elasticsearch.action.search.ClosePointInTimeResponse;
+import org.elasticsearch.action.search.OpenPointInTimeRequest;
+import org.elasticsearch.action.search.OpenPointInTimeResponse;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.update.UpdateRequest;
@@ -159,6 +165,32 @@ public final class EsHttpClient extends EsClientBase {
 		return client.search(req, EXTENDED_DEFAULT);
 	}
 	
+	@Override
+	public CompletableFuture<SearchResponse> searchAsync(SearchRequest req) {
+		checkAvailable();
+		final CompletableFuture<SearchResponse> future = new CompletableFuture<>();
+		final Cancellable cancellable = client.searchAsync(req, EXTENDED_DEFAULT, ActionListener.wrap(future::complete, future::completeExceptionally));
+		// abort the underlying HTTP request if the caller is no longer interested in the response
+		future.whenComplete((response, error) -> {
+			if (future.isCancelled()) {
+				cancellable.cancel();
+			}
+		});
+		return future;
+	}
+	
+	@Override
+	public OpenPointInTimeResponse openPointInTime(OpenPointInTimeRequest req) throws IOException {
+		checkAvailable();
+		return client.openPointInTime(req, EXTENDED_DEFAULT);
+	}
+	
+	@Override
+	public ClosePointInTimeResponse closePointInTime(ClosePointInTimeRequest req) throws IOException {
+		checkAvailable();
+		return client.closePointInTime(req, EXTENDED_DEFAULT);
+	}
+	
 	@Override
 	public UpdateResponse update(UpdateRequest req) throws IOException {
 		checkAvailable();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2018-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,16 +16,17 @@
 package com.b2international.index.es.client.tcp;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
 import org.elasticsearch.action.ActionFuture;
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.bulk.BulkProcessor;
 import org.elasticsearch.action.bulk.BulkProcessor.Builder;
 import org.elasticsearch.action.bulk.BulkProcessor.Listener;
 import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.action.get.GetResponse;
-import org.elasticsearch.action.search.SearchRequest;
-import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.*;
 import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.action.update.UpdateResponse;
 import org.elasticsearch.client.Client;
@@ -93,6 +94,23 @@ public final class EsTcpClient extends EsClientBase {
 		return execute(client.search(req));
 	}
 	
+	@Override
+	public CompletableFuture<SearchResponse> searchAsync(SearchRequest req) {
+		final CompletableFuture<SearchResponse> future = new CompletableFuture<>();
+		client.search(req, ActionListener.wrap(future::complete, future::completeExceptionally));
+		return future;
+	}
+	
+	@Override
+	public OpenPointInTimeResponse openPointInTime(OpenPointInTimeRequest req) throws IOException {
+		return execute(client.execute(OpenPointInTimeAction.INSTANCE, req));
+	}
+	
+	@Override
+	public ClosePointInTimeResponse closePointInTime(ClosePointInTimeRequest req) throws IOException {
+		return execute(client.execute(ClosePointInTimeAction.INSTANCE, req));
+	}
+	
 	@Override
 	public UpdateResponse update(UpdateRequest req) throws IOException {
 		return execute(client.update(req));
@@ -19,6 +19,7 @@ import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import com.b2international.commons.CompareUtils;
@@ -293,6 +294,21 @@ public final class Query<T> implements Metrics {
 		return searcher.stream(this);
 	}
 	
+	/**
+	 * Convenience method for processing all search results page by page, see {@link Searcher#stream(Query, Consumer)}. Page size is controlled by
+	 * the query's {@code limit} parameter.
+	 * 
+	 * @param searcher the searcher to use for streaming results
+	 * @param consumer the consumer to receive the pages in sort order
+	 */
+	public final void stream(Searcher searcher, Consumer<? super Hits<T>> consumer) {
+		try {
+			searcher.stream(this, consumer);
+		} catch (IOException e) {
+			throw new IndexException("Failed to execute query: " + this, e);
+		}
+	}
+	
 	/**
 	 * Convenience method for performing a single query search.
 	 * @param searcher the searcher to use for performing the search
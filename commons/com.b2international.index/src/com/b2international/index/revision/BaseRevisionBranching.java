@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2018-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import static com.google.common.collect.Lists.newArrayListWithCapacity;
 import java.util.*;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -37,6 +38,9 @@ import com.b2international.index.query.Query.AfterWhereBuilder;
 import com.b2international.index.revision.RevisionBranch.BranchState;
 import com.b2international.index.revision.RevisionBranch.Fields;
 import com.google.common.base.Strings;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
@@ -62,6 +66,18 @@ public abstract class BaseRevisionBranching {
 					return new ReentrantLock();
 				}
 			});
+	
+	/*
+	 * Recently resolved branches keyed by the requested path or alias. Entries are evicted on every branch change event and branch document write,
+	 * the expiration is just a safety net for changes that were made by other nodes without a notification reaching this one.
+	 */
+	private final Cache<String, CachedBranch> branches = CacheBuilder.newBuilder()
+			.maximumSize(1_000L)
+			.expireAfterWrite(5L, TimeUnit.MINUTES)
+			.build();
+	
+	// incremented on each invalidation to prevent caching branch documents that were read before a concurrent change
+	private final AtomicLong branchesGeneration = new AtomicLong();
 
 	public BaseRevisionBranching(RevisionIndex index, TimestampProvider timestampProvider) {
 		this.index = index;
@@ -157,6 +173,50 @@ public abstract class BaseRevisionBranching {
 	 * @return a {@link RevisionBranch} instance or <code>null</code> if not present
 	 */
 	protected RevisionBranch get(String branchPathOrAlias, boolean searchPathAliases) {
+		final CachedBranch cachedBranch = getCached(branchPathOrAlias, searchPathAliases);
+		return cachedBranch == null ? null : cachedBranch.branch;
+	}
+	
+	/**
+	 * Returns the {@link RevisionBranchRef} of the branch using either its unique branch path or any of the assigned path aliases.
+	 * 
+	 * @param branchPathOrAlias
+	 * @return {@link RevisionBranchRef} instance, never <code>null</code>
+	 * @throws NotFoundException - if the branch does not exist in the system
+	 */
+	public RevisionBranchRef getBranchRef(String branchPathOrAlias) {
+		final CachedBranch cachedBranch = getCached(branchPathOrAlias, true);
+		if (cachedBranch == null) {
+			throw new NotFoundException("Branch", branchPathOrAlias);
+		}
+		return cachedBranch.ref.get();
+	}
+	
+	private CachedBranch getCached(String branchPathOrAlias, boolean searchPathAliases) {
+		CachedBranch cachedBranch = branches.getIfPresent(branchPathOrAlias);
+		// entries cached via a path alias can only be returned if the caller allows path alias matches
+		if (cachedBranch != null && (searchPathAliases || cachedBranch.branch.getPath().equals(branchPathOrAlias))) {
+			return cachedBranch;
+		}
+		
+		final long generation = branchesGeneration.get();
+		final RevisionBranch branch = getFromStore(branchPathOrAlias, searchPathAliases);
+		if (branch == null) {
+			return null;
+		}
+		
+		cachedBranch = new CachedBranch(branch);
+		if (generation == branchesGeneration.get()) {
+			branches.put(branchPathOrAlias, cachedBranch);
+			// an invalidation might have happened between the check and the put, evict the possibly stale entry in that case
+			if (generation != branchesGeneration.get()) {
+				branches.invalidate(branchPathOrAlias);
+			}
+		}
+		return cachedBranch;
+	}
+	
+	private RevisionBranch getFromStore(String branchPathOrAlias, boolean searchPathAliases) {
 		return index().read(searcher -> {
 			// for primary paths always use the doc GET method for fastest retrieval
 			RevisionBranch branch = searcher.get(RevisionBranch.class, branchPathOrAlias);
@@ -176,6 +236,26 @@ public abstract class BaseRevisionBranching {
 					.first();
 		});
 	}
+	
+	/**
+	 * Evicts the given branch from the in-memory branch cache (including entries that were resolved via one of its path aliases). Does not send any
+	 * branch change notification, so it is safe to call it from branch change listeners, eg. when processing changes made by other nodes.
+	 * 
+	 * @param branchPath - the path of the changed branch
+	 */
+	public final void invalidate(final String branchPath) {
+		branchesGeneration.incrementAndGet();
+		branches.invalidate(branchPath);
+		branches.asMap().values().removeIf(cachedBranch -> cachedBranch.branch.getPath().equals(branchPath));
+	}
+	
+	/**
+	 * Evicts all entries from the in-memory branch cache.
+	 */
+	public final void invalidateAll() {
+		branchesGeneration.incrementAndGet();
+		branches.invalidateAll();
+	}
 
 	/**
 	 * @return the raw index to access raw documents
@@ -227,6 +307,8 @@ public abstract class BaseRevisionBranching {
 		return index().write(writer -> {
 			T result = changes.execute(writer);
 			writer.commit();
+			// the write might have touched any branch document, evict all of them
+			invalidateAll();
 			return result;
 		});
 	}
@@ -505,6 +587,7 @@ public abstract class BaseRevisionBranching {
 	 * @param branchPath the subject of the notification (may not be {@code null})
 	 */
 	protected final void sendChangeEvent(final String branchPath) {
+		invalidate(branchPath);
 		onBranchChange.forEach(c -> c.accept(branchPath));
 	}
 	
@@ -602,4 +685,16 @@ public abstract class BaseRevisionBranching {
 		return true;
 	}
 	
+	private static final class CachedBranch {
+		
+		private final RevisionBranch branch;
+		private final Supplier<RevisionBranchRef> ref;
+		
+		CachedBranch(RevisionBranch branch) {
+			this.branch = branch;
+			this.ref = Suppliers.memoize(branch::ref);
+		}
+		
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2018-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -78,6 +78,7 @@ public final class Commit implements WithScore {
 		private RevisionBranchPoint mergeSource;
 		private Boolean squashMerge;
 		private SortedSet<String> subjects;
+		private Integer detailChunks;
 
 		public Builder id(final String id) {
 			this.id = id;
@@ -129,8 +130,13 @@ public final class Commit implements WithScore {
 			return this;
 		}
 		
+		public Builder detailChunks(final Integer detailChunks) {
+			this.detailChunks = detailChunks;
+			return this;
+		}
+		
 		public Commit build() {
-			return new Commit(id, branch, author, comment, timestamp, groupId, details, mergeSource, squashMerge, subjects);
+			return new Commit(id, branch, author, comment, timestamp, groupId, details, mergeSource, squashMerge, subjects, detailChunks);
 		}
 
 	}
@@ -257,6 +263,8 @@ public final class Commit implements WithScore {
 	
 	private final SortedSet<String> subjects; 
 	
+	private final Integer detailChunks;
+	
 	@JsonIgnore
 	private transient Multimap<String, CommitDetail> detailsByObject;
 	
@@ -270,7 +278,8 @@ public final class Commit implements WithScore {
 			final List<CommitDetail> details, 
 			final RevisionBranchPoint mergeSource,
 			final Boolean squashMerge,
-			final SortedSet<String> subjects) {
+			final SortedSet<String> subjects,
+			final Integer detailChunks) {
 		this.id = id;
 		this.branch = branch;
 		this.author = author;
@@ -281,6 +290,14 @@ public final class Commit implements WithScore {
 		this.squashMerge = squashMerge;
 		this.subjects = subjects;
 		this.details = Collections3.toImmutableList(details);
+		this.detailChunks = detailChunks;
+	}
+	
+	/*
+	 * Returns a copy of this commit with the given details embedded.
+	 */
+	Commit withDetails(final List<CommitDetail> details) {
+		return new Commit(id, branch, author, comment, timestamp, groupId, details, mergeSource, squashMerge, subjects, detailChunks);
 	}
 
 	public String getId() {
@@ -318,10 +335,28 @@ public final class Commit implements WithScore {
 		return groupId;
 	}
 	
+	/**
+	 * @return the details embedded in this commit document, may be empty if the details are stored in separate {@link CommitDetailChunk}s,
+	 *         use {@link CommitDetails#read(com.b2international.index.Searcher, Commit)} to load the details of any commit
+	 * @see #hasDetailChunks()
+	 */
 	public List<CommitDetail> getDetails() {
 		return details;
 	}
 	
+	/**
+	 * @return the number of {@link CommitDetailChunk}s the details of this commit are stored in or <code>null</code> if the details are
+	 *         embedded in the commit document
+	 */
+	public Integer getDetailChunks() {
+		return detailChunks;
+	}
+	
+	@JsonIgnore
+	public boolean hasDetailChunks() {
+		return detailChunks != null;
+	}
+	
 	public RevisionBranchPoint getMergeSource() {
 		return mergeSource;
 	}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.revision;
+
+import static com.b2international.index.query.Expressions.exactMatch;
+import static com.b2international.index.query.Expressions.matchAny;
+
+import java.util.SortedSet;
+
+import com.b2international.index.Doc;
+import com.b2international.index.ID;
+import com.b2international.index.mapping.Field;
+import com.b2international.index.query.Expression;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.MoreObjects;
+
+/**
+ * A part of the {@link CommitDetail}s of a large {@link Commit}, stored separately from the commit document itself in a compressed binary
+ * form (see {@link CommitDetails}). The identifiers of all objects and components the part refers to are indexed to support affected
+ * object queries.
+ *
+ * @since 9.3
+ */
+@Doc
+public final class CommitDetailChunk {
+
+	/**
+	 * @since 9.3
+	 */
+	public static final class Expressions {
+
+		private Expressions() {}
+
+		public static Expression commitId(String commitId) {
+			return exactMatch(Fields.COMMIT_ID, commitId);
+		}
+
+		public static Expression objects(Iterable<String> objectIds) {
+			return matchAny(Fields.OBJECTS, objectIds);
+		}
+
+	}
+
+	/**
+	 * @since 9.3
+	 */
+	public static final class Fields {
+		public static final String ID = "id";
+		public static final String COMMIT_ID = "commitId";
+		public static final String CHUNK = "chunk";
+		public static final String OBJECTS = "objects";
+		public static final String DATA = "data";
+	}
+
+	@ID
+	private final String id;
+	private final String commitId;
+	private final int chunk;
+	private final SortedSet<String> objects;
+
+	@Field(index = false)
+	private final String data;
+
+	@JsonCreator
+	CommitDetailChunk(
+			@JsonProperty("id") final String id,
+			@JsonProperty("commitId") final String commitId,
+			@JsonProperty("chunk") final int chunk,
+			@JsonProperty("objects") final SortedSet<String> objects,
+			@JsonProperty("data") final String data) {
+		this.id = id;
+		this.commitId = commitId;
+		this.chunk = chunk;
+		this.objects = objects;
+		this.data = data;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getCommitId() {
+		return commitId;
+	}
+
+	/**
+	 * @return the position of this chunk among the chunks of the commit, starting from zero
+	 */
+	public int getChunk() {
+		return chunk;
+	}
+
+	/**
+	 * @return the identifiers of the objects and components the details in this chunk refer to
+	 */
+	public SortedSet<String> getObjects() {
+		return objects;
+	}
+
+	/**
+	 * @return the Base64 encoded, compressed form of the details in this chunk
+	 */
+	public String getData() {
+		return data;
+	}
+
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(getClass())
+				.add("id", id)
+				.add("commitId", commitId)
+				.add("chunk", chunk)
+				.toString();
+	}
+
+}
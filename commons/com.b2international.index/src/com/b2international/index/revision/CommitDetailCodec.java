@@ -0,0 +1,249 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.revision;
+
+import java.io.*;
+import java.util.*;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import com.b2international.index.IndexException;
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Compact binary encoding of a list of {@link CommitDetail}s.
+ * <p>
+ * Identifiers and type names are written to a dictionary once and referenced by their position afterwards. Dictionary entries that are
+ * numeric identifiers (eg. SCTIDs) are stored as 8-byte longs instead of their string form. Property values are written as-is. The
+ * resulting byte stream is deflate-compressed.
+ *
+ * @since 9.3
+ */
+final class CommitDetailCodec {
+
+	private static final int VERSION = 1;
+
+	private static final byte STRING = 0;
+	private static final byte LONG = 1;
+
+	private static final Operation[] OPERATIONS = Operation.values();
+
+	private CommitDetailCodec() {}
+
+	static byte[] encode(List<CommitDetail> details) {
+		// collect dictionary entries first, so they can be written in front of the details that reference them
+		final Map<String, Integer> dictionary = new LinkedHashMap<>();
+		for (CommitDetail detail : details) {
+			register(dictionary, detail.getProp());
+			register(dictionary, detail.getObjectType());
+			register(dictionary, detail.getComponentType());
+			if (detail.getObjects() != null) {
+				detail.getObjects().forEach(object -> register(dictionary, object));
+			}
+			if (detail.getComponents() != null) {
+				detail.getComponents().forEach(components -> components.forEach(component -> register(dictionary, component)));
+			}
+		}
+
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+			writeVInt(out, VERSION);
+
+			writeVInt(out, dictionary.size());
+			for (String value : dictionary.keySet()) {
+				if (isLong(value)) {
+					out.writeByte(LONG);
+					out.writeLong(Long.parseLong(value));
+				} else {
+					out.writeByte(STRING);
+					writeString(out, value);
+				}
+			}
+
+			writeVInt(out, details.size());
+			for (CommitDetail detail : details) {
+				out.writeByte(detail.getOp().ordinal());
+				writeRef(out, dictionary, detail.getProp());
+				writeNullableString(out, detail.getFrom());
+				writeNullableString(out, detail.getTo());
+				writeRef(out, dictionary, detail.getObjectType());
+				writeRef(out, dictionary, detail.getComponentType());
+
+				final List<String> objects = detail.getObjects();
+				writeVInt(out, objects == null ? 0 : objects.size() + 1);
+				if (objects != null) {
+					for (String object : objects) {
+						writeVInt(out, dictionary.get(object));
+					}
+				}
+
+				final List<Set<String>> components = detail.getComponents();
+				writeVInt(out, components == null ? 0 : components.size() + 1);
+				if (components != null) {
+					for (Set<String> componentIds : components) {
+						writeVInt(out, componentIds.size());
+						for (String componentId : componentIds) {
+							writeVInt(out, dictionary.get(componentId));
+						}
+					}
+				}
+			}
+		} catch (IOException e) {
+			throw new IndexException("Failed to encode commit details", e);
+		} finally {
+			deflater.end();
+		}
+
+		return bytes.toByteArray();
+	}
+
+	static List<CommitDetail> decode(byte[] data) {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new InflaterInputStream(new ByteArrayInputStream(data))))) {
+			final int version = readVInt(in);
+			if (version != VERSION) {
+				throw new IndexException(String.format("Unsupported commit detail encoding version '%s'", version));
+			}
+
+			final String[] dictionary = new String[readVInt(in)];
+			for (int i = 0; i < dictionary.length; i++) {
+				final byte kind = in.readByte();
+				dictionary[i] = kind == LONG ? Long.toString(in.readLong()) : readString(in);
+			}
+
+			final int numberOfDetails = readVInt(in);
+			final List<CommitDetail> details = new ArrayList<>(numberOfDetails);
+			for (int i = 0; i < numberOfDetails; i++) {
+				final CommitDetail.Builder detail = new CommitDetail.Builder()
+						.op(OPERATIONS[in.readByte()])
+						.prop(readRef(in, dictionary))
+						.from(readNullableString(in))
+						.to(readNullableString(in))
+						.objectType(readRef(in, dictionary))
+						.componentType(readRef(in, dictionary));
+
+				final int numberOfObjects = readVInt(in) - 1;
+				if (numberOfObjects >= 0) {
+					final String[] objects = new String[numberOfObjects];
+					for (int j = 0; j < numberOfObjects; j++) {
+						objects[j] = dictionary[readVInt(in)];
+					}
+					detail.objects(ImmutableList.copyOf(objects));
+				}
+
+				final int numberOfComponentSets = readVInt(in) - 1;
+				if (numberOfComponentSets >= 0) {
+					final List<Set<String>> components = new ArrayList<>(numberOfComponentSets);
+					for (int j = 0; j < numberOfComponentSets; j++) {
+						final int numberOfComponents = readVInt(in);
+						final ImmutableSet.Builder<String> componentIds = ImmutableSet.builderWithExpectedSize(numberOfComponents);
+						for (int k = 0; k < numberOfComponents; k++) {
+							componentIds.add(dictionary[readVInt(in)]);
+						}
+						components.add(componentIds.build());
+					}
+					detail.components(components);
+				}
+
+				details.add(detail.build());
+			}
+
+			return details;
+		} catch (IOException e) {
+			throw new IndexException("Failed to decode commit details", e);
+		}
+	}
+
+	private static void register(Map<String, Integer> dictionary, String value) {
+		if (value != null) {
+			dictionary.putIfAbsent(value, dictionary.size());
+		}
+	}
+
+	/*
+	 * Returns true if the value can be restored from its long form without any loss, ie. it has no leading zeros, no sign and fits into a long.
+	 */
+	private static boolean isLong(String value) {
+		final int length = value.length();
+		if (length == 0 || length > 18 || value.charAt(0) == '0') {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			final char c = value.charAt(i);
+			if (c < '0' || c > '9') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static void writeRef(DataOutput out, Map<String, Integer> dictionary, String value) throws IOException {
+		writeVInt(out, value == null ? 0 : dictionary.get(value) + 1);
+	}
+
+	private static String readRef(DataInput in, String[] dictionary) throws IOException {
+		final int ref = readVInt(in);
+		return ref == 0 ? null : dictionary[ref - 1];
+	}
+
+	private static void writeNullableString(DataOutput out, String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			writeString(out, value);
+		}
+	}
+
+	private static String readNullableString(DataInput in) throws IOException {
+		return in.readBoolean() ? readString(in) : null;
+	}
+
+	// DataOutput.writeUTF is limited to 64K bytes, property values might be longer than that
+	private static void writeString(DataOutput out, String value) throws IOException {
+		final byte[] bytes = value.getBytes(Charsets.UTF_8);
+		writeVInt(out, bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInput in) throws IOException {
+		final byte[] bytes = new byte[readVInt(in)];
+		in.readFully(bytes);
+		return new String(bytes, Charsets.UTF_8);
+	}
+
+	private static void writeVInt(DataOutput out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	private static int readVInt(DataInput in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			final byte b = in.readByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed variable-length integer");
+	}
+
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.revision;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.b2international.index.Hits;
+import com.b2international.index.IndexClientFactory;
+import com.b2international.index.Searcher;
+import com.b2international.index.query.Expression;
+import com.b2international.index.query.Expressions;
+import com.b2international.index.query.Query;
+import com.b2international.index.query.SortBy;
+import com.b2international.index.query.SortBy.Order;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+
+/**
+ * Stores and loads the {@link CommitDetail}s of {@link Commit}s.
+ * <p>
+ * Details of commits with more than {@link #CHUNK_SIZE} changes are not embedded in the commit document, so that loading the commit itself
+ * stays cheap. They are split into {@link CommitDetailChunk}s of at most {@link #CHUNK_SIZE} changes each, stored in a compact, compressed
+ * form and loaded one page of chunks at a time when needed.
+ *
+ * @since 9.3
+ */
+public final class CommitDetails {
+
+	/**
+	 * The maximum number of changes (affected objects for property changes, affected components for component changes) stored in a single
+	 * chunk. Commits with not more than this number of changes embed their details in the commit document.
+	 */
+	public static final int CHUNK_SIZE = 10_000;
+
+	// the number of chunks to load with a single request
+	private static final int CHUNK_PAGE_SIZE = 5;
+
+	private CommitDetails() {}
+
+	/**
+	 * Returns the details of the given commit. Embedded details are returned as is, details stored in {@link CommitDetailChunk}s are loaded
+	 * lazily, while the returned stream is consumed.
+	 *
+	 * @param searcher - the searcher of the index the commit has been loaded from
+	 * @param commit - the commit to return the details of
+	 * @return a {@link Stream} of the details of the commit
+	 */
+	public static Stream<CommitDetail> read(Searcher searcher, Commit commit) {
+		if (!commit.hasDetailChunks() || !commit.getDetails().isEmpty()) {
+			return commit.getDetails().stream();
+		}
+
+		return searcher.stream(Query.select(String.class)
+					.from(CommitDetailChunk.class)
+					.fields(CommitDetailChunk.Fields.DATA)
+					.where(CommitDetailChunk.Expressions.commitId(commit.getId()))
+					.sortBy(SortBy.field(CommitDetailChunk.Fields.CHUNK, Order.ASC))
+					.limit(CHUNK_PAGE_SIZE)
+					.build())
+				.flatMap(Hits::stream)
+				.flatMap(data -> CommitDetailCodec.decode(Base64.getDecoder().decode(data)).stream());
+	}
+
+	/**
+	 * Returns the given commit with all of its details embedded, loading them from the commit's {@link CommitDetailChunk}s if necessary.
+	 *
+	 * @param searcher - the searcher of the index the commit has been loaded from
+	 * @param commit - the commit to load the details of
+	 * @return a {@link Commit} with embedded details
+	 */
+	public static Commit load(Searcher searcher, Commit commit) {
+		if (!commit.hasDetailChunks() || !commit.getDetails().isEmpty()) {
+			return commit;
+		}
+
+		try (Stream<CommitDetail> details = read(searcher, commit)) {
+			return commit.withDetails(details.collect(Collectors.toList()));
+		}
+	}
+
+	/**
+	 * Returns an expression that matches commits affecting the given object, regardless of how their details are stored.
+	 *
+	 * @param searcher - the searcher to resolve commits with chunked details with
+	 * @param objectId - the identifier of the affected object or component
+	 * @return an {@link Expression} to use in {@link Commit} queries
+	 * @see Commit.Expressions#affectedObject(String)
+	 */
+	public static Expression affectedObject(Searcher searcher, String objectId) {
+		return affectedObjects(searcher, Collections.singleton(objectId));
+	}
+
+	/**
+	 * Returns an expression that matches commits affecting any of the given objects, regardless of how their details are stored.
+	 *
+	 * @param searcher - the searcher to resolve commits with chunked details with
+	 * @param objectIds - the identifiers of the affected objects or components
+	 * @return an {@link Expression} to use in {@link Commit} queries
+	 * @see Commit.Expressions#affectedObjects(Iterable)
+	 */
+	public static Expression affectedObjects(Searcher searcher, Iterable<String> objectIds) {
+		final Set<String> chunkedCommitIds = searcher.stream(Query.select(String.class)
+					.from(CommitDetailChunk.class)
+					.fields(CommitDetailChunk.Fields.COMMIT_ID)
+					.where(CommitDetailChunk.Expressions.objects(objectIds))
+					.limit(IndexClientFactory.MAX_PAGE_SIZE)
+					.build())
+				.flatMap(Hits::stream)
+				.collect(Collectors.toSet());
+
+		if (chunkedCommitIds.isEmpty()) {
+			return Commit.Expressions.affectedObjects(objectIds);
+		}
+
+		return Expressions.bool()
+				.should(Commit.Expressions.affectedObjects(objectIds))
+				.should(Commit.Expressions.ids(chunkedCommitIds))
+				.build();
+	}
+
+	static List<CommitDetailChunk> toChunks(String commitId, List<CommitDetail> details) {
+		return toChunks(commitId, details, CHUNK_SIZE);
+	}
+
+	static List<CommitDetailChunk> toChunks(String commitId, List<CommitDetail> details, int chunkSize) {
+		final List<CommitDetailChunk> chunks = new ArrayList<>();
+		final List<CommitDetail> chunkDetails = new ArrayList<>();
+		int currentSize = 0;
+
+		for (CommitDetail detail : details) {
+			for (CommitDetail part : split(detail, chunkSize)) {
+				final int partSize = size(part);
+				if (currentSize > 0 && currentSize + partSize > chunkSize) {
+					chunks.add(toChunk(commitId, chunks.size(), chunkDetails));
+					chunkDetails.clear();
+					currentSize = 0;
+				}
+				chunkDetails.add(part);
+				currentSize += partSize;
+			}
+		}
+
+		if (!chunkDetails.isEmpty()) {
+			chunks.add(toChunk(commitId, chunks.size(), chunkDetails));
+		}
+
+		return chunks;
+	}
+
+	static int size(List<CommitDetail> details) {
+		int size = 0;
+		for (CommitDetail detail : details) {
+			size += size(detail);
+		}
+		return size;
+	}
+
+	static int size(CommitDetail detail) {
+		if (detail.isPropertyChange()) {
+			return detail.getObjects().size();
+		} else {
+			return detail.getComponents().stream().mapToInt(Set::size).sum();
+		}
+	}
+
+	/*
+	 * Splits a single detail into parts that contain at most chunkSize changes each. Component sets of a single object might be split up into
+	 * multiple parts as well, eg. when the object is the ROOT container.
+	 */
+	private static List<CommitDetail> split(CommitDetail detail, int chunkSize) {
+		if (size(detail) <= chunkSize) {
+			return List.of(detail);
+		}
+
+		if (detail.isPropertyChange()) {
+			return Lists.partition(detail.getObjects(), chunkSize)
+					.stream()
+					.map(objects -> CommitDetail.changedProperty(detail.getProp(), detail.getFrom(), detail.getTo(), detail.getObjectType(), objects))
+					.collect(Collectors.toList());
+		}
+
+		final List<CommitDetail> parts = new ArrayList<>();
+		CommitDetail.Builder part = null;
+		int partSize = 0;
+
+		final List<String> objects = detail.getObjects();
+		for (int i = 0; i < objects.size(); i++) {
+			final String object = objects.get(i);
+			final Set<String> components = detail.getComponents().get(i);
+
+			// keep empty component sets, they still denote the object itself
+			final Iterable<List<String>> componentParts = components.isEmpty()
+					? List.of(List.of())
+					: Iterables.partition(components, chunkSize);
+
+			for (List<String> componentPart : componentParts) {
+				if (part != null && partSize + componentPart.size() > chunkSize) {
+					parts.add(part.build());
+					part = null;
+					partSize = 0;
+				}
+				if (part == null) {
+					part = new CommitDetail.Builder()
+							.op(detail.getOp())
+							.objectType(detail.getObjectType())
+							.componentType(detail.getComponentType());
+				}
+				part.putObjects(object, componentPart);
+				partSize += componentPart.size();
+			}
+		}
+
+		if (part != null) {
+			parts.add(part.build());
+		}
+
+		return parts;
+	}
+
+	private static CommitDetailChunk toChunk(String commitId, int chunk, List<CommitDetail> details) {
+		final SortedSet<String> objects = new TreeSet<>();
+		for (CommitDetail detail : details) {
+			objects.addAll(detail.getObjects());
+			if (detail.getComponents() != null) {
+				detail.getComponents().forEach(objects::addAll);
+			}
+		}
+
+		final String data = Base64.getEncoder().encodeToString(CommitDetailCodec.encode(details));
+		return new CommitDetailChunk(String.join("_", commitId, Integer.toString(chunk)), commitId, chunk, objects, data);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,13 +16,17 @@
 package com.b2international.index.revision;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMapWithExpectedSize;
 import static com.google.common.collect.Sets.newHashSet;
 
 import java.io.IOException;
-import java.util.Collections;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.b2international.index.*;
 import com.b2international.index.mapping.DocumentMapping;
@@ -35,6 +39,8 @@ import com.b2international.index.query.SortBy.Order;
 import com.b2international.index.revision.RevisionCompare.Builder;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Stopwatch;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Sets;
 
 /**
  * @since 4.7
@@ -46,6 +52,7 @@ public final class DefaultRevisionIndex implements InternalRevisionIndex, Hooks
 	private final RevisionIndexAdmin admin;
 	private final ObjectMapper mapper;
 	private final List<Hooks.Hook> hooks = newArrayList();
+	private final RevisionCompareCache compareCache = new RevisionCompareCache();
 
 	public DefaultRevisionIndex(Index index, TimestampProvider timestampProvider, ObjectMapper mapper) {
 		this.index = index;
@@ -72,14 +79,7 @@ public final class DefaultRevisionIndex implements InternalRevisionIndex, Hooks
 	@Override
 	public <T> T read(final String branchPath, final RevisionIndexRead<T> read) {
 		if (RevisionIndex.isBranchAtPath(branchPath)) {
-			String[] branchAndTimestamp = branchPath.split(RevisionIndex.AT_CHAR);
-			checkArgument(branchAndTimestamp.length == 2, "Invalid <branch>@<timestamp> expression. Got: %s.", branchPath);
-			String branch = branchAndTimestamp[0];
-			long timestamp = Long.parseLong(branchAndTimestamp[1]);
-			checkArgument(timestamp >= 0, "Timestamp argument of <branch>@<timestamp> expression must be greater than or equal to zero.");
-			// create an alternative ref that only contains segments up until the specified timestamp
-			final RevisionBranchRef ref = getBranchRef(branch).restrictTo(timestamp);
-			return read(ref, read);
+			return read(getBranchAtRef(branchPath), read);
 		} else if (RevisionIndex.isBaseRefPath(branchPath)) {
 			final String branchPathWithoutBaseRef = branchPath.substring(0, branchPath.length() - 1);
 			if (RevisionBranch.MAIN_PATH.equals(branchPathWithoutBaseRef)) {
@@ -142,7 +142,7 @@ public final class DefaultRevisionIndex implements InternalRevisionIndex, Hooks
 	
 	@Override
 	public RevisionCompare compare(final String baseBranch, final String compareBranch, RevisionCompareOptions options) {
-		return compare(getBranchRef(baseBranch), getBranchRef(compareBranch), options);
+		return compare(getCompareRef(baseBranch), getCompareRef(compareBranch), options);
 	}
 	
 	@Override
@@ -151,63 +151,168 @@ public final class DefaultRevisionIndex implements InternalRevisionIndex, Hooks
 			
 			final RevisionBranchRef baseOfCompareRef = base.intersection(compare);
 			final RevisionBranchRef compareRef = compare.difference(base);
-
-			final Builder result = RevisionCompare.builder(baseOfCompareRef, compareRef, options);
 			
-			if (base.branchId() != compare.branchId()) {
+			// the result depends only on the common part of the refs and the commits on the compare side, reuse it as long as they do not change
+			final RevisionCompareCache.Key key = new RevisionCompareCache.Key(baseOfCompareRef, compare.branchId(), options);
+			final RevisionCompareCache.Entry cached = compareCache.get(key);
+			if (cached != null && cached.compare().equals(compareRef)) {
+				return cached.result().build();
+			}
+			
+			// when only the compare side moved forward, apply the new commits on top of the cached result
+			final RevisionBranchRef extensionRef = cached != null ? cached.extension(compareRef) : null;
+			
+			final Builder result;
+			final RevisionBranchRef refToApply;
+			if (extensionRef != null) {
+				result = cached.result().copy(compareRef);
+				refToApply = extensionRef;
+			} else {
+				result = RevisionCompare.builder(baseOfCompareRef, compareRef, options);
+				refToApply = compareRef;
+			}
+			
+			// the same branch can only differ from itself when one side is restricted to an earlier timestamp
+			if (base.branchId() != compare.branchId() || !compareRef.isEmpty()) {
 				Stopwatch w = Stopwatch.createStarted();
-				admin.log().trace("Comparing changes between {} -> {}.", base, compare);
-				doRevisionCompare(searcher, compareRef, result);
+				admin.log().trace("Comparing changes between {} -> {}{}.", base, compare, extensionRef != null ? " (incremental)" : "");
+				doRevisionCompare(searcher, refToApply, result);
 				admin.log().trace("Compared changes between {} -> {} in {}.", base, compare, w);
 			}
-
+			
+			compareCache.put(key, compareRef, result);
 			return result.build();
 		});
 	}
 	
+	@Override
+	public void invalidateCompareCache() {
+		compareCache.invalidateAll();
+	}
+	
 	private void doRevisionCompare(Searcher searcher, RevisionBranchRef compareRef, RevisionCompare.Builder result) throws IOException {
 		if (compareRef.segments().isEmpty()) {
 			return;
 		}
-		ExpressionBuilder compareCommitsQuery = Expressions.bool();
 		
-		for (RevisionSegment segment : compareRef.segments()) {
-			String segmentBranch = getBranchPath(searcher, segment.branchId());
-			compareCommitsQuery.should(Expressions.bool()
-					.filter(Commit.Expressions.timestampRange(segment.start(), segment.end()))
-					.filter(Commit.Expressions.branches(Collections.singleton(segmentBranch)))
-					.build());
+		final Map<Long, String> branchPaths = getBranchPaths(searcher, compareRef.segments());
+		
+		// commits of each segment are fetched concurrently, page by page
+		final PriorityQueue<SegmentCommits> segments = new PriorityQueue<>(compareRef.segments().size(), Comparator.comparingLong(SegmentCommits::timestamp));
+		final List<SegmentCommits> cursors = compareRef.segments().stream()
+				.map(segment -> new SegmentCommits(searcher, segment, branchPaths.get(segment.branchId())))
+				.collect(Collectors.toList());
+		for (SegmentCommits cursor : cursors) {
+			if (cursor.advance()) {
+				segments.add(cursor);
+			}
 		}
 		
 		// apply commits happened on the compareRef segments in chronological order
-		AfterWhereBuilder<Commit> query = Query.select(Commit.class)
-			.where(compareCommitsQuery.build())
-			 // load only 20 commits for each batch (import commits tend to be large, so if we load 20 of them we should not use that much memory)
-			.limit(IndexClientFactory.COMMIT_BATCH_SIZE)
-			.sortBy(SortBy.field(Commit.Fields.TIMESTAMP, Order.ASC));
-		
-		int processedCommits = 0;
-		Hits<Commit> hits = null;
-		do {
-			if (hits != null) {
-				query.searchAfter(hits.getSearchAfter());
+		while (!segments.isEmpty()) {
+			final SegmentCommits next = segments.poll();
+			final Commit commit = next.current();
+			// details of large commits are streamed in chunk by chunk
+			try (Stream<CommitDetail> details = CommitDetails.read(searcher, commit)) {
+				result.apply(details::iterator);
+			}
+			if (next.advance()) {
+				segments.add(next);
 			}
-			hits = searcher.search(query.build());
-			hits.forEach(result::apply);
-			processedCommits += hits.getLimit();
-		} while (processedCommits < hits.getTotal());
+		}
 	}
 
-	private String getBranchPath(Searcher searcher, long branchId) throws IOException {
-		return searcher.search(Query.select(String.class)
+	private Map<Long, String> getBranchPaths(Searcher searcher, Collection<RevisionSegment> segments) throws IOException {
+		final Set<Long> branchIds = segments.stream().map(RevisionSegment::branchId).collect(Collectors.toSet());
+		final Map<Long, String> branchPaths = newHashMapWithExpectedSize(branchIds.size());
+		searcher.search(Query.select(String[].class)
 				.from(RevisionBranch.class)
-				.fields(RevisionBranch.Fields.PATH)
-				.where(Expressions.exactMatch(RevisionBranch.Fields.ID, branchId))
-				.limit(1)
+				.fields(RevisionBranch.Fields.ID, RevisionBranch.Fields.PATH)
+				.where(Expressions.matchAnyLong(RevisionBranch.Fields.ID, branchIds))
+				.limit(branchIds.size())
 				.build())
-				.stream()
-				.findFirst()
-				.get();
+				.forEach(idAndPath -> branchPaths.put(Long.valueOf(idAndPath[0]), idAndPath[1]));
+		
+		checkState(branchPaths.keySet().containsAll(branchIds), "Missing branches for segments of compare: %s", Sets.difference(branchIds, branchPaths.keySet()));
+		return branchPaths;
+	}
+	
+	/*
+	 * Iterates over the commits of a single segment in chronological order. The next page of commits is requested as soon as the current one
+	 * arrives, so it is being fetched while the current page is applied.
+	 */
+	private static final class SegmentCommits {
+		
+		private final Searcher searcher;
+		private final AfterWhereBuilder<Commit> query;
+		
+		private CompletableFuture<Hits<Commit>> nextPage;
+		private Iterator<Commit> commits = Collections.emptyIterator();
+		private Commit current;
+		private int fetchedCommits;
+		
+		SegmentCommits(Searcher searcher, RevisionSegment segment, String branchPath) {
+			this.searcher = searcher;
+			this.query = Query.select(Commit.class)
+					.where(Expressions.bool()
+						.filter(Commit.Expressions.timestampRange(segment.start(), segment.end()))
+						.filter(Commit.Expressions.branches(Collections.singleton(branchPath)))
+						.build())
+					// load only 20 commits for each batch (import commits tend to be large, so if we load 20 of them we should not use that much memory)
+					.limit(IndexClientFactory.COMMIT_BATCH_SIZE)
+					.sortBy(SortBy.field(Commit.Fields.TIMESTAMP, Order.ASC));
+			this.nextPage = searcher.searchAsync(query.build());
+		}
+		
+		/**
+		 * Moves to the next commit of the segment.
+		 * 
+		 * @return <code>true</code> if there was a next commit, <code>false</code> if all commits of the segment have been visited
+		 * @throws IOException
+		 */
+		boolean advance() throws IOException {
+			while (!commits.hasNext()) {
+				if (nextPage == null) {
+					current = null;
+					return false;
+				}
+				
+				final Hits<Commit> hits = await(nextPage);
+				fetchedCommits += hits.getHits().size();
+				if (!hits.isEmpty() && fetchedCommits < hits.getTotal()) {
+					query.searchAfter(hits.getSearchAfter());
+					nextPage = searcher.searchAsync(query.build());
+				} else {
+					nextPage = null;
+				}
+				commits = hits.iterator();
+			}
+			
+			current = commits.next();
+			return true;
+		}
+		
+		Commit current() {
+			return current;
+		}
+		
+		long timestamp() {
+			return current.getTimestamp();
+		}
+		
+		private static <T> T await(CompletableFuture<T> future) throws IOException {
+			try {
+				return future.join();
+			} catch (CompletionException e) {
+				final Throwable cause = e.getCause();
+				if (cause instanceof IOException) {
+					throw (IOException) cause;
+				}
+				Throwables.throwIfUnchecked(cause);
+				throw new IndexException("Failed to fetch commits for compare", cause);
+			}
+		}
+		
 	}
 
 	@Override
@@ -269,11 +374,13 @@ public final class DefaultRevisionIndex implements InternalRevisionIndex, Hooks
 	public List<Commit> history(String id) {
 		return index.read(searcher -> {
 			return searcher.search(Query.select(Commit.class)
-					.where(Commit.Expressions.affectedObject(id))
+					.where(CommitDetails.affectedObject(searcher, id))
 					.sortBy(SortBy.field(Commit.Fields.TIMESTAMP, Order.DESC))
 					.limit(Integer.MAX_VALUE)
 					.build())
-					.getHits();
+					.stream()
+					.map(commit -> CommitDetails.load(searcher, commit))
+					.collect(Collectors.toList());
 		});
 	}
 	
@@ -303,9 +410,23 @@ public final class DefaultRevisionIndex implements InternalRevisionIndex, Hooks
 	}
 
 	private RevisionBranchRef getBranchRef(final String branchPath) {
-		return getBranch(branchPath).ref();
+		return branching.getBranchRef(branchPath);
 	}
 
+	private RevisionBranchRef getCompareRef(final String branchPath) {
+		return RevisionIndex.isBranchAtPath(branchPath) ? getBranchAtRef(branchPath) : getBranchRef(branchPath);
+	}
+	
+	private RevisionBranchRef getBranchAtRef(final String branchPath) {
+		String[] branchAndTimestamp = branchPath.split(RevisionIndex.AT_CHAR);
+		checkArgument(branchAndTimestamp.length == 2, "Invalid <branch>@<timestamp> expression. Got: %s.", branchPath);
+		String branch = branchAndTimestamp[0];
+		long timestamp = Long.parseLong(branchAndTimestamp[1]);
+		checkArgument(timestamp >= 0, "Timestamp argument of <branch>@<timestamp> expression must be greater than or equal to zero.");
+		// create an alternative ref that only contains segments up until the specified timestamp
+		return getBranchRef(branch).restrictTo(timestamp);
+	}
+	
 	private RevisionBranchRef getBaseRef(final String branchPath) {
 		return getBranch(branchPath).baseRef();
 	}
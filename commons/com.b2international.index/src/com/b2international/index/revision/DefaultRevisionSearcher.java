@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,8 @@ import static com.google.common.base.Preconditions.checkArgument;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import com.b2international.commons.metric.Metrics;
 import com.b2international.index.Hits;
@@ -92,17 +94,31 @@ public final class DefaultRevisionSearcher implements RevisionSearcher {
 
 	@Override
 	public <T> Hits<T> search(Query<T> query) throws IOException {
+		return searcher.search(withRevisionFilter(query));
+	}
+	
+	@Override
+	public <T> CompletableFuture<Hits<T>> searchAsync(Query<T> query) {
+		return searcher.searchAsync(withRevisionFilter(query));
+	}
+	
+	@Override
+	public <T> void stream(Query<T> query, Consumer<? super Hits<T>> consumer) throws IOException {
+		searcher.stream(withRevisionFilter(query), consumer);
+	}
+	
+	private <T> Query<T> withRevisionFilter(Query<T> query) {
 		if (query.isRevisionQuery()) {
 			if (query.getSelection().getParentScope() == null) {
 				// rewrite query if we are looking for revision, otherwise if we are looking for unversioned nested use it as is
-				query = query.withFilter(getRevisionFilter()).build();
+				return query.withFilter(getRevisionFilter()).build();
 			} else {
 				checkArgument(Revision.class.isAssignableFrom(query.getSelection().getParentScope()), "Searching non-revision documents require a revision parent type: %s", query);
 				// run a query on the parent documents with nested match on the children
-				query = query.withFilter(Expressions.hasParent(query.getSelection().getParentScope(), getRevisionFilter())).build();
+				return query.withFilter(Expressions.hasParent(query.getSelection().getParentScope(), getRevisionFilter())).build();
 			}
 		}
-		return searcher.search(query);
+		return query;
 	}
 
 	@Override
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -33,4 +33,9 @@ interface InternalRevisionIndex extends RevisionIndex {
 
 	RevisionCompare compare(RevisionBranchRef base, RevisionBranchRef compare, RevisionCompareOptions options);
 	
+	/**
+	 * Evicts all previously computed and cached {@link RevisionCompare} results.
+	 */
+	void invalidateCompareCache();
+	
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -47,8 +47,32 @@ public final class RevisionCompare {
 			this.options = options;
 		}
 		
+		/**
+		 * Returns a new builder for the given compare ref that starts from the changes collected by this builder so far. This builder is
+		 * not affected by changes applied to the copy.
+		 * 
+		 * @param compare - the compare side of the new builder
+		 * @return a new {@link Builder} instance
+		 */
+		Builder copy(RevisionBranchRef compare) {
+			final Builder copy = new Builder(base, compare, options);
+			copy.detailsByComponent.putAll(detailsByComponent);
+			return copy;
+		}
+		
+		/**
+		 * @return the number of compare details collected so far
+		 */
+		int size() {
+			return detailsByComponent.size();
+		}
+		
 		public Builder apply(Commit commit) {
-			for (CommitDetail detail : commit.getDetails()) {
+			return apply(commit.getDetails());
+		}
+		
+		public Builder apply(Iterable<CommitDetail> commitDetails) {
+			for (CommitDetail detail : commitDetails) {
 								
 				List<String> objects = detail.getObjects();
 				// XXX index order is required to collect corresponding component array from details
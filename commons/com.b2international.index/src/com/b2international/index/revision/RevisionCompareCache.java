@@ -0,0 +1,120 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.revision;
+
+import java.util.Iterator;
+import java.util.SortedSet;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSortedSet;
+
+/**
+ * Keeps the most recently computed {@link RevisionCompare} states in memory.
+ * <p>
+ * Entries are keyed by the common part of the compared refs, the compare branch and the options, and hold the compare result for the last
+ * seen segments of the compare side. Commits on a segment are never changed once the segment's end has been recorded in a branch, so a
+ * result can be returned as is when the same segments are compared again, and can be extended with the newer commits only when the compare
+ * branch moved forward.
+ *
+ * @since 9.3
+ */
+final class RevisionCompareCache {
+
+	// the total number of compare details kept in memory
+	private static final long MAXIMUM_WEIGHT = 500_000L;
+
+	/**
+	 * @since 9.3
+	 */
+	record Key(RevisionBranchRef baseOfCompare, long compareBranchId, RevisionCompareOptions options) {
+	}
+
+	/**
+	 * @since 9.3
+	 */
+	record Entry(RevisionBranchRef compare, RevisionCompare.Builder result) {
+
+		/**
+		 * Returns the segments to apply on top of this entry to get the compare result for the given ref, or <code>null</code> if the result
+		 * has to be computed from scratch. Only a single segment is allowed to grow, and only with commits that are newer than any commit that
+		 * has already been applied, as the order of the commits matters when they are applied to a compare.
+		 *
+		 * @param newCompare - the ref to compare
+		 * @return a ref to the newly added part of the grown segment or <code>null</code>
+		 */
+		RevisionBranchRef extension(RevisionBranchRef newCompare) {
+			final SortedSet<RevisionSegment> cachedSegments = compare.segments();
+			final SortedSet<RevisionSegment> segments = newCompare.segments();
+			if (cachedSegments.isEmpty() || cachedSegments.size() != segments.size()) {
+				return null;
+			}
+
+			RevisionSegment extension = null;
+			long cachedEnd = Long.MIN_VALUE;
+
+			final Iterator<RevisionSegment> newIterator = segments.iterator();
+			for (RevisionSegment cachedSegment : cachedSegments) {
+				final RevisionSegment segment = newIterator.next();
+				if (cachedSegment.branchId() != segment.branchId() || cachedSegment.start() != segment.start() || segment.end() < cachedSegment.end()) {
+					return null;
+				}
+
+				cachedEnd = Math.max(cachedEnd, cachedSegment.end());
+
+				if (segment.end() > cachedSegment.end()) {
+					if (extension != null) {
+						return null;
+					}
+					extension = new RevisionSegment(segment.branchId(), cachedSegment.end() + 1L, segment.end());
+				}
+			}
+
+			if (extension == null || extension.start() <= cachedEnd) {
+				return null;
+			}
+
+			return new RevisionBranchRef(newCompare.branchId(), newCompare.path(), ImmutableSortedSet.of(extension), newCompare.isDeletedBranch());
+		}
+
+	}
+
+	/*
+	 * Cached builders are never modified after they have been put into the cache, extending a result always works on a copy.
+	 */
+	private final Cache<Key, Entry> entries = CacheBuilder.newBuilder()
+			.maximumWeight(MAXIMUM_WEIGHT)
+			.weigher((Key key, Entry entry) -> Math.max(1, entry.result().size()))
+			.expireAfterAccess(10L, TimeUnit.MINUTES)
+			.build();
+
+	Entry get(Key key) {
+		return entries.getIfPresent(key);
+	}
+
+	void put(Key key, RevisionBranchRef compare, RevisionCompare.Builder result) {
+		entries.put(key, new Entry(compare, result));
+	}
+
+	/**
+	 * Evicts all entries, eg. when the commits of the index have been deleted.
+	 */
+	void invalidateAll() {
+		entries.invalidateAll();
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2023-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,6 +15,7 @@
  */
 package com.b2international.index.revision;
 
+import java.util.Objects;
 import java.util.Set;
 
 import com.b2international.commons.collections.Collections3;
@@ -108,6 +109,24 @@ public final class RevisionCompareOptions {
 		return ids;
 	}
 	
+	@Override
+	public int hashCode() {
+		return Objects.hash(limit, includeComponentChanges, includeDerivedComponentChanges, types, ids);
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) return true;
+		if (obj == null) return false;
+		if (getClass() != obj.getClass()) return false;
+		RevisionCompareOptions other = (RevisionCompareOptions) obj;
+		return limit == other.limit
+				&& includeComponentChanges == other.includeComponentChanges
+				&& includeDerivedComponentChanges == other.includeDerivedComponentChanges
+				&& Objects.equals(types, other.types)
+				&& Objects.equals(ids, other.ids);
+	}
+	
 	public static Builder builder() {
 		return new Builder();
 	}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -99,10 +99,14 @@ public interface RevisionIndex extends Administrable<RevisionIndexAdmin> {
 	/**
 	 * Compares the given compare branch with the given base branch. The {@link RevisionCompare} response will contain the difference from the compare
 	 * branch compared to the base. The result might contain new, changed, deleted revision storage keys of any revision.
+	 * <p>
+	 * Both arguments accept <i>{branchPath}@{timestamp}</i> expressions, so the changes made on a single branch since a given point in time can be
+	 * retrieved by comparing the branch at that timestamp with the branch itself.
 	 * 
 	 * @param baseBranch
 	 * @param compareBranch
 	 * @return
+	 * @see #AT_CHAR
 	 */
 	RevisionCompare compare(String baseBranch, String compareBranch);
 	
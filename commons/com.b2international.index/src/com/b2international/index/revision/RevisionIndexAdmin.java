@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2018-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -67,6 +67,7 @@ public final class RevisionIndexAdmin implements IndexAdmin {
 	public void create() {
 		this.index.admin().getIndexMapping().getMappings().putMapping(RevisionBranch.class);
 		this.index.admin().getIndexMapping().getMappings().putMapping(Commit.class);
+		this.index.admin().getIndexMapping().getMappings().putMapping(CommitDetailChunk.class);
 		rawIndexAdmin.create();
 		index.branching().init();
 	}
@@ -74,11 +75,21 @@ public final class RevisionIndexAdmin implements IndexAdmin {
 	@Override
 	public void delete() {
 		rawIndexAdmin.delete();
+		index.branching().invalidateAll();
+		invalidateCompareCache();
 	}
 
 	@Override
 	public void clear(Collection<Class<?>> types) {
 		rawIndexAdmin.clear(types);
+		index.branching().invalidateAll();
+		invalidateCompareCache();
+	}
+
+	private void invalidateCompareCache() {
+		if (index instanceof InternalRevisionIndex internalIndex) {
+			internalIndex.invalidateCompareCache();
+		}
 	}
 
 	@Override
@@ -101,6 +112,7 @@ public final class RevisionIndexAdmin implements IndexAdmin {
 		// ensure we have the necessary Mappings all the times
 		mappings.putMapping(RevisionBranch.class);
 		mappings.putMapping(Commit.class);
+		mappings.putMapping(CommitDetailChunk.class);
 		rawIndexAdmin.updateMappings(mappings);
 	}
 
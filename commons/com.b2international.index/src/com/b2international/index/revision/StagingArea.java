@@ -586,16 +586,23 @@ public final class StagingArea {
 		}
 		
 		// raise watermark logs if above thresholds
-		reportWarningIfCommitWatermarkExceeded(details, author, commitComment);
+		final int numberOfCommitDetails = CommitDetails.size(details);
+		reportWarningIfCommitWatermarkExceeded(numberOfCommitDetails, author, commitComment);
 		
 		// make sure we populate subjects from the current supplied context, if it is a CommitSubjectSupplier
 		if (context instanceof CommitSubjectSupplier css) {
 			subjects.addAll(css.getSubjectIds());
 		}
 		
+		final String commitId = UUIDs.randomBase64UUID();
+		
+		// store the details of large commits in separate, compressed chunks instead of the commit document
+		final List<CommitDetailChunk> detailChunks = numberOfCommitDetails > CommitDetails.CHUNK_SIZE ? CommitDetails.toChunks(commitId, details) : List.of();
+		detailChunks.forEach(writer::put);
+		
 		// generate a commit entry that marks the end of the commit and contains all changes in a details property
 		Commit commitDoc = commit
-				.id(UUIDs.randomBase64UUID())
+				.id(commitId)
 				.groupId(commitGroupId)
 				.author(author)
 				.branch(branchPath)
@@ -605,8 +612,10 @@ public final class StagingArea {
 				.subjects(subjects)
 				.mergeSource(!CompareUtils.isEmpty(mergeSources) ? mergeSources.last() : null)
 				.squashMerge(!CompareUtils.isEmpty(mergeSources) ? squashMerge : null)
+				.detailChunks(!detailChunks.isEmpty() ? detailChunks.size() : null)
 				.build();
-		writer.put(commitDoc);
+		// the returned commit keeps its details in memory for hooks and notifications, only the document written to the index omits them
+		writer.put(detailChunks.isEmpty() ? commitDoc : commitDoc.withDetails(List.of()));
 		
 		// update branch document(s)
 		ImmutableMap.Builder<String, Object> toBranchUpdateParams = ImmutableMap.builder();
@@ -635,8 +644,7 @@ public final class StagingArea {
 		return commitDoc;
 	}
 
-	private void reportWarningIfCommitWatermarkExceeded(final List<CommitDetail> details, String author, String commitComment) {
-		int numberOfCommitDetails = calculateCommitDetails(details);
+	private void reportWarningIfCommitWatermarkExceeded(final int numberOfCommitDetails, String author, String commitComment) {
 		if (numberOfCommitDetails > commitWatermarkHigh) {
 			index.admin().log().warn("high commit watermark [{}] exceeded in commit [{} - {} - {}] number of changes: {}", commitWatermarkHigh, branchPath, author, commitComment, numberOfCommitDetails);
 		} else if (numberOfCommitDetails > commitWatermarkLow) {
@@ -644,22 +652,6 @@ public final class StagingArea {
 		}
 	}
 
-	private int calculateCommitDetails(List<CommitDetail> details) {
-		int i = 0;
-		for (CommitDetail detail : details) {
-			i += calculateCommitDetails(detail);
-		}
-		return i;
-	}
-	
-	private int calculateCommitDetails(CommitDetail detail) {
-		if (detail.isPropertyChange()) {
-			return detail.getObjects().size();
-		} else {
-			return detail.getComponents().stream().mapToInt(Set::size).sum();
-		}
-	}
-
 	/**
 	 * Dirty staging area if at least one object has been staged.
 	 * @return <code>true</code> if the staging area is dirty and can be committed via {@link #commit(String, long, String, String)}
@@ -1199,7 +1191,7 @@ public final class StagingArea {
 			return index.admin().getIndexMapping().getMapping(newRevision.getClass());
 		}
 
-		private JsonDiff rawDiff() {
+		private synchronized JsonDiff rawDiff() {
 			if (rawDiff == null) {
 				final DocumentMapping mapping = getMapping();
 				ObjectNode oldRevisionSource = mapper.valueToTree(oldRevision);
@@ -1235,7 +1227,7 @@ public final class StagingArea {
 			return this.rawDiff;
 		}
 		
-		public JsonDiff diff() {
+		public synchronized JsonDiff diff() {
 			if (diff == null) {
 				final DocumentMapping mapping = getMapping();
 				final Set<String> revisionFields = mapping.getTrackedRevisionFields();
@@ -1262,7 +1254,7 @@ public final class StagingArea {
 			return getRevisionPropertyDiffs().get(property);
 		}
 
-		private Map<String, RevisionPropertyDiff> getRevisionPropertyDiffs() {
+		private synchronized Map<String, RevisionPropertyDiff> getRevisionPropertyDiffs() {
 			if (propertyChanges == null) {
 				propertyChanges = newHashMapWithExpectedSize(2);
 				for (JsonChange change : diff()) {
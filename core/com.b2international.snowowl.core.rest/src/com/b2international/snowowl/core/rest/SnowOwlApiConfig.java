@@ -46,6 +46,7 @@ import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.http.converter.xml.MappingJackson2XmlHttpMessageConverter;
 import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.util.StringValueResolver;
 import org.springframework.validation.beanvalidation.MethodValidationPostProcessor;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -142,7 +143,7 @@ public class SnowOwlApiConfig extends WebMvcConfigurationSupport {
 		// web.xml can only support static values, other configuration methods are not working in our case so we rely on this method to inject the config values
 		ServletRegistration reg = servletContext.getServletRegistration("restServlet");
 		if (reg instanceof ServletRegistration.Dynamic) {
-			final HttpConfig httpConfig = ApplicationContext.getInstance().getService(SnowOwlConfiguration.class).getModuleConfig(ApiConfiguration.class).getHttp();
+			final HttpConfig httpConfig = getHttpConfig();
 			final long maxFileSize = httpConfig.getMaxFileSizeBytes();
 			final long maxRequestSize = httpConfig.getMaxRequestSizeBytes();
 			final int fileSizeThreshold = httpConfig.getMaxInMemorySizeBytes();
@@ -284,11 +285,28 @@ public class SnowOwlApiConfig extends WebMvcConfigurationSupport {
 		configurer.enable();
 	}
 	
+	@Bean
+	public ThreadPoolTaskExecutor mvcAsyncExecutor() {
+		final HttpConfig httpConfig = getHttpConfig();
+		// Streamed responses are written by a fixed number of threads instead of a new thread for each request
+		final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(httpConfig.getAsyncThreads());
+		executor.setMaxPoolSize(httpConfig.getAsyncThreads());
+		executor.setAllowCoreThreadTimeOut(true);
+		executor.setThreadNamePrefix("mvc-async-");
+		executor.setDaemon(true);
+		return executor;
+	}
+	
 	@Override
 	protected void configureAsyncSupport(AsyncSupportConfigurer configurer) {
 		super.configureAsyncSupport(configurer);
-		final HttpConfig httpConfig = ApplicationContext.getInstance().getService(SnowOwlConfiguration.class).getModuleConfig(ApiConfiguration.class).getHttp();
-		configurer.setDefaultTimeout(httpConfig.getRequestTimeoutInMillis());
+		configurer.setDefaultTimeout(getHttpConfig().getRequestTimeoutInMillis());
+		configurer.setTaskExecutor(mvcAsyncExecutor());
+	}
+	
+	private HttpConfig getHttpConfig() {
+		return ApplicationContext.getInstance().getService(SnowOwlConfiguration.class).getModuleConfig(ApiConfiguration.class).getHttp();
 	}
 	
 	@Override
@@ -1,5 +1,5 @@
 /*
- * Copyright 2019-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2019-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -110,6 +110,7 @@ public abstract class RepositoryValidationRestService extends AbstractRestServic
 					ValidationConfiguration.IS_UNPUBLISHED_ONLY, validationInput.isUnpublishedOnly()
 				))
 				.setRuleIds(validationInput.getRuleIds())
+				.setIncremental(validationInput.isIncremental())
 				.build(validationInput.getPath())
 				.runAsJobWithRestart(uniqueJobId, String.format("Validating '%s'", validationInput.getPath()))
 				.execute(getBus())
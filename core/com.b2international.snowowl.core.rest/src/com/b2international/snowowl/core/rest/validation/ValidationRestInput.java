@@ -32,6 +32,8 @@ public class ValidationRestInput {
 	
 	private boolean unpublishedOnly = true;
 	
+	private boolean incremental = false;
+	
 	public String getPath() {
 		return path;
 	}
@@ -56,6 +58,14 @@ public class ValidationRestInput {
 		this.unpublishedOnly = unpublishedOnly;
 	}
 	
+	public boolean isIncremental() {
+		return incremental;
+	}
+	
+	public void setIncremental(boolean incremental) {
+		this.incremental = incremental;
+	}
+	
 	@Override
 	public String toString() {
 		final StringBuilder builder = new StringBuilder();
@@ -65,6 +75,8 @@ public class ValidationRestInput {
 		builder.append(ruleIds);
 		builder.append(", unpublishedOnly=");
 		builder.append(unpublishedOnly);
+		builder.append(", incremental=");
+		builder.append(incremental);
 		builder.append("]");
 		return builder.toString();
 	}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2018-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,12 +21,14 @@ import org.junit.runners.Suite.SuiteClasses;
 
 import com.b2international.snowowl.core.attachments.AttachmentRegistryTest;
 import com.b2international.snowowl.core.codesystem.CodeSystemTest;
+import com.b2international.snowowl.core.conceptmap.ConceptMapMappingComparerTest;
 import com.b2international.snowowl.core.domain.ReindexQuerySerializationTest;
 import com.b2international.snowowl.core.ecl.EclEvaluationRequestTest;
 import com.b2international.snowowl.core.ecl.EclRewriterTest;
 import com.b2international.snowowl.core.events.NotificationsTest;
 import com.b2international.snowowl.core.events.util.PromiseTest;
 import com.b2international.snowowl.core.events.util.RequestTest;
+import com.b2international.snowowl.core.identity.AuthenticationCacheTest;
 import com.b2international.snowowl.core.identity.JWTConfigurationTest;
 import com.b2international.snowowl.core.identity.PermissionTest;
 import com.b2international.snowowl.core.info.RepositoryInfoSerializationTest;
@@ -36,6 +38,8 @@ import com.b2international.snowowl.core.locks.DatastoreLockTests;
 import com.b2international.snowowl.core.locks.LockIndexTests;
 import com.b2international.snowowl.core.merge.MergeConflictSerializationTest;
 import com.b2international.snowowl.core.monitoring.ConsoleProgressMonitorTest;
+import com.b2international.snowowl.core.repository.BaseRepositoryPreCommitHookTest;
+import com.b2international.snowowl.core.request.ConceptSearchCursorTest;
 import com.b2international.snowowl.core.request.ExpandParserTest;
 import com.b2international.snowowl.core.request.SearchResourceRequestTest;
 import com.b2international.snowowl.core.request.SortParserTest;
@@ -48,6 +52,7 @@ import com.b2international.snowowl.core.uri.ResourceURIWithQueryTest;
 import com.b2international.snowowl.core.validation.ValidationRuleApiTest;
 import com.b2international.snowowl.core.validation.ValidationThreadPoolTest;
 import com.b2international.snowowl.core.validation.ValidationWhiteListApiTest;
+import com.b2international.snowowl.core.validation.eval.SharedValidationContextTest;
 import com.b2international.snowowl.core.validation.issue.ValidationIssueApiTest;
 
 /**
@@ -59,6 +64,7 @@ import com.b2international.snowowl.core.validation.issue.ValidationIssueApiTest;
 	JWTConfigurationTest.class,
 	// identity/authorization tests
 	PermissionTest.class,
+	AuthenticationCacheTest.class,
 	
 	// unit tests
 	SimpleTaxonomyGraphTest.class,
@@ -77,12 +83,16 @@ import com.b2international.snowowl.core.validation.issue.ValidationIssueApiTest;
 	ImportResponseSerializationTest.class,
 	ValidationThreadPoolTest.class,
 	SearchResourceRequestTest.class,
+	ConceptSearchCursorTest.class,
 	CodeSystemTest.class,
 	GroovyScriptEngineTest.class,
 	EclRewriterTest.class,
 	RepositoryInfoSerializationTest.class,
 	ServerInfoSerializationTest.class,
 	ReindexQuerySerializationTest.class,
+	ConceptMapMappingComparerTest.class,
+	SharedValidationContextTest.class,
+	BaseRepositoryPreCommitHookTest.class,
 	
 	// medium integration tests
 	JobRequestsTest.class,
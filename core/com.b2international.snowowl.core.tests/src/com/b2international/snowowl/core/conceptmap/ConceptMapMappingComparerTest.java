@@ -0,0 +1,110 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.conceptmap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.b2international.snowowl.core.ResourceURI;
+import com.b2international.snowowl.core.compare.ConceptMapCompareChangeKind;
+import com.b2international.snowowl.core.compare.ConceptMapCompareConfigurationProperties;
+import com.b2international.snowowl.core.compare.ConceptMapCompareResultItem;
+import com.b2international.snowowl.core.domain.ConceptMapMapping;
+import com.b2international.snowowl.core.uri.ComponentURI;
+
+/**
+ * @since 9.3
+ */
+public class ConceptMapMappingComparerTest {
+
+	private static final ResourceURI SOURCE = ResourceURI.of("codesystems", "SOURCE");
+	private static final ResourceURI TARGET = ResourceURI.of("codesystems", "TARGET");
+
+	private static final List<ConceptMapMapping> BASE = List.of(
+		mapping("Base", "1", "A"), // same
+		mapping("Base", "2", "B"), // different target
+		mapping("Base", "3", "C"), // present
+		mapping("Base", "3", "C"), // duplicate of the above
+		mapping("Base", "5", "E"), // same, and a different target next to it
+		mapping("Base", "5", "F")
+	);
+
+	private static final List<ConceptMapMapping> COMPARE = List.of(
+		mapping("Compare", "5", "E"),
+		mapping("Compare", "4", "D"), // missing
+		mapping("Compare", "2", "X"),
+		mapping("Compare", "1", "A"),
+		mapping("Compare", "5", "G")
+	);
+
+	@Test
+	public void compareInMemory() throws Exception {
+		assertItems(compare(ConceptMapMappingComparer.DEFAULT_RUN_SIZE));
+	}
+
+	@Test
+	public void compareWithSpilledRuns() throws Exception {
+		assertItems(compare(2));
+	}
+
+	@Test
+	public void compareEmptyMaps() throws Exception {
+		final List<ConceptMapCompareResultItem> items = new ArrayList<>();
+		new ConceptMapMappingComparer(ConceptMapCompareConfigurationProperties.DEFAULT_SELECTED_PROPERTIES, 2)
+			.compare(List.<ConceptMapMapping>of().iterator(), List.<ConceptMapMapping>of().iterator(), items::add);
+		assertThat(items).isEmpty();
+	}
+
+	private static List<ConceptMapCompareResultItem> compare(int runSize) {
+		final List<ConceptMapCompareResultItem> items = new ArrayList<>();
+		new ConceptMapMappingComparer(ConceptMapCompareConfigurationProperties.DEFAULT_SELECTED_PROPERTIES, runSize)
+			.compare(BASE.iterator(), COMPARE.iterator(), items::add);
+		return items;
+	}
+
+	private static void assertItems(List<ConceptMapCompareResultItem> items) {
+		// items are emitted in the order of the source codes
+		assertThat(items)
+			.extracting(ConceptMapCompareResultItem::getChangeKind, ConceptMapCompareResultItem::conceptMap, ConceptMapCompareResultItem::sourceCode, ConceptMapCompareResultItem::targetCode)
+			.containsExactly(
+				tuple(ConceptMapCompareChangeKind.SAME, "Both", "1", "A"),
+				tuple(ConceptMapCompareChangeKind.DIFFERENT_TARGET, "Base", "2", "B"),
+				tuple(ConceptMapCompareChangeKind.DIFFERENT_TARGET, "Compare", "2", "X"),
+				tuple(ConceptMapCompareChangeKind.PRESENT, "Base", "3", "C"),
+				tuple(ConceptMapCompareChangeKind.MISSING, "Compare", "4", "D"),
+				tuple(ConceptMapCompareChangeKind.SAME, "Both", "5", "E"),
+				tuple(ConceptMapCompareChangeKind.DIFFERENT_TARGET, "Base", "5", "F"),
+				tuple(ConceptMapCompareChangeKind.DIFFERENT_TARGET, "Compare", "5", "G")
+			);
+	}
+
+	private static ConceptMapMapping mapping(String conceptMap, String sourceCode, String targetCode) {
+		return ConceptMapMapping.builder()
+			.conceptMapTerm(conceptMap)
+			.active(true)
+			.sourceComponentURI(ComponentURI.of(SOURCE, "concept", sourceCode))
+			.sourceTerm("Source " + sourceCode)
+			.targetComponentURI(ComponentURI.of(TARGET, "concept", targetCode))
+			.targetTerm("Target " + targetCode)
+			.build();
+	}
+
+}
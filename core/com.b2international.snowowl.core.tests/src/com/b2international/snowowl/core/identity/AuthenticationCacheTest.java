@@ -0,0 +1,152 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.identity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.InstantSource;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.b2international.snowowl.core.events.util.Promise;
+import com.google.common.base.Charsets;
+
+/**
+ * @since 9.3
+ */
+public class AuthenticationCacheTest {
+
+	private static final Duration EXPIRATION = Duration.ofMinutes(1);
+
+	private Instant now;
+	private AuthenticationCache cache;
+	private AtomicInteger authCalls;
+	private AuthorizationHeaderVerifier verifier;
+
+	@Before
+	public void setup() {
+		now = Instant.parse("2024-01-01T00:00:00Z");
+		final InstantSource instantSource = () -> now;
+		cache = new AuthenticationCache(100, EXPIRATION, instantSource);
+		authCalls = new AtomicInteger();
+		verifier = new AuthorizationHeaderVerifier(null, new CountingIdentityProvider(), cache);
+	}
+
+	@Test
+	public void cacheBasicCredentials() throws Exception {
+		final String header = basic("user", "pass");
+
+		assertThat(verifier.auth(header).getUserId()).isEqualTo("user");
+		assertThat(verifier.auth(header).getUserId()).isEqualTo("user");
+		assertThat(authCalls).hasValue(1);
+
+		assertThat(verifier.auth(basic("user", "other")).getUserId()).isEqualTo("user");
+		assertThat(authCalls).hasValue(2);
+
+		assertThat(cache.stats().hitCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void expireAfterWrite() throws Exception {
+		final String header = basic("user", "pass");
+
+		verifier.auth(header);
+		now = now.plus(EXPIRATION).minusSeconds(1);
+		verifier.auth(header);
+		assertThat(authCalls).hasValue(1);
+
+		now = now.plusSeconds(1);
+		verifier.auth(header);
+		assertThat(authCalls).hasValue(2);
+	}
+
+	@Test
+	public void expireWithToken() throws Exception {
+		final String header = "Bearer " + JWT.create()
+			.withSubject("user")
+			.withExpiresAt(now.plusSeconds(10))
+			.sign(Algorithm.HMAC256("secret"));
+
+		verifier.auth(header);
+		verifier.auth(header);
+		assertThat(authCalls).hasValue(1);
+
+		now = now.plusSeconds(10);
+		verifier.auth(header);
+		assertThat(authCalls).hasValue(2);
+	}
+
+	@Test
+	public void invalidateUser() throws Exception {
+		final String header = basic("user", "pass");
+		final String otherHeader = basic("other", "pass");
+
+		verifier.auth(header);
+		verifier.auth(otherHeader);
+		cache.invalidate("user");
+
+		assertThat(cache.getIfPresent(header)).isNull();
+		assertThat(cache.getIfPresent(otherHeader)).isNotNull();
+	}
+
+	@Test
+	public void failedAuthenticationNotCached() throws Exception {
+		final String header = basic("unknown", "pass");
+
+		assertThat(verifier.auth(header)).isNull();
+		assertThat(cache.getIfPresent(header)).isNull();
+	}
+
+	private static String basic(String username, String password) {
+		return "Basic " + Base64.getEncoder().encodeToString(String.join(":", username, password).getBytes(Charsets.UTF_8));
+	}
+
+	private final class CountingIdentityProvider implements IdentityProvider {
+
+		@Override
+		public User auth(String username, String password) {
+			authCalls.incrementAndGet();
+			return "unknown".equals(username) ? null : new User(username, List.of(Permission.ADMIN));
+		}
+
+		@Override
+		public User authJWT(String token) {
+			authCalls.incrementAndGet();
+			return new User(JWT.decode(token).getSubject(), List.of(Permission.ADMIN));
+		}
+
+		@Override
+		public Promise<Users> searchUsers(Collection<String> usernames, int limit) {
+			return Promise.immediate(new Users(List.of(), limit, 0));
+		}
+
+		@Override
+		public String getInfo() {
+			return "counting";
+		}
+
+	}
+
+}
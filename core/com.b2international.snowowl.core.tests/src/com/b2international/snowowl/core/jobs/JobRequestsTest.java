@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -306,6 +306,40 @@ public class JobRequestsTest {
 		verifyJobEvents(jobId, 1, 12, 0);
 	}
 	
+	@Test
+	public void scheduleAndFlushProgress() throws Exception {
+		final CyclicBarrier barrier = new CyclicBarrier(2);
+		final String jobId = schedule("scheduleAndFlushProgress", context -> {
+			final IProgressMonitor monitor = context.service(IProgressMonitor.class);
+			monitor.beginTask("Flushing progress...", 2);
+			monitor.worked(1);
+			try {
+				// wait until the main thread checked the progress, then wait for it to flush
+				barrier.await();
+				barrier.await();
+			} catch (InterruptedException | BrokenBarrierException e) {
+				throw new RuntimeException(e);
+			}
+			return RESULT;
+		});
+		
+		barrier.await();
+		
+		// progress is available immediately, the index catches up with the next flush
+		assertEquals(50, get(jobId).getCompletionLevel());
+		tracker.flush();
+		final RemoteJobEntry indexedEntry = index.read(searcher -> searcher.get(RemoteJobEntry.class, jobId));
+		assertEquals(RemoteJobState.RUNNING, indexedEntry.getState());
+		assertEquals(50, indexedEntry.getCompletionLevel());
+		
+		barrier.await();
+		
+		final RemoteJobEntry entry = waitDone(jobId);
+		assertEquals(RemoteJobState.FINISHED, entry.getState());
+		assertEquals(50, entry.getCompletionLevel());
+		assertEquals(RemoteJobState.FINISHED, index.read(searcher -> searcher.get(RemoteJobEntry.class, jobId)).getState());
+	}
+	
 	@Test(expected = NotFoundException.class)
 	public void scheduleAndClean() throws Exception {
 		final String jobId = schedule("scheduleAndClean", true, context -> RESULT);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2019-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2019-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,8 +15,16 @@
  */
 package com.b2international.snowowl.core.locks;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -29,6 +37,7 @@ import com.b2international.snowowl.core.internal.locks.DatastoreLockContextDescr
 import com.b2international.snowowl.core.internal.locks.Slf4jOperationLockTargetListener;
 import com.b2international.snowowl.core.repository.JsonSupport;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Lists;
 
 /**
  * @since 7.1.0
@@ -102,6 +111,68 @@ public class DatastoreLockTests {
 		checkIfLockExists(context, true, target);
 	}
 	
+	@Test
+	public void testLockReleaseWakesWaiter() throws Exception {
+		final DatastoreLockContext context = createContext(USER, DatastoreLockContextDescriptions.MAINTENANCE);
+		final DatastoreLockContext otherContext = createContext("other", DatastoreLockContextDescriptions.CLASSIFY);
+		final Lockable target = new Lockable("snomedStore", "MAIN");
+		
+		manager.lock(context, TIMEOUT, target);
+		
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			final Future<?> waiting = executor.submit(() -> manager.lock(otherContext, TIMEOUT, target));
+			Thread.sleep(100L);
+			manager.unlock(context, target);
+			waiting.get(TIMEOUT, TimeUnit.MILLISECONDS);
+			checkIfLockExists(otherContext, true, target);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	@Test
+	public void testConcurrentLockUnlock() throws Exception {
+		final int threads = 8;
+		final int iterations = 100;
+		final Lockable sharedTarget = new Lockable("snomedStore", "MAIN");
+		final AtomicInteger holders = new AtomicInteger();
+		final AtomicInteger maxHolders = new AtomicInteger();
+		
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			final List<Future<?>> futures = Lists.newArrayList();
+			for (int i = 0; i < threads; i++) {
+				final DatastoreLockContext context = createContext(USER + i, DatastoreLockContextDescriptions.MAINTENANCE);
+				final Lockable ownTarget = new Lockable("snomedStore", "MAIN/task" + i);
+				futures.add(executor.submit(() -> {
+					for (int j = 0; j < iterations; j++) {
+						// every thread locks its own branch, every fifth iteration also the shared branch
+						if (j % 5 == 0) {
+							manager.lock(context, TIMEOUT, sharedTarget, ownTarget);
+							maxHolders.accumulateAndGet(holders.incrementAndGet(), Math::max);
+							holders.decrementAndGet();
+							manager.unlock(context, sharedTarget, ownTarget);
+						} else {
+							manager.lock(context, TIMEOUT, ownTarget);
+							manager.unlock(context, ownTarget);
+						}
+					}
+					return null;
+				}));
+			}
+			
+			for (Future<?> future : futures) {
+				future.get(TIMEOUT * 3, TimeUnit.MILLISECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		
+		assertEquals(1, maxHolders.get());
+		assertTrue(manager.getLocks().isEmpty());
+	}
+	
 	private DatastoreLockContext createContext(final String user, final String description) {
 		return new DatastoreLockContext(user, description);
 	}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.b2international.index.revision.Revision;
+import com.b2international.index.revision.RevisionSearcher;
+import com.b2international.index.revision.StagingArea;
+
+/**
+ * @since 9.3
+ */
+public class BaseRepositoryPreCommitHookTest {
+
+	private static abstract class ConceptRevision extends Revision {
+		private ConceptRevision(String id) {
+			super(id);
+		}
+	}
+
+	private static abstract class DescriptionRevision extends Revision {
+		private DescriptionRevision(String id) {
+			super(id);
+		}
+	}
+
+	private static abstract class MemberRevision extends Revision {
+		private MemberRevision(String id) {
+			super(id);
+		}
+	}
+
+	private static final class TestProcessor extends ChangeSetProcessorBase {
+
+		private final Set<Class<? extends Revision>> readTypes;
+		private final Set<Class<? extends Revision>> writeTypes;
+
+		TestProcessor(String description, Set<Class<? extends Revision>> readTypes, Set<Class<? extends Revision>> writeTypes) {
+			super(description);
+			this.readTypes = readTypes;
+			this.writeTypes = writeTypes;
+		}
+
+		@Override
+		public void process(StagingArea staging, RevisionSearcher searcher) {
+		}
+
+		@Override
+		public Set<Class<? extends Revision>> getReadTypes() {
+			return readTypes;
+		}
+
+		@Override
+		public Set<Class<? extends Revision>> getWriteTypes() {
+			return writeTypes;
+		}
+	}
+
+	@Test
+	public void independentProcessors() throws Exception {
+		final ChangeSetProcessor concepts = new TestProcessor("concepts", Set.of(ConceptRevision.class), Set.of(ConceptRevision.class));
+		final ChangeSetProcessor descriptions = new TestProcessor("descriptions", Set.of(DescriptionRevision.class), Set.of(DescriptionRevision.class));
+		final ChangeSetProcessor members = new TestProcessor("members", Set.of(MemberRevision.class), Set.of(MemberRevision.class));
+
+		assertThat(BaseRepositoryPreCommitHook.groupByDependencies(List.of(concepts, descriptions, members)))
+			.containsExactly(List.of(concepts, descriptions, members));
+	}
+
+	@Test
+	public void readerAfterWriter() throws Exception {
+		final ChangeSetProcessor writer = new TestProcessor("writer", Set.of(), Set.of(ConceptRevision.class));
+		final ChangeSetProcessor reader = new TestProcessor("reader", Set.of(ConceptRevision.class), Set.of(DescriptionRevision.class));
+		final ChangeSetProcessor independent = new TestProcessor("independent", Set.of(MemberRevision.class), Set.of(MemberRevision.class));
+
+		assertThat(BaseRepositoryPreCommitHook.groupByDependencies(List.of(writer, reader, independent)))
+			.containsExactly(List.of(writer, independent), List.of(reader));
+	}
+
+	@Test
+	public void writerAfterReader() throws Exception {
+		final ChangeSetProcessor reader = new TestProcessor("reader", Set.of(ConceptRevision.class), Set.of(DescriptionRevision.class));
+		final ChangeSetProcessor writer = new TestProcessor("writer", Set.of(), Set.of(ConceptRevision.class));
+
+		// the writer must not run before the reader has seen the unchanged state
+		assertThat(BaseRepositoryPreCommitHook.groupByDependencies(List.of(reader, writer)))
+			.containsExactly(List.of(reader), List.of(writer));
+	}
+
+	@Test
+	public void processorReadingItsOwnWriteType() throws Exception {
+		final ChangeSetProcessor readsAndWritesConcepts = new TestProcessor("concepts", Set.of(ConceptRevision.class), Set.of(ConceptRevision.class));
+		final ChangeSetProcessor descriptions = new TestProcessor("descriptions", Set.of(DescriptionRevision.class), Set.of(DescriptionRevision.class));
+		final ChangeSetProcessor readsConcepts = new TestProcessor("concept reader", Set.of(ConceptRevision.class), Set.of(MemberRevision.class));
+
+		// reading its own write type does not hold back the processor itself, only the later processor that reads the same type
+		assertThat(BaseRepositoryPreCommitHook.groupByDependencies(List.of(readsAndWritesConcepts, descriptions, readsConcepts)))
+			.containsExactly(List.of(readsAndWritesConcepts, descriptions), List.of(readsConcepts));
+	}
+
+	@Test
+	public void unknownTypesConflictWithEverything() throws Exception {
+		final ChangeSetProcessor concepts = new TestProcessor("concepts", Set.of(ConceptRevision.class), Set.of(ConceptRevision.class));
+		final ChangeSetProcessor unknown = new TestProcessor("unknown", null, null);
+		final ChangeSetProcessor descriptions = new TestProcessor("descriptions", Set.of(DescriptionRevision.class), Set.of(DescriptionRevision.class));
+
+		assertThat(BaseRepositoryPreCommitHook.groupByDependencies(List.of(concepts, unknown, descriptions)))
+			.containsExactly(List.of(concepts), List.of(unknown), List.of(descriptions));
+	}
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.request;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.b2international.commons.exceptions.BadRequestException;
+import com.b2international.snowowl.core.ResourceURI;
+import com.b2international.snowowl.core.domain.Concept;
+import com.b2international.snowowl.core.domain.Concepts;
+import com.b2international.snowowl.core.request.SearchResourceRequest.Sort;
+
+/**
+ * @since 9.3
+ */
+public class ConceptSearchCursorTest {
+
+	private static final List<Sort> SORT_BY_TERM = List.of(Sort.fieldAsc("term"));
+
+	// terms of the concepts in each resource, in the order the resources return them
+	private static final Map<String, List<String>> RESOURCES = Map.of(
+		"codesystems/A", List.of("a", "d", "e", "f", "k"),
+		"codesystems/B", List.of("b", "c", "g"),
+		"codesystems/C", List.of("h", "i", "j", "l", "m", "n")
+	);
+
+	@Test
+	public void mergeFirstPage() throws Exception {
+		final Concepts page = fetch(null, 4);
+		assertThat(page.getItems()).extracting(Concept::getTerm).containsExactly("a", "b", "c", "d");
+		assertThat(page.getTotal()).isEqualTo(14);
+		assertThat(page.getSearchAfter()).isNotNull();
+	}
+
+	@Test
+	public void pageThroughAllResources() throws Exception {
+		final List<String> terms = new ArrayList<>();
+		String searchAfter = null;
+		int pages = 0;
+		do {
+			final Concepts page = fetch(searchAfter, 3);
+			page.forEach(concept -> terms.add(concept.getTerm()));
+			searchAfter = page.getSearchAfter();
+			pages++;
+		} while (searchAfter != null && pages < 10);
+
+		assertThat(terms).containsExactly("a", "b", "c", "d", "e", "f", "g", "h", "i", "j", "k", "l", "m", "n");
+		assertThat(searchAfter).isNull();
+	}
+
+	@Test
+	public void tokenRoundtrip() throws Exception {
+		final Map<String, ConceptSearchCursor.Position> positions = new LinkedHashMap<>();
+		positions.put("codesystems/A", new ConceptSearchCursor.Position("AoIBBw==", 3, false));
+		positions.put("codesystems/B", new ConceptSearchCursor.Position(null, 0, true));
+
+		assertThat(ConceptSearchCursor.fromToken(ConceptSearchCursor.toToken(positions))).isEqualTo(positions);
+	}
+
+	@Test(expected = BadRequestException.class)
+	public void invalidToken() throws Exception {
+		ConceptSearchCursor.fromToken("not-a-token");
+	}
+
+	@Test
+	public void limitWithinResultWindow() throws Exception {
+		final ConceptSearchCursor.Position position = new ConceptSearchCursor.Position("5", ConceptSearchCursor.MAX_RESULT_WINDOW - 10, false);
+		assertThat(position.limit(10)).isEqualTo(ConceptSearchCursor.MAX_RESULT_WINDOW);
+		assertThat(new ConceptSearchCursor.Position(null, 0, true).limit(10)).isZero();
+	}
+
+	@Test(expected = BadRequestException.class)
+	public void limitOutsideResultWindow() throws Exception {
+		new ConceptSearchCursor.Position("5", ConceptSearchCursor.MAX_RESULT_WINDOW - 10, false).limit(11);
+	}
+
+	@Test
+	public void defaultOrderIsByScoreThenId() throws Exception {
+		final Concept first = concept("2", "x", 2.0f);
+		final Concept second = concept("1", "y", 1.0f);
+		final Concept third = concept("3", "z", 1.0f);
+
+		final List<Concept> sorted = List.of(third, second, first).stream()
+				.sorted(ConceptSearchCursor.comparator(null))
+				.collect(Collectors.toList());
+
+		assertThat(sorted).containsExactly(first, second, third);
+	}
+
+	/*
+	 * Simulates the concurrent evaluation of the resources: each resource returns the requested number of concepts starting after the given
+	 * resource specific searchAfter value (the position in the resource's list).
+	 */
+	private static Concepts fetch(String searchAfter, int limit) {
+		final Map<String, ConceptSearchCursor.Position> positions = ConceptSearchCursor.fromToken(searchAfter);
+		final Map<String, Concepts> pages = new LinkedHashMap<>();
+		new TreeMap<>(RESOURCES).forEach((resource, terms) -> {
+			final ConceptSearchCursor.Position position = positions.getOrDefault(resource, ConceptSearchCursor.Position.START);
+			final int from = position.searchAfter() == null ? 0 : Integer.parseInt(position.searchAfter());
+			final int to = Math.min(terms.size(), from + position.limit(limit));
+			final List<Concept> items = terms.subList(from, to).stream()
+					.map(term -> concept(resource + "/" + term, term, null))
+					.collect(Collectors.toList());
+			pages.put(resource, new Concepts(items, to < terms.size() ? Integer.toString(to) : null, position.limit(limit), terms.size()));
+		});
+		return ConceptSearchCursor.merge(positions, pages, SORT_BY_TERM, limit);
+	}
+
+	private static Concept concept(String id, String term, Float score) {
+		final Concept concept = new Concept(ResourceURI.of("codesystems", "TEST"), "concept");
+		concept.setId(id);
+		concept.setTerm(term);
+		concept.setScore(score);
+		return concept;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2020 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2017-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,10 @@
 package com.b2international.snowowl.core.scripts;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.util.Collections;
 
@@ -26,6 +29,9 @@ import org.junit.Test;
 import com.b2international.snowowl.core.plugin.ClassPathScanner;
 import com.google.common.collect.ImmutableMap;
 
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.Script;
+
 /**
  * @since 6.1
  */
@@ -52,4 +58,57 @@ public class GroovyScriptEngineTest {
 		assertEquals(3, rv);
 	}
 	
+	@Test
+	public void reuseScriptInstanceOnSameThread() throws Exception {
+		final String script = "System.identityHashCode(this)";
+		int first = engines.run(GroovyScriptEngine.EXTENSION, getClass().getClassLoader(), script, Collections.emptyMap());
+		int second = engines.run(GroovyScriptEngine.EXTENSION, getClass().getClassLoader(), script, Collections.emptyMap());
+		assertEquals(first, second);
+	}
+	
+	@Test
+	public void bindingIsNotSharedBetweenRuns() throws Exception {
+		final String script = "binding.hasVariable('b') ? a + b : a";
+		int rv = engines.run(GroovyScriptEngine.EXTENSION, getClass().getClassLoader(), script, ImmutableMap.of("a", 1, "b", 2));
+		assertEquals(3, rv);
+		rv = engines.run(GroovyScriptEngine.EXTENSION, getClass().getClassLoader(), script, ImmutableMap.of("a", 1));
+		assertEquals(1, rv);
+	}
+	
+	@Test
+	public void doNotReuseScriptsWithFields() throws Exception {
+		final String script = "@groovy.transform.Field int runs = 0; runs += 1; System.identityHashCode(this)";
+		int first = engines.run(GroovyScriptEngine.EXTENSION, getClass().getClassLoader(), script, Collections.emptyMap());
+		int second = engines.run(GroovyScriptEngine.EXTENSION, getClass().getClassLoader(), script, Collections.emptyMap());
+		assertNotEquals(first, second);
+	}
+	
+	@Test
+	public void fieldStateIsNotSharedBetweenRuns() throws Exception {
+		final String script = "@groovy.transform.Field int runs = 0; runs += 1; runs";
+		int first = engines.run(GroovyScriptEngine.EXTENSION, getClass().getClassLoader(), script, Collections.emptyMap());
+		int second = engines.run(GroovyScriptEngine.EXTENSION, getClass().getClassLoader(), script, Collections.emptyMap());
+		assertEquals(1, first);
+		assertEquals(1, second);
+	}
+	
+	@Test
+	public void isReusable() throws Exception {
+		try (GroovyClassLoader classLoader = new GroovyClassLoader(getClass().getClassLoader())) {
+			assertTrue(GroovyScriptEngine.isReusable(parseScript(classLoader, "def runs = 0; runs += 1; runs", "LocalVariable.groovy")));
+			assertFalse(GroovyScriptEngine.isReusable(parseScript(classLoader, "@groovy.transform.Field int runs = 0; runs += 1; runs", "FieldVariable.groovy")));
+		}
+	}
+	
+	@Test
+	public void typeCheckedScript() throws Exception {
+		final String script = "int a = 1; int b = 2; a + b";
+		int rv = engines.run(GroovyScriptEngine.EXTENSION, getClass().getClassLoader(), script, Collections.emptyMap());
+		assertEquals(3, rv);
+	}
+	
+	private static Class<? extends Script> parseScript(GroovyClassLoader classLoader, String script, String scriptName) {
+		return ((Class<?>) classLoader.parseClass(script, scriptName)).asSubclass(Script.class);
+	}
+	
 }
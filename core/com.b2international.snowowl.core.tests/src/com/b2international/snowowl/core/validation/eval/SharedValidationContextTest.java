@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.validation.eval;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import groovy.lang.Binding;
+import groovy.lang.GroovyShell;
+
+/**
+ * @since 9.3
+ */
+public class SharedValidationContextTest {
+
+	@Test
+	public void computeOnce() throws Exception {
+		final SharedValidationContext shared = new SharedValidationContext();
+		final AtomicInteger loads = new AtomicInteger();
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<Set<String>>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(executor.submit(() -> shared.get("moduleIds", () -> {
+					loads.incrementAndGet();
+					return new HashSet<>(List.of("1", "2"));
+				})));
+			}
+			for (Future<Set<String>> result : results) {
+				assertThat(result.get()).containsOnly("1", "2");
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertThat(loads).hasValue(1);
+	}
+	
+	@Test
+	public void valuesAreUnmodifiable() throws Exception {
+		final SharedValidationContext shared = new SharedValidationContext();
+		final Map<String, String> ranges = shared.get("ranges", () -> new HashMap<>(Map.of("1", "<< 2")));
+		assertThatThrownBy(() -> ranges.put("3", "<< 4")).isInstanceOf(UnsupportedOperationException.class);
+		
+		final List<String> ids = shared.get("ids", () -> new ArrayList<>(List.of("1")));
+		assertThatThrownBy(() -> ids.add("2")).isInstanceOf(UnsupportedOperationException.class);
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void scriptAccess() throws Exception {
+		final SharedValidationContext shared = new SharedValidationContext();
+		final String script = "shared.get('ids:' + params.modules) { [params.modules] as Set }";
+		final Binding binding = new Binding(Map.of("shared", shared, "params", Map.of("modules", "1")));
+		final Set<String> ids = (Set<String>) new GroovyShell(binding).evaluate(script);
+		assertThat(ids).containsOnly("1");
+		assertThat(shared.<Set<String>>get("ids:1", Set::of)).isSameAs(ids);
+	}
+	
+}
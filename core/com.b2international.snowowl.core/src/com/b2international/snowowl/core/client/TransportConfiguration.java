@@ -19,6 +19,7 @@ import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
+import com.b2international.snowowl.eventbus.netty.EventBusNettyUtil;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
@@ -32,7 +33,7 @@ public class TransportConfiguration {
 	private static final int DEFAULT_WATCHDOG_RATE_SECONDS = 30;
 	private static final int DEFAULT_WATCHDOG_TIMEOUT_SECONDS = 300;
 	private static final String DEFAULT_CERTIFICATE_PATH = "";
-	private static final int DEFAULT_MAX_OBJECT_SIZE = Integer.MAX_VALUE - 1024;
+	private static final int DEFAULT_MAX_OBJECT_SIZE = EventBusNettyUtil.MAX_OBJECT_SIZE;
 	public static final int DEFAULT_UPLOAD_CHUNK_SIZE = 10_485_760; // 10 Mb
 	public static final int DEFAULT_DOWNLOAD_CHUNK_SIZE = 1_048_576; // 1 Mb 
 	
@@ -125,7 +126,7 @@ public class TransportConfiguration {
 	}
 
 	/**
-	 * @return the maximum number of bytes allowed to be serialized/deserialized as a Java object over the network
+	 * @return the maximum number of bytes allowed for a single encoded event bus message sent or received over the network
 	 */
 	@JsonProperty
 	public int getMaxObjectSize() {
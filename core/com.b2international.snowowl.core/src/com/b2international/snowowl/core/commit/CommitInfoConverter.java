@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,8 +25,10 @@ import java.util.stream.Stream;
 import com.b2international.commons.ChangeKind;
 import com.b2international.commons.http.ExtendedLocale;
 import com.b2international.commons.options.Options;
+import com.b2international.index.Searcher;
 import com.b2international.index.revision.Commit;
 import com.b2international.index.revision.CommitDetail;
+import com.b2international.index.revision.CommitDetails;
 import com.b2international.snowowl.core.Resource;
 import com.b2international.snowowl.core.ResourceURI;
 import com.b2international.snowowl.core.Resources;
@@ -103,7 +105,9 @@ final class CommitInfoConverter extends BaseResourceConverter<Commit, CommitInfo
 		}
 	}
 
-	private Collection<CommitDetail> getCommitDetails(final Commit commit, Options detailsExpandOptions) {
+	private Collection<CommitDetail> getCommitDetails(final Commit doc, Options detailsExpandOptions) {
+		// details of large commits are stored separately from the commit document, load them only when they are requested
+		final Commit commit = CommitDetails.load(context().service(Searcher.class), doc);
 		// use the filter defined affectedComponentId if present
 		final String affectedComponentId = getDetailsAffectedComponentId(filters, detailsExpandOptions);
 		if (!Strings.isNullOrEmpty(affectedComponentId)) {
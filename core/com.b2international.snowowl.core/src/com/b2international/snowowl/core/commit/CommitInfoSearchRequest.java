@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,6 +31,7 @@ import com.b2international.index.query.Expressions;
 import com.b2international.index.query.Expressions.ExpressionBuilder;
 import com.b2international.index.query.MatchAll;
 import com.b2international.index.revision.Commit;
+import com.b2international.index.revision.CommitDetails;
 import com.b2international.snowowl.core.TerminologyResource;
 import com.b2international.snowowl.core.authorization.AuthorizationService;
 import com.b2international.snowowl.core.branch.Branch;
@@ -85,7 +86,7 @@ final class CommitInfoSearchRequest extends SearchIndexResourceRequest<Repositor
 		addCommentClause(queryBuilder);
 		addTimeStampClause(queryBuilder);
 		addTimeStampRangeClause(queryBuilder);
-		addAffectedComponentClause(queryBuilder);
+		addAffectedComponentClause(context, queryBuilder);
 	}
 	
 	@Override
@@ -120,7 +121,7 @@ final class CommitInfoSearchRequest extends SearchIndexResourceRequest<Repositor
 		
 		// perform security filter when accessing the resources repository using dedicated resource filtering via detail filtering
 		if (context.info().id().equals("resources")) {
-			builder.filter(Commit.Expressions.affectedObjects(accessibleResources));
+			builder.filter(CommitDetails.affectedObjects(searcher(context), accessibleResources));
 			return;
 		}
 		
@@ -240,10 +241,11 @@ final class CommitInfoSearchRequest extends SearchIndexResourceRequest<Repositor
 		}
 	}
 	
-	private void addAffectedComponentClause(final ExpressionBuilder builder) {
+	private void addAffectedComponentClause(RepositoryContext context, final ExpressionBuilder builder) {
 		if (containsKey(OptionKey.AFFECTED_COMPONENT_ID)) {
 			final String affectedComponentId = getString(OptionKey.AFFECTED_COMPONENT_ID);
-			builder.filter(affectedObject(affectedComponentId));
+			// details of large commits are stored separately, resolve those commits first
+			builder.filter(CommitDetails.affectedObject(searcher(context), affectedComponentId));
 		}
 	}
 	
@@ -1,5 +1,5 @@
 /*
- * Copyright 2020 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2020-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,19 +16,25 @@
 package com.b2international.snowowl.core.conceptmap;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 import com.b2international.commons.exceptions.BadRequestException;
+import com.b2international.commons.http.ExtendedLocale;
+import com.b2international.snowowl.core.ResourceURI;
 import com.b2international.snowowl.core.ServiceProvider;
 import com.b2international.snowowl.core.compare.ConceptMapCompareChangeKind;
+import com.b2international.snowowl.core.compare.ConceptMapCompareConfigurationProperties;
 import com.b2international.snowowl.core.compare.ConceptMapCompareResultItem;
 import com.b2international.snowowl.core.events.Request;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import com.fasterxml.jackson.dataformat.csv.CsvMapper;
 import com.fasterxml.jackson.dataformat.csv.CsvSchema;
 import com.google.common.base.Throwables;
@@ -44,6 +50,13 @@ final class ConceptMapCompareDsvExportRequest implements Request<ServiceProvider
 	private String filePath;
 	private Set<ConceptMapCompareChangeKind> changeKinds;
 	private List<ConceptMapCompareResultItem> items;
+	
+	// set instead of the items when the compare result should be written while it is being computed
+	private ResourceURI baseConceptMapURI;
+	private ResourceURI compareConceptMapURI;
+	private Set<ConceptMapCompareConfigurationProperties> compareConfig;
+	private String preferredDisplay;
+	private List<ExtendedLocale> locales;
 
 	ConceptMapCompareDsvExportRequest() {
 	}
@@ -64,12 +77,25 @@ final class ConceptMapCompareDsvExportRequest implements Request<ServiceProvider
 		this.items = items;
 	}
 	
+	public void setConceptMaps(ResourceURI baseConceptMapURI, ResourceURI compareConceptMapURI) {
+		this.baseConceptMapURI = baseConceptMapURI;
+		this.compareConceptMapURI = compareConceptMapURI;
+	}
+	
+	public void setCompareConfig(Set<ConceptMapCompareConfigurationProperties> compareConfig) {
+		this.compareConfig = compareConfig;
+	}
+	
+	public void setPreferredDisplay(String preferredDisplay) {
+		this.preferredDisplay = preferredDisplay;
+	}
+	
+	public void setLocales(List<ExtendedLocale> locales) {
+		this.locales = locales;
+	}
+	
 	@Override
 	public File execute(ServiceProvider context) {
-	 final List<ConceptMapCompareResultItem> resultsToExport = items.stream()
-				.filter(item -> changeKinds.contains(item.getChangeKind()))
-				.collect(Collectors.toList());
-		
 		final CsvMapper mapper = new CsvMapper();
 		final CsvSchema schema = mapper.schemaFor(ConceptMapCompareResultItem.class)
 				.withHeader()
@@ -77,8 +103,23 @@ final class ConceptMapCompareDsvExportRequest implements Request<ServiceProvider
 				.withColumnSeparator(delimiter)
 				.withNullValue("");
 		
-		try (OutputStream newOutputStream = Files.newOutputStream(Paths.get(filePath), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
-			mapper.writer(schema).writeValue(newOutputStream, resultsToExport);
+		try (OutputStream newOutputStream = Files.newOutputStream(Paths.get(filePath), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+				SequenceWriter writer = mapper.writer(schema).writeValues(newOutputStream)) {
+			final Consumer<ConceptMapCompareResultItem> itemWriter = item -> {
+				if (changeKinds.contains(item.getChangeKind())) {
+					try {
+						writer.write(item);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}
+			};
+			
+			if (items != null) {
+				items.forEach(itemWriter);
+			} else {
+				new ConceptMapMappingComparer(compareConfig).compare(context, baseConceptMapURI, compareConceptMapURI, locales, preferredDisplay, itemWriter);
+			}
 		} catch (Exception e) {
 			throw new BadRequestException("An error occured durin Concept Map Compare DSV export: %s", Throwables.getRootCause(e).getMessage());
 		}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2020 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2020-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,8 +19,11 @@ import java.io.File;
 import java.util.List;
 import java.util.Set;
 
+import com.b2international.commons.http.ExtendedLocale;
+import com.b2international.snowowl.core.ResourceURI;
 import com.b2international.snowowl.core.ServiceProvider;
 import com.b2international.snowowl.core.compare.ConceptMapCompareChangeKind;
+import com.b2international.snowowl.core.compare.ConceptMapCompareConfigurationProperties;
 import com.b2international.snowowl.core.compare.ConceptMapCompareResultItem;
 import com.b2international.snowowl.core.events.BaseRequestBuilder;
 import com.b2international.snowowl.core.events.Request;
@@ -31,14 +34,28 @@ import com.b2international.snowowl.core.events.Request;
 public final class ConceptMapCompareDsvExportRequestBuilder extends BaseRequestBuilder<ConceptMapCompareDsvExportRequestBuilder, ServiceProvider, File> {
 
 	private final List<ConceptMapCompareResultItem> items;
+	private final ResourceURI baseConceptMapURI;
+	private final ResourceURI compareConceptMapURI;
 	private final String filePath;
 
 	private Character delimiter;
 	private Set<ConceptMapCompareChangeKind> changeKids;
+	private Set<ConceptMapCompareConfigurationProperties> compareConfig = ConceptMapCompareConfigurationProperties.DEFAULT_SELECTED_PROPERTIES;
+	private String preferredDisplay = "FSN";
+	private List<ExtendedLocale> locales;
 	
 	public ConceptMapCompareDsvExportRequestBuilder(List<ConceptMapCompareResultItem> items, String filePath) {
 		this.filePath = filePath;
 		this.items = items;
+		this.baseConceptMapURI = null;
+		this.compareConceptMapURI = null;
+	}
+	
+	public ConceptMapCompareDsvExportRequestBuilder(ResourceURI baseConceptMapURI, ResourceURI compareConceptMapURI, String filePath) {
+		this.filePath = filePath;
+		this.items = null;
+		this.baseConceptMapURI = baseConceptMapURI;
+		this.compareConceptMapURI = compareConceptMapURI;
 	}
 
 	public ConceptMapCompareDsvExportRequestBuilder delimiter(final Character delimiter) {
@@ -51,10 +68,29 @@ public final class ConceptMapCompareDsvExportRequestBuilder extends BaseRequestB
 		return getSelf();
 	}
 	
+	public ConceptMapCompareDsvExportRequestBuilder compareConfig(final Set<ConceptMapCompareConfigurationProperties> compareConfig) {
+		this.compareConfig = compareConfig;
+		return getSelf();
+	}
+	
+	public ConceptMapCompareDsvExportRequestBuilder preferredDisplay(final String preferredDisplay) {
+		this.preferredDisplay = preferredDisplay;
+		return getSelf();
+	}
+	
+	public ConceptMapCompareDsvExportRequestBuilder locales(final List<ExtendedLocale> locales) {
+		this.locales = locales;
+		return getSelf();
+	}
+	
 	@Override
 	protected Request<ServiceProvider, File> doBuild() {
 		final ConceptMapCompareDsvExportRequest req = new ConceptMapCompareDsvExportRequest();
 		req.setItems(items);
+		req.setConceptMaps(baseConceptMapURI, compareConceptMapURI);
+		req.setCompareConfig(compareConfig);
+		req.setPreferredDisplay(preferredDisplay);
+		req.setLocales(locales);
 		req.setFilePath(filePath);
 		req.setChangeKinds(changeKids);
 		req.setDelimiter(delimiter);
@@ -15,25 +15,20 @@
  */
 package com.b2international.snowowl.core.conceptmap;
 
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 import java.util.stream.Collectors;
 
 import jakarta.validation.constraints.Min;
-import jakarta.validation.constraints.NotNull;
-
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
 
 import com.b2international.snowowl.core.ResourceURI;
-import com.b2international.snowowl.core.ServiceProvider;
-import com.b2international.snowowl.core.compare.*;
-import com.b2international.snowowl.core.domain.ConceptMapMapping;
-import com.b2international.snowowl.core.domain.ConceptMapMappings;
+import com.b2international.snowowl.core.compare.ConceptMapCompareChangeKind;
+import com.b2international.snowowl.core.compare.ConceptMapCompareConfigurationProperties;
+import com.b2international.snowowl.core.compare.ConceptMapCompareResult;
+import com.b2international.snowowl.core.compare.ConceptMapCompareResultItem;
 import com.b2international.snowowl.core.domain.RepositoryContext;
 import com.b2international.snowowl.core.request.ResourceRequest;
-import com.b2international.snowowl.eventbus.IEventBus;
-import com.google.common.base.Equivalence.Wrapper;
-import com.google.common.collect.*;
 
 /**
  * @since 7.8
@@ -54,8 +49,6 @@ final class ConceptMapCompareRequest extends ResourceRequest<RepositoryContext,
 	@NotEmpty
 	private final Set<ConceptMapCompareConfigurationProperties> selectedConfig;
 	
-	private transient MapCompareSourceAndTargetEquivalence mapCompareEquivalence;
-	
 	@Min(0)
 	private int limit;
 	
@@ -69,137 +62,30 @@ final class ConceptMapCompareRequest extends ResourceRequest<RepositoryContext,
 
 	@Override
 	public ConceptMapCompareResult execute(RepositoryContext context) {
-		List<ConceptMapMapping> baseMappings = fetchConceptMapMappings(context, baseConceptMapURI);
-		List<ConceptMapMapping> compareMappings = fetchConceptMapMappings(context, compareConceptMapURI);
-
-		mapCompareEquivalence = new MapCompareSourceAndTargetEquivalence(selectedConfig);
-		
-		return compareDifferences(baseMappings, compareMappings);
-	}
-
-	private List<ConceptMapMapping> fetchConceptMapMappings(ServiceProvider context, ResourceURI conceptMapUri) {
-		return ConceptMapRequests.prepareSearchConceptMapMappings()
-			.filterByActive(true)
-			.filterByConceptMap(conceptMapUri.toString())
-			.setLocales(locales())
-			.setPreferredDisplay(preferredDisplay)
-			.setLimit(context.getPageSize())
-			.streamAsync(context.service(IEventBus.class), req -> req.buildAsync())
-			.flatMap(ConceptMapMappings::stream)
-			.collect(Collectors.toList());
-	}
-	
-	private ConceptMapCompareResult compareDifferences(List<ConceptMapMapping> baseMappings, List<ConceptMapMapping> compareMappings) {
-		// Wrap the mappings to be compared and processed using set operations
-		Set<Wrapper<ConceptMapMapping>> baseWrappedMappings = wrapMappings(baseMappings);
-		Set<Wrapper<ConceptMapMapping>> compareWrappedMappings = wrapMappings(compareMappings);
-		
-		//Unchanged elements are in the intersection
-		Set<Wrapper<ConceptMapMapping>> allUnchangedWrappedMappings = Sets.intersection(baseWrappedMappings, compareWrappedMappings);
-		
-		// compute intersection by using a Multimap of HASH -> MAPPING
-		// index mappings by hash, then for each key reduce comments into a single concept map mapping with all comments where the hash were the same
-		Multimap<Integer, ConceptMapMapping> baseMappingsByHash = ArrayListMultimap.create();
-		baseWrappedMappings.forEach(mapping -> {
-			baseMappingsByHash.put(mapping.hashCode(), mapping.get());
-		});
-		
-		Multimap<Integer, ConceptMapMapping> compareMappingsByHash = ArrayListMultimap.create();
-		compareWrappedMappings.forEach(mapping -> {
-			compareMappingsByHash.put(mapping.hashCode(), mapping.get());
-		});
-		
-		List<ConceptMapCompareResultItem> allUnchanged = Set.copyOf(Sets.intersection(baseMappingsByHash.keySet(), compareMappingsByHash.keySet()))
-			.stream()
-			.map(hash -> ImmutableList.<ConceptMapMapping>builder().addAll(baseMappingsByHash.removeAll(hash)).addAll(compareMappingsByHash.removeAll(hash)).build())
-			// TODO comments will be handled different in 8.x, now just select the first and move on
-//			reduce((result, next) -> result.mergeComments(next.getComments())).get()
-			.map(mappings -> mappings.stream().findFirst().get()) 
-			.map(mapping -> new ConceptMapCompareResultItem(ConceptMapCompareChangeKind.SAME, mapping))
-			.collect(Collectors.toList());
-		
-		//Remove the unchanged from further comparison
-		Set<Wrapper<ConceptMapMapping>> onlyBaseWrappedMappings = Sets.difference(baseWrappedMappings, allUnchangedWrappedMappings);
-		Set<Wrapper<ConceptMapMapping>> onlyCompareWrappedMappings = Sets.difference(compareWrappedMappings, allUnchangedWrappedMappings);
-		
-		//Multimaps based on the configured equivalence properties
-		Multimap<String, Wrapper<ConceptMapMapping>> baseMMap = collectMapEntries(onlyBaseWrappedMappings);
-		Multimap<String, Wrapper<ConceptMapMapping>> compareMMap = collectMapEntries(onlyCompareWrappedMappings);
-		
-		Set<String> sourceCompoundKeys = baseMMap.keySet();
-		Set<String> targetCompoundKeys = compareMMap.keySet();
-		
-		Set<String> presentKeys = Sets.difference(sourceCompoundKeys, targetCompoundKeys);
-		Set<String> missingKeys = Sets.difference(targetCompoundKeys, sourceCompoundKeys);
-		
-		//Collect the 'Present' mappings
-		Set<Wrapper<ConceptMapMapping>> presentMappings = Sets.newHashSet();
-		presentKeys.stream().forEach(k -> presentMappings.addAll(baseMMap.get(k)));
-		List<ConceptMapCompareResultItem> allRemoved = presentMappings.stream().map(w -> new ConceptMapCompareResultItem(ConceptMapCompareChangeKind.PRESENT, w.get())).collect(Collectors.toList());
-		
-		//Collect the 'Missing' mappings
-		Set<Wrapper<ConceptMapMapping>> missingMappings = Sets.newHashSet();
-		missingKeys.stream().forEach(k -> missingMappings.addAll(compareMMap.get(k)));
-		List<ConceptMapCompareResultItem> allAdded = missingMappings.stream().map(w -> new ConceptMapCompareResultItem(ConceptMapCompareChangeKind.MISSING, w.get())).collect(Collectors.toList());
-		
-		//Remove the already processed missing and present mappings and the remaining items are the different mappings
-		Set<Wrapper<ConceptMapMapping>> sourceDifferentMappings = Sets.difference(onlyBaseWrappedMappings, presentMappings);
-		Set<Wrapper<ConceptMapMapping>> targetDifferentMappings = Sets.difference(onlyCompareWrappedMappings, missingMappings);
-		
-		List<ConceptMapCompareResultItem> allChanged = Lists.newArrayList();
-		
-		sourceDifferentMappings.forEach(w -> {
-			allChanged.add(new ConceptMapCompareResultItem(ConceptMapCompareChangeKind.DIFFERENT_TARGET, w.get()));
-		});
-		
-		targetDifferentMappings.forEach(w -> {
-			allChanged.add(new ConceptMapCompareResultItem(ConceptMapCompareChangeKind.DIFFERENT_TARGET, w.get()));
+		final Map<ConceptMapCompareChangeKind, Integer> totals = new EnumMap<>(ConceptMapCompareChangeKind.class);
+		// keep only the first items in result order, the greatest item kept so far is at the head of the queue
+		final PriorityQueue<ConceptMapCompareResultItem> items = new PriorityQueue<>(Math.min(limit, 1024) + 1, Comparator.reverseOrder());
+		
+		new ConceptMapMappingComparer(selectedConfig).compare(context, baseConceptMapURI, compareConceptMapURI, locales(), preferredDisplay, item -> {
+			totals.merge(item.getChangeKind(), 1, Integer::sum);
+			if (items.size() < limit) {
+				items.add(item);
+			} else if (limit > 0 && item.compareTo(items.peek()) < 0) {
+				items.poll();
+				items.add(item);
+			}
 		});
 		
-		List<ConceptMapCompareResultItem> items = ImmutableList.<ConceptMapCompareResultItem>builder()
-			.addAll(allAdded)
-			.addAll(allRemoved)
-			.addAll(allChanged)
-			.addAll(allUnchanged)
-			.build()
-			.stream()
-			.sorted()
-			.limit(limit)
-			.collect(Collectors.toList());
+		final List<ConceptMapCompareResultItem> sortedItems = items.stream()
+				.sorted()
+				.collect(Collectors.toList());
 		
-		return new ConceptMapCompareResult(items, allAdded.size(), allRemoved.size(), allChanged.size(), allUnchanged.size(), limit);
-	}
-
-	/*
-	 * Create a multimap for the passed in mappings with a compound key that is based on the selected configuration
-	 */
-	private Multimap<String, Wrapper<ConceptMapMapping>> collectMapEntries(Set<Wrapper<ConceptMapMapping>> wrappedMappings) {
-		Multimap<String, Wrapper<ConceptMapMapping>> baseMMap = HashMultimap.create();
-		wrappedMappings.forEach(w -> baseMMap.put(getCompoundKey(selectedConfig, w.get()), w));
-		return baseMMap;
-	}
-	
-	private String getCompoundKey(Set<ConceptMapCompareConfigurationProperties> configuration, ConceptMapMapping mapping) {
-		
-		StringBuilder sb = new StringBuilder();
-		if (configuration.contains(ConceptMapCompareConfigurationProperties.CODE)) {
-			sb.append(mapping.getSourceComponentURI().identifier());
-		}
-		
-		if (configuration.contains(ConceptMapCompareConfigurationProperties.CODE_SYSTEM)) {
-			sb.append(mapping.getSourceComponentURI().resourceId());
-		}
-		
-		if (configuration.contains(ConceptMapCompareConfigurationProperties.TERM)) {
-			sb.append(mapping.getSourceTerm());
-		}
-		return sb.toString();
-	}
-
-	private Set<Wrapper<ConceptMapMapping>> wrapMappings(List<ConceptMapMapping> mappings) {
-		return mappings.stream()
-				.map(mapping -> mapCompareEquivalence.wrap(mapping))
-				.collect(Collectors.toSet());
+		return new ConceptMapCompareResult(sortedItems, 
+				totals.getOrDefault(ConceptMapCompareChangeKind.MISSING, 0), 
+				totals.getOrDefault(ConceptMapCompareChangeKind.PRESENT, 0), 
+				totals.getOrDefault(ConceptMapCompareChangeKind.DIFFERENT_TARGET, 0), 
+				totals.getOrDefault(ConceptMapCompareChangeKind.SAME, 0), 
+				limit);
 	}
 	
 }
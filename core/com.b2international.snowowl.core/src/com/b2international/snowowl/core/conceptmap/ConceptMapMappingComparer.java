@@ -0,0 +1,319 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.conceptmap;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import com.b2international.commons.exceptions.FormattedRuntimeException;
+import com.b2international.commons.http.ExtendedLocale;
+import com.b2international.commons.io.PathUtils;
+import com.b2international.snowowl.core.ResourceURI;
+import com.b2international.snowowl.core.ServiceProvider;
+import com.b2international.snowowl.core.compare.*;
+import com.b2international.snowowl.core.domain.ConceptMapMapping;
+import com.b2international.snowowl.core.domain.ConceptMapMappings;
+import com.b2international.snowowl.eventbus.IEventBus;
+import com.google.common.base.Equivalence.Wrapper;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
+
+/**
+ * Compares the active mappings of two concept maps in a single merge pass over both maps sorted by the compound key of the selected
+ * {@link ConceptMapCompareConfigurationProperties}.
+ * <p>
+ * Mappings are sorted in memory in runs of a fixed size, runs are spilled to temporary files when a map has more mappings than that, and
+ * the runs are merged back while reading. Only the mappings of a single compound key are held in memory while classifying them:
+ * <ul>
+ * <li>mappings that are equivalent in both maps are {@link ConceptMapCompareChangeKind#SAME same} and reported once,</li>
+ * <li>the rest of the mappings are {@link ConceptMapCompareChangeKind#PRESENT present} if the key has no other mappings in the compare map,</li>
+ * <li>{@link ConceptMapCompareChangeKind#MISSING missing} if the key has no other mappings in the base map,</li>
+ * <li>and {@link ConceptMapCompareChangeKind#DIFFERENT_TARGET different target} otherwise.</li>
+ * </ul>
+ *
+ * @since 9.3
+ */
+final class ConceptMapMappingComparer {
+
+	/**
+	 * The number of mappings sorted in memory before a sorted run is written to disk.
+	 */
+	static final int DEFAULT_RUN_SIZE = 50_000;
+
+	// reset the object streams of spilled runs periodically, so that they do not keep references to all mappings written or read so far
+	private static final int RESET_INTERVAL = 1_000;
+
+	private final Set<ConceptMapCompareConfigurationProperties> selectedConfig;
+	private final MapCompareSourceAndTargetEquivalence equivalence;
+	private final int runSize;
+
+	ConceptMapMappingComparer(Set<ConceptMapCompareConfigurationProperties> selectedConfig) {
+		this(selectedConfig, DEFAULT_RUN_SIZE);
+	}
+
+	ConceptMapMappingComparer(Set<ConceptMapCompareConfigurationProperties> selectedConfig, int runSize) {
+		checkArgument(runSize > 0, "Run size must be positive, got: %s", runSize);
+		this.selectedConfig = selectedConfig;
+		this.equivalence = new MapCompareSourceAndTargetEquivalence(selectedConfig);
+		this.runSize = runSize;
+	}
+
+	/**
+	 * Fetches the active mappings of the given concept maps page by page and compares them.
+	 *
+	 * @param context - the context to fetch the mappings with
+	 * @param baseConceptMapURI - the URI of the base concept map
+	 * @param compareConceptMapURI - the URI of the concept map to compare with the base
+	 * @param locales - the locales to fetch the source and target terms of the mappings with
+	 * @param preferredDisplay - the preferred display of the source and target terms
+	 * @param items - receives the result items, ordered by the compound key of their mapping
+	 */
+	void compare(ServiceProvider context, ResourceURI baseConceptMapURI, ResourceURI compareConceptMapURI, List<ExtendedLocale> locales, String preferredDisplay, Consumer<ConceptMapCompareResultItem> items) {
+		try (Stream<ConceptMapMapping> baseMappings = fetchConceptMapMappings(context, baseConceptMapURI, locales, preferredDisplay);
+				Stream<ConceptMapMapping> compareMappings = fetchConceptMapMappings(context, compareConceptMapURI, locales, preferredDisplay)) {
+			compare(baseMappings.iterator(), compareMappings.iterator(), items);
+		}
+	}
+
+	/**
+	 * Compares the given mappings.
+	 *
+	 * @param baseMappings - the mappings of the base concept map in any order
+	 * @param compareMappings - the mappings of the concept map to compare with the base in any order
+	 * @param items - receives the result items, ordered by the compound key of their mapping
+	 */
+	void compare(Iterator<ConceptMapMapping> baseMappings, Iterator<ConceptMapMapping> compareMappings, Consumer<ConceptMapCompareResultItem> items) {
+		try (SortedMappings sortedBase = sort(baseMappings);
+				SortedMappings sortedCompare = sort(compareMappings)) {
+
+			final PeekingIterator<KeyedMapping> base = sortedBase.iterator();
+			final PeekingIterator<KeyedMapping> compare = sortedCompare.iterator();
+
+			while (base.hasNext() || compare.hasNext()) {
+				final String key;
+				if (!compare.hasNext()) {
+					key = base.peek().key();
+				} else if (!base.hasNext()) {
+					key = compare.peek().key();
+				} else {
+					final String baseKey = base.peek().key();
+					final String compareKey = compare.peek().key();
+					key = baseKey.compareTo(compareKey) <= 0 ? baseKey : compareKey;
+				}
+
+				classify(nextGroup(base, key), nextGroup(compare, key), items);
+			}
+		}
+	}
+
+	/*
+	 * Classifies the mappings that have the same compound key in the two maps
+	 */
+	private void classify(Set<Wrapper<ConceptMapMapping>> baseGroup, Set<Wrapper<ConceptMapMapping>> compareGroup, Consumer<ConceptMapCompareResultItem> items) {
+		final Iterator<Wrapper<ConceptMapMapping>> baseIterator = baseGroup.iterator();
+		while (baseIterator.hasNext()) {
+			final Wrapper<ConceptMapMapping> baseMapping = baseIterator.next();
+			if (compareGroup.remove(baseMapping)) {
+				// TODO comments will be handled different in 8.x, now just select the first and move on
+				items.accept(new ConceptMapCompareResultItem(ConceptMapCompareChangeKind.SAME, baseMapping.get()));
+				baseIterator.remove();
+			}
+		}
+
+		final ConceptMapCompareChangeKind baseChangeKind = compareGroup.isEmpty() ? ConceptMapCompareChangeKind.PRESENT : ConceptMapCompareChangeKind.DIFFERENT_TARGET;
+		final ConceptMapCompareChangeKind compareChangeKind = baseGroup.isEmpty() ? ConceptMapCompareChangeKind.MISSING : ConceptMapCompareChangeKind.DIFFERENT_TARGET;
+		baseGroup.forEach(mapping -> items.accept(new ConceptMapCompareResultItem(baseChangeKind, mapping.get())));
+		compareGroup.forEach(mapping -> items.accept(new ConceptMapCompareResultItem(compareChangeKind, mapping.get())));
+	}
+
+	private Set<Wrapper<ConceptMapMapping>> nextGroup(PeekingIterator<KeyedMapping> mappings, String key) {
+		final Set<Wrapper<ConceptMapMapping>> group = new LinkedHashSet<>();
+		while (mappings.hasNext() && mappings.peek().key().equals(key)) {
+			group.add(equivalence.wrap(mappings.next().mapping()));
+		}
+		return group;
+	}
+
+	private Stream<ConceptMapMapping> fetchConceptMapMappings(ServiceProvider context, ResourceURI conceptMapUri, List<ExtendedLocale> locales, String preferredDisplay) {
+		return ConceptMapRequests.prepareSearchConceptMapMappings()
+			.filterByActive(true)
+			.filterByConceptMap(conceptMapUri.toString())
+			.setLocales(locales)
+			.setPreferredDisplay(preferredDisplay)
+			.setLimit(context.getPageSize())
+			.streamAsync(context.service(IEventBus.class), req -> req.buildAsync())
+			.flatMap(ConceptMapMappings::stream);
+	}
+
+	private SortedMappings sort(Iterator<ConceptMapMapping> mappings) {
+		final SortedMappings sorted = new SortedMappings();
+		try {
+			final List<KeyedMapping> run = new ArrayList<>(Math.min(runSize, 1024));
+			while (mappings.hasNext()) {
+				final ConceptMapMapping mapping = mappings.next();
+				run.add(new KeyedMapping(getCompoundKey(mapping), mapping));
+				if (run.size() >= runSize) {
+					sorted.spill(run);
+					run.clear();
+				}
+			}
+			sorted.complete(run);
+			return sorted;
+		} catch (RuntimeException e) {
+			sorted.close();
+			throw e;
+		}
+	}
+
+	/*
+	 * Create a compound key for the passed in mapping that is based on the selected configuration
+	 */
+	private String getCompoundKey(ConceptMapMapping mapping) {
+		StringBuilder sb = new StringBuilder();
+		if (selectedConfig.contains(ConceptMapCompareConfigurationProperties.CODE)) {
+			sb.append(mapping.getSourceComponentURI().identifier());
+		}
+
+		if (selectedConfig.contains(ConceptMapCompareConfigurationProperties.CODE_SYSTEM)) {
+			sb.append(mapping.getSourceComponentURI().resourceId());
+		}
+
+		if (selectedConfig.contains(ConceptMapCompareConfigurationProperties.TERM)) {
+			sb.append(mapping.getSourceTerm());
+		}
+		return sb.toString();
+	}
+
+	private record KeyedMapping(String key, ConceptMapMapping mapping) {
+	}
+
+	private static final Comparator<KeyedMapping> KEY_ORDER = Comparator.comparing(KeyedMapping::key);
+
+	/*
+	 * The mappings of a single concept map sorted by their compound key, either entirely in memory or in sorted runs written to temporary files
+	 */
+	private final class SortedMappings implements Closeable {
+
+		private final List<Path> runs = new ArrayList<>();
+		private final List<ObjectInputStream> openRuns = new ArrayList<>();
+		private Path directory;
+		private List<KeyedMapping> lastRun = List.of();
+
+		void spill(List<KeyedMapping> run) {
+			run.sort(KEY_ORDER);
+			try {
+				if (directory == null) {
+					directory = Files.createTempDirectory("concept-map-compare");
+				}
+				final Path file = directory.resolve("run-" + runs.size());
+				try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+					out.writeInt(run.size());
+					for (int i = 0; i < run.size(); i++) {
+						if (i % RESET_INTERVAL == 0) {
+							out.reset();
+						}
+						out.writeObject(run.get(i).mapping());
+					}
+				}
+				runs.add(file);
+			} catch (IOException e) {
+				throw new FormattedRuntimeException("Couldn't write sorted concept map mappings to disk.", e);
+			}
+		}
+
+		void complete(List<KeyedMapping> run) {
+			if (runs.isEmpty()) {
+				// everything fits into memory, no need to write the last run
+				run.sort(KEY_ORDER);
+				lastRun = List.copyOf(run);
+			} else if (!run.isEmpty()) {
+				spill(run);
+			}
+		}
+
+		PeekingIterator<KeyedMapping> iterator() {
+			if (runs.isEmpty()) {
+				return Iterators.peekingIterator(lastRun.iterator());
+			}
+
+			final List<Iterator<KeyedMapping>> runIterators = new ArrayList<>(runs.size());
+			for (Path run : runs) {
+				runIterators.add(read(run));
+			}
+			return Iterators.peekingIterator(Iterators.mergeSorted(runIterators, KEY_ORDER));
+		}
+
+		private Iterator<KeyedMapping> read(Path run) {
+			final ObjectInputStream in;
+			final int size;
+			try {
+				in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(run)));
+				openRuns.add(in);
+				size = in.readInt();
+			} catch (IOException e) {
+				throw new FormattedRuntimeException("Couldn't read sorted concept map mappings from disk.", e);
+			}
+
+			return new AbstractIterator<KeyedMapping>() {
+				private int read = 0;
+
+				@Override
+				protected KeyedMapping computeNext() {
+					if (read >= size) {
+						return endOfData();
+					}
+					try {
+						final ConceptMapMapping mapping = (ConceptMapMapping) in.readObject();
+						read++;
+						// the key is not written to disk, it is computed again from the mapping
+						return new KeyedMapping(getCompoundKey(mapping), mapping);
+					} catch (IOException | ClassNotFoundException e) {
+						throw new FormattedRuntimeException("Couldn't read sorted concept map mappings from disk.", e);
+					}
+				}
+			};
+		}
+
+		@Override
+		public void close() {
+			for (ObjectInputStream in : openRuns) {
+				try {
+					in.close();
+				} catch (IOException ignored) {
+					// best effort
+				}
+			}
+			openRuns.clear();
+			if (directory != null) {
+				try {
+					PathUtils.deleteDirectory(directory);
+				} catch (IOException ignored) {
+					// best effort, the files are in the temporary directory anyway
+				}
+				directory = null;
+			}
+		}
+
+	}
+
+}
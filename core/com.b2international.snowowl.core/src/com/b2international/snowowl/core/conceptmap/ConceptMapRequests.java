@@ -1,5 +1,5 @@
 /*
- * Copyright 2021 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2021-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -43,4 +43,14 @@ public class ConceptMapRequests {
 		return new ConceptMapCompareDsvExportRequestBuilder(items, filePath);
 	}
 	
+	/**
+	 * Creates a request builder that compares the given concept maps and writes the result items to the file as they are produced, without
+	 * collecting them in memory first.
+	 * 
+	 * @return the builder to configure the compare and the export with
+	 */
+	public static ConceptMapCompareDsvExportRequestBuilder prepareConceptMapCompareDsvExport(final ResourceURI baseConceptMapURI, final ResourceURI compareConceptMapURI, final String filePath){
+		return new ConceptMapCompareDsvExportRequestBuilder(baseConceptMapURI, compareConceptMapURI, filePath);
+	}
+	
 }
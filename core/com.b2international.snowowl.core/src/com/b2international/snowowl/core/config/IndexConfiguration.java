@@ -48,6 +48,8 @@ public class IndexConfiguration implements PagingSettingsProvider {
 	@Min(1)
 	private int indexByQueryConcurrencyLevel = IndexClientFactory.DEFAULT_INDEX_BY_QUERY_CONCURRENCY_LEVEL;
 	@Min(1)
+	private int searchConcurrencyLevel = IndexClientFactory.DEFAULT_SEARCH_CONCURRENCY_LEVEL;
+	@Min(1)
 	private int bulkActionSize = IndexClientFactory.DEFAULT_BULK_ACTIONS_SIZE;
 	@Min(1)
 	private int bulkActionSizeInMb = IndexClientFactory.DEFAULT_BULK_ACTIONS_SIZE_IN_MB;
@@ -115,6 +117,16 @@ public class IndexConfiguration implements PagingSettingsProvider {
 	public void setIndexByQueryConcurrencyLevel(int indexByQueryConcurrencyLevel) {
 		this.indexByQueryConcurrencyLevel = indexByQueryConcurrencyLevel;
 	}
+	
+	@JsonProperty
+	public int getSearchConcurrencyLevel() {
+		return searchConcurrencyLevel;
+	}
+	
+	@JsonProperty
+	public void setSearchConcurrencyLevel(int searchConcurrencyLevel) {
+		this.searchConcurrencyLevel = searchConcurrencyLevel;
+	}
 
 	@JsonProperty
 	public String getClusterName() {
@@ -285,6 +297,7 @@ public class IndexConfiguration implements PagingSettingsProvider {
 		settings.put(IndexClientFactory.TRANSLOG_SYNC_INTERVAL_KEY, getCommitInterval());
 		settings.put(IndexClientFactory.COMMIT_CONCURRENCY_LEVEL, getCommitConcurrencyLevel());
 		settings.put(IndexClientFactory.INDEX_BY_QUERY_CONCURRENCY_LEVEL, getIndexByQueryConcurrencyLevel());
+		settings.put(IndexClientFactory.SEARCH_CONCURRENCY_LEVEL, getSearchConcurrencyLevel());
 		settings.put(IndexClientFactory.CONNECT_TIMEOUT, getConnectTimeout());
 		settings.put(IndexClientFactory.SOCKET_TIMEOUT, getSocketTimeout());
 		settings.put(IndexClientFactory.CLUSTER_HEALTH_TIMEOUT, getClusterHealthTimeout());
@@ -26,12 +26,16 @@ public class JobConfiguration {
 
 	private static final int DEFAULT_PURGE_THRESHOLD = 10;
 	private static final long DEFAULT_STALE_JOB_AGE = TimeUnit.DAYS.toMillis(30L);
+	private static final long DEFAULT_FLUSH_INTERVAL = TimeUnit.SECONDS.toMillis(1L);
 
 	@Min(1)
 	private int purgeThreshold = DEFAULT_PURGE_THRESHOLD;
 
 	@Min(0)
 	private long staleJobAge = DEFAULT_STALE_JOB_AGE;
+	
+	@Min(1)
+	private long flushInterval = DEFAULT_FLUSH_INTERVAL;
 
 	/**
 	 * The number of completed (FINISHED, FAILED, CANCELED) jobs which triggers a purge in the job index
@@ -47,6 +51,13 @@ public class JobConfiguration {
 		return staleJobAge;
 	}
 
+	/**
+	 * The interval in milliseconds at which state and progress changes of running jobs are written to the job index
+	 */
+	public long getFlushInterval() {
+		return flushInterval;
+	}
+
 	public void setPurgeThreshold(final int purgeThreshold) {
 		this.purgeThreshold = purgeThreshold;
 	}
@@ -54,5 +65,9 @@ public class JobConfiguration {
 	public void setStaleJobAge(final long staleJobAge) {
 		this.staleJobAge = staleJobAge;
 	}
+	
+	public void setFlushInterval(final long flushInterval) {
+		this.flushInterval = flushInterval;
+	}
 
 }
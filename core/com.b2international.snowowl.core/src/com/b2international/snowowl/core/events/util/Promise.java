@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -361,6 +361,27 @@ public final class Promise<T> extends Observable<T> {
 		return promise;
 	}
 	
+	/**
+	 * Wraps a {@link CompletableFuture} into a {@link Promise} to easily add listener callbacks to it. Failures are reported with their original
+	 * cause instead of the {@link CompletionException} wrapping them.
+	 * @param future - the future to wrap
+	 * @return
+	 * @since 9.3
+	 */
+	public static final <T> Promise<T> wrap(final CompletableFuture<T> future) {
+		final Promise<T> promise = new Promise<>();
+		future.whenComplete((result, throwable) -> {
+			if (throwable == null) {
+				promise.resolve(result);
+			} else if (throwable instanceof CompletionException && throwable.getCause() != null) {
+				promise.reject(throwable.getCause());
+			} else {
+				promise.reject(throwable);
+			}
+		});
+		return promise;
+	}
+	
 	/**
 	 * Provides a promise object with type T that is available immediately.
 	 * 
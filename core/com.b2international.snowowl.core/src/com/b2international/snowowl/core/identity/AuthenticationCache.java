@@ -0,0 +1,156 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.identity;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.InstantSource;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+
+/**
+ * Size-bounded cache of successfully authenticated {@link User}s, keyed by a salted hash of the HTTP Authorization header value they were
+ * authenticated with. The header values themselves are not retained. Entries expire after a fixed amount of time, or when the token they
+ * belong to expires, whichever comes first.
+ * <p>
+ * Changes made to a user's permissions by an identity provider only become visible after the cached entries of the user expire, unless the
+ * entries are evicted explicitly via {@link #invalidate(String)} or {@link #invalidateAll()}.
+ *
+ * @since 9.3
+ */
+public final class AuthenticationCache {
+
+	public static final String METRICS_NAME = "identity.auth.cache";
+
+	private static final int SALT_LENGTH = 32;
+
+	private final InstantSource instantSource;
+	private final HashFunction hashFunction;
+	private final Cache<HashCode, Entry> cache;
+
+	public AuthenticationCache(long maximumSize, Duration expireAfterWrite) {
+		this(maximumSize, expireAfterWrite, InstantSource.system());
+	}
+
+	public AuthenticationCache(long maximumSize, Duration expireAfterWrite, InstantSource instantSource) {
+		checkArgument(maximumSize > 0, "Maximum size should be greater than zero, got: %s", maximumSize);
+		checkArgument(!expireAfterWrite.isNegative() && !expireAfterWrite.isZero(), "Expiration should be positive, got: %s", expireAfterWrite);
+
+		final byte[] salt = new byte[SALT_LENGTH];
+		new SecureRandom().nextBytes(salt);
+
+		this.instantSource = instantSource;
+		this.hashFunction = Hashing.hmacSha256(salt);
+		this.cache = CacheBuilder.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(expireAfterWrite)
+				.ticker(new Ticker() {
+					@Override
+					public long read() {
+						return TimeUnit.MILLISECONDS.toNanos(instantSource.millis());
+					}
+				})
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * Registers hit, miss, eviction and size metrics of this cache in the given registry.
+	 *
+	 * @param registry - the registry to publish metrics to
+	 */
+	public void bindTo(MeterRegistry registry) {
+		GuavaCacheMetrics.monitor(registry, cache, METRICS_NAME);
+	}
+
+	/**
+	 * @param authorizationHeaderValue - the HTTP Authorization header value
+	 * @return the user authenticated earlier with the same header value, or <code>null</code> if there is no such user or the entry has expired
+	 */
+	public User getIfPresent(String authorizationHeaderValue) {
+		final HashCode key = hash(authorizationHeaderValue);
+		final Entry entry = cache.getIfPresent(key);
+		if (entry == null) {
+			return null;
+		}
+
+		if (entry.expiresAt != null && !instantSource.instant().isBefore(entry.expiresAt)) {
+			cache.invalidate(key);
+			return null;
+		}
+
+		return entry.user;
+	}
+
+	/**
+	 * Registers a successfully authenticated user.
+	 *
+	 * @param authorizationHeaderValue - the HTTP Authorization header value the user was authenticated with
+	 * @param user - the authenticated user
+	 * @param expiresAt - the expiration time of the token in the header, or <code>null</code> if the token does not expire
+	 */
+	public void put(String authorizationHeaderValue, User user, Instant expiresAt) {
+		cache.put(hash(authorizationHeaderValue), new Entry(user, expiresAt));
+	}
+
+	/**
+	 * Evicts all entries of the user with the given identifier, eg. after a change to the user's permissions.
+	 *
+	 * @param userId - the identifier of the user to evict
+	 */
+	public void invalidate(String userId) {
+		cache.asMap().values().removeIf(entry -> entry.user.getUserId().equals(userId));
+	}
+
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	public CacheStats stats() {
+		return cache.stats();
+	}
+
+	private HashCode hash(String authorizationHeaderValue) {
+		return hashFunction.hashString(authorizationHeaderValue, Charsets.UTF_8);
+	}
+
+	private static final class Entry {
+
+		private final User user;
+		private final Instant expiresAt;
+
+		Entry(User user, Instant expiresAt) {
+			this.user = user;
+			this.expiresAt = expiresAt;
+		}
+
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2021-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2021-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,15 +15,18 @@
  */
 package com.b2international.snowowl.core.identity;
 
+import java.time.Instant;
 import java.util.Base64;
 
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.exceptions.JWTDecodeException;
 import com.auth0.jwt.exceptions.TokenExpiredException;
 import com.b2international.commons.exceptions.UnauthorizedException;
 import com.google.common.base.Charsets;
 
 /**
  * Verifies HTTP Authorization header values and delegates verification to the correct service based on the header value's prefix. Supported prefixes
- * are: basic and bearer.
+ * are: basic and bearer. Successfully authenticated header values are cached when an {@link AuthenticationCache} is provided.
  * 
  * @since 8.1
  */
@@ -31,10 +34,16 @@ public final class AuthorizationHeaderVerifier {
 
 	private final JWTSupport jwtSupport;
 	private final IdentityProvider identityProvider;
+	private final AuthenticationCache authenticationCache;
 
 	public AuthorizationHeaderVerifier(JWTSupport jwtSupport, IdentityProvider identityProvider) {
+		this(jwtSupport, identityProvider, null);
+	}
+	
+	public AuthorizationHeaderVerifier(JWTSupport jwtSupport, IdentityProvider identityProvider, AuthenticationCache authenticationCache) {
 		this.jwtSupport = jwtSupport;
 		this.identityProvider = identityProvider;
+		this.authenticationCache = authenticationCache;
 	}
 	
 	/**
@@ -49,6 +58,23 @@ public final class AuthorizationHeaderVerifier {
 	 *             - if the header value is incorrect
 	 */
 	public User auth(String authorizationHeaderValue) {
+		if (authenticationCache == null) {
+			return doAuth(authorizationHeaderValue);
+		}
+		
+		final User cachedUser = authenticationCache.getIfPresent(authorizationHeaderValue);
+		if (cachedUser != null) {
+			return cachedUser;
+		}
+		
+		final User user = doAuth(authorizationHeaderValue);
+		if (user != null) {
+			authenticationCache.put(authorizationHeaderValue, user, getExpiresAt(authorizationHeaderValue));
+		}
+		return user;
+	}
+	
+	private User doAuth(String authorizationHeaderValue) {
 		final String[] parts = authorizationHeaderValue.trim().split(" ");
 		if (parts.length == 2) {
 			// standard two part authorization header values have a type prefix specified, use it to determine the algorithm
@@ -68,6 +94,22 @@ public final class AuthorizationHeaderVerifier {
 			throw new UnauthorizedException("Incorrect authorization token");
 		}
 	}
+	
+	/*
+	 * Returns the expiration time of an already verified bearer token, or null for basic credentials and tokens without an expiration time.
+	 */
+	private Instant getExpiresAt(String authorizationHeaderValue) {
+		final String[] parts = authorizationHeaderValue.trim().split(" ");
+		if (parts.length == 2 && "basic".equals(parts[0].toLowerCase())) {
+			return null;
+		}
+		
+		try {
+			return JWT.decode(parts[parts.length - 1]).getExpiresAtAsInstant();
+		} catch (JWTDecodeException e) {
+			return null;
+		}
+	}
 
 	/**
 	 * Authenticates a token as JWT and returns the authenticated {@link User} object or throws an {@link UnauthorizedException}.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2022 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2017-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,11 +15,18 @@
  */
 package com.b2international.snowowl.core.identity;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 
+import org.elasticsearch.core.TimeValue;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+
 /**
  * Identity module configuration. Use to configure the underlying identity services (authentication, authorization, tokens, etc.).
  * 
@@ -34,6 +41,13 @@ public class IdentityConfiguration extends JWTConfiguration {
 	
 	private List<IdentityProviderConfig> providerConfigurations = Collections.emptyList();
 	
+	// successful authentication results are cached for this amount of time, set the size to zero to disable caching
+	@Min(0)
+	private long authCacheSize = 10_000L;
+	
+	@NotEmpty
+	private String authCacheExpiration = "1m";
+	
 	public boolean isAdminParty() {
 		return adminParty;
 	}
@@ -67,4 +81,25 @@ public class IdentityConfiguration extends JWTConfiguration {
 		this.jwksUrl = jwksUrl;
 	}
 	
+	public long getAuthCacheSize() {
+		return authCacheSize;
+	}
+	
+	public void setAuthCacheSize(long authCacheSize) {
+		this.authCacheSize = authCacheSize;
+	}
+	
+	public String getAuthCacheExpiration() {
+		return authCacheExpiration;
+	}
+	
+	public void setAuthCacheExpiration(String authCacheExpiration) {
+		this.authCacheExpiration = authCacheExpiration;
+	}
+	
+	@JsonIgnore
+	public Duration getAuthCacheExpirationDuration() {
+		return Duration.ofMillis(TimeValue.parseTimeValue(getAuthCacheExpiration(), "identity.authCacheExpiration").millis());
+	}
+	
 }
\ No newline at end of file
@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2017-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -38,6 +38,8 @@ import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * @since 5.11
  */
@@ -60,8 +62,19 @@ public final class IdentityPlugin extends Plugin {
 		IdentityProvider.LOG.info("Configured identity providers [{}]", identityProvider.getInfo());
 		// the main identity provider instance
 		env.services().registerService(IdentityProvider.class, identityProvider);
+		// cache of successful authentication results, to avoid verifying the same credentials on every request
+		AuthenticationCache authenticationCache = null;
+		if (conf.getAuthCacheSize() > 0) {
+			authenticationCache = new AuthenticationCache(conf.getAuthCacheSize(), conf.getAuthCacheExpirationDuration());
+			env.services().registerService(AuthenticationCache.class, authenticationCache);
+		}
 		// HTTP Authorization header verification using global and identity specific JWT support
-		env.services().registerService(AuthorizationHeaderVerifier.class, new AuthorizationHeaderVerifier(jwtSupport, identityProvider));
+		env.services().registerService(AuthorizationHeaderVerifier.class, new AuthorizationHeaderVerifier(jwtSupport, identityProvider, authenticationCache));
+	}
+	
+	@Override
+	public void preRun(SnowOwlConfiguration configuration, Environment env) throws Exception {
+		env.optionalService(AuthenticationCache.class).ifPresent(authenticationCache -> authenticationCache.bindTo(env.service(MeterRegistry.class)));
 	}
 
 	@VisibleForTesting
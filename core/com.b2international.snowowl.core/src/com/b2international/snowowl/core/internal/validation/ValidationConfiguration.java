@@ -30,6 +30,8 @@ public class ValidationConfiguration {
 	public static final String USE_FSN = "useFsn";
 	public static final String LOCALES = "extendedLocales";
 	public static final String MODULES = "modules";
+	// set by incremental validation runs, restricts evaluation to the components with the given identifiers
+	public static final String COMPONENT_IDS = "componentIds";
 	
 	// default values for thread management
 	private static final int DEFAULT_NUMBER_OF_VALIDATION_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() / 2); 
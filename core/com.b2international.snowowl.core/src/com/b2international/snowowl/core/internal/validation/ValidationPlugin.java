@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2017-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -39,6 +39,7 @@ import com.b2international.snowowl.core.plugin.Component;
 import com.b2international.snowowl.core.setup.ConfigurationRegistry;
 import com.b2international.snowowl.core.setup.Environment;
 import com.b2international.snowowl.core.setup.Plugin;
+import com.b2international.snowowl.core.validation.ValidationCheckpoint;
 import com.b2international.snowowl.core.validation.ValidationRequests;
 import com.b2international.snowowl.core.validation.ValidationRuleDirectoryProvider;
 import com.b2international.snowowl.core.validation.eval.GroovyScriptValidationRuleEvaluator;
@@ -86,7 +87,7 @@ public final class ValidationPlugin extends Plugin {
 			final Index validationIndex = Indexes.createIndex(
 				VALIDATIONS_INDEX, 
 				mapper, 
-				new Mappings(ValidationIssue.class, ValidationRule.class, ValidationWhiteList.class), 
+				new Mappings(ValidationIssue.class, ValidationRule.class, ValidationWhiteList.class, ValidationCheckpoint.class), 
 				env.service(IndexSettings.class).forIndex(env.service(RepositoryConfiguration.class).getIndexConfiguration(), VALIDATIONS_INDEX)
 			);
 			
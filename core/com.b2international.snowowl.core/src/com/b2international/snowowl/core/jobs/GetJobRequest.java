@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2019 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2017-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,7 +19,6 @@ import com.b2international.commons.exceptions.NotFoundException;
 import com.b2international.snowowl.core.ServiceProvider;
 import com.b2international.snowowl.core.events.Request;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.google.common.collect.Iterables;
 
 /**
  * @since 5.7
@@ -35,7 +34,7 @@ final class GetJobRequest implements Request<ServiceProvider, RemoteJobEntry> {
 	
 	@Override
 	public RemoteJobEntry execute(ServiceProvider context) {
-		final RemoteJobEntry entry = Iterables.getOnlyElement(context.service(RemoteJobTracker.class).search(RemoteJobEntry.Expressions.id(id), 2), null);
+		final RemoteJobEntry entry = context.service(RemoteJobTracker.class).find(id);
 		if (entry == null) {
 			throw new NotFoundException("job", id);
 		} else {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2017-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,8 +19,14 @@ import static java.util.stream.Collectors.toSet;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -47,14 +53,26 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
+ * Keeps track of {@link RemoteJob}s in the jobs index.
+ * <p>
+ * State of scheduled and running jobs (state transitions, progress) is kept in memory and is written to the index periodically, coalescing
+ * changes of all live jobs into a single bulk request. Scheduling, deletion and the terminal state of a job are written to the index
+ * immediately.
+ * 
  * @since 5.7
  */
 public final class RemoteJobTracker implements IDisposableService {
 
 	private static final Logger LOG = LoggerFactory.getLogger("jobs");
 	
+	/**
+	 * The default interval in milliseconds between two flushes of in-memory job state to the index.
+	 */
+	public static final long DEFAULT_FLUSH_INTERVAL = 1_000L;
+	
 	private final AtomicBoolean disposed = new AtomicBoolean(false);
 	private final Index index;
 	private final RemoteJobChangeAdapter listener;
@@ -65,8 +83,19 @@ public final class RemoteJobTracker implements IDisposableService {
 	private final long staleJobAge;
 	
 	private final AtomicInteger jobCounter;
+	
+	// scheduled and running jobs, keyed by job ID, along with the IDs of the ones that have changed since the last flush
+	private final ConcurrentMap<String, RemoteJobEntry> liveJobs = new ConcurrentHashMap<>();
+	private final Set<String> dirtyJobIds = ConcurrentHashMap.newKeySet();
+	// guards writes of live job state against writes of terminal/deleted state, so a late flush can not overwrite the latter
+	private final Object flushLock = new Object();
+	private final ScheduledExecutorService flusher;
 
 	public RemoteJobTracker(Index index, IEventBus events, ObjectMapper mapper, final int purgeThreshold, final long staleJobAge) {
+		this(index, events, mapper, purgeThreshold, staleJobAge, DEFAULT_FLUSH_INTERVAL);
+	}
+	
+	public RemoteJobTracker(Index index, IEventBus events, ObjectMapper mapper, final int purgeThreshold, final long staleJobAge, final long flushInterval) {
 		
 		this.index = index;
 		this.events = events;
@@ -88,6 +117,12 @@ public final class RemoteJobTracker implements IDisposableService {
 		this.listener = new RemoteJobChangeAdapter();
 		Job.getJobManager().addJobChangeListener(listener);
 		
+		this.flusher = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+				.setNameFormat("remote-job-flush-%d")
+				.setDaemon(true)
+				.build());
+		this.flusher.scheduleWithFixedDelay(this::flushQuietly, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+		
 	}
 
 	public RemoteJobs search(Expression query, int limit) {
@@ -100,7 +135,9 @@ public final class RemoteJobTracker implements IDisposableService {
 	}
 	
 	private Hits<RemoteJobEntry> searchHits(Expression query, List<String> fields, SortBy sortBy, int limit) {
-		return index.read(searcher -> {
+		// make pending changes of live jobs visible to the query before executing it
+		flush();
+		final Hits<RemoteJobEntry> hits = index.read(searcher -> {
 			return searcher.search(
 					Query.select(RemoteJobEntry.class)
 					.fields(fields)
@@ -113,6 +150,28 @@ public final class RemoteJobTracker implements IDisposableService {
 					.build()
 					);
 		});
+		
+		if (liveJobs.isEmpty() || hits.isEmpty()) {
+			return hits;
+		}
+		
+		// replace matching live jobs with their latest in-memory state
+		final List<RemoteJobEntry> entries = hits.stream()
+				.map(hit -> hit.getId() != null ? liveJobs.getOrDefault(hit.getId(), hit) : hit)
+				.toList();
+		return new Hits<>(entries, hits.getSearchAfter(), hits.getLimit(), hits.getTotal());
+	}
+	
+	/**
+	 * Returns the job entry with the given identifier. Entries of scheduled and running jobs are returned from memory, others are read from
+	 * the index.
+	 * 
+	 * @param jobId - the identifier of the job
+	 * @return the job entry or <code>null</code> if the job does not exist or has been marked as deleted
+	 */
+	public RemoteJobEntry find(String jobId) {
+		final RemoteJobEntry entry = get(jobId);
+		return entry == null || entry.isDeleted() ? null : entry;
 	}
 	
 	public String schedule(RemoteJob job) {
@@ -128,14 +187,16 @@ public final class RemoteJobTracker implements IDisposableService {
 		} catch (Throwable e) {
 			parameters = "";
 		}
-		put(RemoteJobEntry.builder()
+		final RemoteJobEntry entry = RemoteJobEntry.builder()
 				.id(jobId)
 				.key(job.getKey())
 				.description(job.getDescription())
 				.user(job.getUser())
 				.parameters(parameters)
 				.scheduleDate(new Date())
-				.build());
+				.build();
+		liveJobs.put(jobId, entry);
+		put(entry);
 		
 		// schedule the job after we successfully wrote the job doc into the index
 		// previously this was done through a listener which was executed synchronously before the job actually stated, see IJobChangeListener.scheduled(...)
@@ -148,7 +209,12 @@ public final class RemoteJobTracker implements IDisposableService {
 		final RemoteJobEntry job = get(jobId);
 		if (job != null && !job.isCancelled()) {
 			LOG.trace("Cancelling job {}", jobId);
-			update(jobId, RemoteJobEntry.WITH_STATE, Map.of("expectedState", RemoteJobState.RUNNING.name(), "newState", RemoteJobState.CANCEL_REQUESTED.name()));
+			update(
+				jobId, 
+				entry -> entry.getState() == RemoteJobState.RUNNING ? RemoteJobEntry.from(entry).state(RemoteJobState.CANCEL_REQUESTED).build() : entry,
+				RemoteJobEntry.WITH_STATE, 
+				Map.of("expectedState", RemoteJobState.RUNNING.name(), "newState", RemoteJobState.CANCEL_REQUESTED.name())
+			);
 			Job.getJobManager().cancel(SingleRemoteJobFamily.create(jobId));
 		}
 	}
@@ -168,17 +234,22 @@ public final class RemoteJobTracker implements IDisposableService {
 		}
 		// delete all other jobs, that dont need to be cancelled
 		final Set<String> remoteJobsToDelete = Sets.difference(Sets.newHashSet(jobIds), remoteJobsToCancel);
-		index.write(writer -> {
-			// if the job still running or scheduled, then mark it deleted and the done handler will delete it
-			LOG.trace("Deleting jobs {}", remoteJobsToDelete);
-			writer.removeAll(Map.of(RemoteJobEntry.class, remoteJobsToDelete));
-			if (!remoteJobsToCancel.isEmpty()) {
-				LOG.trace("Marking deletable jobs {}", remoteJobsToCancel);
-				writer.bulkUpdate(new BulkUpdate<>(RemoteJobEntry.class, RemoteJobEntry.Expressions.ids(remoteJobsToCancel), RemoteJobEntry.WITH_DELETED));
+		synchronized (flushLock) {
+			for (String jobId : remoteJobsToCancel) {
+				liveJobs.computeIfPresent(jobId, (id, entry) -> RemoteJobEntry.from(entry).deleted(true).build());
 			}
-			writer.commit();
-			return null;
-		});
+			index.write(writer -> {
+				// if the job still running or scheduled, then mark it deleted and the done handler will delete it
+				LOG.trace("Deleting jobs {}", remoteJobsToDelete);
+				writer.removeAll(Map.of(RemoteJobEntry.class, remoteJobsToDelete));
+				if (!remoteJobsToCancel.isEmpty()) {
+					LOG.trace("Marking deletable jobs {}", remoteJobsToCancel);
+					writer.bulkUpdate(new BulkUpdate<>(RemoteJobEntry.class, RemoteJobEntry.Expressions.ids(remoteJobsToCancel), RemoteJobEntry.WITH_DELETED));
+				}
+				writer.commit();
+				return null;
+			});
+		}
 		// finally cancel all jobs that need to be cancelled
 		Job.getJobManager().cancel(SingleRemoteJobFamily.create(remoteJobsToCancel));
 		notifyRemoved(existingJobIds);
@@ -193,15 +264,69 @@ public final class RemoteJobTracker implements IDisposableService {
 		notifyAdded(job.getId());
 	}
 	
-	private void update(String jobId, String script, Map<String, Object> params) {
-		index.write(writer -> {
-			writer.bulkUpdate(new BulkUpdate<>(RemoteJobEntry.class, RemoteJobEntry.Expressions.id(jobId), script, params));
-			writer.commit();
-			return null;
-		});
+	/*
+	 * Applies the given change to the in-memory state of a live job and schedules it for the next flush. Falls back to a scripted update of
+	 * the index if the job is not tracked in memory.
+	 */
+	private void update(String jobId, UnaryOperator<RemoteJobEntry> change, String script, Map<String, Object> params) {
+		if (liveJobs.computeIfPresent(jobId, (id, entry) -> change.apply(entry)) != null) {
+			dirtyJobIds.add(jobId);
+		} else {
+			index.write(writer -> {
+				writer.bulkUpdate(new BulkUpdate<>(RemoteJobEntry.class, RemoteJobEntry.Expressions.id(jobId), script, params));
+				writer.commit();
+				return null;
+			});
+		}
 		notifyChanged(jobId);
 	}
 	
+	/**
+	 * Writes the in-memory state of all live jobs that have changed since the last flush to the index in a single bulk request.
+	 */
+	@VisibleForTesting
+	public void flush() {
+		if (dirtyJobIds.isEmpty()) {
+			return;
+		}
+		
+		synchronized (flushLock) {
+			final List<RemoteJobEntry> entries = new ArrayList<>(dirtyJobIds.size());
+			for (Iterator<String> it = dirtyJobIds.iterator(); it.hasNext(); /* empty */) {
+				final String jobId = it.next();
+				it.remove();
+				final RemoteJobEntry entry = liveJobs.get(jobId);
+				if (entry != null) {
+					entries.add(entry);
+				}
+			}
+			
+			if (entries.isEmpty()) {
+				return;
+			}
+			
+			try {
+				index.write(writer -> {
+					writer.putAll(entries);
+					writer.commit();
+					return null;
+				});
+			} catch (RuntimeException e) {
+				// retry with the next flush
+				entries.forEach(entry -> dirtyJobIds.add(entry.getId()));
+				throw e;
+			}
+		}
+	}
+	
+	private void flushQuietly() {
+		try {
+			flush();
+		} catch (Throwable e) {
+			LOG.error("Failed to write state of running jobs to the index", e);
+		}
+	}
+	
 	private void convertSuspendedJobStatuses() {
 		
 		this.index.write(writer -> {
@@ -238,6 +363,10 @@ public final class RemoteJobTracker implements IDisposableService {
 
 	@VisibleForTesting
 	public RemoteJobEntry get(String jobId) {
+		final RemoteJobEntry liveEntry = liveJobs.get(jobId);
+		if (liveEntry != null) {
+			return liveEntry;
+		}
 		return index.read(searcher -> searcher.get(RemoteJobEntry.class, jobId));
 	}
 
@@ -300,6 +429,8 @@ public final class RemoteJobTracker implements IDisposableService {
 	public void dispose() {
 		if (disposed.compareAndSet(false, true)) {
 			Job.getJobManager().removeJobChangeListener(listener);
+			flusher.shutdown();
+			flushQuietly();
 		}
 	}
 
@@ -321,7 +452,12 @@ public final class RemoteJobTracker implements IDisposableService {
 	}
 	
 	IProgressMonitor createMonitor(String jobId, IProgressMonitor monitor) {
-		return new RemoteJobProgressMonitor(monitor, percentComplete -> update(jobId, RemoteJobEntry.WITH_COMPLETION_LEVEL, Map.of("completionLevel", percentComplete)));
+		return new RemoteJobProgressMonitor(monitor, percentComplete -> update(
+			jobId, 
+			entry -> RemoteJobEntry.from(entry).completionLevel(percentComplete).build(),
+			RemoteJobEntry.WITH_COMPLETION_LEVEL, 
+			Map.of("completionLevel", percentComplete)
+		));
 	}
 	
 	private class RemoteJobChangeAdapter extends JobChangeAdapter {
@@ -337,7 +473,13 @@ public final class RemoteJobTracker implements IDisposableService {
 				final RemoteJob job = (RemoteJob) event.getJob();
 				final String jobId = job.getId();
 				LOG.trace("Running job {}", jobId);
-				update(jobId, RemoteJobEntry.WITH_RUNNING, Map.of("state", RemoteJobState.RUNNING.name(), "startDate", System.currentTimeMillis()));
+				final long startDate = System.currentTimeMillis();
+				update(
+					jobId, 
+					entry -> RemoteJobEntry.from(entry).state(RemoteJobState.RUNNING).startDate(new Date(startDate)).build(),
+					RemoteJobEntry.WITH_RUNNING, 
+					Map.of("state", RemoteJobState.RUNNING.name(), "startDate", startDate)
+				);
 			}
 		}
 		
@@ -348,11 +490,6 @@ public final class RemoteJobTracker implements IDisposableService {
 				final RemoteJob job = (RemoteJob) event.getJob();
 				final String jobId = job.getId();
 				LOG.trace("Completed job {}", jobId);
-				final RemoteJobEntry jobEntry = get(jobId);
-				if (jobEntry == null) {
-					LOG.warn("Missing job entry in RemoteJobTracker#done '{}'", jobId);
-					return;
-				}
 				final IStatus result = job.getResult();
 				final String response = job.getResponse();
 				final RemoteJobState newState;
@@ -366,14 +503,30 @@ public final class RemoteJobTracker implements IDisposableService {
 					newState = RemoteJobState.FAILED;
 				}
 				
-				ImmutableMap.Builder<String, Object> params = ImmutableMap.builder();
-				if (response != null) {
-					params.put("result", response);
+				// the terminal state is written to the index immediately, replacing any pending in-memory state of the job
+				synchronized (flushLock) {
+					final RemoteJobEntry jobEntry = get(jobId);
+					if (jobEntry == null) {
+						LOG.warn("Missing job entry in RemoteJobTracker#done '{}'", jobId);
+						return;
+					}
+					
+					final RemoteJobEntry doneEntry = RemoteJobEntry.from(jobEntry)
+							.state(newState)
+							.finishDate(new Date())
+							.result(response)
+							.build();
+					
+					index.write(writer -> {
+						writer.put(doneEntry);
+						writer.commit();
+						return null;
+					});
+					
+					liveJobs.remove(jobId);
+					dirtyJobIds.remove(jobId);
 				}
-				params.put("state", newState.name());
-				params.put("finishDate", System.currentTimeMillis());
-				
-				update(jobId, RemoteJobEntry.WITH_DONE, params.build());
+				notifyChanged(jobId);
 				
 				int numberOfJobs = jobCounter.incrementAndGet();
 				LOG.trace("Incrementing job counter to {}", numberOfJobs);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,10 +15,14 @@
  */
 package com.b2international.snowowl.core.locks;
 
-import java.text.MessageFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.stream.Collectors;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.annotation.OverridingMethodsMustInvokeSuper;
 
@@ -29,6 +33,7 @@ import org.slf4j.LoggerFactory;
 import com.b2international.commons.exceptions.LockedException;
 import com.b2international.index.Hits;
 import com.b2international.index.Index;
+import com.b2international.index.IndexWrite;
 import com.b2international.index.query.Expression;
 import com.b2international.index.query.Expressions;
 import com.b2international.index.query.Query;
@@ -42,10 +47,15 @@ import com.b2international.snowowl.core.locks.DatastoreLockIndexEntry.Builder;
 import com.google.common.base.Optional;
 import com.google.common.base.Strings;
 import com.google.common.collect.*;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
- * An abstract superclass of {@link IOperationLockManager} providing common methods.
- * 
+ * Default {@link IOperationLockManager} implementation.
+ * <p>
+ * Granted locks are kept in memory, partitioned into stripes by repository identifier, so that requests for targets in different repositories
+ * do not contend with each other. Requests that can not be granted immediately wait for a release of a conflicting target only, instead of
+ * being woken up on every release. Lock state is written to the backing index asynchronously, in the order of the changes; the index is read
+ * only once, when the lock manager is created.
  */
 public final class DefaultOperationLockManager implements IOperationLockManager, IDisposableService {
 	
@@ -55,25 +65,52 @@ public final class DefaultOperationLockManager implements IOperationLockManager,
 
 	private static final String RELEASE_FAILED_MESSAGE = "Could not release requested lock(s).";
 
-	private static final String LOCK_EXISTS_BUT_NOT_HELD_MESSAGE = "Lock for target {0} exists, but no lock is held.";
-
 	private static final int EXPECTED_LOCKS = 128;
 	
+	// must be a power of two
+	private static final int STRIPE_COUNT = 16;
+	
+	private static final long INDEX_WRITER_SHUTDOWN_TIMEOUT_SECONDS = 10L;
+	
 	private final AtomicBoolean disposed = new AtomicBoolean(false);
 
-	private final Object syncObject = new Object();
-	
 	private final Index index;
 
 	private final ListenerList<IOperationLockTargetListener> listenerList = new ListenerList<>();
 	
+	private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
+	
+	// guarded by itself
 	private final BitSet assignedIds = new BitSet(EXPECTED_LOCKS);
 	
 	private int lastAssignedId = 0;
 	
+	private final Queue<IndexWrite<Void>> pendingWrites = new ConcurrentLinkedQueue<>();
+	
+	private final ExecutorService indexWriter = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+			.setNameFormat("lock-index-writer-%d")
+			.setDaemon(true)
+			.build());
+	
 	public DefaultOperationLockManager(Index index) {
 		this.index = index;
 		this.index.admin().create();
+		
+		for (int i = 0; i < STRIPE_COUNT; i++) {
+			stripes[i] = new Stripe();
+		}
+		
+		// restore locks persisted by a previous instance
+		for (final DatastoreLockIndexEntry entry : search(Expressions.matchAll(), Integer.MAX_VALUE)) {
+			final DatastoreLockContext context = createLockContext(entry.getUserId(), entry.getDescription(), entry.getParentDescription());
+			final OperationLock lock = createLock(Integer.parseInt(entry.getId()), new Lockable(entry.getRepositoryId(), entry.getBranchPath()));
+			lock.acquire(context);
+			
+			assignedIds.set(lock.getId());
+			for (final int stripeIndex : getStripeIndexes(lock.getTarget())) {
+				stripes[stripeIndex].put(lock);
+			}
+		}
 	}
 	
 	@Override
@@ -84,42 +121,61 @@ public final class DefaultOperationLockManager implements IOperationLockManager,
 	@Override
 	public void lock(final DatastoreLockContext context, final long timeoutMillis, final Iterable<Lockable> targets) throws LockedException {
 
+		final List<Lockable> targetList = ImmutableList.copyOf(targets);
+		final int[] stripeIndexes = getStripeIndexes(targetList);
 		final Map<Lockable, DatastoreLockContext> alreadyLockedTargets = Maps.newHashMap();
+		final Waiter waiter = new Waiter();
 		final long startTimeMillis = getCurrentTimeMillis();
 		
 		try {
-			synchronized (syncObject) {
-				while (true) {
+			while (true) {
+				
+				final long remainingTimeoutMillis;
+				lockStripes(stripeIndexes);
+				try {
+					removeWaiter(waiter, targetList);
 					
 					alreadyLockedTargets.clear();
-					canContextLockTargets(context, targets, alreadyLockedTargets);
+					canContextLockTargets(context, targetList, alreadyLockedTargets);
 					
 					if (alreadyLockedTargets.isEmpty()) {
-						for (final Lockable newTarget : targets) {
-							final IOperationLock existingLock = getOrCreateLock(context, newTarget);
-							fireTargetAcquired(existingLock.getTarget(), context);
+						for (final Lockable newTarget : targetList) {
+							getOrCreateLock(context, newTarget);
 						}
-						
-						syncObject.notifyAll();
-						return;
+						break;
 					}
 					
 					if (NO_TIMEOUT == timeoutMillis) {
-						syncObject.wait();
+						remainingTimeoutMillis = NO_TIMEOUT;
 					} else {
-						final long remainingTimeoutMillis = timeoutMillis - (getCurrentTimeMillis() - startTimeMillis);
-						
+						remainingTimeoutMillis = timeoutMillis - (getCurrentTimeMillis() - startTimeMillis);
 						if (remainingTimeoutMillis < 1L) {
 							throwLockedException(ACQUIRE_FAILED_MESSAGE, context, alreadyLockedTargets);
-						} else {
-							syncObject.wait(remainingTimeoutMillis);
 						}
 					}
+					
+					waiter.reset();
+					addWaiter(waiter, targetList);
+				} finally {
+					unlockStripes(stripeIndexes);
 				}
+				
+				waiter.await(remainingTimeoutMillis);
 			}
 		} catch (InterruptedException e) {
+			lockStripes(stripeIndexes);
+			try {
+				removeWaiter(waiter, targetList);
+			} finally {
+				unlockStripes(stripeIndexes);
+			}
+			
 			throw new SnowowlRuntimeException(e);
 		}
+		
+		for (final Lockable newTarget : targetList) {
+			fireTargetAcquired(newTarget, context);
+		}
 	}
 	
 	@Override
@@ -130,15 +186,18 @@ public final class DefaultOperationLockManager implements IOperationLockManager,
 	@Override
 	public void unlock(final DatastoreLockContext context, final Iterable<Lockable> targets) throws IllegalArgumentException {
 
+		final List<Lockable> targetList = ImmutableList.copyOf(targets);
+		final int[] stripeIndexes = getStripeIndexes(targetList);
 		final Map<Lockable, DatastoreLockContext> notUnlockedTargets = Maps.newHashMap();
+		final Set<Waiter> waitersToSignal = Sets.newHashSet();
 
-		synchronized (syncObject) {
+		lockStripes(stripeIndexes);
+		try {
 
-			for (final Lockable targetToUnlock : targets) {
-				for (final IOperationLock existingLock : getExistingLocks()) {
-					if (existingLock.targetEquals(targetToUnlock) && !canContextUnlock(context, existingLock)) {
-						notUnlockedTargets.put(existingLock.getTarget(), existingLock.getContext());
-					}
+			for (final Lockable targetToUnlock : targetList) {
+				final OperationLock existingLock = getLock(targetToUnlock);
+				if (existingLock != null && !canContextUnlock(context, existingLock)) {
+					notUnlockedTargets.put(existingLock.getTarget(), existingLock.getContext());
 				}
 			}
 
@@ -146,21 +205,21 @@ public final class DefaultOperationLockManager implements IOperationLockManager,
 				LOG.warn(buildMessage(RELEASE_FAILED_MESSAGE, context, notUnlockedTargets));
 			}
 
-			for (final Lockable targetToUnlock : targets) {
-				
-				final IOperationLock existingLock = getOrCreateLock(context, targetToUnlock);
-				
-				try {
-					existingLock.release(context);
-					fireTargetReleased(existingLock.getTarget(), context);
-				} finally {
-					if (!existingLock.isLocked()) {
-						removeLock(existingLock);
-					}
+			for (final Lockable targetToUnlock : targetList) {
+				final OperationLock existingLock = getLock(targetToUnlock);
+				if (existingLock != null) {
+					removeLock(existingLock, waitersToSignal);
 				}
 			}
 			
-			syncObject.notifyAll();
+		} finally {
+			unlockStripes(stripeIndexes);
+		}
+		
+		waitersToSignal.forEach(Waiter::signal);
+		
+		for (final Lockable targetToUnlock : targetList) {
+			fireTargetReleased(targetToUnlock, context);
 		}
 	}
 
@@ -171,19 +230,19 @@ public final class DefaultOperationLockManager implements IOperationLockManager,
 	 */
 	public void unlockAll() {
 
-		synchronized (syncObject) {
-			
-			for (IOperationLock lockToRemove : getExistingLocks()) {
-				
-				if (!lockToRemove.isLocked()) {
-					throw new IllegalStateException(MessageFormat.format(LOCK_EXISTS_BUT_NOT_HELD_MESSAGE, lockToRemove.getTarget()));
-				} else {
-					removeLock(lockToRemove);
-				}
+		final int[] stripeIndexes = getAllStripeIndexes();
+		final Set<Waiter> waitersToSignal = Sets.newHashSet();
+		
+		lockStripes(stripeIndexes);
+		try {
+			for (final OperationLock lockToRemove : getExistingLocks()) {
+				removeLock(lockToRemove, waitersToSignal);
 			}
-			
-			syncObject.notifyAll();
+		} finally {
+			unlockStripes(stripeIndexes);
 		}
+		
+		waitersToSignal.forEach(Waiter::signal);
 	}
 
 	/**
@@ -196,23 +255,25 @@ public final class DefaultOperationLockManager implements IOperationLockManager,
 	 */
 	public boolean unlockById(final int id) {
 		
-		synchronized (syncObject) {
-			
-			for (IOperationLock lockToRemove : getExistingLocks()) {
-				
-				if (!lockToRemove.isLocked()) {
-					throw new IllegalStateException(MessageFormat.format(LOCK_EXISTS_BUT_NOT_HELD_MESSAGE, lockToRemove.getTarget()));
-				} 
-				
+		final int[] stripeIndexes = getAllStripeIndexes();
+		final Set<Waiter> waitersToSignal = Sets.newHashSet();
+		boolean removed = false;
+		
+		lockStripes(stripeIndexes);
+		try {
+			for (final OperationLock lockToRemove : getExistingLocks()) {
 				if (id == lockToRemove.getId()) {
-					removeLock(lockToRemove);
-					syncObject.notifyAll();
-					return true;
+					removeLock(lockToRemove, waitersToSignal);
+					removed = true;
+					break;
 				}
-			}				
+			}
+		} finally {
+			unlockStripes(stripeIndexes);
 		}
 		
-		return false;
+		waitersToSignal.forEach(Waiter::signal);
+		return removed;
 	}
 
 	/**
@@ -225,11 +286,15 @@ public final class DefaultOperationLockManager implements IOperationLockManager,
 	public List<OperationLockInfo> getLocks() {
 
 		final List<OperationLockInfo> result = Lists.newArrayList();
+		final int[] stripeIndexes = getAllStripeIndexes();
 		
-		synchronized (syncObject) {
-			for (final IOperationLock existingLock : getExistingLocks()) {
+		lockStripes(stripeIndexes);
+		try {
+			for (final OperationLock existingLock : getExistingLocks()) {
 				result.add(createLockInfo(existingLock));
 			}
+		} finally {
+			unlockStripes(stripeIndexes);
 		}
 		
 		Collections.sort(result);
@@ -244,13 +309,18 @@ public final class DefaultOperationLockManager implements IOperationLockManager,
 		listenerList.remove(listener);
 	}
 
+	/*
+	 * Callers are expected to hold the locks of all stripes the targets belong to.
+	 */
 	@OverridingMethodsMustInvokeSuper
 	protected void canContextLockTargets(final DatastoreLockContext context, final Iterable<Lockable> targets, final Map<Lockable, DatastoreLockContext> alreadyLockedTargets) throws LockedException {
 		if (!isDisposed()) {
 			for (final Lockable newTarget : targets) {
-				for (final IOperationLock existingLock : getExistingLocks()) {
-					if (existingLock.targetConflicts(newTarget) && !canContextLock(context, existingLock)) {
-						alreadyLockedTargets.put(newTarget, existingLock.getContext());
+				for (final int stripeIndex : getStripeIndexes(newTarget)) {
+					for (final OperationLock existingLock : stripes[stripeIndex].getConflictingLocks(newTarget)) {
+						if (!canContextLock(context, existingLock)) {
+							alreadyLockedTargets.put(newTarget, existingLock.getContext());
+						}
 					}
 				}
 			}
@@ -305,38 +375,114 @@ public final class DefaultOperationLockManager implements IOperationLockManager,
 		return System.nanoTime() / (1000L * 1000L);
 	}
 
-	private IOperationLock getOrCreateLock(DatastoreLockContext context, final Lockable target) {
-		synchronized (syncObject) {
-			final String repositoryId = target.repositoryId();
-			final String branchPath = target.branchPath();
-			
-			final Expression searchExpression = Expressions.bool()
-					.filter(DatastoreLockIndexEntry.Expressions.repositoryId(repositoryId))
-					.filter(DatastoreLockIndexEntry.Expressions.branchPath(branchPath))
-					.build();
-			
-			final DatastoreLockIndexEntry existingLockEntry = Iterables.getOnlyElement(search(searchExpression, 2), null);
-			final IOperationLock lock;
-			if (existingLockEntry == null) {
-				lastAssignedId = assignedIds.nextClearBit(lastAssignedId);
-				final String lockId = Integer.toString(lastAssignedId);
-				lock = createLock(lastAssignedId, target);
-				final DatastoreLockIndexEntry newEntry = buildIndexEntry(lockId, branchPath, repositoryId, context);
-				put(newEntry);
-				
-				assignedIds.set(lastAssignedId);
-				/* 
-				 * XXX (apeteri): this makes the lock manager revisit low IDs after every 128 issued locks, but 
-				 * it can still assign a number over 128 if all of the early ones are in use, since the BitSet grows unbounded. 
-				 */
-				lastAssignedId = lastAssignedId % EXPECTED_LOCKS;
-			} else {
-				lock = new OperationLock(Integer.parseInt(existingLockEntry.getId()), target);
+	/*
+	 * Lock targets of Lockable.ALL conflict with everything, they are registered in all stripes. Other targets can only conflict with targets
+	 * of the same repository, so they are assigned to a single stripe based on their repository identifier.
+	 */
+	private int getStripeIndex(final Lockable target) {
+		return target.repositoryId().hashCode() & (STRIPE_COUNT - 1);
+	}
+	
+	private int[] getStripeIndexes(final Lockable target) {
+		return Lockable.ALL.equals(target) ? getAllStripeIndexes() : new int[] { getStripeIndex(target) };
+	}
+	
+	// returns the distinct stripe indexes in ascending order, stripes are always locked in this order to prevent deadlocks
+	private int[] getStripeIndexes(final Collection<Lockable> targets) {
+		final BitSet stripeIndexes = new BitSet(STRIPE_COUNT);
+		for (final Lockable target : targets) {
+			for (final int stripeIndex : getStripeIndexes(target)) {
+				stripeIndexes.set(stripeIndex);
 			}
-			
-			lock.acquire(context);
-			return lock;
 		}
+		return stripeIndexes.stream().toArray();
+	}
+	
+	private int[] getAllStripeIndexes() {
+		final int[] stripeIndexes = new int[STRIPE_COUNT];
+		for (int i = 0; i < STRIPE_COUNT; i++) {
+			stripeIndexes[i] = i;
+		}
+		return stripeIndexes;
+	}
+	
+	private void lockStripes(final int[] stripeIndexes) {
+		for (final int stripeIndex : stripeIndexes) {
+			stripes[stripeIndex].lock.lock();
+		}
+	}
+	
+	private void unlockStripes(final int[] stripeIndexes) {
+		for (int i = stripeIndexes.length - 1; i >= 0; i--) {
+			stripes[stripeIndexes[i]].lock.unlock();
+		}
+	}
+	
+	private void addWaiter(final Waiter waiter, final Collection<Lockable> targets) {
+		for (final Lockable target : targets) {
+			for (final int stripeIndex : getStripeIndexes(target)) {
+				stripes[stripeIndex].addWaiter(target, waiter);
+			}
+		}
+	}
+	
+	private void removeWaiter(final Waiter waiter, final Collection<Lockable> targets) {
+		for (final Lockable target : targets) {
+			for (final int stripeIndex : getStripeIndexes(target)) {
+				stripes[stripeIndex].removeWaiter(target, waiter);
+			}
+		}
+	}
+	
+	private OperationLock getLock(final Lockable target) {
+		return stripes[getStripeIndex(target)].get(target);
+	}
+	
+	// all stripes should be locked by the caller
+	private Set<OperationLock> getExistingLocks() {
+		final Set<OperationLock> existingLocks = Sets.newHashSet();
+		for (final Stripe stripe : stripes) {
+			stripe.collectLocks(existingLocks);
+		}
+		return existingLocks;
+	}
+	
+	/*
+	 * Compatible contexts may request a lock for an already locked target; the lock keeps its original owner and is removed when any of the
+	 * contexts unlocks the target.
+	 */
+	private OperationLock getOrCreateLock(final DatastoreLockContext context, final Lockable target) {
+		final OperationLock existingLock = getLock(target);
+		if (existingLock != null) {
+			return existingLock;
+		}
+		
+		final int id;
+		synchronized (assignedIds) {
+			lastAssignedId = assignedIds.nextClearBit(lastAssignedId);
+			id = lastAssignedId;
+			assignedIds.set(id);
+			/* 
+			 * XXX (apeteri): this makes the lock manager revisit low IDs after every 128 issued locks, but 
+			 * it can still assign a number over 128 if all of the early ones are in use, since the BitSet grows unbounded. 
+			 */
+			lastAssignedId = lastAssignedId % EXPECTED_LOCKS;
+		}
+		
+		final OperationLock lock = createLock(id, target);
+		lock.acquire(context);
+		
+		for (final int stripeIndex : getStripeIndexes(target)) {
+			stripes[stripeIndex].put(lock);
+		}
+		
+		final DatastoreLockIndexEntry newEntry = buildIndexEntry(Integer.toString(id), target.branchPath(), target.repositoryId(), context);
+		scheduleWrite(writer -> {
+			writer.put(newEntry);
+			return null;
+		});
+		
+		return lock;
 	}
 
 	private DatastoreLockIndexEntry buildIndexEntry(final String lockId, final String branchPath, final String repositoryId, final DatastoreLockContext context) {
@@ -354,12 +500,22 @@ public final class DefaultOperationLockManager implements IOperationLockManager,
 		return entryBuilder.build();
 	}
 
-	private void removeLock(final IOperationLock existingLock) {
-		final DatastoreLockIndexEntry entry = Iterables.getOnlyElement(search(DatastoreLockIndexEntry.Expressions.id(Integer.toString(existingLock.getId())), 2), null);
-		if (entry != null) {
-			remove(entry.getId());
-		} else {
-			System.err.println("Failed to remove lock: " + existingLock + " with id:" + existingLock.getId());
+	private void removeLock(final OperationLock existingLock, final Set<Waiter> waitersToSignal) {
+		final Lockable target = existingLock.getTarget();
+		for (final int stripeIndex : getStripeIndexes(target)) {
+			stripes[stripeIndex].remove(existingLock);
+			stripes[stripeIndex].collectWaiters(target, waitersToSignal);
+		}
+		
+		// the removal is scheduled before the ID is made available again, so it can not overtake the write of a new lock with the same ID
+		final String lockId = Integer.toString(existingLock.getId());
+		scheduleWrite(writer -> {
+			writer.remove(DatastoreLockIndexEntry.class, lockId);
+			return null;
+		});
+		
+		synchronized (assignedIds) {
+			assignedIds.clear(existingLock.getId());
 		}
 	}
 
@@ -379,20 +535,10 @@ public final class DefaultOperationLockManager implements IOperationLockManager,
 		return new OperationLock(id, target);
 	}
 
-	private OperationLockInfo createLockInfo(final IOperationLock existingLock) {
-		final OperationLock lock = (OperationLock) existingLock;
+	private OperationLockInfo createLockInfo(final OperationLock lock) {
 		return new OperationLockInfo(lock.getId(), lock.getLevel(), lock.getCreationDate(), lock.getTarget(), lock.getContext());
 	}
 	
-	private Collection<IOperationLock> getExistingLocks() {
-		return search(Expressions.matchAll(), Integer.MAX_VALUE).stream().map(entry -> {
-			final DatastoreLockContext context = createLockContext(entry.getUserId(), entry.getDescription(), entry.getParentDescription());
-			final OperationLock lock = new OperationLock(Integer.parseInt(entry.getId()), new Lockable(entry.getRepositoryId(), entry.getBranchPath()));
-			lock.acquire(context);
-			return lock;
-		}).collect(Collectors.toSet());
-	}
-	
 	private DatastoreLockContext createLockContext(String userId, String description, String parentDescription) {
 		if (Strings.isNullOrEmpty(parentDescription)) {
 			return new DatastoreLockContext(userId, description);
@@ -425,22 +571,34 @@ public final class DefaultOperationLockManager implements IOperationLockManager,
 		});
 	}
 	
-	private void put(DatastoreLockIndexEntry lock) {
-		index.write(writer -> {
-			writer.put(lock);
-			writer.commit();
-			return null;
-		});
+	private void scheduleWrite(final IndexWrite<Void> write) {
+		pendingWrites.add(write);
+		try {
+			indexWriter.execute(this::flushPendingWrites);
+		} catch (RejectedExecutionException e) {
+			// the writer is already shut down, persist the change on the calling thread
+			flushPendingWrites();
+		}
 	}
 	
-	private void remove(String lockId) {
-		index.write(writer -> {
-			writer.remove(DatastoreLockIndexEntry.class, lockId);
-			writer.commit();
-			
-			return null;
-		});
+	// applies all changes accumulated since the last flush in a single index commit
+	private void flushPendingWrites() {
+		if (pendingWrites.isEmpty()) {
+			return;
+		}
 		
+		try {
+			index.write(writer -> {
+				IndexWrite<Void> write;
+				while ((write = pendingWrites.poll()) != null) {
+					write.execute(writer);
+				}
+				writer.commit();
+				return null;
+			});
+		} catch (RuntimeException e) {
+			LOG.error("Failed to persist lock state changes.", e);
+		}
 	}
 	
 	@Override
@@ -448,6 +606,15 @@ public final class DefaultOperationLockManager implements IOperationLockManager,
 		if (disposed.compareAndSet(false, true)) {
 			unlockAll();
 			clearListeners();
+			
+			indexWriter.shutdown();
+			try {
+				if (!indexWriter.awaitTermination(INDEX_WRITER_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+					LOG.warn("Lock state changes could not be persisted in {} seconds.", INDEX_WRITER_SHUTDOWN_TIMEOUT_SECONDS);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
 		}
 	}
 
@@ -456,4 +623,122 @@ public final class DefaultOperationLockManager implements IOperationLockManager,
 		return disposed.get();
 	}
 	
-}
\ No newline at end of file
+	/*
+	 * Granted locks and waiting requests of the targets assigned to a single stripe; all access is guarded by the stripe's lock.
+	 */
+	private static final class Stripe {
+		
+		private final ReentrantLock lock = new ReentrantLock();
+		
+		// repository ID -> branch path -> lock
+		private final Map<String, Map<String, OperationLock>> locksByRepository = Maps.newHashMap();
+		
+		private final Map<Lockable, Set<Waiter>> waitersByTarget = Maps.newHashMap();
+		
+		OperationLock get(final Lockable target) {
+			final Map<String, OperationLock> locksByBranch = locksByRepository.get(target.repositoryId());
+			return locksByBranch != null ? locksByBranch.get(target.branchPath()) : null;
+		}
+		
+		void put(final OperationLock lock) {
+			final Lockable target = lock.getTarget();
+			locksByRepository.computeIfAbsent(target.repositoryId(), key -> Maps.newHashMap()).put(target.branchPath(), lock);
+		}
+		
+		void remove(final OperationLock lock) {
+			final Lockable target = lock.getTarget();
+			final Map<String, OperationLock> locksByBranch = locksByRepository.get(target.repositoryId());
+			if (locksByBranch != null && locksByBranch.remove(target.branchPath(), lock) && locksByBranch.isEmpty()) {
+				locksByRepository.remove(target.repositoryId());
+			}
+		}
+		
+		void collectLocks(final Collection<OperationLock> result) {
+			locksByRepository.values().forEach(locksByBranch -> result.addAll(locksByBranch.values()));
+		}
+		
+		/*
+		 * Narrows down the candidates using the rules of Lockable#conflicts: a target conflicts with Lockable.ALL, with targets of the same
+		 * repository without a branch path, and with itself.
+		 */
+		List<OperationLock> getConflictingLocks(final Lockable target) {
+			final List<OperationLock> candidates = Lists.newArrayList();
+			if (Lockable.ALL.equals(target)) {
+				collectLocks(candidates);
+			} else {
+				addIfNotNull(candidates, get(Lockable.ALL));
+				final Map<String, OperationLock> locksByBranch = locksByRepository.get(target.repositoryId());
+				if (locksByBranch != null) {
+					if (Strings.isNullOrEmpty(target.branchPath())) {
+						candidates.addAll(locksByBranch.values());
+					} else {
+						addIfNotNull(candidates, locksByBranch.get(target.branchPath()));
+						addIfNotNull(candidates, locksByBranch.get(""));
+					}
+				}
+			}
+			
+			candidates.removeIf(candidate -> !candidate.targetConflicts(target));
+			return candidates;
+		}
+		
+		void addWaiter(final Lockable target, final Waiter waiter) {
+			waitersByTarget.computeIfAbsent(target, key -> Sets.newHashSet()).add(waiter);
+		}
+		
+		void removeWaiter(final Lockable target, final Waiter waiter) {
+			final Set<Waiter> waiters = waitersByTarget.get(target);
+			if (waiters != null && waiters.remove(waiter) && waiters.isEmpty()) {
+				waitersByTarget.remove(target);
+			}
+		}
+		
+		void collectWaiters(final Lockable releasedTarget, final Set<Waiter> result) {
+			waitersByTarget.forEach((target, waiters) -> {
+				if (target.conflicts(releasedTarget)) {
+					result.addAll(waiters);
+				}
+			});
+		}
+		
+		private static void addIfNotNull(final List<OperationLock> candidates, final OperationLock lock) {
+			if (lock != null) {
+				candidates.add(lock);
+			}
+		}
+	}
+	
+	/*
+	 * A lock request waiting for the release of a conflicting target. The flag is set before notifying, so a release that happens between
+	 * registering the waiter and starting to wait is not lost.
+	 */
+	private static final class Waiter {
+		
+		private boolean signalled;
+		
+		synchronized void reset() {
+			signalled = false;
+		}
+		
+		synchronized void signal() {
+			signalled = true;
+			notifyAll();
+		}
+		
+		synchronized void await(final long timeoutMillis) throws InterruptedException {
+			if (NO_TIMEOUT == timeoutMillis) {
+				while (!signalled) {
+					wait();
+				}
+			} else {
+				final long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+				long remainingNanos = deadlineNanos - System.nanoTime();
+				while (!signalled && remainingNanos > 0L) {
+					TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+					remainingNanos = deadlineNanos - System.nanoTime();
+				}
+			}
+		}
+	}
+	
+}
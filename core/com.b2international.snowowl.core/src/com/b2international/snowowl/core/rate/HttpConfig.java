@@ -17,6 +17,7 @@ package com.b2international.snowowl.core.rate;
 
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.core.TimeValue;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotEmpty;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -36,6 +37,9 @@ public class HttpConfig {
 	@NotEmpty
 	private String requestTimeout = "300s";
 	
+	@Min(1)
+	private int asyncThreads = Math.max(1, Runtime.getRuntime().availableProcessors());
+	
 	public String getMaxFileSize() {
 		return maxFileSize;
 	}
@@ -52,6 +56,13 @@ public class HttpConfig {
 		return requestTimeout;
 	}
 	
+	/**
+	 * @return the maximum number of threads writing asynchronous (eg. streamed) HTTP responses
+	 */
+	public int getAsyncThreads() {
+		return asyncThreads;
+	}
+	
 	public void setMaxFileSize(String maxFileSize) {
 		this.maxFileSize = maxFileSize;
 	}
@@ -67,6 +78,10 @@ public class HttpConfig {
 	public void setRequestTimeout(String requestTimeout) {
 		this.requestTimeout = requestTimeout;
 	}
+	
+	public void setAsyncThreads(int asyncThreads) {
+		this.asyncThreads = asyncThreads;
+	}
 
 	@JsonIgnore
 	public long getMaxFileSizeBytes() {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,25 +16,41 @@
 package com.b2international.snowowl.core.repository;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 
 import com.b2international.index.revision.Hooks;
+import com.b2international.index.revision.Revision;
 import com.b2international.index.revision.RevisionSearcher;
 import com.b2international.index.revision.StagingArea;
 import com.b2international.snowowl.core.Repository;
+import com.b2international.snowowl.core.api.SnowowlRuntimeException;
 import com.b2international.snowowl.core.internal.locks.DatastoreLockContextDescriptions;
+import com.b2international.snowowl.core.util.ConcurrentTasks;
+import com.google.common.util.concurrent.ListeningExecutorService;
 
 /**
  * Base {@link Repository} pre-commit hook. It allows terminology plugin developers to attach custom precommit hooks to the underlying
- * {@link Repository}. These hooks will be executed in order and applied to the current {@link StagingArea}.
+ * {@link Repository}. These hooks will be executed in order and applied to the current {@link StagingArea}. Processors that declare the document
+ * types they read and write, and do not depend on each other's changes, are executed concurrently for larger commits.
  * 
  * @since 5.0
  */
 public abstract class BaseRepositoryPreCommitHook implements Hooks.PreCommitHook {
 
+	// processors and lookups only run concurrently for commits with at least this many staged objects
+	private static final int CONCURRENT_PROCESSING_THRESHOLD = 1_000;
+	
+	// shared by all commits, so that concurrent commits do not multiply the number of processing threads
+	private static final ListeningExecutorService EXECUTOR = ConcurrentTasks.newExecutor("pre-commit-%d", Runtime.getRuntime().availableProcessors());
+	
 	protected final Logger log;
 
 	public BaseRepositoryPreCommitHook(Logger log) {
@@ -67,21 +83,111 @@ public abstract class BaseRepositoryPreCommitHook implements Hooks.PreCommitHook
 	}
 
 	protected final void doProcess(Collection<ChangeSetProcessor> changeSetProcessors, StagingArea staging, RevisionSearcher index) throws IOException {
-		for (ChangeSetProcessor processor : changeSetProcessors) {
-			log.trace("Processing {} changes...", processor.description());
-			processor.process(staging, index);
+		for (List<ChangeSetProcessor> group : groupByDependencies(changeSetProcessors)) {
+			final List<Callable<Void>> tasks = group.stream()
+				.map(processor -> (Callable<Void>) () -> {
+					log.trace("Processing {} changes...", processor.description());
+					processor.process(staging, index);
+					return null;
+				})
+				.collect(Collectors.toList());
 			
-			// register additions, deletions from the sub processor
-			for (RevisionDocument revision : processor.getNewMappings().values()) {
-				staging.stageNew(revision);
-			}
+			runConcurrently(staging, tasks);
 			
-			for (RevisionDocumentChange revisionChange : processor.getChangedMappings().values()) {
-				staging.stageChange(((RevisionDocumentChange) revisionChange).getOldRevision(), ((RevisionDocumentChange) revisionChange).getNewRevision());
+			// register additions, deletions from the sub processors, in the order they were specified
+			for (ChangeSetProcessor processor : group) {
+				for (RevisionDocument revision : processor.getNewMappings().values()) {
+					staging.stageNew(revision);
+				}
+				
+				for (RevisionDocumentChange revisionChange : processor.getChangedMappings().values()) {
+					staging.stageChange(((RevisionDocumentChange) revisionChange).getOldRevision(), ((RevisionDocumentChange) revisionChange).getNewRevision());
+				}
+				
+				processor.getDeletions().forEach(staging::stageRemove);
+			}
+		}
+	}
+	
+	/**
+	 * Runs the given tasks, concurrently if the staging area holds enough changes to make it worthwhile, otherwise one after another in the
+	 * calling thread. The tasks should not modify the staging area, and should not call this method themselves, as concurrent tasks of all commits
+	 * share a bounded pool.
+	 * 
+	 * @param staging - the staging area before committing it to the repository
+	 * @param tasks - the tasks to run
+	 * @throws IOException - if any of the tasks fails with an {@link IOException}
+	 */
+	protected final void runConcurrently(StagingArea staging, List<? extends Callable<?>> tasks) throws IOException {
+		if (tasks.size() < 2 || staging.getNumberOfStagedObjects() < CONCURRENT_PROCESSING_THRESHOLD) {
+			for (Callable<?> task : tasks) {
+				call(task);
+			}
+			return;
+		}
+		
+		ConcurrentTasks.run(EXECUTOR, tasks);
+	}
+	
+	private static void call(Callable<?> task) throws IOException {
+		try {
+			task.call();
+		} catch (IOException | RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new SnowowlRuntimeException(e);
+		}
+	}
+	
+	/*
+	 * Assigns each processor to the earliest group that comes after the groups of all preceding processors it conflicts with. Processors in the
+	 * same group do not see each other's changes, just as if they were executed in the specified order.
+	 */
+	static List<List<ChangeSetProcessor>> groupByDependencies(Collection<ChangeSetProcessor> changeSetProcessors) {
+		final List<ChangeSetProcessor> processors = List.copyOf(changeSetProcessors);
+		final int[] groupIndexes = new int[processors.size()];
+		final List<List<ChangeSetProcessor>> groups = new ArrayList<>();
+		
+		for (int i = 0; i < processors.size(); i++) {
+			final ChangeSetProcessor processor = processors.get(i);
+			int groupIndex = 0;
+			for (int j = 0; j < i; j++) {
+				if (conflicts(processors.get(j), processor)) {
+					groupIndex = Math.max(groupIndex, groupIndexes[j] + 1);
+				}
 			}
 			
-			processor.getDeletions().forEach(staging::stageRemove);
+			groupIndexes[i] = groupIndex;
+			if (groupIndex == groups.size()) {
+				groups.add(new ArrayList<>());
+			}
+			groups.get(groupIndex).add(processor);
+		}
+		
+		return groups;
+	}
+	
+	private static boolean conflicts(ChangeSetProcessor earlier, ChangeSetProcessor later) {
+		return overlaps(earlier.getWriteTypes(), later.getReadTypes())
+				|| overlaps(earlier.getReadTypes(), later.getWriteTypes())
+				|| overlaps(earlier.getWriteTypes(), later.getWriteTypes());
+	}
+	
+	private static boolean overlaps(Set<Class<? extends Revision>> left, Set<Class<? extends Revision>> right) {
+		// unknown types might overlap with anything
+		if (left == null || right == null) {
+			return true;
 		}
+		
+		for (Class<? extends Revision> leftType : left) {
+			for (Class<? extends Revision> rightType : right) {
+				if (leftType.isAssignableFrom(rightType) || rightType.isAssignableFrom(leftType)) {
+					return true;
+				}
+			}
+		}
+		
+		return false;
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,7 +18,9 @@ package com.b2international.snowowl.core.repository;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Map;
+import java.util.Set;
 
+import com.b2international.index.revision.Revision;
 import com.b2international.index.revision.RevisionSearcher;
 import com.b2international.index.revision.RevisionWriter;
 import com.b2international.index.revision.StagingArea;
@@ -38,6 +40,28 @@ public interface ChangeSetProcessor {
 	 */
 	void process(StagingArea staging, RevisionSearcher searcher) throws IOException;
 
+	/**
+	 * Returns the document types this processor reads, either from the staging area or from the index. Processors that declare both the read
+	 * and the written types can run concurrently with other processors if they do not depend on each other's changes. The default
+	 * implementation returns <code>null</code>, which means that the processor might read any document type.
+	 * 
+	 * @return the document types read by this processor, or <code>null</code> if unknown
+	 */
+	default Set<Class<? extends Revision>> getReadTypes() {
+		return null;
+	}
+	
+	/**
+	 * Returns the document types this processor registers new, changed or deleted documents for. The default implementation returns
+	 * <code>null</code>, which means that the processor might write any document type.
+	 * 
+	 * @return the document types written by this processor, or <code>null</code> if unknown
+	 * @see #getReadTypes()
+	 */
+	default Set<Class<? extends Revision>> getWriteTypes() {
+		return null;
+	}
+	
 	/**
 	 * Returns the description of the change set processor.
 	 * 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -261,6 +261,7 @@ public final class RepositoryPlugin extends Plugin {
 		
 		final int purgeThreshold = configuration.getModuleConfig(JobConfiguration.class).getPurgeThreshold();
 		final long staleJobAge = configuration.getModuleConfig(JobConfiguration.class).getStaleJobAge();
+		final long flushInterval = configuration.getModuleConfig(JobConfiguration.class).getFlushInterval();
 		
 		env.services()
 			.registerService(RemoteJobTracker.class, 
@@ -269,7 +270,8 @@ public final class RepositoryPlugin extends Plugin {
 					env.service(IEventBus.class), 
 					objectMapper, 
 					purgeThreshold,
-					staleJobAge)
+					staleJobAge,
+					flushInterval)
 			);
 	}
 
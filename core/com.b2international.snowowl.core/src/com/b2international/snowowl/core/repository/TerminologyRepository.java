@@ -41,6 +41,7 @@ import com.b2international.snowowl.core.config.IndexConfiguration;
 import com.b2international.snowowl.core.config.IndexSettings;
 import com.b2international.snowowl.core.config.RepositoryConfiguration;
 import com.b2international.snowowl.core.context.ServiceContext;
+import com.b2international.snowowl.core.events.Notifications;
 import com.b2international.snowowl.core.setup.Plugins;
 import com.b2international.snowowl.eventbus.IEventBus;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -95,6 +96,15 @@ public final class TerminologyRepository extends ServiceContext implements Repos
 		revisionIndex.branching().addBranchChangeListener(path -> {
 			new BranchChangedEvent(repositoryId, path).publish(context.service(IEventBus.class));
 		});
+		// evict branches from the local branch cache when they are changed by another node
+		final Notifications notifications = context.service(Notifications.class);
+		notifications.ofType(BranchChangedEvent.class)
+			.filter(event -> repositoryId.equals(event.getRepositoryId()))
+			.map(BranchChangedEvent::getBranch)
+			.mergeWith(notifications.ofType(RepositoryCommitNotification.class)
+					.filter(notification -> repositoryId.equals(notification.getRepositoryId()))
+					.map(RepositoryCommitNotification::getBranchPath))
+			.subscribe(revisionIndex.branching()::invalidate, err -> log.error("Failed to process branch change notification", err));
 		// register IndexClient per terminology
 		bind(IndexClient.class, indexClient);
 		// register index and revision index access, the underlying index is the same
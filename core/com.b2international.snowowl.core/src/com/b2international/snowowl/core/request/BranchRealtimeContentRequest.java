@@ -18,6 +18,7 @@ package com.b2international.snowowl.core.request;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.IOException;
+import java.util.function.Consumer;
 
 import com.b2international.commons.metric.Metrics;
 import com.b2international.index.Hits;
@@ -81,6 +82,15 @@ public final class BranchRealtimeContentRequest<B> extends DelegatingRequest<Rep
 				});
 			}
 
+			@Override
+			public <T> void stream(Query<T> query, Consumer<? super Hits<T>> consumer) throws IOException {
+				index.read(branchPath, searcher -> {
+					searcher.setMetrics(metrics);
+					searcher.stream(query, consumer);
+					return null;
+				});
+			}
+
 			@Override
 			public <T> Iterable<T> get(Class<T> type, Iterable<String> keys) throws IOException {
 				return index.read(branchPath, searcher -> {
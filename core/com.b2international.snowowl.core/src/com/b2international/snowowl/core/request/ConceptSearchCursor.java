@@ -0,0 +1,254 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.request;
+
+import java.io.*;
+import java.util.*;
+import java.util.function.Function;
+
+import com.b2international.commons.exceptions.BadRequestException;
+import com.b2international.commons.exceptions.FormattedRuntimeException;
+import com.b2international.index.IndexClientFactory;
+import com.b2international.index.query.SortBy;
+import com.b2international.snowowl.core.domain.Concept;
+import com.b2international.snowowl.core.domain.Concepts;
+import com.b2international.snowowl.core.request.SearchResourceRequest.Sort;
+import com.b2international.snowowl.core.request.SearchResourceRequest.SortField;
+import com.google.common.base.Strings;
+
+/**
+ * Merges the {@link Concepts} returned by multiple resources for the same concept search into a single page, and keeps track of the position
+ * reached in each resource, so that the next page can continue from there.
+ * <p>
+ * The position in a resource is described by the resource's own searchAfter value that the last fetched page has been started from and the
+ * number of concepts that were already returned from that page. The positions of all resources are encoded into a single searchAfter token.
+ * <p>
+ * As the concepts already returned from a resource's current page are fetched again for each subsequent page, a resource can stay on the same
+ * page for at most {@value #MAX_RESULT_WINDOW} concepts, including the ones of the requested page. This can happen when a resource
+ * contributes only a few concepts to each merged page; requests that would go past this window are rejected.
+ *
+ * @since 9.3
+ */
+final class ConceptSearchCursor {
+
+	private static final int VERSION = 1;
+
+	/**
+	 * The maximum number of concepts to fetch from a single resource for a merged page, same as the default result window of the index.
+	 */
+	static final int MAX_RESULT_WINDOW = IndexClientFactory.DEFAULT_RESULT_WINDOW;
+
+	/**
+	 * The position of the search in a single resource.
+	 *
+	 * @param searchAfter - the resource specific searchAfter value to fetch the next page with, <code>null</code> for the first page
+	 * @param offset - the number of concepts to skip from the start of the next page, as they have been returned already
+	 * @param exhausted - <code>true</code> if all matches of the resource have been returned
+	 * @since 9.3
+	 */
+	record Position(String searchAfter, int offset, boolean exhausted) {
+
+		static final Position START = new Position(null, 0, false);
+
+		/**
+		 * @return the number of concepts to fetch from the resource to fill a page of the given size
+		 * @throws BadRequestException - if the concepts to fetch would exceed {@link ConceptSearchCursor#MAX_RESULT_WINDOW}
+		 */
+		int limit(int limit) {
+			if (exhausted) {
+				return 0;
+			}
+			final long window = (long) offset + limit;
+			if (window > MAX_RESULT_WINDOW) {
+				throw new BadRequestException("Concept search across multiple resources can not continue past %s concepts of a single resource page, "
+						+ "narrow the search to fewer resources or use a smaller page size.", MAX_RESULT_WINDOW);
+			}
+			return (int) window;
+		}
+
+	}
+
+	private ConceptSearchCursor() {}
+
+	/**
+	 * Merges the given pages fetched from each resource into a single page, ordered by the given sort.
+	 *
+	 * @param positions - the positions that the pages were fetched from, keyed by the resource
+	 * @param pages - the fetched pages keyed by the resource, the order of the entries is used to break ties
+	 * @param sortBy - the requested sort, may be <code>null</code>
+	 * @param limit - the number of concepts to return
+	 * @return the merged page with a searchAfter token to fetch the next page with, or with no token if all resources are exhausted
+	 */
+	static Concepts merge(Map<String, Position> positions, Map<String, Concepts> pages, List<Sort> sortBy, int limit) {
+		final List<String> resources = List.copyOf(pages.keySet());
+		final List<List<Concept>> items = new ArrayList<>(resources.size());
+		final int[] consumed = new int[resources.size()];
+
+		final Comparator<Head> order = Comparator.<Head, Concept>comparing(Head::concept, comparator(sortBy))
+				.thenComparingInt(Head::resource)
+				.thenComparingInt(Head::index);
+		final PriorityQueue<Head> heads = new PriorityQueue<>(Math.max(1, resources.size()), order);
+
+		int total = 0;
+		for (int resource = 0; resource < resources.size(); resource++) {
+			final Concepts page = pages.get(resources.get(resource));
+			final Position position = positions.getOrDefault(resources.get(resource), Position.START);
+			total += page.getTotal();
+			items.add(page.getItems());
+			consumed[resource] = Math.min(position.offset(), page.getItems().size());
+			if (consumed[resource] < page.getItems().size()) {
+				heads.add(new Head(resource, consumed[resource], page.getItems().get(consumed[resource])));
+			}
+		}
+
+		final List<Concept> merged = new ArrayList<>(Math.min(limit, items.stream().mapToInt(List::size).sum()));
+		while (merged.size() < limit && !heads.isEmpty()) {
+			final Head head = heads.poll();
+			merged.add(head.concept());
+			final int next = ++consumed[head.resource()];
+			if (next < items.get(head.resource()).size()) {
+				heads.add(new Head(head.resource(), next, items.get(head.resource()).get(next)));
+			}
+		}
+
+		final Map<String, Position> nextPositions = new LinkedHashMap<>(resources.size());
+		boolean exhausted = true;
+		for (int resource = 0; resource < resources.size(); resource++) {
+			final String resourceKey = resources.get(resource);
+			final Concepts page = pages.get(resourceKey);
+			final Position position = positions.getOrDefault(resourceKey, Position.START);
+			final Position nextPosition;
+			if (position.exhausted()) {
+				nextPosition = position;
+			} else if (consumed[resource] < page.getItems().size()) {
+				// continue from the same page next time, skipping what has been returned so far
+				nextPosition = new Position(position.searchAfter(), consumed[resource], false);
+			} else if (page.getItems().size() < position.limit(limit) || page.getSearchAfter() == null) {
+				nextPosition = new Position(null, 0, true);
+			} else {
+				nextPosition = new Position(page.getSearchAfter(), 0, false);
+			}
+			nextPositions.put(resourceKey, nextPosition);
+			exhausted &= nextPosition.exhausted();
+		}
+
+		return new Concepts(merged, exhausted ? null : toToken(nextPositions), limit, total);
+	}
+
+	/**
+	 * Returns a comparator that orders generic concepts the same way as the given sort orders matches in a single resource. Sort fields that are
+	 * not available on the generic concept model are ignored.
+	 *
+	 * @param sortBy - the requested sort, may be <code>null</code>, in which case matches are ordered by their score then by their ID
+	 * @return a {@link Comparator} instance
+	 */
+	static Comparator<Concept> comparator(List<Sort> sortBy) {
+		if (sortBy == null || sortBy.isEmpty()) {
+			return compare(Concept::getScore, false).thenComparing(compare(Concept::getId, true));
+		}
+
+		Comparator<Concept> comparator = (left, right) -> 0;
+		for (Sort sort : sortBy) {
+			if (!(sort instanceof SortField sortField)) {
+				continue;
+			}
+			switch (sortField.getField()) {
+			case SortBy.FIELD_DEFAULT:
+			case "id":
+				comparator = comparator.thenComparing(compare(Concept::getId, sort.isAscending()));
+				break;
+			case SortBy.FIELD_SCORE:
+			case "score":
+				comparator = comparator.thenComparing(compare(Concept::getScore, sort.isAscending()));
+				break;
+			case "term":
+				comparator = comparator.thenComparing(compare(Concept::getTerm, sort.isAscending()));
+				break;
+			case "active":
+				comparator = comparator.thenComparing(compare(Concept::isActive, sort.isAscending()));
+				break;
+			case "iconId":
+				comparator = comparator.thenComparing(compare(Concept::getIconId, sort.isAscending()));
+				break;
+			default:
+				break;
+			}
+		}
+		return comparator;
+	}
+
+	private static <T extends Comparable<? super T>> Comparator<Concept> compare(Function<Concept, T> property, boolean ascending) {
+		final Comparator<T> order = ascending ? Comparator.naturalOrder() : Comparator.reverseOrder();
+		return Comparator.comparing(property, Comparator.nullsLast(order));
+	}
+
+	/**
+	 * @param token - the searchAfter token returned with a previous merged page, may be <code>null</code>
+	 * @return the positions of each resource encoded in the token, or an empty map if there is no token
+	 * @throws BadRequestException - if the token is not a valid concept search token
+	 */
+	static Map<String, Position> fromToken(String token) {
+		if (Strings.isNullOrEmpty(token)) {
+			return Map.of();
+		}
+
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+			if (in.readUnsignedByte() != VERSION) {
+				throw new BadRequestException("Invalid 'searchAfter' parameter value '%s'", token);
+			}
+			final int numberOfResources = in.readInt();
+			final Map<String, Position> positions = new LinkedHashMap<>();
+			for (int i = 0; i < numberOfResources; i++) {
+				final String resource = in.readUTF();
+				final boolean exhausted = in.readBoolean();
+				final int offset = in.readInt();
+				final String searchAfter = in.readBoolean() ? in.readUTF() : null;
+				positions.put(resource, new Position(searchAfter, offset, exhausted));
+			}
+			return positions;
+		} catch (IOException | IllegalArgumentException e) {
+			throw new BadRequestException("Invalid 'searchAfter' parameter value '%s'", token);
+		}
+	}
+
+	static String toToken(Map<String, Position> positions) {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeByte(VERSION);
+			out.writeInt(positions.size());
+			for (Map.Entry<String, Position> entry : positions.entrySet()) {
+				final Position position = entry.getValue();
+				out.writeUTF(entry.getKey());
+				out.writeBoolean(position.exhausted());
+				out.writeInt(position.offset());
+				out.writeBoolean(position.searchAfter() != null);
+				if (position.searchAfter() != null) {
+					out.writeUTF(position.searchAfter());
+				}
+			}
+		} catch (IOException e) {
+			throw new FormattedRuntimeException("Couldn't encode searchAfter parameters to a token.", e);
+		}
+		return Base64.getUrlEncoder().encodeToString(bytes.toByteArray());
+	}
+
+	/*
+	 * The next not yet returned concept of a resource.
+	 */
+	private record Head(int resource, int index, Concept concept) {
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2021 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2020-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,21 +16,22 @@
 package com.b2international.snowowl.core.request;
 
 import java.io.IOException;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
-import com.b2international.commons.exceptions.BadRequestException;
 import com.b2international.commons.options.Options;
 import com.b2international.snowowl.core.RepositoryManager;
 import com.b2international.snowowl.core.ResourceURI;
 import com.b2international.snowowl.core.ServiceProvider;
+import com.b2international.snowowl.core.codesystem.CodeSystem;
 import com.b2international.snowowl.core.codesystem.CodeSystemRequests;
 import com.b2international.snowowl.core.codesystem.CodeSystemSearchRequestBuilder;
 import com.b2international.snowowl.core.domain.Concepts;
+import com.b2international.snowowl.core.util.ConcurrentTasks;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ListeningExecutorService;
 
 /**
  * A generic concept search request that can be executed in any code system using generic query expressions and filters to get back primary
@@ -43,6 +44,11 @@ import com.google.common.collect.Maps;
 public final class ConceptSearchRequest extends SearchResourceRequest<ServiceProvider, Concepts> {
 
 	private static final long serialVersionUID = 1L;
+	
+	// the maximum number of code systems to search at the same time, shared by all concept search requests
+	private static final int MAX_CONCURRENT_EVALUATIONS = 8;
+	
+	private static final ListeningExecutorService EVALUATION_EXECUTOR = ConcurrentTasks.newExecutor("concept-search-%d", MAX_CONCURRENT_EVALUATIONS);
 
 	public enum OptionKey {
 		
@@ -88,40 +94,49 @@ public final class ConceptSearchRequest extends SearchResourceRequest<ServicePro
 //				.filterByToolingIds(toolingIds) TODO perform TOOLING filtering
 //				.filterByUrls(urls) TODO perform URL filtering
 		
-		List<Concepts> concepts = codeSystemSearchReq
+		final List<CodeSystem> codeSystems = codeSystemSearchReq
 			.buildAsync()
 			.execute(context)
-			.stream()
-			.map(codeSystem -> {
-				final ResourceURI uriToEvaluateOn = codeSystemResourceFiltersByResource.getOrDefault(codeSystem.getResourceURI(), codeSystem.getResourceURI());
-				return context.service(RepositoryManager.class).get(codeSystem.getToolingId()).service(ConceptSearchRequestEvaluator.class).evaluate(uriToEvaluateOn, context, conceptSearchOptions);
-			})
-//			.sorted(comparator) // TODO perform Java SORT on Concept fields
-//			.limit(limit)
-			.collect(Collectors.toList());
+			.getItems();
 		
 		// for single CodeSystem searches, sorting, paging works as it should
-		if (concepts.size() == 1) {
-			return Iterables.getOnlyElement(concepts);
+		if (codeSystems.size() == 1) {
+			return evaluate(context, Iterables.getOnlyElement(codeSystems), codeSystemResourceFiltersByResource, conceptSearchOptions);
 		}
 		
-		// otherwise, check if searchAfter was used, as it would return bogus results; it can not be applied across code systems
-		if (searchAfter() != null) {
-			throw new BadRequestException("searchAfter is not supported in Concept Search API for multiple code systems.");
+		// otherwise fetch a page from each code system concurrently, starting from the position the previous page ended at in each of them
+		final Map<String, ConceptSearchCursor.Position> positions = ConceptSearchCursor.fromToken(searchAfter());
+		final Map<String, Callable<Concepts>> evaluations = new LinkedHashMap<>(codeSystems.size());
+		for (CodeSystem codeSystem : codeSystems) {
+			final String resource = codeSystem.getResourceURI().toString();
+			final ConceptSearchCursor.Position position = positions.getOrDefault(resource, ConceptSearchCursor.Position.START);
+			final Options resourceSearchOptions = Options.builder()
+					.putAll(conceptSearchOptions)
+					.put(ConceptSearchRequestEvaluator.OptionKey.AFTER, position.searchAfter())
+					.put(ConceptSearchRequestEvaluator.OptionKey.LIMIT, position.limit(limit))
+					.build();
+			evaluations.put(resource, () -> evaluate(context, codeSystem, codeSystemResourceFiltersByResource, resourceSearchOptions));
 		}
 		
-		// calculate grand total
-		int total = 0;
-		for (Concepts conceptsToAdd : concepts) {
-			total += conceptsToAdd.getTotal();
+		return ConceptSearchCursor.merge(positions, evaluateConcurrently(evaluations), sortBy(), limit);
+	}
+	
+	private Concepts evaluate(ServiceProvider context, CodeSystem codeSystem, Map<ResourceURI, ResourceURI> codeSystemResourceFiltersByResource, Options conceptSearchOptions) {
+		final ResourceURI uriToEvaluateOn = codeSystemResourceFiltersByResource.getOrDefault(codeSystem.getResourceURI(), codeSystem.getResourceURI());
+		return context.service(RepositoryManager.class).get(codeSystem.getToolingId()).service(ConceptSearchRequestEvaluator.class).evaluate(uriToEvaluateOn, context, conceptSearchOptions);
+	}
+	
+	/*
+	 * Runs the given evaluations in parallel, so the response time is determined by the slowest code system instead of the sum of all of them.
+	 */
+	private static Map<String, Concepts> evaluateConcurrently(Map<String, Callable<Concepts>> evaluations) throws IOException {
+		final List<Concepts> results = ConcurrentTasks.run(EVALUATION_EXECUTOR, evaluations.values());
+		final Map<String, Concepts> resultsByResource = new LinkedHashMap<>(evaluations.size());
+		final Iterator<Concepts> resultIterator = results.iterator();
+		for (String resource : evaluations.keySet()) {
+			resultsByResource.put(resource, resultIterator.next());
 		}
-		
-		return new Concepts(
-			concepts.stream().flatMap(Concepts::stream).limit(limit).collect(Collectors.toList()), // TODO add manual sorting here if multiple resources have been fetched 
-			null, /* not supported across codesystems */
-			limit, 
-			total
-		);
+		return resultsByResource;
 	}
 
 }
@@ -150,7 +150,7 @@ public abstract class AbstractComponentSearchRequest<C extends ServiceProvider,
 	 */
 	protected Promise<Set<String>> resolve(C context, String eclExpression) {
 		return resolveToExpression(context, eclExpression)
-				.then(EclEvaluationRequest.resolveIds(context, getFrom()));
+				.thenWith(EclEvaluationRequest.resolveIds(context, getFrom()));
 	}
 	
 	/**
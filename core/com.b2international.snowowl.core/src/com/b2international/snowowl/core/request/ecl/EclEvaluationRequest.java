@@ -161,7 +161,7 @@ public abstract class EclEvaluationRequest<C extends ServiceProvider> implements
 					.build());
 		} else {
 			return evaluate(context, inner)
-					.then(resolveIds(context))
+					.thenWith(resolveIds(context))
 					.then(ids -> Expressions.bool()
 							.should(parentsExpression(ids))
 							.should(ancestorsExpression(ids))
@@ -180,7 +180,7 @@ public abstract class EclEvaluationRequest<C extends ServiceProvider> implements
 			return evaluate(context, inner);
 		} else {
 			return evaluate(context, inner)
-					.then(resolveIds(context))
+					.thenWith(resolveIds(context))
 					.then(ids -> Expressions.bool()
 							.should(ids(ids))
 							.should(parentsExpression(ids))
@@ -202,7 +202,7 @@ public abstract class EclEvaluationRequest<C extends ServiceProvider> implements
 					.build());
 		} else {
 			return evaluate(context, innerConstraint)
-					.then(resolveIds(context))
+					.thenWith(resolveIds(context))
 					.then(ids -> parentsExpression(ids));
 		}
 	}
@@ -218,7 +218,7 @@ public abstract class EclEvaluationRequest<C extends ServiceProvider> implements
 			return evaluate(context, innerConstraint);
 		} else {
 			return evaluate(context, innerConstraint)
-					.then(resolveIds(context))
+					.thenWith(resolveIds(context))
 					.then(ids -> Expressions.bool()
 							.should(ids(ids))
 							.should(parentsExpression(ids))
@@ -591,7 +591,7 @@ public abstract class EclEvaluationRequest<C extends ServiceProvider> implements
 	 * @param context
 	 * @return a function that when an expression is received, it will either shortcut the execution and returns the IDs or evaluates the returned expression to a set of concept IDs.
 	 */
-	public Function<Expression, Set<String>> resolveIds(ServiceProvider context) {
+	public Function<Expression, Promise<Set<String>>> resolveIds(ServiceProvider context) {
 		return resolveIds(context, getDocumentType());
 	}
 	
@@ -599,8 +599,9 @@ public abstract class EclEvaluationRequest<C extends ServiceProvider> implements
 	 * @param context
 	 * @param documentType
 	 * @return a function that when an expression is received, it will either shortcut the execution and returns the IDs or evaluates the returned expression to a set of concept IDs.
+	 *         The evaluation does not block the calling thread, so that independent operands of an expression can be resolved concurrently.
 	 */
-	public static Function<Expression, Set<String>> resolveIds(ServiceProvider context, Class<?> documentType) {
+	public static Function<Expression, Promise<Set<String>>> resolveIds(ServiceProvider context, Class<?> documentType) {
 		RevisionSearcher searcher = context.service(RevisionSearcher.class);
 		boolean cached = context.optionalService(PathWithVersion.class).isPresent();		
 		return expression -> {
@@ -610,18 +611,20 @@ public abstract class EclEvaluationRequest<C extends ServiceProvider> implements
 				 * It should always be possible to extract identifiers from an index query expression derived from 
 				 * an EclConceptReferenceSet, and occasionally ExpressionConstraints also have this property.
 				 */
-				return extractIds(expression);
+				return Promise.immediate(extractIds(expression));
 			}
 			
-			return newHashSet(Query.select(String.class)
+			final Query<String> query = Query.select(String.class)
 					.from(documentType)
 					.fields(RevisionDocument.Fields.ID)
 					.where(expression)
 					.limit(Integer.MAX_VALUE)
 					// cache when the current context is executed against a version
 					.cached(cached)
-					.build()
-					.search(searcher));
+					.build();
+			
+			return Promise.wrap(searcher.searchAsync(query))
+					.then(hits -> newHashSet(hits));
 		};
 	}
 	
@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2020 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2017-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,10 +15,18 @@
  */
 package com.b2international.snowowl.core.scripts;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
 import java.util.Map;
 
+import org.codehaus.groovy.control.CompilationFailedException;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.control.customizers.ASTTransformationCustomizer;
 import org.eclipse.xtext.util.Pair;
 import org.eclipse.xtext.util.Tuples;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.b2international.commons.CompositeClassLoader;
 import com.b2international.snowowl.core.plugin.Component;
@@ -29,38 +37,67 @@ import com.google.common.cache.LoadingCache;
 import groovy.lang.Binding;
 import groovy.lang.GroovyShell;
 import groovy.lang.Script;
+import groovy.transform.TypeChecked;
 
 /**
+ * Script engine for Groovy scripts.
+ * <p>
+ * Scripts are compiled with static type checking first and with dynamic typing if type checking fails (eg. because the script refers to
+ * binding variables without declaring them), compiled classes are cached per class loader and script source. Script instances without
+ * instance fields of their own are reused by subsequent runs on the same thread, their binding is cleared after each run, so that
+ * concurrent runs of the same script never share an instance.
+ * 
  * @since 6.1
  */
 @Component
 public final class GroovyScriptEngine implements ScriptEngine {
 	
+	private static final Logger LOG = LoggerFactory.getLogger("scripts");
+	
 	public static final String EXTENSION = "groovy";
 	
 	private final LoadingCache<ClassLoader, GroovyShell> shells = CacheBuilder.newBuilder().build(new CacheLoader<ClassLoader, GroovyShell>() {
 		@Override
 		public GroovyShell load(ClassLoader ctx) throws Exception {
-			final CompositeClassLoader classLoader = new CompositeClassLoader();
-			classLoader.add(ctx);
-			classLoader.add(GroovyScriptEngine.class.getClassLoader());
-			return new GroovyShell(classLoader);
+			return newShell(ctx, new CompilerConfiguration());
+		}
+	});
+	private final LoadingCache<ClassLoader, GroovyShell> typeCheckedShells = CacheBuilder.newBuilder().build(new CacheLoader<ClassLoader, GroovyShell>() {
+		@Override
+		public GroovyShell load(ClassLoader ctx) throws Exception {
+			final CompilerConfiguration config = new CompilerConfiguration();
+			config.addCompilationCustomizers(new ASTTransformationCustomizer(TypeChecked.class));
+			return newShell(ctx, config);
 		}
 	});
 	private final LoadingCache<Pair<ClassLoader, ScriptSource>, Class<? extends Script>> scriptCache = CacheBuilder.newBuilder().build(new CacheLoader<Pair<ClassLoader, ScriptSource>, Class<? extends Script>>() {
 		@Override
 		public Class<? extends Script> load(Pair<ClassLoader, ScriptSource> ctxAndScript) throws Exception {
-			ScriptSource source = ctxAndScript.getSecond();
-			return shells.getUnchecked(ctxAndScript.getFirst()).getClassLoader().parseClass(source.getScript(), source.getScriptName());
+			final ClassLoader ctx = ctxAndScript.getFirst();
+			final ScriptSource source = ctxAndScript.getSecond();
+			try {
+				return ((Class<?>) typeCheckedShells.getUnchecked(ctx).getClassLoader().parseClass(source.getScript(), source.getScriptName())).asSubclass(Script.class);
+			} catch (CompilationFailedException e) {
+				LOG.debug("Script '{}' failed static type checking, compiling it with dynamic typing.", source.getScriptName());
+				return ((Class<?>) shells.getUnchecked(ctx).getClassLoader().parseClass(source.getScript(), source.getScriptName())).asSubclass(Script.class);
+			}
 		}
 	});
+	private final LoadingCache<Class<? extends Script>, Boolean> reusableScripts = CacheBuilder.newBuilder().weakKeys().build(CacheLoader.from(GroovyScriptEngine::isReusable));
+	
+	// idle script instances of the current thread, instances are removed while running so a nested run of the same script gets its own 
+	private final ThreadLocal<Map<Class<? extends Script>, Script>> idleScripts = ThreadLocal.withInitial(HashMap::new);
 	
 	@Override
 	public <T> T run(ClassLoader ctx, ScriptSource script, Map<String, Object> params) {
-		final Script compiledScript = compile(ctx, script);
-		final Binding binding = new Binding(params);
-		compiledScript.setBinding(binding);
-		return (T) compiledScript.run();
+		final Class<? extends Script> scriptClass = scriptCache.getUnchecked(Tuples.pair(ctx, script));
+		final Script compiledScript = acquire(scriptClass);
+		compiledScript.setBinding(new Binding(params));
+		try {
+			return (T) compiledScript.run();
+		} finally {
+			release(scriptClass, compiledScript);
+		}
 	}
 
 	@Override
@@ -68,13 +105,43 @@ public final class GroovyScriptEngine implements ScriptEngine {
 		return EXTENSION;
 	}
 	
-	private Script compile(ClassLoader ctx, ScriptSource script) {
-		final Class<? extends Script> scriptClass = scriptCache.getUnchecked(Tuples.pair(ctx, script));
+	private Script acquire(Class<? extends Script> scriptClass) {
+		final Script idleScript = idleScripts.get().remove(scriptClass);
+		if (idleScript != null) {
+			return idleScript;
+		}
 		try {
-			return scriptClass.newInstance();
-		} catch (InstantiationException | IllegalAccessException e) {
+			return scriptClass.getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException e) {
 			throw new RuntimeException("Couldn't instantiate groovy script", e);
 		}
 	}
+	
+	private void release(Class<? extends Script> scriptClass, Script script) {
+		// do not keep the arguments of the last run reachable
+		script.setBinding(new Binding());
+		if (reusableScripts.getUnchecked(scriptClass)) {
+			idleScripts.get().put(scriptClass, script);
+		}
+	}
+	
+	/*
+	 * Script variables are local to each run, but fields (eg. declared with @Field) keep their state between runs of the same instance 
+	 */
+	static boolean isReusable(Class<? extends Script> scriptClass) {
+		for (Field field : scriptClass.getDeclaredFields()) {
+			if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private static GroovyShell newShell(ClassLoader ctx, CompilerConfiguration config) {
+		final CompositeClassLoader classLoader = new CompositeClassLoader();
+		classLoader.add(ctx);
+		classLoader.add(GroovyScriptEngine.class.getClassLoader());
+		return new GroovyShell(classLoader, config);
+	}
 
 }
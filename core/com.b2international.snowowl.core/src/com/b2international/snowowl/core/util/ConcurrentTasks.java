@@ -0,0 +1,94 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+
+import com.b2international.snowowl.core.api.SnowowlRuntimeException;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Runs independent tasks on a pool of daemon threads and waits for all of them to complete. If any of the tasks fails, the remaining ones
+ * are cancelled, and the failure is propagated to the caller.
+ * <p>
+ * Pools are created by the caller and are expected to be long-lived; code that runs on request paths should share a single bounded
+ * pool instead of creating one for each call.
+ * 
+ * @since 9.3
+ */
+public final class ConcurrentTasks {
+
+	private ConcurrentTasks() {
+	}
+	
+	/**
+	 * Creates a fixed size pool of daemon threads. The pool always has at least one thread.
+	 * 
+	 * @param nameFormat - the name format of the threads, eg. <code>"rf2-export-%d"</code>
+	 * @param numberOfThreads - the number of threads in the pool
+	 * @return the executor service; pools created for a single job should be shut down by the caller when the job completes
+	 */
+	public static ListeningExecutorService newExecutor(String nameFormat, int numberOfThreads) {
+		return MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(Math.max(1, numberOfThreads), 
+				new ThreadFactoryBuilder()
+					.setNameFormat(nameFormat)
+					.setDaemon(true)
+					.build()));
+	}
+	
+	/**
+	 * Runs the given tasks on the specified executor service, and waits for all of them to complete.
+	 * 
+	 * @param executor - the executor service to submit the tasks to
+	 * @param tasks - the tasks to run
+	 * @return the results of the tasks, in the order of the tasks
+	 * @throws IOException - if any of the tasks fails with an {@link IOException}
+	 */
+	public static <T> List<T> run(ListeningExecutorService executor, Collection<? extends Callable<? extends T>> tasks) throws IOException {
+		final List<ListenableFuture<? extends T>> futures = new ArrayList<>(tasks.size());
+		for (Callable<? extends T> task : tasks) {
+			futures.add(executor.submit(task));
+		}
+		return await(futures);
+	}
+	
+	private static <T> List<T> await(List<? extends ListenableFuture<? extends T>> futures) throws IOException {
+		try {
+			return Futures.<T>allAsList(futures).get();
+		} catch (InterruptedException e) {
+			futures.forEach(future -> future.cancel(true));
+			Thread.currentThread().interrupt();
+			throw new SnowowlRuntimeException(e);
+		} catch (ExecutionException e) {
+			futures.forEach(future -> future.cancel(true));
+			Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+			Throwables.throwIfUnchecked(e.getCause());
+			throw new SnowowlRuntimeException(e.getCause());
+		}
+	}
+	
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.validation;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import com.b2international.commons.metric.Metrics;
+import com.b2international.index.Hits;
+import com.b2international.index.Searcher;
+import com.b2international.index.aggregations.Aggregation;
+import com.b2international.index.aggregations.AggregationBuilder;
+import com.b2international.index.query.Knn;
+import com.b2international.index.query.Query;
+import com.b2international.index.revision.RevisionBranchRef;
+import com.b2international.index.revision.RevisionSearcher;
+
+/**
+ * A {@link RevisionSearcher} that counts the index requests it forwards to the underlying searcher, used for reporting the number of queries
+ * a validation rule executes. Streamed queries count once per page, requests sent through the raw {@link #searcher()} are not counted.
+ * 
+ * @since 9.3
+ */
+final class QueryCountingRevisionSearcher implements RevisionSearcher {
+
+	private final RevisionSearcher delegate;
+	private final AtomicInteger queryCount = new AtomicInteger();
+
+	QueryCountingRevisionSearcher(RevisionSearcher delegate) {
+		this.delegate = delegate;
+	}
+	
+	int getQueryCount() {
+		return queryCount.get();
+	}
+	
+	@Override
+	public Searcher searcher() {
+		return delegate.searcher();
+	}
+	
+	@Override
+	public <T> T get(Class<T> type, String key) throws IOException {
+		queryCount.incrementAndGet();
+		return delegate.get(type, key);
+	}
+	
+	@Override
+	public <T> Iterable<T> get(Class<T> type, Iterable<String> keys) throws IOException {
+		queryCount.incrementAndGet();
+		return delegate.get(type, keys);
+	}
+	
+	@Override
+	public <T> Hits<T> search(Query<T> query) throws IOException {
+		queryCount.incrementAndGet();
+		return delegate.search(query);
+	}
+	
+	@Override
+	public <T> CompletableFuture<Hits<T>> searchAsync(Query<T> query) {
+		queryCount.incrementAndGet();
+		return delegate.searchAsync(query);
+	}
+	
+	@Override
+	public <T> void stream(Query<T> query, Consumer<? super Hits<T>> consumer) throws IOException {
+		delegate.stream(query, hits -> {
+			queryCount.incrementAndGet();
+			consumer.accept(hits);
+		});
+	}
+	
+	@Override
+	public <T> Aggregation<T> aggregate(AggregationBuilder<T> aggregation) throws IOException {
+		queryCount.incrementAndGet();
+		return delegate.aggregate(aggregation);
+	}
+	
+	@Override
+	public <T> Hits<T> knn(Knn<T> knn) throws IOException {
+		queryCount.incrementAndGet();
+		return delegate.knn(knn);
+	}
+	
+	@Override
+	public String branch() {
+		return delegate.branch();
+	}
+	
+	@Override
+	public RevisionBranchRef ref() {
+		return delegate.ref();
+	}
+	
+	@Override
+	public void setMetrics(Metrics metrics) {
+		delegate.setMetrics(metrics);
+	}
+	
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2017-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,8 +19,11 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.Lists.newArrayList;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.*;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -32,6 +35,12 @@ import com.b2international.commons.CompareUtils;
 import com.b2international.commons.collections.Collections3;
 import com.b2international.commons.exceptions.BadRequestException;
 import com.b2international.index.Writer;
+import com.b2international.index.revision.RevisionBranch;
+import com.b2international.index.revision.RevisionCompare;
+import com.b2international.index.revision.RevisionCompareDetail;
+import com.b2international.index.revision.RevisionCompareOptions;
+import com.b2international.index.revision.RevisionIndex;
+import com.b2international.index.revision.RevisionSearcher;
 import com.b2international.snowowl.core.ComponentIdentifier;
 import com.b2international.snowowl.core.ResourceURI;
 import com.b2international.snowowl.core.TerminologyResource;
@@ -42,13 +51,16 @@ import com.b2international.snowowl.core.events.Request;
 import com.b2international.snowowl.core.events.util.Promise;
 import com.b2international.snowowl.core.id.IDs;
 import com.b2international.snowowl.core.identity.Permission;
+import com.b2international.snowowl.core.internal.validation.ValidationConfiguration;
 import com.b2international.snowowl.core.internal.validation.ValidationRepository;
 import com.b2international.snowowl.core.internal.validation.ValidationThreadPool;
 import com.b2international.snowowl.core.uri.ComponentURI;
+import com.b2international.snowowl.core.validation.eval.SharedValidationContext;
 import com.b2international.snowowl.core.validation.eval.ValidationRuleEvaluator;
 import com.b2international.snowowl.core.validation.issue.ValidationIssue;
 import com.b2international.snowowl.core.validation.issue.ValidationIssueDetailExtension;
 import com.b2international.snowowl.core.validation.issue.ValidationIssueDetailExtensionProvider;
+import com.b2international.snowowl.core.validation.issue.ValidationIssueSearchRequestBuilder;
 import com.b2international.snowowl.core.validation.issue.ValidationIssues;
 import com.b2international.snowowl.core.validation.rule.ValidationRule;
 import com.b2international.snowowl.core.validation.rule.ValidationRuleSearchRequestBuilder;
@@ -56,6 +68,7 @@ import com.b2international.snowowl.core.validation.rule.ValidationRules;
 import com.b2international.snowowl.core.validation.whitelist.ValidationWhiteListSearchRequestBuilder;
 import com.b2international.snowowl.core.validation.whitelist.ValidationWhiteLists;
 import com.google.common.base.Stopwatch;
+import com.google.common.base.Strings;
 import com.google.common.collect.*;
 
 /**
@@ -66,15 +79,26 @@ final class ValidateRequest implements Request<BranchContext, ValidationResult>,
 	private static final long serialVersionUID = -2254266211853070728L;
 	private static final Logger LOG = LoggerFactory.getLogger("validation");
 	private static final long POLL_INTERVAL_MAX = 1000L;
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+	/* 
+	 * Incremental runs fall back to evaluating the entire branch when more components changed since the last evaluation, as restricting
+	 * queries to huge ID sets is slower than running them without restrictions.
+	 */
+	private static final int MAX_INCREMENTAL_CHANGES = 10_000;
 
 	private static final class IssuesToPersist {
 	
 		public final String ruleId;
+		public final Set<String> scope;
+		public final ValidationCheckpoint checkpoint;
 		public final Collection<ValidationIssueDetails> issueDetails;
 	
 		@SuppressWarnings("unchecked")
-		public IssuesToPersist(final String ruleId, final Collection<?> evaluationResult) {
+		public IssuesToPersist(final String ruleId, final Set<String> scope, final ValidationCheckpoint checkpoint, final Collection<?> evaluationResult) {
 			this.ruleId = ruleId;
+			this.scope = scope;
+			this.checkpoint = checkpoint;
 			if (evaluationResult.iterator().hasNext() && evaluationResult.iterator().next() instanceof ValidationIssueDetails) {
 				this.issueDetails = (Collection<ValidationIssueDetails>) evaluationResult;
 			} else {
@@ -90,6 +114,7 @@ final class ValidateRequest implements Request<BranchContext, ValidationResult>,
 	private String resultId;
 	private Set<String> ruleIds;
 	private Map<String, Object> ruleParameters;
+	private boolean incremental;
 
 	ValidateRequest() {}
 
@@ -107,6 +132,10 @@ final class ValidateRequest implements Request<BranchContext, ValidationResult>,
 			: ImmutableMap.copyOf(ruleParameters);
 	}
 
+	void setIncremental(final boolean incremental) {
+		this.incremental = incremental;
+	}
+
 	@Override
 	public ValidationResult execute(final BranchContext context) {
 		return context.service(ValidationRepository.class).write(writer -> doValidate(context, writer));
@@ -148,6 +177,18 @@ final class ValidateRequest implements Request<BranchContext, ValidationResult>,
 		final BlockingQueue<IssuesToPersist> issuesToPersistQueue = Queues.newLinkedBlockingDeque();
 		final List<Promise<Object>> validationPromises = Lists.newArrayList();
 		
+		// Checkpoints are only recorded for plain branch paths, path expressions do not have a head to continue from
+		final RevisionBranch branch = isPlainBranchPath(context.path()) 
+			? context.service(RevisionIndex.class).branching().getBranch(context.path())
+			: null;
+		final Map<String, ValidationCheckpoint> checkpoints = incremental && branch != null 
+			? fetchCheckpoints(context, resourceURI, knownRuleIds)
+			: Map.of();
+		final Map<Long, Optional<Set<String>>> changedComponentIdsByTimestamp = new HashMap<>();
+		
+		// Values computed by one rule (eg. concept sets, MRCM rules) can be reused by all other rules of this run
+		final SharedValidationContext sharedContext = new SharedValidationContext();
+		
 		// Evaluate selected rules
 		for (final ValidationRule rule : rules) {
 			checkMonitor(monitor);
@@ -159,14 +200,59 @@ final class ValidateRequest implements Request<BranchContext, ValidationResult>,
 				continue;
 			}
 			
+			final ValidationCheckpoint checkpoint;
+			final Set<String> scope;
+			if (branch != null) {
+				final String fingerprint = fingerprint(evaluator, rule);
+				checkpoint = new ValidationCheckpoint(resultId, rule.getId(), resourceURI, branch.getPath(), branch.getHeadTimestamp(), fingerprint);
+				
+				final ValidationCheckpoint previousCheckpoint = checkpoints.get(rule.getId());
+				if (isApplicable(previousCheckpoint, branch, fingerprint)) {
+					scope = changedComponentIdsByTimestamp.computeIfAbsent(previousCheckpoint.getTimestamp(), timestamp -> getChangedComponentIds(context, branch, timestamp))
+						.orElse(null);
+				} else {
+					scope = null;
+				}
+			} else {
+				checkpoint = null;
+				scope = null;
+			}
+			
+			if (scope != null && scope.isEmpty()) {
+				// Nothing changed since the last evaluation, move the checkpoint forward without evaluating the rule
+				LOG.info("Skipping rule '{}', no components changed since its last evaluation.", rule.getId());
+				issuesToPersistQueue.offer(new IssuesToPersist(rule.getId(), scope, checkpoint, List.of()));
+				continue;
+			}
+			
+			final Map<String, Object> evaluationParameters;
+			if (scope != null) {
+				final Map<String, Object> scopedParameters = new HashMap<>(ruleParameters);
+				scopedParameters.put(ValidationConfiguration.COMPONENT_IDS, scope);
+				evaluationParameters = scopedParameters;
+			} else {
+				evaluationParameters = ruleParameters;
+			}
+			
 			validationPromises.add(pool.submit(rule.getCheckType(), () -> {
 				checkMonitor(monitor);
 				final Stopwatch w = Stopwatch.createStarted();
+				final long cpuTimeStart = currentThreadCpuTime();
+				final QueryCountingRevisionSearcher searcher = new QueryCountingRevisionSearcher(context.service(RevisionSearcher.class));
+				final BranchContext ruleContext = context.inject()
+					.bind(RevisionSearcher.class, searcher)
+					.bind(SharedValidationContext.class, sharedContext)
+					.build();
 				try {
-					LOG.info("Executing rule '{}'...", rule.getId());
-					final List<?> evaluationResponse = evaluator.eval(context, rule, ruleParameters);
-					issuesToPersistQueue.offer(new IssuesToPersist(rule.getId(), evaluationResponse));
-					LOG.info("Execution of rule '{}' successfully completed in '{}'.", rule.getId(), w);
+					if (scope != null) {
+						LOG.info("Executing rule '{}' on '{}' changed components...", rule.getId(), scope.size());
+					} else {
+						LOG.info("Executing rule '{}'...", rule.getId());
+					}
+					final List<?> evaluationResponse = evaluator.eval(ruleContext, rule, evaluationParameters);
+					issuesToPersistQueue.offer(new IssuesToPersist(rule.getId(), scope, checkpoint, evaluationResponse));
+					LOG.info("Execution of rule '{}' successfully completed in '{}' (CPU time: '{}' ms, queries: '{}').", rule.getId(), w, 
+						cpuTimeMillis(cpuTimeStart), searcher.getQueryCount());
 				} catch (final Exception e) {
 					LOG.error("Execution of rule '{}' failed after '{}'.", rule.getId(), w, e);
 				}
@@ -195,12 +281,28 @@ final class ValidateRequest implements Request<BranchContext, ValidationResult>,
 					final Multimap<String, ValidationIssue> issuesToExtendByToolingId = HashMultimap.create();
 					for (final IssuesToPersist newIssues : Iterables.consumingIterable(issuesToPersist)) {
 						final String ruleId = newIssues.ruleId;
-						final List<ValidationIssue> existingIssues = ValidationRequests.issues()
+						
+						if (newIssues.checkpoint != null) {
+							index.put(newIssues.checkpoint);
+						}
+						
+						if (newIssues.scope != null && newIssues.scope.isEmpty()) {
+							continue;
+						}
+						
+						final ValidationIssueSearchRequestBuilder existingIssuesReq = ValidationRequests.issues()
 							.prepareSearch()
 							.setLimit(context.getPageSize())
 							.filterByResultId(resultId)
 							.filterByResourceUri(resourceURI)
-							.filterByRule(ruleId)
+							.filterByRule(ruleId);
+						
+						// Incremental runs replace the issues of changed components only, everything else is kept as is
+						if (newIssues.scope != null) {
+							existingIssuesReq.filterByAffectedComponentId(newIssues.scope);
+						}
+						
+						final List<ValidationIssue> existingIssues = existingIssuesReq
 							.stream(context)
 							.flatMap(ValidationIssues::stream)
 							.collect(Collectors.toList());
@@ -288,6 +390,76 @@ final class ValidateRequest implements Request<BranchContext, ValidationResult>,
 		return new ValidationResult(context.info().id(), context.path());
 	}
 	
+	private static long currentThreadCpuTime() {
+		return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1L;
+	}
+	
+	private static long cpuTimeMillis(final long cpuTimeStart) {
+		// rules are evaluated on a single thread, work done by other threads (eg. in the index client) is not included
+		return cpuTimeStart < 0L ? -1L : TimeUnit.NANOSECONDS.toMillis(currentThreadCpuTime() - cpuTimeStart);
+	}
+	
+	private static boolean isPlainBranchPath(final String path) {
+		return !RevisionIndex.isBranchAtPath(path) 
+			&& !RevisionIndex.isBaseRefPath(path) 
+			&& !RevisionIndex.isRevRangePath(path);
+	}
+	
+	private String fingerprint(final ValidationRuleEvaluator evaluator, final ValidationRule rule) throws IOException {
+		// changing either the rule implementation or the evaluation parameters invalidates all previously reported issues
+		return IDs.sha1(Strings.nullToEmpty(evaluator.getVersion(rule)) + new TreeMap<>(ruleParameters));
+	}
+	
+	private static boolean isApplicable(final ValidationCheckpoint checkpoint, final RevisionBranch branch, final String fingerprint) {
+		return checkpoint != null
+			&& branch.getPath().equals(checkpoint.getBranchPath())
+			&& fingerprint.equals(checkpoint.getFingerprint())
+			// rebased or recreated branches are validated from scratch
+			&& checkpoint.getTimestamp() >= branch.getBaseTimestamp()
+			&& checkpoint.getTimestamp() <= branch.getHeadTimestamp();
+	}
+	
+	private Map<String, ValidationCheckpoint> fetchCheckpoints(final BranchContext context, final ResourceURI resourceURI, final Set<String> ruleIds) {
+		return context.service(ValidationRepository.class).read(searcher -> {
+			final Set<String> checkpointIds = ruleIds.stream()
+				.map(ruleId -> ValidationCheckpoint.toId(resultId, ruleId, resourceURI))
+				.collect(Collectors.toSet());
+			
+			return Maps.uniqueIndex(searcher.get(ValidationCheckpoint.class, checkpointIds), ValidationCheckpoint::getRuleId);
+		});
+	}
+	
+	/*
+	 * Returns the identifiers of all components (and their containers) that changed on the branch after the given timestamp, or an empty Optional
+	 * if there are too many of them to restrict evaluation to.
+	 */
+	private static Optional<Set<String>> getChangedComponentIds(final BranchContext context, final RevisionBranch branch, final long timestamp) {
+		final RevisionCompare compare = context.service(RevisionIndex.class).compare(
+			RevisionIndex.toBranchAtPath(branch.getPath(), timestamp),
+			RevisionIndex.toBranchAtPath(branch.getPath(), branch.getHeadTimestamp()),
+			RevisionCompareOptions.builder()
+				.includeComponentChanges(true)
+				.limit(MAX_INCREMENTAL_CHANGES + 1)
+				.build()
+		);
+		
+		if (compare.getDetails().size() > MAX_INCREMENTAL_CHANGES) {
+			return Optional.empty();
+		}
+		
+		final Set<String> changedComponentIds = Sets.newHashSet();
+		for (final RevisionCompareDetail detail : compare.getDetails()) {
+			if (!detail.getObject().isRoot()) {
+				changedComponentIds.add(detail.getObject().id());
+			}
+			if (detail.isComponentChange()) {
+				changedComponentIds.add(detail.getComponent().id());
+			}
+		}
+		
+		return Optional.of(changedComponentIds);
+	}
+	
 	private void checkMonitor(IProgressMonitor monitor) {
 		if (monitor.isCanceled()) {
 			throw new OperationCanceledException();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2017-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -35,6 +35,7 @@ public final class ValidateRequestBuilder
 	private String resultId = ValidationRequests.SHARED_VALIDATION_RESULT_ID;
 	private Collection<String> ruleIds;
 	private Map<String, Object> ruleParameters;
+	private boolean incremental;
 	
 	public ValidateRequestBuilder setResultId(final String resultId) {
 		this.resultId = resultId;
@@ -51,12 +52,26 @@ public final class ValidateRequestBuilder
 		return getSelf();
 	}
 
+	/**
+	 * Enables incremental validation. Rules that have already been evaluated on the branch with the same parameters will only be re-evaluated
+	 * on components that changed since their last evaluation, and only the issues of those components will be replaced. Issues that depend on
+	 * the state of other, unchanged components might become stale as a result, run a full validation periodically to refresh them.
+	 * 
+	 * @param incremental - whether to evaluate rules on changed components only, if possible
+	 * @return this builder
+	 */
+	public ValidateRequestBuilder setIncremental(final boolean incremental) {
+		this.incremental = incremental;
+		return getSelf();
+	}
+
 	@Override
 	protected Request<BranchContext, ValidationResult> doBuild() {
 		final ValidateRequest validateRequest = new ValidateRequest();
 		validateRequest.setResultId(resultId);
 		validateRequest.setRuleIds(ruleIds);
 		validateRequest.setRuleParameters(ruleParameters);
+		validateRequest.setIncremental(incremental);
 		return validateRequest;
 	}
 }
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.validation;
+
+import java.io.Serializable;
+
+import com.b2international.index.Doc;
+import com.b2international.index.ID;
+import com.b2international.snowowl.core.ResourceURI;
+import com.b2international.snowowl.core.id.IDs;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.MoreObjects;
+
+/**
+ * Records the point in time up to which the issues of a validation rule are known to be up-to-date for a given validation result and resource.
+ * Incremental validation runs only re-evaluate rules on components that changed since this point.
+ *
+ * @since 9.3
+ */
+@Doc
+public final class ValidationCheckpoint implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * @since 9.3
+	 */
+	public static final class Fields {
+		public static final String ID = "id";
+		public static final String RESULT_ID = "resultId";
+		public static final String RULE_ID = "ruleId";
+		public static final String RESOURCE_URI = "resourceURI";
+		public static final String BRANCH_PATH = "branchPath";
+		public static final String TIMESTAMP = "timestamp";
+		public static final String FINGERPRINT = "fingerprint";
+	}
+
+	@ID
+	private final String id;
+	private final String resultId;
+	private final String ruleId;
+	private final ResourceURI resourceURI;
+	private final String branchPath;
+	private final long timestamp;
+	private final String fingerprint;
+
+	public ValidationCheckpoint(
+			final String resultId,
+			final String ruleId,
+			final ResourceURI resourceURI,
+			final String branchPath,
+			final long timestamp,
+			final String fingerprint) {
+		this(toId(resultId, ruleId, resourceURI), resultId, ruleId, resourceURI, branchPath, timestamp, fingerprint);
+	}
+
+	@JsonCreator
+	ValidationCheckpoint(
+			@JsonProperty("id") final String id,
+			@JsonProperty("resultId") final String resultId,
+			@JsonProperty("ruleId") final String ruleId,
+			@JsonProperty("resourceURI") final ResourceURI resourceURI,
+			@JsonProperty("branchPath") final String branchPath,
+			@JsonProperty("timestamp") final long timestamp,
+			@JsonProperty("fingerprint") final String fingerprint) {
+		this.id = id;
+		this.resultId = resultId;
+		this.ruleId = ruleId;
+		this.resourceURI = resourceURI;
+		this.branchPath = branchPath;
+		this.timestamp = timestamp;
+		this.fingerprint = fingerprint;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getResultId() {
+		return resultId;
+	}
+
+	public String getRuleId() {
+		return ruleId;
+	}
+
+	public ResourceURI getResourceURI() {
+		return resourceURI;
+	}
+
+	/**
+	 * @return the branch the rule has been evaluated on
+	 */
+	public String getBranchPath() {
+		return branchPath;
+	}
+
+	/**
+	 * @return the head timestamp of the branch at the time the rule has been evaluated
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * @return a hash of the rule's implementation and the parameters it has been evaluated with, incremental evaluation is only possible when
+	 *         these did not change since the last run
+	 */
+	public String getFingerprint() {
+		return fingerprint;
+	}
+
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(getClass())
+			.add("id", id)
+			.add("resultId", resultId)
+			.add("ruleId", ruleId)
+			.add("resourceURI", resourceURI)
+			.add("branchPath", branchPath)
+			.add("timestamp", timestamp)
+			.toString();
+	}
+
+	public static String toId(String resultId, String ruleId, ResourceURI resourceURI) {
+		return IDs.sha1(String.join("|", resultId, ruleId, resourceURI.toString()));
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2017-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,15 +19,21 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import com.b2international.snowowl.core.ComponentIdentifier;
 import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.core.id.IDs;
+import com.b2international.snowowl.core.internal.validation.ValidationConfiguration;
 import com.b2international.snowowl.core.scripts.GroovyScriptEngine;
 import com.b2international.snowowl.core.scripts.ScriptEngine;
 import com.b2international.snowowl.core.scripts.ScriptSource;
+import com.b2international.snowowl.core.validation.ValidationIssueDetails;
 import com.b2international.snowowl.core.validation.rule.ValidationRule;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableMap;
@@ -51,9 +57,7 @@ public final class GroovyScriptValidationRuleEvaluator implements ValidationRule
 	
 	@Override
 	public List<?> eval(BranchContext context, ValidationRule rule, Map<String, Object> filterParams) throws IOException {
-		final Path scriptDirectory = validationResourcesDirectories.stream()
-				.filter(dir -> Files.exists(dir.resolve(rule.getImplementation())))
-				.findFirst()
+		final Path scriptDirectory = getScriptDirectory(rule)
 				.orElseThrow(() -> new NoSuchFileException(String.format("Validation rule implementation file '%s' could not be found.", rule.getImplementation())));
 		
 		final Path validationRuleFilePath = scriptDirectory.resolve(rule.getImplementation());
@@ -69,15 +73,52 @@ public final class GroovyScriptValidationRuleEvaluator implements ValidationRule
 				paramsBuilder.putAll(filterParams);
 			}
 			
-			return context.service(ScriptEngine.Registry.class).run(
+			final List<?> results = context.service(ScriptEngine.Registry.class).run(
 				GroovyScriptEngine.EXTENSION, 
 				context.service(ClassLoader.class), 
 				new ScriptSource(validationRuleFilePath.getFileName().toString(), script),
 				ImmutableMap.<String, Object>of(
 					"ctx", context,
-					"params", paramsBuilder.build()
+					"params", paramsBuilder.build(),
+					// values shared between the rules of the current validation run, a fresh one when the rule is evaluated on its own
+					"shared", context.optionalService(SharedValidationContext.class).orElseGet(SharedValidationContext::new)
 				)
 			);
+			
+			// scripts may use the componentIds parameter to narrow down their queries, but are not required to do so
+			final Collection<?> componentIds = filterParams == null ? null : (Collection<?>) filterParams.get(ValidationConfiguration.COMPONENT_IDS);
+			if (componentIds == null) {
+				return results;
+			}
+			
+			return results.stream()
+				.filter(result -> componentIds.contains(getAffectedComponentId(result)))
+				.collect(Collectors.toList());
+		}
+	}
+	
+	@Override
+	public String getVersion(ValidationRule rule) throws IOException {
+		// the implementation is the path of the script, changes in its content should invalidate previous results as well
+		final Optional<Path> scriptDirectory = getScriptDirectory(rule);
+		if (scriptDirectory.isEmpty()) {
+			// evaluation reports the missing script
+			return rule.getImplementation();
+		}
+		return IDs.sha1(Files.readString(scriptDirectory.get().resolve(rule.getImplementation())));
+	}
+	
+	private Optional<Path> getScriptDirectory(ValidationRule rule) {
+		return validationResourcesDirectories.stream()
+				.filter(dir -> Files.exists(dir.resolve(rule.getImplementation())))
+				.findFirst();
+	}
+	
+	private static String getAffectedComponentId(Object result) {
+		if (result instanceof ValidationIssueDetails issueDetails) {
+			return issueDetails.getAffectedComponentId().getComponentId();
+		} else {
+			return ((ComponentIdentifier) result).getComponentId();
 		}
 	}
 
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.validation.eval;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import com.google.common.base.Suppliers;
+
+/**
+ * Values shared by the rules of a single validation run, eg. concept sets or MRCM rules that multiple rules need and that do not change while
+ * the run is in progress. Each value is computed once, by the first rule that asks for it, and handed out to all other rules afterwards.
+ * {@link Set}, {@link List} and {@link Map} values are stored as unmodifiable copies, so rules can not change them for each other.
+ * <p>
+ * Groovy validation rules can access the context of the run via the <code>shared</code> binding variable:
+ * 
+ * <pre>
+ * Set&lt;String&gt; moduleIds = shared.get("moduleIds:" + params.modules) {
+ *     ...
+ * }
+ * </pre>
+ * 
+ * @since 9.3
+ */
+public final class SharedValidationContext {
+
+	private final ConcurrentMap<String, Supplier<Object>> values = new ConcurrentHashMap<>();
+	
+	/**
+	 * Returns the value registered with the given key, computing it with the given loader if this is the first request for the key. Concurrent
+	 * requests for the same key wait for the value to be computed instead of computing it again. Keys should include all parameters the value
+	 * depends on.
+	 * 
+	 * @param key - the key of the value
+	 * @param loader - computes the value if it is not available yet, may not return <code>null</code>
+	 * @return the shared value
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(String key, Supplier<T> loader) {
+		return (T) values.computeIfAbsent(key, unused -> Suppliers.memoize(() -> toUnmodifiable(loader.get()))).get();
+	}
+	
+	private static Object toUnmodifiable(Object value) {
+		Objects.requireNonNull(value, "Shared values may not be null.");
+		if (value instanceof SortedSet<?> set) {
+			return Collections.unmodifiableSortedSet(new TreeSet<>(set));
+		} else if (value instanceof Set<?> set) {
+			return Collections.unmodifiableSet(new LinkedHashSet<>(set));
+		} else if (value instanceof List<?> list) {
+			return Collections.unmodifiableList(new ArrayList<>(list));
+		} else if (value instanceof SortedMap<?, ?> map) {
+			return Collections.unmodifiableSortedMap(new TreeMap<>(map));
+		} else if (value instanceof Map<?, ?> map) {
+			return Collections.unmodifiableMap(new LinkedHashMap<>(map));
+		} else {
+			return value;
+		}
+	}
+	
+}
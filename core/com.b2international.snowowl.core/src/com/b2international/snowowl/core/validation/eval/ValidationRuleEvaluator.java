@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2020 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2017-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package com.b2international.snowowl.core.validation.eval;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.Maps.newHashMap;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -87,6 +88,21 @@ public interface ValidationRuleEvaluator {
 	 */
 	List<?> eval(BranchContext context, ValidationRule rule, Map<String, Object> params) throws Exception;
 
+	/**
+	 * Returns a value that changes whenever the evaluation logic of the given rule changes. Issues reported by an earlier evaluation of the
+	 * rule are only reused by incremental validation runs if the version did not change since then. The default implementation returns the
+	 * rule's implementation.
+	 * 
+	 * @param rule
+	 *            - the rule to return the version of
+	 * @return the current version of the rule's evaluation logic
+	 * @throws IOException
+	 *             - if the evaluation logic can not be read
+	 */
+	default String getVersion(ValidationRule rule) throws IOException {
+		return rule.getImplementation();
+	}
+
 	/**
 	 * Unique type identifier of this validation rule evaluator. The type should represent the kind of rules that this evaluator can evaluate using
 	 * the {@link #eval(BranchContext, ValidationRule)} method.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2019-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2019-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,6 +25,7 @@ import com.b2international.index.query.Expressions.ExpressionBuilder;
 import com.b2international.snowowl.core.ServiceProvider;
 import com.b2international.snowowl.core.events.Request;
 import com.b2international.snowowl.core.internal.validation.ValidationRepository;
+import com.b2international.snowowl.core.validation.ValidationCheckpoint;
 import com.b2international.snowowl.core.validation.ValidationDeleteNotification;
 import com.b2international.snowowl.core.validation.ValidationRequests;
 import com.b2international.snowowl.core.validation.rule.ValidationRule;
@@ -84,6 +85,8 @@ final class ValidationIssueDeleteRequest implements Request<ServiceProvider, Boo
 		return context.service(ValidationRepository.class).write(writer -> {
 			
 			writer.bulkDelete(new BulkDelete<>(ValidationIssue.class, query.build()));
+			// checkpoints share the resource, rule and result fields with issues, drop them so that the next run starts from scratch
+			writer.bulkDelete(new BulkDelete<>(ValidationCheckpoint.class, query.build()));
 			writer.commit();
 			
 			new ValidationDeleteNotification(resourceURIs, toolingIds, resultIds).publish(context.service(IEventBus.class));
@@ -1,5 +1,5 @@
 /*
- * Copyright 2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2023-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,6 +15,8 @@
  */
 package com.b2international.snowowl.fhir.core.model.converter;
 
+import java.util.function.UnaryOperator;
+
 import com.b2international.snowowl.fhir.core.model.Bundle;
 
 /**
@@ -29,6 +31,16 @@ public interface BundleConverter<T> {
 	 */
 	T fromInternal(Bundle bundle);
 
+	/**
+	 * Converts the bundle, assigning a full URL to each entry based on the ID of the entry's resource. Entries without a resource are not
+	 * included in the result.
+	 * 
+	 * @param bundle
+	 * @param fullUrlResolver - computes the full URL of an entry from the resource ID
+	 * @return
+	 */
+	T fromInternal(Bundle bundle, UnaryOperator<String> fullUrlResolver);
+
 	/**
 	 * @param bundle
 	 * @return
@@ -1,5 +1,5 @@
 /*
- * Copyright 2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2023-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,12 +16,14 @@
 package com.b2international.snowowl.fhir.core.model.converter;
 
 import java.util.List;
+import java.util.function.UnaryOperator;
 
 import org.linuxforhealth.fhir.model.r5.resource.Bundle;
 import org.linuxforhealth.fhir.model.r5.resource.Bundle.Entry;
 import org.linuxforhealth.fhir.model.r5.resource.Bundle.Link;
 import org.linuxforhealth.fhir.model.r5.resource.Resource;
 import org.linuxforhealth.fhir.model.r5.type.Code;
+import org.linuxforhealth.fhir.model.r5.type.Uri;
 import org.linuxforhealth.fhir.model.r5.type.code.BundleType;
 
 import com.b2international.commons.CompareUtils;
@@ -40,6 +42,11 @@ public class BundleConverter_50 extends AbstractConverter_50 implements BundleCo
 	
 	@Override
 	public Bundle fromInternal(com.b2international.snowowl.fhir.core.model.Bundle bundle) {
+		return fromInternal(bundle, null);
+	}
+	
+	@Override
+	public Bundle fromInternal(com.b2international.snowowl.fhir.core.model.Bundle bundle, UnaryOperator<String> fullUrlResolver) {
 		if (bundle == null) {
 			return null;
 		}
@@ -72,7 +79,10 @@ public class BundleConverter_50 extends AbstractConverter_50 implements BundleCo
 		if (!CompareUtils.isEmpty(entries)) {
 			for (var entry : entries) {
 				if (entry != null) {
-					builder.entry(fromInternal(entry));
+					var fhirEntry = fromInternal(entry, fullUrlResolver);
+					if (fhirEntry != null) {
+						builder.entry(fhirEntry);
+					}
 				}
 			}
 		}
@@ -98,7 +108,7 @@ public class BundleConverter_50 extends AbstractConverter_50 implements BundleCo
 		return builder.build();
 	}
 	
-	private Bundle.Entry fromInternal(com.b2international.snowowl.fhir.core.model.Entry entry) {
+	private Bundle.Entry fromInternal(com.b2international.snowowl.fhir.core.model.Entry entry, UnaryOperator<String> fullUrlResolver) {
 		if (entry == null) {
 			return null;
 		}
@@ -110,7 +120,17 @@ public class BundleConverter_50 extends AbstractConverter_50 implements BundleCo
 		builder.fullUrl(fromInternal(entry.getFullUrl()));
 		
 		if (entry instanceof com.b2international.snowowl.fhir.core.model.ResourceResponseEntry responseEntry) {
-			builder.resource(fromInternal(responseEntry.getResponseResource()));
+			final Resource resource = fromInternal(responseEntry.getResponseResource());
+			
+			if (fullUrlResolver != null) {
+				// Entries are only returned with a resource and a full URL pointing to it
+				if (resource == null) {
+					return null;
+				}
+				builder.fullUrl(Uri.of(fullUrlResolver.apply(resource.getId())));
+			}
+			
+			builder.resource(resource);
 		}  else {
 			throw new IllegalArgumentException("Unsupported bundle entry type '" + entry.getClass().getSimpleName() + "'.");
 		}
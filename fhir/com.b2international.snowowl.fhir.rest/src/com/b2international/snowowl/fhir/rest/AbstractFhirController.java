@@ -28,7 +28,6 @@ import org.linuxforhealth.fhir.model.r5.parser.FHIRParser;
 import org.linuxforhealth.fhir.model.r5.resource.Bundle;
 import org.linuxforhealth.fhir.model.r5.resource.Parameters;
 import org.linuxforhealth.fhir.model.r5.resource.Resource;
-import org.linuxforhealth.fhir.model.r5.type.Uri;
 import org.linuxforhealth.fhir.model.r5.visitor.Visitable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,6 +40,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.server.NotAcceptableStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import com.b2international.commons.StringUtils;
@@ -246,7 +246,7 @@ public abstract class AbstractFhirController extends AbstractRestService {
 		return toFhirResource(requestBody, contentType, org.linuxforhealth.fhir.model.r5.resource.Parameters.class);
 	}
 	
-	protected static ResponseEntity<byte[]> toResponseEntity(
+	protected static ResponseEntity<StreamingResponseBody> toResponseEntity(
 		final Visitable fhirResult, 
 		final String accept, 
 		final String _format,
@@ -254,53 +254,34 @@ public abstract class AbstractFhirController extends AbstractRestService {
 	) {
 		final boolean prettyPrinting = (_pretty != null) && _pretty; 
 		final FHIRGenerator fhirGenerator = FHIRGenerator.generator(getFormat(accept, _format), prettyPrinting);
+		
 		final ByteArrayOutputStream baos = new ByteArrayOutputStream();
 		
+		// Serialization happens before the response is committed, so that failures can still be reported with an error status
 		try {
 			fhirGenerator.generate(fhirResult, baos);
 		} catch (FHIRGeneratorException e) {
-			throw new BadRequestException(String.format("Failed to serialize FHIR resource to a response body.",
+			throw new BadRequestException(String.format("Failed to serialize FHIR resource '%s' to a response body.",
 				fhirResult.getClass().getSimpleName()));
 		}
 
+		// The generated content is written to the response from the buffer, without copying it into a separate byte array
 		return ResponseEntity.ok()
 			.contentType(getResponseType(accept, _format))
-			.body(baos.toByteArray());
+			.contentLength(baos.size())
+			.body(baos::writeTo);
 	}	
 	
-	protected static ResponseEntity<byte[]> toResponseEntity(
+	protected static ResponseEntity<StreamingResponseBody> toResponseEntity(
 		final com.b2international.snowowl.fhir.core.model.Bundle soBundle, 
 		final UriComponentsBuilder fullUrlBuilder, 
 		final String accept,
 		final String _format,
 		final Boolean _pretty
 	) {
-		var fhirBundle = BundleConverter_50.INSTANCE.fromInternal(soBundle);
-		
-		// FIXME: Temporary measure to add "fullUrl" to returned bundle entries
-		final var entries = fhirBundle.getEntry();
-		
-		if (!entries.isEmpty()) {
-			// Clear entries in builder
-			final Bundle.Builder builder = fhirBundle.toBuilder();
-			builder.entry(List.of());
-			
-			// Add "fullUrl" to original entries, add to builder
-			for (var entry : entries) {
-				if (entry.getResource() != null) {
-					final String resourceId = entry.getResource().getId();
-					final String fullUrl = fullUrlBuilder.buildAndExpand(Map.of("id", resourceId)).toString();
-					
-					final var entryWithUrl = entry.toBuilder()
-						.fullUrl(Uri.of(fullUrl))
-						.build();
-					
-					builder.entry(entryWithUrl);
-				}
-			}
-			
-			fhirBundle = builder.build();
-		}
+		// Entries receive their "fullUrl" during conversion
+		final Bundle fhirBundle = BundleConverter_50.INSTANCE.fromInternal(soBundle, 
+			resourceId -> fullUrlBuilder.buildAndExpand(Map.of("id", resourceId)).toString());
 		
 		return toResponseEntity(fhirBundle, accept, _format, _pretty);
 	}
@@ -29,6 +29,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import com.b2international.commons.collections.Collections3;
@@ -356,7 +357,7 @@ public class FhirCodeSystemController extends AbstractFhirController {
 		APPLICATION_JSON_VALUE,
 		APPLICATION_XML_VALUE
 	})
-	public Promise<ResponseEntity<byte[]>> getCodeSystems(
+	public Promise<ResponseEntity<StreamingResponseBody>> getCodeSystems(
 			
 		@ParameterObject 
 		FhirCodeSystemSearchParameters params,
@@ -449,7 +450,7 @@ public class FhirCodeSystemController extends AbstractFhirController {
 		APPLICATION_JSON_VALUE,
 		APPLICATION_XML_VALUE
 	})
-	public Promise<ResponseEntity<byte[]>> getCodeSystem(
+	public Promise<ResponseEntity<StreamingResponseBody>> getCodeSystem(
 			
 		@Parameter(description = """
 			The identifier of the Code System resource""")
@@ -1,5 +1,5 @@
 /*
- * Copyright 2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2023-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,7 @@ import java.util.Set;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.b2international.commons.http.AcceptLanguageHeader;
 import com.b2international.snowowl.core.events.util.Promise;
@@ -83,7 +84,7 @@ public class FhirCodeSystemLookupController extends AbstractFhirController {
 		APPLICATION_JSON_VALUE,
 		APPLICATION_XML_VALUE
 	})
-	public Promise<ResponseEntity<byte[]>> lookup(
+	public Promise<ResponseEntity<StreamingResponseBody>> lookup(
 		
 		@Parameter(description = "The code to look up") 
 		@RequestParam(value = "code", required = true) 
@@ -194,7 +195,7 @@ public class FhirCodeSystemLookupController extends AbstractFhirController {
 			APPLICATION_XML_VALUE
 		}
 	)
-	public Promise<ResponseEntity<byte[]>> lookup(
+	public Promise<ResponseEntity<StreamingResponseBody>> lookup(
 			
 		@io.swagger.v3.oas.annotations.parameters.RequestBody(description = "The operation's input parameters", content = { 
 			@Content(mediaType = AbstractFhirController.APPLICATION_FHIR_JSON_VALUE, schema = @Schema(type = "object")),
@@ -233,7 +234,7 @@ public class FhirCodeSystemLookupController extends AbstractFhirController {
 		return lookup(request, accept, _format, _pretty);
 	}
 
-	private Promise<ResponseEntity<byte[]>> lookup(
+	private Promise<ResponseEntity<StreamingResponseBody>> lookup(
 		final LookupRequest lookupRequest, 
 		final String accept, 
 		final String _format, 
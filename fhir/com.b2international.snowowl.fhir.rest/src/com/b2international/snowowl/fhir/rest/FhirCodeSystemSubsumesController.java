@@ -20,6 +20,7 @@ import java.io.InputStream;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.b2international.commons.StringUtils;
 import com.b2international.snowowl.core.events.util.Promise;
@@ -73,7 +74,7 @@ public class FhirCodeSystemSubsumesController extends AbstractFhirController {
 		APPLICATION_JSON_VALUE,
 		APPLICATION_XML_VALUE
 	})
-	public Promise<ResponseEntity<byte[]>> subsumes(
+	public Promise<ResponseEntity<StreamingResponseBody>> subsumes(
 			
 		@Parameter(description = "The \"A\" code that is to be tested") 
 		@RequestParam(value = "codeA") 
@@ -150,7 +151,7 @@ public class FhirCodeSystemSubsumesController extends AbstractFhirController {
 		APPLICATION_JSON_VALUE,
 		APPLICATION_XML_VALUE
 	})
-	public Promise<ResponseEntity<byte[]>> subsumes(
+	public Promise<ResponseEntity<StreamingResponseBody>> subsumes(
 			
 		@Parameter(description = "The id of the code system to invoke the operation on")
 		@PathVariable("id") 
@@ -233,7 +234,7 @@ public class FhirCodeSystemSubsumesController extends AbstractFhirController {
 			APPLICATION_XML_VALUE
 		}
 	)
-	public Promise<ResponseEntity<byte[]>> subsumes(
+	public Promise<ResponseEntity<StreamingResponseBody>> subsumes(
 			
 		@io.swagger.v3.oas.annotations.parameters.RequestBody(description = "The operation's input parameters", content = { 
 			@Content(mediaType = AbstractFhirController.APPLICATION_FHIR_JSON_VALUE, schema = @Schema(type = "object")),
@@ -311,7 +312,7 @@ public class FhirCodeSystemSubsumesController extends AbstractFhirController {
 			APPLICATION_XML_VALUE
 		}
 	)
-	public Promise<ResponseEntity<byte[]>> subsumes(
+	public Promise<ResponseEntity<StreamingResponseBody>> subsumes(
 
 		@Parameter(description = "The id of the code system to invoke the operation on")
 		@PathVariable("id") 
@@ -363,7 +364,7 @@ public class FhirCodeSystemSubsumesController extends AbstractFhirController {
 		return subsumes(request, accept, _format, _pretty);
 	}
 	
-	private Promise<ResponseEntity<byte[]>> subsumes(
+	private Promise<ResponseEntity<StreamingResponseBody>> subsumes(
 		SubsumptionRequest req, 
 		String accept, 
 		String _format, 
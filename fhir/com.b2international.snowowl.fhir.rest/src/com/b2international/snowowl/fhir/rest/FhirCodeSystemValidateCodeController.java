@@ -21,6 +21,7 @@ import java.util.Optional;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.b2international.snowowl.core.events.util.Promise;
 import com.b2international.snowowl.core.rest.FhirApiConfig;
@@ -87,7 +88,7 @@ public class FhirCodeSystemValidateCodeController extends AbstractFhirController
 		APPLICATION_JSON_VALUE,
 		APPLICATION_XML_VALUE
 	})
-	public Promise<ResponseEntity<byte[]>> validateCodeType(
+	public Promise<ResponseEntity<StreamingResponseBody>> validateCodeType(
 			
 		@Parameter(description = "The uri of the code system to validate against") 
 		@RequestParam(value = "url") 
@@ -184,7 +185,7 @@ public class FhirCodeSystemValidateCodeController extends AbstractFhirController
 			APPLICATION_XML_VALUE
 		}
 	)
-	public Promise<ResponseEntity<byte[]>> validateCode(
+	public Promise<ResponseEntity<StreamingResponseBody>> validateCode(
 			
 		@io.swagger.v3.oas.annotations.parameters.RequestBody(description = "The operation's input parameters", content = { 
 			@Content(mediaType = AbstractFhirController.APPLICATION_FHIR_JSON_VALUE, schema = @Schema(type = "object")),
@@ -265,7 +266,7 @@ public class FhirCodeSystemValidateCodeController extends AbstractFhirController
 		APPLICATION_JSON_VALUE,
 		APPLICATION_XML_VALUE
 	})
-	public Promise<ResponseEntity<byte[]>> validateCodeInstance(
+	public Promise<ResponseEntity<StreamingResponseBody>> validateCodeInstance(
 			
 		@Parameter(description = "The id of the code system to validate against") 
 		@PathVariable(value = "id") 
@@ -366,7 +367,7 @@ public class FhirCodeSystemValidateCodeController extends AbstractFhirController
 			APPLICATION_XML_VALUE
 		}
 	)
-	public Promise<ResponseEntity<byte[]>> validateCode(
+	public Promise<ResponseEntity<StreamingResponseBody>> validateCode(
 
 		@Parameter(description = "The id of the code system to validate against") 
 		@PathVariable(value = "id") 
@@ -429,7 +430,7 @@ public class FhirCodeSystemValidateCodeController extends AbstractFhirController
 		return validateCode(request, accept, _format, _pretty);
 	}
 
-	private Promise<ResponseEntity<byte[]>> validateCode(
+	private Promise<ResponseEntity<StreamingResponseBody>> validateCode(
 		final ValidateCodeRequest validateCodeRequest, 
 		final String accept, 
 		final String _format, 
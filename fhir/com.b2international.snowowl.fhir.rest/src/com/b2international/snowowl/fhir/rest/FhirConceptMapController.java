@@ -29,6 +29,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import com.b2international.commons.collections.Collections3;
@@ -351,7 +352,7 @@ public class FhirConceptMapController extends AbstractFhirController {
 		APPLICATION_JSON_VALUE,
 		APPLICATION_XML_VALUE
 	})
-	public Promise<ResponseEntity<byte[]>> getConceptMaps(
+	public Promise<ResponseEntity<StreamingResponseBody>> getConceptMaps(
 			
 		@ParameterObject 
 		FhirConceptMapSearchParameters params,
@@ -444,7 +445,7 @@ public class FhirConceptMapController extends AbstractFhirController {
 		APPLICATION_JSON_VALUE,
 		APPLICATION_XML_VALUE
 	})
-	public Promise<ResponseEntity<byte[]>> getConceptMap(
+	public Promise<ResponseEntity<StreamingResponseBody>> getConceptMap(
 			
 		@Parameter(description = """
 			The identifier of the Code System resource""")
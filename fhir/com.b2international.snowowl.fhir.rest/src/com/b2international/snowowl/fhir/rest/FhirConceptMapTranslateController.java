@@ -21,6 +21,7 @@ import java.util.Optional;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.b2international.snowowl.core.events.util.Promise;
 import com.b2international.snowowl.core.rest.FhirApiConfig;
@@ -80,7 +81,7 @@ public class FhirConceptMapTranslateController extends AbstractFhirController {
 		APPLICATION_JSON_VALUE,
 		APPLICATION_XML_VALUE
 	})
-	public Promise<ResponseEntity<byte[]>> translateType(
+	public Promise<ResponseEntity<StreamingResponseBody>> translateType(
 			
 		@Parameter(description = "The code to translate") 
 		@RequestParam(value = "code") 
@@ -194,7 +195,7 @@ public class FhirConceptMapTranslateController extends AbstractFhirController {
 			APPLICATION_XML_VALUE
 		}
 	)
-	public Promise<ResponseEntity<byte[]>> translate(
+	public Promise<ResponseEntity<StreamingResponseBody>> translate(
 			
 		@io.swagger.v3.oas.annotations.parameters.RequestBody(description = "The operation's input parameters", content = { 
 			@Content(mediaType = AbstractFhirController.APPLICATION_FHIR_JSON_VALUE, schema = @Schema(type = "object")),
@@ -264,7 +265,7 @@ public class FhirConceptMapTranslateController extends AbstractFhirController {
 		APPLICATION_JSON_VALUE,
 		APPLICATION_XML_VALUE
 	})
-	public Promise<ResponseEntity<byte[]>> translateInstance(
+	public Promise<ResponseEntity<StreamingResponseBody>> translateInstance(
 			
 		@Parameter(description = "The id of the Concept Map to base the translation on") 
 		@PathVariable("id") 
@@ -388,7 +389,7 @@ public class FhirConceptMapTranslateController extends AbstractFhirController {
 			APPLICATION_XML_VALUE
 		}
 	)
-	public Promise<ResponseEntity<byte[]>> translate(
+	public Promise<ResponseEntity<StreamingResponseBody>> translate(
 			
 		@Parameter(description = "The id of the conceptMap to base the translation on") 
 		@PathVariable("conceptMapId") 
@@ -434,7 +435,7 @@ public class FhirConceptMapTranslateController extends AbstractFhirController {
 		return translate(request, accept, _format, _pretty);
 	}
 
-	private Promise<ResponseEntity<byte[]>> translate(
+	private Promise<ResponseEntity<StreamingResponseBody>> translate(
 		final TranslateRequest translateRequest, 
 		final String accept, 
 		final String _format, 
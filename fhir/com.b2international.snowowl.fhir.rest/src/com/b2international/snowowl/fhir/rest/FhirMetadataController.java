@@ -43,6 +43,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponents;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -108,7 +109,7 @@ public class FhirMetadataController extends AbstractFhirController {
 		APPLICATION_JSON_VALUE,
 		APPLICATION_XML_VALUE
 	})
-	public ResponseEntity<byte[]> metadata(
+	public ResponseEntity<StreamingResponseBody> metadata(
 	
 		@RequestParam(value = "mode", required = false)
 		final String mode,
@@ -187,7 +188,7 @@ public class FhirMetadataController extends AbstractFhirController {
 		APPLICATION_JSON_VALUE,
 		APPLICATION_XML_VALUE
 	})
-	public ResponseEntity<byte[]> operationDefinition(
+	public ResponseEntity<StreamingResponseBody> operationDefinition(
 			
 		@PathVariable(value = "operation") 
 		final String operation,
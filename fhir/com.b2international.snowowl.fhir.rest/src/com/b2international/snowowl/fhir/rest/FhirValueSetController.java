@@ -29,6 +29,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import com.b2international.commons.collections.Collections3;
@@ -350,7 +351,7 @@ public class FhirValueSetController extends AbstractFhirController {
 		APPLICATION_JSON_VALUE,
 		APPLICATION_XML_VALUE
 	})
-	public Promise<ResponseEntity<byte[]>> getValueSets(
+	public Promise<ResponseEntity<StreamingResponseBody>> getValueSets(
 			
 		@ParameterObject 
 		FhirValueSetSearchParameters params,
@@ -443,7 +444,7 @@ public class FhirValueSetController extends AbstractFhirController {
 		APPLICATION_JSON_VALUE,
 		APPLICATION_XML_VALUE
 	})
-	public Promise<ResponseEntity<byte[]>> getValueSet(
+	public Promise<ResponseEntity<StreamingResponseBody>> getValueSet(
 			
 		@Parameter(description = """
 			The identifier of the Code System resource""")
@@ -21,6 +21,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import com.b2international.commons.http.AcceptLanguageHeader;
@@ -83,7 +84,7 @@ public class FhirValueSetExpandOperationController extends AbstractFhirControlle
 		APPLICATION_JSON_VALUE,
 		APPLICATION_XML_VALUE
 	})
-	public Promise<ResponseEntity<byte[]>> expandType(
+	public Promise<ResponseEntity<StreamingResponseBody>> expandType(
 
 		@Parameter(description = "Canonical URL of the value set") 
 		@RequestParam(value = "url", required = true) 
@@ -201,7 +202,7 @@ public class FhirValueSetExpandOperationController extends AbstractFhirControlle
 			APPLICATION_XML_VALUE
 		}
 	)
-	public Promise<ResponseEntity<byte[]>> expand(
+	public Promise<ResponseEntity<StreamingResponseBody>> expand(
 			
 		@io.swagger.v3.oas.annotations.parameters.RequestBody(description = "The operation's input parameters", content = { 
 			@Content(mediaType = AbstractFhirController.APPLICATION_FHIR_JSON_VALUE, schema = @Schema(type = "object")),
@@ -302,7 +303,7 @@ public class FhirValueSetExpandOperationController extends AbstractFhirControlle
 		APPLICATION_JSON_VALUE,
 		APPLICATION_XML_VALUE
 	})
-	public Promise<ResponseEntity<byte[]>> expandInstance(
+	public Promise<ResponseEntity<StreamingResponseBody>> expandInstance(
 			
 		@Parameter(description = "The logical id of the value set to expand") 
 		@PathVariable(value = "id", required = true) 
@@ -385,7 +386,7 @@ public class FhirValueSetExpandOperationController extends AbstractFhirControlle
 		return expand(expandRequest, nextUriBuilder, accept, _format, _pretty);
 	}
 
-	private Promise<ResponseEntity<byte[]>> expand(
+	private Promise<ResponseEntity<StreamingResponseBody>> expand(
 		final ExpandValueSetRequest expandRequest, 
 		final UriComponentsBuilder nextUriBuilder,
 		final String accept,
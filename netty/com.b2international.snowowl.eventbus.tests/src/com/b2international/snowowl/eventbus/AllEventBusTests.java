@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2022 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,7 @@ import org.junit.runners.Suite.SuiteClasses;
 import com.b2international.snowowl.internal.eventbus.EventBusHandlerRegistrationTest;
 import com.b2international.snowowl.internal.eventbus.EventBusSendPerformanceTest;
 import com.b2international.snowowl.internal.eventbus.EventBusSendTest;
+import com.b2international.snowowl.internal.eventbus.netty.EventBusMessageCodecTest;
 import com.b2international.snowowl.internal.eventbus.netty.EventBusProtocolTest;
 
 /**
@@ -31,6 +32,7 @@ import com.b2international.snowowl.internal.eventbus.netty.EventBusProtocolTest;
 @SuiteClasses({ 
 	EventBusHandlerRegistrationTest.class, 
 	EventBusSendTest.class, 
+	EventBusMessageCodecTest.class, 
 	EventBusProtocolTest.class, 
 	EventBusSendPerformanceTest.class, 
 })
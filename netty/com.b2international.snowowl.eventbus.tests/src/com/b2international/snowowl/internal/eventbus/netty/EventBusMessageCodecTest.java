@@ -0,0 +1,176 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.internal.eventbus.netty;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import com.b2international.snowowl.eventbus.IMessage;
+import com.b2international.snowowl.eventbus.netty.EventBusNettyUtil;
+import com.b2international.snowowl.eventbus.netty.IEventBusCodec;
+import com.b2international.snowowl.internal.eventbus.MessageFactory;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.DecoderException;
+import io.netty.handler.codec.EncoderException;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+
+/**
+ * @since 9.3
+ */
+public class EventBusMessageCodecTest {
+
+	private static final int MAX_FRAME_SIZE = 1024 * 1024;
+
+	private static final class Payload implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final byte[] data;
+
+		private Payload(final int size) {
+			this.data = new byte[size];
+		}
+
+	}
+
+	@Test
+	public void sendMessageAfterNegotiation() throws Exception {
+		final EmbeddedChannel sender = createChannel(EventBusNettyUtil.DEFAULT_CODECS);
+		final EmbeddedChannel receiver = createChannel(EventBusNettyUtil.DEFAULT_CODECS);
+		negotiate(sender, receiver);
+
+		// send the same message type twice, the second one should refer to already transmitted classes only
+		for (int i = 0; i < 2; i++) {
+			final TreeSet<String> body = new TreeSet<>(List.of("a", "b", Integer.toString(i)));
+			sender.writeOutbound(MessageFactory.createMessage("address", body, IMessage.TAG_EVENT, Map.of("key", "value"), false, true, "replyAddress"));
+			transfer(sender, receiver);
+
+			final IMessage message = receiver.readInbound();
+			assertEquals("address", message.address());
+			assertEquals("replyAddress", message.replyAddress());
+			assertEquals(IMessage.TAG_EVENT, message.tag());
+			assertEquals(Map.of("key", "value"), message.headers());
+			assertFalse(message.isSend());
+			assertTrue(message.isSucceeded());
+			assertEquals(body, message.body());
+		}
+	}
+
+	@Test
+	public void queueMessagesUntilNegotiated() throws Exception {
+		final EmbeddedChannel sender = createChannel(EventBusNettyUtil.DEFAULT_CODECS);
+		final EmbeddedChannel receiver = createChannel(EventBusNettyUtil.DEFAULT_CODECS);
+
+		sender.writeOutbound(MessageFactory.createMessage("address", "body", IMessage.TAG_REPLY, Map.of()));
+		// only the codec list is sent before negotiation
+		final ByteBuf hello = sender.readOutbound();
+		assertNull(sender.readOutbound());
+		receiver.writeInbound(hello);
+
+		// the queued message is sent after the peer's codec list arrives
+		transfer(receiver, sender);
+		transfer(sender, receiver);
+
+		final IMessage message = receiver.readInbound();
+		assertEquals("body", message.body());
+		assertNull(message.replyAddress());
+	}
+
+	@Test
+	public void ping() throws Exception {
+		final EmbeddedChannel sender = createChannel(EventBusNettyUtil.DEFAULT_CODECS);
+		final EmbeddedChannel receiver = createChannel(EventBusNettyUtil.DEFAULT_CODECS);
+		negotiate(sender, receiver);
+
+		sender.writeOutbound(EventBusNettyHandler.PING);
+		transfer(sender, receiver);
+
+		assertSame(EventBusNettyHandler.PING, receiver.readInbound());
+	}
+
+	@Test
+	public void fallbackToCommonCodec() throws Exception {
+		final EmbeddedChannel sender = createChannel(EventBusNettyUtil.DEFAULT_CODECS);
+		final EmbeddedChannel receiver = createChannel(List.of(ObjectStreamCodec.JAVA));
+		negotiate(sender, receiver);
+
+		sender.writeOutbound(MessageFactory.createMessage("address", "body", IMessage.TAG_EVENT, Map.of()));
+		transfer(sender, receiver);
+
+		final IMessage message = receiver.readInbound();
+		assertEquals("body", message.body());
+	}
+
+	@Test
+	public void tooLongFrameKeepsClassDictionaryInSync() throws Exception {
+		final EmbeddedChannel sender = createChannel(List.of(ObjectStreamCodec.CLASS_DICTIONARY));
+		final EmbeddedChannel receiver = createChannel(List.of(ObjectStreamCodec.CLASS_DICTIONARY));
+		negotiate(sender, receiver);
+
+		try {
+			sender.writeOutbound(MessageFactory.createMessage("address", new Payload(2 * MAX_FRAME_SIZE), IMessage.TAG_EVENT, Map.of()));
+			fail("Expected the oversized message to be rejected");
+		} catch (final EncoderException expected) {
+			// the rejected frame introduced the payload class, which the receiver never saw
+		}
+		assertNull(sender.readOutbound());
+
+		sender.writeOutbound(MessageFactory.createMessage("address", new Payload(16), IMessage.TAG_EVENT, Map.of()));
+		transfer(sender, receiver);
+
+		final IMessage message = receiver.readInbound();
+		assertEquals(16, ((Payload) message.body()).data.length);
+	}
+
+	@Test(expected = DecoderException.class)
+	public void noCommonCodec() throws Exception {
+		final EmbeddedChannel sender = createChannel(List.of(ObjectStreamCodec.CLASS_DICTIONARY));
+		final EmbeddedChannel receiver = createChannel(List.of(ObjectStreamCodec.JAVA));
+		transfer(sender, receiver);
+	}
+
+	private EmbeddedChannel createChannel(final List<IEventBusCodec> codecs) {
+		return new EmbeddedChannel(
+			new LengthFieldBasedFrameDecoder(MAX_FRAME_SIZE, 0, 4, 0, 4),
+			new EventBusMessageCodec(codecs, new CachingClassResolver(getClass().getClassLoader()), MAX_FRAME_SIZE));
+	}
+
+	private void negotiate(final EmbeddedChannel left, final EmbeddedChannel right) {
+		transfer(left, right);
+		transfer(right, left);
+	}
+
+	private void transfer(final EmbeddedChannel from, final EmbeddedChannel to) {
+		ByteBuf buf;
+		while ((buf = from.readOutbound()) != null) {
+			to.writeInbound(buf);
+		}
+	}
+
+}
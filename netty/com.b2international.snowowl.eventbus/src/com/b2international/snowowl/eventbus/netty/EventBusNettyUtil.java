@@ -1,5 +1,5 @@
 /*
- * Copyright 2021-2022 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2021-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,20 +15,22 @@
  */
 package com.b2international.snowowl.eventbus.netty;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import com.b2international.snowowl.eventbus.IEventBus;
 import com.b2international.snowowl.eventbus.IHandler;
 import com.b2international.snowowl.eventbus.IMessage;
 import com.b2international.snowowl.internal.eventbus.netty.AddressBookNettyHandler;
+import com.b2international.snowowl.internal.eventbus.netty.CachingClassResolver;
+import com.b2international.snowowl.internal.eventbus.netty.EventBusMessageCodec;
 import com.b2international.snowowl.internal.eventbus.netty.EventBusNettyHandler;
+import com.b2international.snowowl.internal.eventbus.netty.ObjectStreamCodec;
 
 import io.netty.channel.*;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty.handler.codec.compression.JdkZlibDecoder;
 import io.netty.handler.codec.compression.JdkZlibEncoder;
-import io.netty.handler.codec.serialization.ClassResolvers;
-import io.netty.handler.codec.serialization.ObjectDecoder;
-import io.netty.handler.codec.serialization.ObjectEncoder;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.timeout.IdleStateHandler;
 
@@ -39,7 +41,12 @@ public final class EventBusNettyUtil {
 
 	public static final String HEADER_CLIENT_ID = "clientId";
 	
-	public static final int MAX_OBJECT_SIZE = Integer.MAX_VALUE - 1024; // 2 GiB minus some spare change
+	public static final int MAX_OBJECT_SIZE = 512 * 1024 * 1024; // 512 MiB
+	
+	/**
+	 * The default codecs offered during codec negotiation, in order of preference.
+	 */
+	public static final List<IEventBusCodec> DEFAULT_CODECS = List.of(ObjectStreamCodec.CLASS_DICTIONARY, ObjectStreamCodec.JAVA);
 
 	private static final int READ_TIMEOUT_SECONDS = 30;
 
@@ -78,6 +85,35 @@ public final class EventBusNettyUtil {
 		IEventBus eventBus, 
 		ClassLoader classLoader) {
 		
+		return createChannelHandler(sslCtx, gzip, sendInitialSync, watchdogRate, watchdogTimeout, maxObjectSize, DEFAULT_CODECS, eventBus, classLoader);
+	}
+	
+	/**
+	 * @param sslCtx 
+	 * @param gzip
+	 * @param sendInitialSync
+	 * @param watchdogTimeout 
+	 * @param watchdogRate 
+	 * @param maxObjectSize - the maximum size of a single encoded message in bytes
+	 * @param codecs - the message body codecs supported by this end of the connection, in order of preference
+	 * @param eventBus
+	 * @param classLoader
+	 * @return
+	 */
+	public static ChannelHandler createChannelHandler(
+		SslContext sslCtx, 
+		boolean gzip, 
+		boolean sendInitialSync, 
+		int watchdogRate, 
+		int watchdogTimeout, 
+		int maxObjectSize,
+		List<IEventBusCodec> codecs,
+		IEventBus eventBus, 
+		ClassLoader classLoader) {
+		
+		// class lookups are shared between all connections
+		final IEventBusCodec.ClassResolver classResolver = new CachingClassResolver(classLoader);
+		
 		return new ChannelInitializer<Channel>() {
 			@Override
 			public void initChannel(final Channel channel) throws Exception {
@@ -93,7 +129,9 @@ public final class EventBusNettyUtil {
 					pipeline.addLast(new JdkZlibEncoder(), new JdkZlibDecoder());
 				}
 				
-				pipeline.addLast(new ObjectEncoder(), new ObjectDecoder(maxObjectSize, ClassResolvers.cacheDisabled(classLoader)));
+				// 4 byte length prefix, stripped before passing the frame to the message codec
+				pipeline.addLast(new LengthFieldBasedFrameDecoder(maxObjectSize, 0, 4, 0, 4));
+				pipeline.addLast(new EventBusMessageCodec(codecs, classResolver, maxObjectSize));
 
 				// Sends user events to handlers added later in the pipeline when there is no read/write activity
 				pipeline.addLast(new IdleStateHandler(watchdogTimeout, watchdogRate, 0));
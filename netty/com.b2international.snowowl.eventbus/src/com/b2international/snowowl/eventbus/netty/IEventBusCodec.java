@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.eventbus.netty;
+
+import java.io.IOException;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Encodes and decodes the body of event bus messages that are exchanged over a Netty channel. Peers advertise the names of their supported
+ * codecs when the connection is established and use the first codec from the accepting side's preference list that is also supported by the
+ * connecting side.
+ *
+ * @since 9.3
+ */
+public interface IEventBusCodec {
+
+	/**
+	 * @return the unique name of this codec, used during codec negotiation
+	 */
+	String name();
+
+	/**
+	 * Creates a new codec session for a single connection. Sessions are only accessed from the event loop of the channel they belong to, so they
+	 * may keep connection-scoped state without synchronization.
+	 *
+	 * @param classResolver - the class resolver to use when decoding message bodies
+	 * @return a new {@link Session}
+	 */
+	Session newSession(ClassResolver classResolver);
+
+	/**
+	 * Connection-scoped encoder and decoder of message bodies.
+	 */
+	interface Session {
+
+		/**
+		 * Writes the given message body to the end of the output buffer. The capacity of the buffer is limited to the maximum frame size, writes
+		 * beyond that fail with an {@link IndexOutOfBoundsException}. Frames that fail to encode are not sent, so sessions must undo any change to
+		 * their connection-scoped state made while writing the body if writing fails.
+		 *
+		 * @param body - the message body to encode, never <code>null</code>
+		 * @param out - the buffer to write to
+		 * @throws IOException - if the message body can not be encoded
+		 */
+		void writeBody(Object body, ByteBuf out) throws IOException;
+
+		/**
+		 * Reads a message body from the input buffer, consuming the remaining readable bytes.
+		 *
+		 * @param in - the buffer to read from
+		 * @return the decoded message body
+		 * @throws IOException - if the message body can not be decoded
+		 */
+		Object readBody(ByteBuf in) throws IOException;
+
+	}
+
+	/**
+	 * Resolves classes by their binary name when decoding message bodies.
+	 */
+	@FunctionalInterface
+	interface ClassResolver {
+
+		Class<?> resolve(String className) throws ClassNotFoundException;
+
+	}
+
+}
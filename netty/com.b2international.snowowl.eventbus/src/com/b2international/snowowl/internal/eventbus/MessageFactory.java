@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2022 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -42,6 +42,12 @@ public class MessageFactory {
 		
 		return baseMessage;
 	}
+	
+	public static final BaseMessage createMessage(String address, Object message, String tag, Map<String, String> headers, boolean send, boolean succeeded, String replyAddress) {
+		final BaseMessage baseMessage = createMessage(address, message, tag, headers, send, succeeded);
+		baseMessage.replyAddress = replyAddress;
+		return baseMessage;
+	}
 
 	public static final void checkAddress(String address) {
 		checkArgument(!Strings.isNullOrEmpty(address), "Address cannot be null or empty");		
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.internal.eventbus.netty;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.ExecutionException;
+
+import com.b2international.snowowl.eventbus.netty.IEventBusCodec;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+/**
+ * Resolves classes via the given {@link ClassLoader} and remembers the result, so repeated lookups (eg. on the composite class loader of all
+ * plug-ins) are only performed once per class name. Shared between all connections created by the same channel initializer.
+ *
+ * @since 9.3
+ */
+public final class CachingClassResolver implements IEventBusCodec.ClassResolver {
+
+	private final LoadingCache<String, Class<?>> classes;
+
+	public CachingClassResolver(final ClassLoader classLoader) {
+		checkNotNull(classLoader, "classLoader");
+		this.classes = CacheBuilder.newBuilder()
+			.weakValues()
+			.build(new CacheLoader<String, Class<?>>() {
+				@Override
+				public Class<?> load(final String className) throws Exception {
+					return Class.forName(className, false, classLoader);
+				}
+			});
+	}
+
+	@Override
+	public Class<?> resolve(final String className) throws ClassNotFoundException {
+		try {
+			return classes.get(className);
+		} catch (final ExecutionException e) {
+			if (e.getCause() instanceof ClassNotFoundException) {
+				throw (ClassNotFoundException) e.getCause();
+			}
+			throw new ClassNotFoundException(className, e.getCause());
+		}
+	}
+
+}
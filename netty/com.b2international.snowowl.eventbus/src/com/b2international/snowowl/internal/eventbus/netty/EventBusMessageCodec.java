@@ -0,0 +1,318 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.internal.eventbus.netty;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.Lists.newArrayListWithCapacity;
+
+import java.nio.channels.ClosedChannelException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.b2international.snowowl.eventbus.IMessage;
+import com.b2international.snowowl.eventbus.netty.IEventBusCodec;
+import com.b2international.snowowl.internal.eventbus.MessageFactory;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.PendingWriteQueue;
+import io.netty.handler.codec.DecoderException;
+import io.netty.handler.codec.EncoderException;
+import io.netty.handler.codec.TooLongFrameException;
+
+/**
+ * Translates between event bus messages and length-prefixed binary frames. Expects complete frames (with the 4 byte length prefix stripped)
+ * on the inbound side, eg. from a {@link io.netty.handler.codec.LengthFieldBasedFrameDecoder}, and writes frames including their length prefix
+ * on the outbound side.
+ * <p>
+ * When the channel becomes active, both peers send the list of their supported {@link IEventBusCodec codecs}. The first codec in the accepting
+ * peer's list that is also supported by the connecting peer is selected for the lifetime of the connection; outgoing messages are queued until
+ * the selection is made. Message envelopes (address, tag, headers, etc.) are always written in a fixed binary layout, only message bodies are
+ * handled by the selected codec.
+ * <p>
+ * A separate instance is required for each connection.
+ *
+ * @since 9.3
+ */
+public final class EventBusMessageCodec extends ChannelDuplexHandler {
+
+	private static final Logger LOG = LoggerFactory.getLogger(EventBusMessageCodec.class);
+
+	private static final int LENGTH_FIELD_SIZE = 4;
+	private static final int INITIAL_FRAME_CAPACITY = 256;
+	private static final int PROTOCOL_VERSION = 1;
+
+	private static final byte FRAME_HELLO = 0;
+	private static final byte FRAME_PING = 1;
+	private static final byte FRAME_MESSAGE = 2;
+
+	private static final int FLAG_SEND = 1;
+	private static final int FLAG_SUCCEEDED = 1 << 1;
+
+	private final List<IEventBusCodec> codecs;
+	private final IEventBusCodec.ClassResolver classResolver;
+	private final int maxFrameSize;
+
+	// Handler is stateful, these are only accessed from the channel's event loop
+	private PendingWriteQueue pendingWrites;
+	private IEventBusCodec.Session session;
+
+	public EventBusMessageCodec(final List<IEventBusCodec> codecs, final IEventBusCodec.ClassResolver classResolver, final int maxFrameSize) {
+		checkArgument(!codecs.isEmpty(), "At least one codec must be specified.");
+		this.codecs = ImmutableList.copyOf(codecs);
+		this.classResolver = classResolver;
+		this.maxFrameSize = maxFrameSize;
+	}
+
+	@Override
+	public void handlerAdded(final ChannelHandlerContext ctx) throws Exception {
+		pendingWrites = new PendingWriteQueue(ctx);
+	}
+
+	@Override
+	public void handlerRemoved(final ChannelHandlerContext ctx) throws Exception {
+		pendingWrites.removeAndFailAll(new ClosedChannelException());
+	}
+
+	@Override
+	public void channelActive(final ChannelHandlerContext ctx) throws Exception {
+		final ByteBuf hello = ctx.alloc().ioBuffer();
+		hello.writeInt(0);
+		hello.writeByte(FRAME_HELLO);
+		hello.writeByte(PROTOCOL_VERSION);
+		hello.writeInt(codecs.size());
+		codecs.forEach(codec -> writeString(hello, codec.name()));
+		hello.setInt(0, hello.readableBytes() - LENGTH_FIELD_SIZE);
+		ctx.writeAndFlush(hello);
+
+		super.channelActive(ctx);
+	}
+
+	@Override
+	public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
+		pendingWrites.removeAndFailAll(new ClosedChannelException());
+		super.channelInactive(ctx);
+	}
+
+	@Override
+	public void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
+		if (!(msg instanceof ByteBuf)) {
+			ctx.fireChannelRead(msg);
+			return;
+		}
+
+		final ByteBuf frame = (ByteBuf) msg;
+		final Object decoded;
+		try {
+			decoded = decode(ctx, frame);
+		} catch (final DecoderException e) {
+			throw e;
+		} catch (final Exception e) {
+			throw new DecoderException(e);
+		} finally {
+			frame.release();
+		}
+
+		if (decoded != null) {
+			ctx.fireChannelRead(decoded);
+		}
+	}
+
+	private Object decode(final ChannelHandlerContext ctx, final ByteBuf frame) throws Exception {
+		final byte frameType = frame.readByte();
+		switch (frameType) {
+			case FRAME_HELLO:
+				negotiate(ctx, frame);
+				return null;
+			case FRAME_PING:
+				return EventBusNettyHandler.PING;
+			case FRAME_MESSAGE:
+				if (session == null) {
+					throw new DecoderException("Received message before codec negotiation completed.");
+				}
+				return decodeMessage(frame);
+			default:
+				throw new DecoderException("Unexpected frame type: " + frameType);
+		}
+	}
+
+	private void negotiate(final ChannelHandlerContext ctx, final ByteBuf frame) throws Exception {
+		final int protocolVersion = frame.readByte();
+		if (protocolVersion != PROTOCOL_VERSION) {
+			throw new DecoderException("Unsupported event bus protocol version: " + protocolVersion);
+		}
+
+		final int numberOfCodecs = frame.readInt();
+		final List<String> remoteCodecNames = newArrayListWithCapacity(numberOfCodecs);
+		for (int i = 0; i < numberOfCodecs; i++) {
+			remoteCodecNames.add(readString(frame));
+		}
+
+		final IEventBusCodec codec = selectCodec(isAccepted(ctx), remoteCodecNames);
+		if (codec == null) {
+			throw new DecoderException("No common codec found, local: " + codecs + ", remote: " + remoteCodecNames);
+		}
+
+		LOG.debug("Using codec '{}' for channel {}", codec.name(), ctx.channel());
+		session = codec.newSession(classResolver);
+
+		// Send everything that was written before the codec was known
+		while (!pendingWrites.isEmpty()) {
+			final Object pendingMessage = pendingWrites.current();
+			final ChannelPromise promise = pendingWrites.remove();
+			try {
+				write(ctx, pendingMessage, promise);
+			} catch (final EncoderException e) {
+				promise.tryFailure(e);
+			}
+		}
+		ctx.flush();
+	}
+
+	private boolean isAccepted(final ChannelHandlerContext ctx) {
+		// Channels created by a server channel have a parent
+		return ctx.channel().parent() != null;
+	}
+
+	private IEventBusCodec selectCodec(final boolean accepted, final List<String> remoteCodecNames) {
+		if (accepted) {
+			// Our preferences win
+			return codecs.stream()
+				.filter(codec -> remoteCodecNames.contains(codec.name()))
+				.findFirst()
+				.orElse(null);
+		} else {
+			// The preferences of the accepting side win
+			return remoteCodecNames.stream()
+				.flatMap(name -> codecs.stream().filter(codec -> codec.name().equals(name)))
+				.findFirst()
+				.orElse(null);
+		}
+	}
+
+	private IMessage decodeMessage(final ByteBuf frame) throws Exception {
+		final int flags = frame.readByte();
+		final String address = readString(frame);
+		final String replyAddress = readString(frame);
+		final String tag = readString(frame);
+
+		final int numberOfHeaders = frame.readInt();
+		final ImmutableMap.Builder<String, String> headers = ImmutableMap.builderWithExpectedSize(numberOfHeaders);
+		for (int i = 0; i < numberOfHeaders; i++) {
+			headers.put(readString(frame), readString(frame));
+		}
+
+		final Object body = session.readBody(frame);
+		return MessageFactory.createMessage(address,
+			body,
+			tag,
+			headers.build(),
+			(flags & FLAG_SEND) != 0,
+			(flags & FLAG_SUCCEEDED) != 0,
+			replyAddress);
+	}
+
+	@Override
+	public void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise) throws Exception {
+		if (!(msg instanceof IMessage) && msg != EventBusNettyHandler.PING) {
+			ctx.write(msg, promise);
+			return;
+		}
+
+		if (session == null) {
+			pendingWrites.add(msg, promise);
+			return;
+		}
+
+		/*
+		 * The peer's frame decoder counts the length prefix as well. Capping the buffer makes oversized frames fail while the body is being
+		 * written, so that the codec session can roll back any connection state (eg. new class dictionary entries) the frame would have
+		 * introduced.
+		 */
+		final ByteBuf frame = ctx.alloc().ioBuffer(Math.min(INITIAL_FRAME_CAPACITY, maxFrameSize), maxFrameSize);
+		try {
+			frame.writeInt(0);
+			if (msg instanceof IMessage) {
+				encodeMessage((IMessage) msg, frame);
+			} else {
+				frame.writeByte(FRAME_PING);
+			}
+
+			frame.setInt(0, frame.readableBytes() - LENGTH_FIELD_SIZE);
+		} catch (final IndexOutOfBoundsException e) {
+			frame.release();
+			throw new EncoderException(new TooLongFrameException("Frame length exceeds " + maxFrameSize, e));
+		} catch (final Throwable t) {
+			frame.release();
+			throw new EncoderException(t);
+		}
+
+		ctx.write(frame, promise);
+	}
+
+	private void encodeMessage(final IMessage message, final ByteBuf frame) throws Exception {
+		frame.writeByte(FRAME_MESSAGE);
+
+		int flags = 0;
+		if (message.isSend()) {
+			flags |= FLAG_SEND;
+		}
+		if (message.isSucceeded()) {
+			flags |= FLAG_SUCCEEDED;
+		}
+		frame.writeByte(flags);
+
+		writeString(frame, message.address());
+		writeString(frame, message.replyAddress());
+		writeString(frame, message.tag());
+
+		final Map<String, String> headers = message.headers();
+		frame.writeInt(headers.size());
+		headers.forEach((key, value) -> {
+			writeString(frame, key);
+			writeString(frame, value);
+		});
+
+		session.writeBody(message.body(), frame);
+	}
+
+	private static void writeString(final ByteBuf out, final String value) {
+		if (value == null) {
+			out.writeInt(-1);
+		} else {
+			out.writeInt(ByteBufUtil.utf8Bytes(value));
+			out.writeCharSequence(value, StandardCharsets.UTF_8);
+		}
+	}
+
+	private static String readString(final ByteBuf in) {
+		final int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		return in.readCharSequence(length, StandardCharsets.UTF_8).toString();
+	}
+
+}
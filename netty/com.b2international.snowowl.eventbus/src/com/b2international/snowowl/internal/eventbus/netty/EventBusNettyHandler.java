@@ -1,5 +1,5 @@
 /*
- * Copyright 2021-2022 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2021-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,7 +17,6 @@ package com.b2international.snowowl.internal.eventbus.netty;
 
 import static com.google.common.collect.Maps.newHashMap;
 
-import java.io.Serializable;
 import java.util.Map;
 
 import org.slf4j.Logger;
@@ -51,11 +50,11 @@ import io.netty.handler.timeout.IdleStateEvent;
  */
 public class EventBusNettyHandler extends SimpleChannelInboundHandler<IMessage> implements IEventBusNettyHandler {
 
-	private static class PingMessage implements Serializable {
+	/*package*/ static final class PingMessage {
 		// Empty class body 
 	}
 	
-	private static final PingMessage PING = new PingMessage();
+	/*package*/ static final PingMessage PING = new PingMessage();
 
 	private static final Logger LOG = LoggerFactory.getLogger(EventBusNettyHandler.class);
 	
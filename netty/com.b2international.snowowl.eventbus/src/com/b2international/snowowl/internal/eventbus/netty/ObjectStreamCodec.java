@@ -0,0 +1,211 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.internal.eventbus.netty;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+
+import java.io.*;
+import java.util.List;
+import java.util.Map;
+
+import com.b2international.snowowl.eventbus.netty.IEventBusCodec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+
+/**
+ * {@link IEventBusCodec} implementation based on Java serialization, writing directly to (and reading directly from) the channel's pooled
+ * buffers. Class descriptors of non-array, non-primitive types are replaced by their name, which is resolved via the shared class resolver cache
+ * on the receiving end.
+ * <p>
+ * The {@link #CLASS_DICTIONARY} variant goes one step further and only sends the name of each class once per connection, subsequent messages
+ * refer to already transmitted classes by their ordinal number.
+ *
+ * @since 9.3
+ */
+public final class ObjectStreamCodec implements IEventBusCodec {
+
+	/**
+	 * Java serialization with class names in place of full class descriptors.
+	 */
+	public static final IEventBusCodec JAVA = new ObjectStreamCodec("java", false);
+
+	/**
+	 * Java serialization with class names sent only once per connection.
+	 */
+	public static final IEventBusCodec CLASS_DICTIONARY = new ObjectStreamCodec("java-class-dictionary", true);
+
+	private static final int STREAM_VERSION = 1;
+
+	private static final int TYPE_FAT_DESCRIPTOR = 0;
+	private static final int TYPE_CLASS_NAME = 1;
+	private static final int TYPE_CLASS_REFERENCE = 2;
+
+	private final String name;
+	private final boolean dictionary;
+
+	private ObjectStreamCodec(final String name, final boolean dictionary) {
+		this.name = name;
+		this.dictionary = dictionary;
+	}
+
+	@Override
+	public String name() {
+		return name;
+	}
+
+	@Override
+	public Session newSession(final ClassResolver classResolver) {
+		return new ObjectStreamSession(classResolver, dictionary);
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+
+	private static final class ObjectStreamSession implements Session {
+
+		private final ClassResolver classResolver;
+		private final boolean dictionary;
+
+		// class names already sent to and received from the peer, in order of appearance
+		private final Map<String, Integer> sentClassNames = newHashMap();
+		private final List<ObjectStreamClass> receivedClasses = newArrayList();
+
+		private ObjectStreamSession(final ClassResolver classResolver, final boolean dictionary) {
+			this.classResolver = classResolver;
+			this.dictionary = dictionary;
+		}
+
+		@Override
+		public void writeBody(final Object body, final ByteBuf out) throws IOException {
+			final List<String> newClassNames = newArrayList();
+			try (ObjectOutputStream oos = new CompactObjectOutputStream(new ByteBufOutputStream(out), newClassNames)) {
+				oos.writeObject(body);
+				oos.flush();
+			} catch (final IOException | RuntimeException e) {
+				// the peer will never see these class names, so forget them to keep the dictionaries in sync
+				newClassNames.forEach(sentClassNames::remove);
+				throw e;
+			}
+		}
+
+		@Override
+		public Object readBody(final ByteBuf in) throws IOException {
+			try (ObjectInputStream ois = new CompactObjectInputStream(new ByteBufInputStream(in))) {
+				return ois.readObject();
+			} catch (final ClassNotFoundException e) {
+				throw new InvalidClassException(e.getMessage());
+			}
+		}
+
+		private final class CompactObjectOutputStream extends ObjectOutputStream {
+
+			private final List<String> newClassNames;
+
+			CompactObjectOutputStream(final OutputStream out, final List<String> newClassNames) throws IOException {
+				super(out);
+				this.newClassNames = newClassNames;
+			}
+
+			@Override
+			protected void writeStreamHeader() throws IOException {
+				writeByte(STREAM_VERSION);
+			}
+
+			@Override
+			protected void writeClassDescriptor(final ObjectStreamClass desc) throws IOException {
+				final Class<?> type = desc.forClass();
+				if (type.isPrimitive() || type.isArray() || type.isInterface() || desc.getSerialVersionUID() == 0L) {
+					write(TYPE_FAT_DESCRIPTOR);
+					super.writeClassDescriptor(desc);
+					return;
+				}
+
+				final String className = desc.getName();
+				final Integer reference = dictionary ? sentClassNames.get(className) : null;
+				if (reference != null) {
+					write(TYPE_CLASS_REFERENCE);
+					writeInt(reference);
+				} else {
+					write(TYPE_CLASS_NAME);
+					writeUTF(className);
+					if (dictionary) {
+						sentClassNames.put(className, sentClassNames.size());
+						newClassNames.add(className);
+					}
+				}
+			}
+
+		}
+
+		private final class CompactObjectInputStream extends ObjectInputStream {
+
+			CompactObjectInputStream(final InputStream in) throws IOException {
+				super(in);
+			}
+
+			@Override
+			protected void readStreamHeader() throws IOException {
+				final int version = readByte() & 0xFF;
+				if (version != STREAM_VERSION) {
+					throw new StreamCorruptedException("Unsupported stream version: " + version);
+				}
+			}
+
+			@Override
+			protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+				final int type = read();
+				switch (type) {
+					case TYPE_FAT_DESCRIPTOR:
+						return super.readClassDescriptor();
+					case TYPE_CLASS_NAME:
+						final ObjectStreamClass desc = ObjectStreamClass.lookupAny(classResolver.resolve(readUTF()));
+						if (dictionary) {
+							receivedClasses.add(desc);
+						}
+						return desc;
+					case TYPE_CLASS_REFERENCE:
+						final int reference = readInt();
+						if (reference < 0 || reference >= receivedClasses.size()) {
+							throw new StreamCorruptedException("Unknown class reference: " + reference);
+						}
+						return receivedClasses.get(reference);
+					case -1:
+						throw new EOFException();
+					default:
+						throw new StreamCorruptedException("Unexpected class descriptor type: " + type);
+				}
+			}
+
+			@Override
+			protected Class<?> resolveClass(final ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+				try {
+					return classResolver.resolve(desc.getName());
+				} catch (final ClassNotFoundException e) {
+					// primitive types are resolved by the default implementation
+					return super.resolveClass(desc);
+				}
+			}
+
+		}
+
+	}
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.core.version;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import com.b2international.collections.PrimitiveCollectionModule;
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.index.revision.BaseRevisionIndexTest;
+import com.b2international.snowowl.core.date.EffectiveTimes;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+import com.b2international.snowowl.test.commons.snomed.RandomSnomedIdentiferGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.TreeMultimap;
+
+/**
+ * @since 9.3
+ */
+public class ModuleDependencyCollectorTest extends BaseRevisionIndexTest {
+
+	private static final long EFFECTIVE_TIME = EffectiveTimes.getEffectiveTime(LocalDate.of(2023, 7, 31));
+	private static final long LATER_EFFECTIVE_TIME = EffectiveTimes.getEffectiveTime(LocalDate.of(2024, 1, 31));
+
+	private final ModuleDependencyCollector collector = new ModuleDependencyCollector();
+	private final Multimap<String, String> moduleDependencies = TreeMultimap.create();
+	private final Map<String, Long> moduleToLatestEffectiveTime = new TreeMap<>();
+
+	@Override
+	protected Collection<Class<?>> getTypes() {
+		return ImmutableList.of(SnomedConceptDocument.class);
+	}
+
+	@Override
+	protected void configureMapper(ObjectMapper mapper) {
+		mapper.registerModule(new PrimitiveCollectionModule());
+	}
+
+	@Test
+	public void unpublishedDependencyIsResolvedFromScannedData() throws Exception {
+		final String conceptId = RandomSnomedIdentiferGenerator.generateConceptId();
+		collector.registerUnpublished(conceptId, Concepts.MODULE_SCT_CORE);
+		collector.registerDependency(Concepts.MODULE_B2I_EXTENSION, conceptId);
+
+		collect();
+
+		assertThat(moduleDependencies).isEqualTo(ImmutableSetMultimap.of(Concepts.MODULE_B2I_EXTENSION, Concepts.MODULE_SCT_CORE));
+		assertThat(moduleToLatestEffectiveTime).containsExactly(Map.entry(Concepts.MODULE_SCT_CORE, EffectiveTimes.UNSET_EFFECTIVE_TIME));
+	}
+
+	@Test
+	public void publishedDependencyIsLookedUpById() throws Exception {
+		final String conceptId = RandomSnomedIdentiferGenerator.generateConceptId();
+		final String laterConceptId = RandomSnomedIdentiferGenerator.generateConceptId();
+		indexRevision(MAIN,
+			concept(conceptId, Concepts.MODULE_SCT_CORE, EFFECTIVE_TIME),
+			concept(laterConceptId, Concepts.MODULE_SCT_CORE, LATER_EFFECTIVE_TIME));
+
+		collector.registerDependency(Concepts.MODULE_B2I_EXTENSION, conceptId);
+		// dependencies within the same module only contribute to the latest effective time
+		collector.registerDependency(Concepts.MODULE_SCT_CORE, laterConceptId);
+
+		collect();
+
+		assertThat(moduleDependencies).isEqualTo(ImmutableSetMultimap.of(Concepts.MODULE_B2I_EXTENSION, Concepts.MODULE_SCT_CORE));
+		assertThat(moduleToLatestEffectiveTime).containsExactly(Map.entry(Concepts.MODULE_SCT_CORE, LATER_EFFECTIVE_TIME));
+	}
+
+	@Test
+	public void memberFieldsWithoutSctIdAreIgnored() throws Exception {
+		final String conceptId = RandomSnomedIdentiferGenerator.generateConceptId();
+		indexRevision(MAIN, concept(conceptId, Concepts.MODULE_SCT_CORE, EFFECTIVE_TIME));
+
+		// map target, numeric value and a valid concept reference
+		collector.registerMemberField(Concepts.MODULE_B2I_EXTENSION, "A01.1");
+		collector.registerMemberField(Concepts.MODULE_B2I_EXTENSION, "123");
+		collector.registerMemberField(Concepts.MODULE_B2I_EXTENSION, conceptId);
+
+		collect();
+
+		assertThat(moduleDependencies).isEqualTo(ImmutableSetMultimap.of(Concepts.MODULE_B2I_EXTENSION, Concepts.MODULE_SCT_CORE));
+		assertThat(moduleToLatestEffectiveTime).containsExactly(Map.entry(Concepts.MODULE_SCT_CORE, EFFECTIVE_TIME));
+	}
+
+	private void collect() {
+		index().read(MAIN, searcher -> {
+			collector.collect(searcher, List.of(SnomedConceptDocument.class), 100, moduleDependencies, moduleToLatestEffectiveTime);
+			return null;
+		});
+	}
+
+	private SnomedConceptDocument concept(String conceptId, String moduleId, long effectiveTime) {
+		return SnomedConceptDocument.builder()
+				.id(conceptId)
+				.iconId(Concepts.ROOT_CONCEPT)
+				.active(true)
+				.released(true)
+				.effectiveTime(effectiveTime)
+				.moduleId(moduleId)
+				.exhaustive(true)
+				.definitionStatusId(Concepts.PRIMITIVE)
+				.parents(PrimitiveSets.newLongSortedSet(-1L))
+				.ancestors(PrimitiveSets.newLongSortedSet(-1L))
+				.statedAncestors(PrimitiveSets.newLongSortedSet(-1L))
+				.statedParents(PrimitiveSets.newLongSortedSet(-1L))
+				.build();
+	}
+
+}
@@ -22,6 +22,7 @@ import org.junit.runners.Suite.SuiteClasses;
 import com.b2international.snowowl.snomed.core.ecl.*;
 import com.b2international.snowowl.snomed.core.request.SnomedQueryOptimizerTest;
 import com.b2international.snowowl.snomed.core.tree.TerminologyTreeTest;
+import com.b2international.snowowl.snomed.core.version.ModuleDependencyCollectorTest;
 import com.b2international.snowowl.snomed.datastore.id.memory.DefaultSnomedIdentifierServiceRegressionTest;
 import com.b2international.snowowl.snomed.datastore.id.memory.DefaultSnomedIdentifierServiceTest;
 import com.b2international.snowowl.snomed.datastore.index.change.*;
@@ -29,8 +30,13 @@ import com.b2international.snowowl.snomed.datastore.index.entry.*;
 import com.b2international.snowowl.snomed.datastore.internal.id.SnomedIdentifierTest;
 import com.b2international.snowowl.snomed.datastore.internal.id.reservations.ReservationImplTest;
 import com.b2international.snowowl.snomed.datastore.internal.id.reservations.SnomedIdentifierReservationServiceImplTest;
+import com.b2international.snowowl.snomed.datastore.request.SnomedConceptFetchCacheTest;
 import com.b2international.snowowl.snomed.datastore.request.SnomedOWLExpressionConverterTest;
 import com.b2international.snowowl.snomed.datastore.request.SnomedOWLRelationshipConverterTest;
+import com.b2international.snowowl.snomed.datastore.request.rf2.exporter.VisitedComponentEffectiveTimesTest;
+import com.b2international.snowowl.snomed.datastore.request.rf2.importer.MapDBRf2EffectiveTimeSliceTest;
+import com.b2international.snowowl.snomed.datastore.taxonomy.TaxonomyGraphTest;
+import com.b2international.snowowl.snomed.validation.GroovyScriptValidationRuleEvaluatorTest;
 import com.b2international.snowowl.snomed.validation.SnomedQueryValidationRuleEvaluatorTest;
 
 /**
@@ -58,6 +64,8 @@ import com.b2international.snowowl.snomed.validation.SnomedQueryValidationRuleEv
 	PreferredDescriptionPreCommitHookTest.class,
 	ConceptChangeProcessorAxiomTest.class,
 	ConceptIconIdUpdaterTest.class,
+	// Taxonomy test cases
+	TaxonomyGraphTest.class,
 	// ECL test cases
 	SnomedEclEvaluationRequestTest.class,
 	SnomedEclEvaluationRequestPropertyFilterTest.class,
@@ -67,11 +75,20 @@ import com.b2international.snowowl.snomed.validation.SnomedQueryValidationRuleEv
 	SnomedDescriptionUtilsTest.class,
 	// Validate Rule Evaluators
 	SnomedQueryValidationRuleEvaluatorTest.class,
+	GroovyScriptValidationRuleEvaluatorTest.class,
 	// Query optimization
 	SnomedQueryOptimizerTest.class,
+	// Concept fetch caching
+	SnomedConceptFetchCacheTest.class,
 	// OWL expression conversion tests
 	SnomedOWLExpressionConverterTest.class,	
 	SnomedOWLRelationshipConverterTest.class,
+	// RF2 export test cases
+	VisitedComponentEffectiveTimesTest.class,
+	// RF2 import test cases
+	MapDBRf2EffectiveTimeSliceTest.class,
+	// Versioning test cases
+	ModuleDependencyCollectorTest.class,
 })
 public class AllSnomedDatastoreTests {
 
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.snowowl.core.terminology.ComponentCategory;
+import com.b2international.snowowl.snomed.cis.ISnomedIdentifierService;
+import com.b2international.snowowl.snomed.cis.SnomedIdentifierPool;
+import com.b2international.snowowl.snomed.cis.domain.SctId;
+
+/**
+ * @since 9.3
+ */
+public class SnomedIdentifierPoolTest {
+
+	private final AtomicInteger sequence = new AtomicInteger();
+
+	private ISnomedIdentifierService identifiers;
+	private SnomedIdentifierPool pool;
+
+	@Before
+	public void setup() {
+		identifiers = mock(ISnomedIdentifierService.class);
+		when(identifiers.reserveSctIds(any(), any(), anyInt())).thenAnswer(invocation -> reserve(invocation.getArgument(2)));
+		pool = new SnomedIdentifierPool(identifiers, 5, 10, TimeUnit.HOURS.toMillis(1L));
+	}
+
+	@After
+	public void dispose() {
+		pool.dispose();
+	}
+
+	@Test
+	public void reserveFromPool() throws Exception {
+		// first request is served directly, the pool is filled up in the background
+		assertThat(pool.reserve(null, ComponentCategory.CONCEPT, 3)).hasSize(3);
+		awaitPoolSize(ComponentCategory.CONCEPT, 10);
+
+		clearInvocations(identifiers);
+
+		final Map<String, SctId> reserved = pool.reserve(null, ComponentCategory.CONCEPT, 4);
+		assertThat(reserved).hasSize(4);
+		assertThat(pool.size(null, ComponentCategory.CONCEPT)).isEqualTo(6);
+		verify(identifiers, never()).reserveSctIds(any(), any(), anyInt());
+	}
+
+	@Test
+	public void reserveMoreThanPooled() throws Exception {
+		pool.reserve(null, ComponentCategory.DESCRIPTION, 1);
+		awaitPoolSize(ComponentCategory.DESCRIPTION, 10);
+
+		clearInvocations(identifiers);
+
+		assertThat(pool.reserve(null, ComponentCategory.DESCRIPTION, 15)).hasSize(15);
+		verify(identifiers).reserveSctIds(null, ComponentCategory.DESCRIPTION, 5);
+		awaitPoolSize(ComponentCategory.DESCRIPTION, 10);
+	}
+
+	@Test
+	public void releaseUnusedOnDispose() throws Exception {
+		pool.reserve("1000154", ComponentCategory.RELATIONSHIP, 1);
+		awaitPoolSize("1000154", ComponentCategory.RELATIONSHIP, 10);
+
+		pool.dispose();
+
+		verify(identifiers).release(argThat((Set<String> ids) -> ids.size() == 10));
+		assertThat(pool.size("1000154", ComponentCategory.RELATIONSHIP)).isZero();
+	}
+
+	private void awaitPoolSize(ComponentCategory category, int expectedSize) throws InterruptedException {
+		awaitPoolSize(null, category, expectedSize);
+	}
+
+	private void awaitPoolSize(String namespace, ComponentCategory category, int expectedSize) throws InterruptedException {
+		for (int i = 0; i < 100 && pool.size(namespace, category) != expectedSize; i++) {
+			Thread.sleep(50L);
+		}
+		assertThat(pool.size(namespace, category)).isEqualTo(expectedSize);
+	}
+
+	private Map<String, SctId> reserve(int quantity) {
+		final Map<String, SctId> reserved = new LinkedHashMap<>();
+		for (int i = 0; i < quantity; i++) {
+			final SctId sctId = new SctId();
+			sctId.setSctid(Integer.toString(sequence.incrementAndGet()));
+			reserved.put(sctId.getSctid(), sctId);
+		}
+		return reserved;
+	}
+
+}
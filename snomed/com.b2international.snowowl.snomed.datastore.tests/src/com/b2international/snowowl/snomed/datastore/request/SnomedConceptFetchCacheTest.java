@@ -0,0 +1,111 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.request;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.b2international.commons.http.ExtendedLocale;
+import com.b2international.commons.options.Options;
+import com.b2international.index.revision.RevisionBranchRef;
+import com.b2international.index.revision.RevisionSegment;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
+import com.google.common.collect.ImmutableSortedSet;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * @since 9.3
+ */
+public class SnomedConceptFetchCacheTest {
+
+	private static final String CONCEPT_ID = "138875005";
+	private static final List<ExtendedLocale> LOCALES = List.of(ExtendedLocale.valueOf("en-us"));
+	
+	private final SnomedConceptFetchCache cache = new SnomedConceptFetchCache(10L);
+
+	@Test
+	public void hitOnSameBranchState() throws Exception {
+		final SnomedConcept concept = new SnomedConcept(CONCEPT_ID);
+		cache.putAll(branch("MAIN", 1L), Map.of(CONCEPT_ID, concept), Options.builder().put("pt", Options.empty()).build(), LOCALES);
+		
+		final Map<String, SnomedConcept> hits = cache.getAll(branch("MAIN", 1L), List.of(CONCEPT_ID, "404684003"), Options.builder().put("pt", Options.empty()).build(), LOCALES);
+		assertThat(hits).containsOnlyKeys(CONCEPT_ID);
+		assertThat(hits.get(CONCEPT_ID).getId()).isEqualTo(CONCEPT_ID);
+		assertThat(cache.stats().hitCount()).isEqualTo(1L);
+		assertThat(cache.stats().missCount()).isEqualTo(1L);
+	}
+	
+	@Test
+	public void modificationsDoNotChangeCachedConcept() throws Exception {
+		final SnomedConcept concept = new SnomedConcept(CONCEPT_ID);
+		concept.setActive(true);
+		concept.setModuleId(Concepts.MODULE_SCT_CORE);
+		cache.putAll(branch("MAIN", 1L), Map.of(CONCEPT_ID, concept), Options.empty(), LOCALES);
+		
+		// modifying the original instance after caching it
+		concept.setActive(false);
+		
+		final SnomedConcept first = cache.getAll(branch("MAIN", 1L), List.of(CONCEPT_ID), Options.empty(), LOCALES).get(CONCEPT_ID);
+		assertThat(first).isNotSameAs(concept);
+		assertThat(first.isActive()).isTrue();
+		
+		// modifying a returned instance
+		first.setActive(false);
+		first.setModuleId(Concepts.MODULE_SCT_MODEL_COMPONENT);
+		
+		final SnomedConcept second = cache.getAll(branch("MAIN", 1L), List.of(CONCEPT_ID), Options.empty(), LOCALES).get(CONCEPT_ID);
+		assertThat(second).isNotSameAs(first);
+		assertThat(second.isActive()).isTrue();
+		assertThat(second.getModuleId()).isEqualTo(Concepts.MODULE_SCT_CORE);
+	}
+	
+	@Test
+	public void missOnNewCommit() throws Exception {
+		cache.putAll(branch("MAIN", 1L), Map.of(CONCEPT_ID, new SnomedConcept(CONCEPT_ID)), Options.empty(), LOCALES);
+		
+		assertThat(cache.getAll(branch("MAIN", 2L), List.of(CONCEPT_ID), Options.empty(), LOCALES)).isEmpty();
+		assertThat(cache.getAll(branch("MAIN/a", 1L), List.of(CONCEPT_ID), Options.empty(), LOCALES)).isEmpty();
+	}
+	
+	@Test
+	public void missOnDifferentOptions() throws Exception {
+		cache.putAll(branch("MAIN", 1L), Map.of(CONCEPT_ID, new SnomedConcept(CONCEPT_ID)), Options.empty(), LOCALES);
+		
+		assertThat(cache.getAll(branch("MAIN", 1L), List.of(CONCEPT_ID), Options.builder().put("fsn", Options.empty()).build(), LOCALES)).isEmpty();
+		assertThat(cache.getAll(branch("MAIN", 1L), List.of(CONCEPT_ID), Options.empty(), List.of(ExtendedLocale.valueOf("en-gb")))).isEmpty();
+	}
+	
+	@Test
+	public void metrics() throws Exception {
+		final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		cache.bindTo(registry);
+		cache.putAll(branch("MAIN", 1L), Map.of(CONCEPT_ID, new SnomedConcept(CONCEPT_ID)), Options.empty(), LOCALES);
+		cache.getAll(branch("MAIN", 1L), List.of(CONCEPT_ID), Options.empty(), LOCALES);
+		
+		assertThat(registry.get("cache.gets").tag("cache", SnomedConceptFetchCache.METRICS_NAME).tag("result", "hit").functionCounter().count()).isEqualTo(1.0);
+	}
+	
+	private static RevisionBranchRef branch(String path, long headTimestamp) {
+		return new RevisionBranchRef(1L, path, ImmutableSortedSet.of(new RevisionSegment(1L, 0L, headTimestamp)), false);
+	}
+	
+}
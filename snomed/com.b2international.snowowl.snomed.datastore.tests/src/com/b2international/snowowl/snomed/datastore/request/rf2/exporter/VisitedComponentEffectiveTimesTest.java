@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.request.rf2.exporter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+/**
+ * @since 9.3
+ */
+public class VisitedComponentEffectiveTimesTest {
+
+	private static final String EFFECTIVE_TIME = "20240131";
+	private static final String OTHER_EFFECTIVE_TIME = "20240731";
+	
+	private final VisitedComponentEffectiveTimes visited = new VisitedComponentEffectiveTimes();
+	
+	@Test
+	public void sctIds() throws Exception {
+		assertThat(visited.add("138875005", EFFECTIVE_TIME)).isTrue();
+		assertThat(visited.add("138875005", EFFECTIVE_TIME)).isFalse();
+		assertThat(visited.add("404684003", EFFECTIVE_TIME)).isTrue();
+	}
+	
+	@Test
+	public void sameIdWithDifferentEffectiveTimes() throws Exception {
+		assertThat(visited.add("138875005", EFFECTIVE_TIME)).isTrue();
+		assertThat(visited.add("138875005", OTHER_EFFECTIVE_TIME)).isTrue();
+		assertThat(visited.add("138875005", "")).isTrue();
+		assertThat(visited.add("138875005", OTHER_EFFECTIVE_TIME)).isFalse();
+	}
+	
+	@Test
+	public void leadingZeroesAreNotTheSameId() throws Exception {
+		assertThat(visited.add("123", EFFECTIVE_TIME)).isTrue();
+		assertThat(visited.add("0123", EFFECTIVE_TIME)).isTrue();
+		assertThat(visited.add("0123", EFFECTIVE_TIME)).isFalse();
+	}
+	
+	@Test
+	public void memberUuids() throws Exception {
+		final String memberId = "7c1b3b41-9a3c-4b1e-8d7c-2f0e6a1c5d9b";
+		assertThat(visited.add(memberId, EFFECTIVE_TIME)).isTrue();
+		assertThat(visited.add(memberId, EFFECTIVE_TIME)).isFalse();
+		// only the canonical form is converted, other spellings are kept as they are
+		assertThat(visited.add(memberId.toUpperCase(), EFFECTIVE_TIME)).isTrue();
+		assertThat(visited.add(memberId.toUpperCase(), EFFECTIVE_TIME)).isFalse();
+	}
+	
+	@Test
+	public void otherIds() throws Exception {
+		assertThat(visited.add("12345678901234567890", EFFECTIVE_TIME)).isTrue();
+		assertThat(visited.add("12345678901234567890", EFFECTIVE_TIME)).isFalse();
+		assertThat(visited.add("not-an-id", EFFECTIVE_TIME)).isTrue();
+		assertThat(visited.add("not-an-id", EFFECTIVE_TIME)).isFalse();
+		assertThat(visited.add("", EFFECTIVE_TIME)).isTrue();
+	}
+	
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.request.rf2.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+
+import com.b2international.collections.PrimitiveMaps;
+import com.b2international.collections.longs.LongKeyLongMap;
+import com.b2international.snowowl.core.ResourceURI;
+import com.b2international.snowowl.core.request.io.ImportDefectAcceptor;
+import com.b2international.snowowl.core.uri.ComponentURI;
+import com.b2international.snowowl.core.util.ConcurrentTasks;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.core.domain.SnomedComponent;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedDocument;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.ListeningExecutorService;
+
+/**
+ * Checks that effective time slices which are read from several files concurrently and prepared in the background produce the same import
+ * batches as slices which are read and imported sequentially.
+ *
+ * @since 9.3
+ */
+public class MapDBRf2EffectiveTimeSliceTest {
+
+	private static final ResourceURI CODESYSTEM = ResourceURI.of("codesystems", "SNOMEDCT");
+
+	private static final String CONCEPT_A = "100000000";
+	private static final String CONCEPT_B = "100001001";
+	private static final String CONCEPT_C = "100002007";
+
+	// Import plans are split into many small batches, so that reading the next batch overlaps with consuming the current one
+	private static final int BATCH_SIZE = 2;
+
+	private static final List<String[]> CONCEPTS = List.of(
+		concept(CONCEPT_A, "20200131"),
+		concept(CONCEPT_B, "20200131"),
+		concept(CONCEPT_C, "20200731"),
+		concept(CONCEPT_B, "20210131"));
+
+	private static final List<String[]> DESCRIPTIONS = List.of(
+		description("1000011", "20200131", CONCEPT_A, "Concept A"),
+		description("1001011", "20200131", CONCEPT_B, "Concept B"),
+		description("1002011", "20200731", CONCEPT_C, "Concept C"),
+		description("1000011", "20200731", CONCEPT_A, "Concept A (changed)"));
+
+	private static final List<String[]> RELATIONSHIPS = List.of(
+		relationship("1000021", "20200131", true, CONCEPT_A, Concepts.ROOT_CONCEPT),
+		relationship("1001021", "20200131", true, CONCEPT_B, CONCEPT_A),
+		relationship("1002021", "20200731", true, CONCEPT_C, CONCEPT_B),
+		relationship("1001021", "20210131", false, CONCEPT_B, CONCEPT_A),
+		relationship("1003021", "20210131", true, CONCEPT_B, CONCEPT_C));
+
+	private static final List<String[]> LANGUAGE_MEMBERS = List.of(
+		languageMember("5d4e0bb6-35a4-4f4c-9f0e-4a4c0a1e2b01", "20200131", "1000011"),
+		languageMember("5d4e0bb6-35a4-4f4c-9f0e-4a4c0a1e2b02", "20200131", "1001011"),
+		languageMember("5d4e0bb6-35a4-4f4c-9f0e-4a4c0a1e2b03", "20200731", "1002011"));
+
+	private ListeningExecutorService executor;
+	private final List<DB> dbs = new ArrayList<>();
+
+	@Before
+	public void setup() {
+		executor = ConcurrentTasks.newExecutor("rf2-import-test-%d", 4);
+	}
+
+	@After
+	public void teardown() {
+		executor.shutdownNow();
+		dbs.forEach(DB::close);
+	}
+
+	@Test
+	public void parallelImportMatchesSequentialImport() throws Exception {
+		final Map<String, ImportResult> sequential = importSequentially(readSequentially());
+		final Map<String, ImportResult> parallel = importInParallel(readInParallel());
+
+		assertThat(parallel.keySet()).containsExactly("2020-01-31", "2020-07-31", "2021-01-31");
+		assertThat(parallel).isEqualTo(sequential);
+		assertThat(parallel.get("2020-07-31").components).contains("SnomedConcept:" + CONCEPT_C, "SnomedDescription:1000011", "SnomedReferenceSetMember:5d4e0bb6-35a4-4f4c-9f0e-4a4c0a1e2b03");
+	}
+
+	private Rf2EffectiveTimeSlices readSequentially() {
+		final Rf2EffectiveTimeSlices slices = createSlices();
+		register(new Rf2ConceptContentType(), CONCEPTS, slices);
+		register(new Rf2DescriptionContentType(), DESCRIPTIONS, slices);
+		register(new Rf2RelationshipContentType(), RELATIONSHIPS, slices);
+		register(new Rf2LanguageRefSetContentType(), LANGUAGE_MEMBERS, slices);
+		slices.flushAll();
+		return slices;
+	}
+
+	private Rf2EffectiveTimeSlices readInParallel() throws Exception {
+		final Rf2EffectiveTimeSlices slices = createSlices();
+		// Each file is registered by a separate task, one line at a time, holding the monitor of the slices like the import request does
+		final List<Callable<Void>> files = List.of(
+			() -> register(new Rf2ConceptContentType(), CONCEPTS, slices),
+			() -> register(new Rf2DescriptionContentType(), DESCRIPTIONS, slices),
+			() -> register(new Rf2RelationshipContentType(), RELATIONSHIPS, slices),
+			() -> register(new Rf2LanguageRefSetContentType(), LANGUAGE_MEMBERS, slices));
+
+		ConcurrentTasks.run(executor, files);
+		slices.flushAll();
+		return slices;
+	}
+
+	private Rf2EffectiveTimeSlices createSlices() {
+		final DB db = DBMaker.memoryDB().make();
+		dbs.add(db);
+		return new Rf2EffectiveTimeSlices(db, false, "", null, BATCH_SIZE);
+	}
+
+	private Void register(final Rf2ContentType<?> contentType, final List<String[]> lines, final Rf2EffectiveTimeSlices slices) {
+		final ImportDefectAcceptor defectAcceptor = new ImportDefectAcceptor(contentType.getType());
+		for (int i = 0; i < lines.size(); i++) {
+			final String[] line = lines.get(i);
+			synchronized (slices) {
+				contentType.register(line, slices.getOrCreate(line[1]), defectAcceptor.on(Integer.toString(i + 2)));
+			}
+		}
+		return null;
+	}
+
+	private Map<String, ImportResult> importSequentially(final Rf2EffectiveTimeSlices slices) throws Exception {
+		final Map<String, ImportResult> results = new LinkedHashMap<>();
+		for (final Rf2EffectiveTimeSlice slice : slices.consumeInOrder()) {
+			results.put(slice.getEffectiveTime(), readBatches(slice));
+		}
+		return results;
+	}
+
+	private Map<String, ImportResult> importInParallel(final Rf2EffectiveTimeSlices slices) throws Exception {
+		final List<Rf2EffectiveTimeSlice> orderedSlices = slices.consumeInOrder();
+		final Map<String, ImportResult> results = new LinkedHashMap<>();
+
+		// The next slice is prepared while the current one is being imported
+		orderedSlices.get(0).prepareImport(executor);
+		for (int i = 0; i < orderedSlices.size(); i++) {
+			if (i + 1 < orderedSlices.size()) {
+				orderedSlices.get(i + 1).prepareImport(executor);
+			}
+			results.put(orderedSlices.get(i).getEffectiveTime(), readBatches(orderedSlices.get(i)));
+		}
+		return results;
+	}
+
+	private ImportResult readBatches(final Rf2EffectiveTimeSlice slice) throws Exception {
+		final ImportResult result = new ImportResult();
+		final LongKeyLongMap integerTypeIdsByValueId = PrimitiveMaps.newLongKeyLongOpenHashMap();
+		final ImmutableSet.Builder<ComponentURI> visitedComponents = ImmutableSet.builder();
+		final Map<String, Integer> batchIndexById = new HashMap<>();
+		final List<Collection<String>> dependencyIdsByBatch = new ArrayList<>();
+
+		((MapDBRf2EffectiveTimeSlice) slice).readBatches(CODESYSTEM, integerTypeIdsByValueId, visitedComponents, (components, dependencies) -> {
+			final int batchIndex = result.batches++;
+			for (final SnomedComponent component : components) {
+				assertThat(result.components.add(component.getClass().getSimpleName() + ":" + component.getId()))
+					.as("%s is imported only once", component.getId())
+					.isTrue();
+				batchIndexById.put(component.getId(), batchIndex);
+			}
+			result.dependencies.putAll(dependencies);
+			dependencyIdsByBatch.add(List.copyOf(dependencies.values()));
+		});
+
+		// Dependencies from the same slice must be imported in the same batch or an earlier one
+		for (int batchIndex = 0; batchIndex < dependencyIdsByBatch.size(); batchIndex++) {
+			for (final String dependencyId : dependencyIdsByBatch.get(batchIndex)) {
+				assertThat(batchIndexById.getOrDefault(dependencyId, -1))
+					.as("batch of dependency %s", dependencyId)
+					.isLessThanOrEqualTo(batchIndex);
+			}
+		}
+
+		result.visitedComponents = visitedComponents.build();
+		return result;
+	}
+
+	private static final class ImportResult {
+
+		private final Set<String> components = new TreeSet<>();
+		private final Multimap<Class<? extends SnomedDocument>, String> dependencies = HashMultimap.create();
+		private Set<ComponentURI> visitedComponents;
+		private int batches;
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) { return true; }
+			if (!(obj instanceof ImportResult)) { return false; }
+			final ImportResult other = (ImportResult) obj;
+			return components.equals(other.components)
+					&& dependencies.equals(other.dependencies)
+					&& visitedComponents.equals(other.visitedComponents);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(components, dependencies, visitedComponents);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s batches, components: %s, dependencies: %s, visited: %s", batches, components, dependencies, visitedComponents);
+		}
+	}
+
+	private static String[] concept(final String id, final String effectiveTime) {
+		return new String[] { id, effectiveTime, "1", Concepts.MODULE_SCT_CORE, Concepts.PRIMITIVE };
+	}
+
+	private static String[] description(final String id, final String effectiveTime, final String conceptId, final String term) {
+		return new String[] { id, effectiveTime, "1", Concepts.MODULE_SCT_CORE, conceptId, "en", Concepts.SYNONYM, term, Concepts.ENTIRE_TERM_CASE_INSENSITIVE };
+	}
+
+	private static String[] relationship(final String id, final String effectiveTime, final boolean active, final String sourceId, final String destinationId) {
+		return new String[] { id, effectiveTime, active ? "1" : "0", Concepts.MODULE_SCT_CORE, sourceId, destinationId, "0", Concepts.IS_A, Concepts.STATED_RELATIONSHIP, Concepts.EXISTENTIAL_RESTRICTION_MODIFIER };
+	}
+
+	private static String[] languageMember(final String id, final String effectiveTime, final String descriptionId) {
+		return new String[] { id, effectiveTime, "1", Concepts.MODULE_SCT_CORE, Concepts.REFSET_LANGUAGE_TYPE_UK, descriptionId, Concepts.REFSET_DESCRIPTION_ACCEPTABILITY_PREFERRED };
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.taxonomy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.collections.PrimitiveSets;
+
+/**
+ * @since 9.3
+ */
+public class TaxonomyGraphTest {
+
+	private TaxonomyGraph graph;
+
+	@Before
+	public void setup() {
+		// 1 <- 2 <- 3, 1 <- 4
+		graph = new TaxonomyGraph(4, 3);
+		for (long nodeId = 1L; nodeId <= 4L; nodeId++) {
+			graph.addNode(nodeId);
+		}
+		graph.addEdge("a", 2L, new long[] { 1L });
+		graph.addEdge("b", 3L, new long[] { 2L });
+		graph.addEdge("c", 4L, new long[] { 1L });
+		assertThat(graph.update().getStatus().isOK()).isTrue();
+	}
+
+	@Test
+	public void copyIsIndependent() throws Exception {
+		final TaxonomyGraph copy = graph.copy();
+		copy.addEdge("d", 3L, new long[] { 4L });
+		copy.removeEdge("a");
+		copy.update();
+
+		assertThat(graph.getAncestorNodeIds(3L)).isEqualTo(PrimitiveSets.newLongOpenHashSet(2L));
+		assertThat(graph.getAllAncestorNodeIds(3L)).isEqualTo(PrimitiveSets.newLongOpenHashSet(1L, 2L));
+		assertThat(graph.getAllDescendantNodeIds(1L)).isEqualTo(PrimitiveSets.newLongOpenHashSet(2L, 3L, 4L));
+
+		assertThat(copy.getAncestorNodeIds(3L)).isEqualTo(PrimitiveSets.newLongOpenHashSet(2L, 4L));
+		assertThat(copy.getAllAncestorNodeIds(3L)).isEqualTo(PrimitiveSets.newLongOpenHashSet(1L, 2L, 4L));
+		assertThat(copy.getAllDescendantNodeIds(1L)).isEqualTo(PrimitiveSets.newLongOpenHashSet(3L, 4L));
+		assertThat(copy.getAllDescendantNodeIds(2L)).isEqualTo(PrimitiveSets.newLongOpenHashSet(3L));
+	}
+
+	@Test
+	public void changedEdgeIds() throws Exception {
+		final TaxonomyGraph copy = graph.copy();
+		assertThat(copy.getChangedEdgeIds()).isEmpty();
+
+		copy.addEdge("b", 3L, new long[] { 1L });
+		copy.removeEdge("c");
+		copy.addEdge("d", 4L, new long[] { 2L });
+		assertThat(copy.getChangedEdgeIds()).containsOnly("b", "c", "d");
+
+		copy.update();
+		assertThat(copy.getChangedEdgeIds()).isEmpty();
+		assertThat(copy.getAllDescendantNodeIds(2L)).isEqualTo(PrimitiveSets.newLongOpenHashSet(4L));
+		assertThat(copy.getAllDescendantNodeIds(1L)).isEqualTo(PrimitiveSets.newLongOpenHashSet(2L, 3L, 4L));
+	}
+
+	@Test
+	public void addNodeAndEdgeIncrementally() throws Exception {
+		final TaxonomyGraph copy = graph.copy();
+		copy.addNode(5L);
+		copy.addEdge("d", 5L, new long[] { 3L, 4L });
+		assertThat(copy.update().getStatus().isOK()).isTrue();
+
+		assertThat(copy.getAncestorNodeIds(5L)).isEqualTo(PrimitiveSets.newLongOpenHashSet(3L, 4L));
+		assertThat(copy.getAllAncestorNodeIds(5L)).isEqualTo(PrimitiveSets.newLongOpenHashSet(1L, 2L, 3L, 4L));
+		assertThat(copy.getAllDescendantNodeIds(1L)).isEqualTo(PrimitiveSets.newLongOpenHashSet(2L, 3L, 4L, 5L));
+	}
+
+	@Test
+	public void invalidEdgeBecomesValid() throws Exception {
+		graph.addEdge("d", 5L, new long[] { 3L });
+		final TaxonomyGraphStatus status = graph.update();
+		assertThat(status.getStatus().isOK()).isFalse();
+		assertThat(status.getInvalidRelationships()).hasSize(1);
+
+		graph.addNode(5L);
+		assertThat(graph.update().getStatus().isOK()).isTrue();
+		assertThat(graph.getAllAncestorNodeIds(5L)).isEqualTo(PrimitiveSets.newLongOpenHashSet(1L, 2L, 3L));
+	}
+
+	@Test
+	public void removeNode() throws Exception {
+		final TaxonomyGraph copy = graph.copy();
+		copy.removeEdge("b");
+		copy.removeNode("3");
+		assertThat(copy.update().getStatus().isOK()).isTrue();
+
+		assertThat(copy.containsNode(3L)).isFalse();
+		assertThat(copy.getAllDescendantNodeIds(1L)).isEqualTo(PrimitiveSets.newLongOpenHashSet(2L, 4L));
+		assertThat(graph.getAllDescendantNodeIds(1L)).isEqualTo(PrimitiveSets.newLongOpenHashSet(2L, 3L, 4L));
+	}
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.validation;
+
+import static com.b2international.snowowl.test.commons.snomed.DocumentBuilders.concept;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.xtext.parser.IParser;
+import org.eclipse.xtext.serializer.ISerializer;
+import org.eclipse.xtext.validation.IResourceValidator;
+import org.junit.After;
+import org.junit.Test;
+
+import com.b2international.commons.io.PathUtils;
+import com.b2international.snomed.ecl.EclStandaloneSetup;
+import com.b2international.snowowl.core.ComponentIdentifier;
+import com.b2international.snowowl.core.ecl.DefaultEclParser;
+import com.b2international.snowowl.core.ecl.DefaultEclSerializer;
+import com.b2international.snowowl.core.ecl.EclParser;
+import com.b2international.snowowl.core.ecl.EclSerializer;
+import com.b2international.snowowl.core.request.ecl.EclRewriter;
+import com.b2international.snowowl.core.validation.ValidateRequestBuilder;
+import com.b2international.snowowl.core.validation.ValidationRequests;
+import com.b2international.snowowl.core.validation.eval.GroovyScriptValidationRuleEvaluator;
+import com.b2international.snowowl.core.validation.eval.ValidationRuleEvaluator;
+import com.b2international.snowowl.core.validation.rule.ValidationRule.Severity;
+import com.b2international.snowowl.snomed.common.SnomedTerminologyComponentConstants;
+import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
+import com.b2international.snowowl.snomed.datastore.CodeSystemResource;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedDescriptionIndexEntry;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRefSetMemberIndexEntry;
+import com.b2international.snowowl.test.commons.SnomedContentRule;
+import com.b2international.snowowl.test.commons.snomed.RandomSnomedIdentiferGenerator;
+import com.b2international.snowowl.test.commons.snomed.TestBranchContext.Builder;
+import com.b2international.snowowl.test.commons.validation.BaseValidationTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.inject.Injector;
+
+/**
+ * @since 9.3
+ */
+public class GroovyScriptValidationRuleEvaluatorTest extends BaseValidationTest {
+
+	private static final Injector INJECTOR = new EclStandaloneSetup().createInjectorAndDoEMFRegistration();
+	
+	private static final String SCRIPT = "rule.groovy";
+	
+	private Path scriptDirectory;
+	
+	@Override
+	protected Collection<Class<?>> getAdditionalTypes() {
+		return List.of(
+			SnomedConceptDocument.class, 
+			SnomedDescriptionIndexEntry.class, 
+			SnomedRefSetMemberIndexEntry.class
+		);
+	}
+	
+	@Override
+	protected void configureContext(Builder context) {
+		super.configureContext(context);
+		
+		context
+			.with(EclParser.class, new DefaultEclParser(INJECTOR.getInstance(IParser.class), INJECTOR.getInstance(IResourceValidator.class)))
+			.with(EclSerializer.class, new DefaultEclSerializer(INJECTOR.getInstance(ISerializer.class)))
+			.with(ObjectMapper.class, getMapper())
+			.with(EclRewriter.class, new EclRewriter());
+		
+		CodeSystemResource.configureCodeSystem(context);
+		
+		try {
+			scriptDirectory = Files.createTempDirectory("validation-scripts");
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		
+		// the evaluator registry is global, point an already registered evaluator to the scripts of this test
+		final ValidationRuleEvaluator evaluator = ValidationRuleEvaluator.Registry.get("script-groovy");
+		if (evaluator instanceof GroovyScriptValidationRuleEvaluator groovyEvaluator) {
+			groovyEvaluator.setValidationResourcesDirectory(List.of(scriptDirectory));
+		} else {
+			ValidationRuleEvaluator.Registry.register(new GroovyScriptValidationRuleEvaluator(List.of(scriptDirectory)));
+		}
+	}
+	
+	@Override
+	protected void configureValidationRequest(ValidateRequestBuilder req) {
+		super.configureValidationRequest(req);
+		req.setIncremental(true);
+	}
+	
+	@Override
+	protected Map<String, String> getTestCodeSystemPathMap() {
+		return Map.of(SnomedContentRule.SNOMEDCT_ID, MAIN);
+	}
+	
+	@After
+	public void deleteScripts() throws IOException {
+		PathUtils.deleteDirectory(scriptDirectory);
+	}
+	
+	@Test
+	public void editScriptBetweenIncrementalRuns() throws Exception {
+		final String concept1 = RandomSnomedIdentiferGenerator.generateConceptId();
+		final String concept2 = RandomSnomedIdentiferGenerator.generateConceptId();
+		indexRevision(MAIN, 
+			concept(concept1).build(),
+			concept(concept2).build()
+		);
+		
+		writeScript(concept1, concept2);
+		final String ruleId = createGroovyRule();
+		
+		assertAffectedComponents(validate(ruleId), 
+			ComponentIdentifier.of(SnomedConcept.TYPE, concept1),
+			ComponentIdentifier.of(SnomedConcept.TYPE, concept2));
+		
+		// nothing changed on the branch, but the script reports a different set of components
+		writeScript(concept2);
+		
+		assertAffectedComponents(validate(ruleId), ComponentIdentifier.of(SnomedConcept.TYPE, concept2));
+	}
+	
+	private void writeScript(String... conceptIds) throws IOException {
+		final StringBuilder script = new StringBuilder("import com.b2international.snowowl.core.ComponentIdentifier\n\n[");
+		for (int i = 0; i < conceptIds.length; i++) {
+			if (i > 0) {
+				script.append(", ");
+			}
+			script.append("ComponentIdentifier.of(\"").append(SnomedConcept.TYPE).append("\", \"").append(conceptIds[i]).append("\")");
+		}
+		script.append("]\n");
+		Files.writeString(scriptDirectory.resolve(SCRIPT), script);
+	}
+	
+	private String createGroovyRule() {
+		return ValidationRequests.rules().prepareCreate()
+			.setType("script-groovy")
+			.setMessageTemplate("Error")
+			.setSeverity(Severity.ERROR)
+			.setImplementation(SCRIPT)
+			.setToolingId(SnomedTerminologyComponentConstants.TOOLING_ID)
+			.build()
+			.execute(context());
+	}
+	
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2022 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2017-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -35,9 +35,12 @@ import com.b2international.snowowl.core.ecl.DefaultEclParser;
 import com.b2international.snowowl.core.ecl.DefaultEclSerializer;
 import com.b2international.snowowl.core.ecl.EclParser;
 import com.b2international.snowowl.core.ecl.EclSerializer;
+import com.b2international.snowowl.core.internal.validation.ValidationRepository;
 import com.b2international.snowowl.core.request.ecl.EclRewriter;
+import com.b2international.snowowl.core.validation.ValidateRequestBuilder;
 import com.b2international.snowowl.core.validation.ValidationRequests;
 import com.b2international.snowowl.core.validation.eval.ValidationRuleEvaluator;
+import com.b2international.snowowl.core.validation.issue.ValidationIssue;
 import com.b2international.snowowl.core.validation.issue.ValidationIssues;
 import com.b2international.snowowl.core.validation.rule.ValidationRule.Severity;
 import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
@@ -68,6 +71,8 @@ public class SnomedQueryValidationRuleEvaluatorTest extends BaseValidationTest {
 	
 	private SnomedQueryValidationRuleEvaluator evaluator;
 	
+	private boolean incremental;
+	
 	@Override
 	protected Collection<Class<?>> getAdditionalTypes() {
 		return List.of(
@@ -95,6 +100,12 @@ public class SnomedQueryValidationRuleEvaluatorTest extends BaseValidationTest {
 		}
 	}
 	
+	@Override
+	protected void configureValidationRequest(ValidateRequestBuilder req) {
+		super.configureValidationRequest(req);
+		req.setIncremental(incremental);
+	}
+	
 	@Override
 	protected Map<String, String> getTestCodeSystemPathMap() {
 		return Map.of(SnomedContentRule.SNOMEDCT_ID, MAIN);
@@ -232,6 +243,53 @@ public class SnomedQueryValidationRuleEvaluatorTest extends BaseValidationTest {
 		assertThat(issues.getItems().get(0).getAffectedComponent()).isEqualTo(ComponentIdentifier.of(SnomedDescription.TYPE, description1));
 	}
 	
+	@Test
+	public void conceptRuleIncremental() throws Exception {
+		final String concept1 = RandomSnomedIdentiferGenerator.generateConceptId();
+		final String concept2 = RandomSnomedIdentiferGenerator.generateConceptId();
+		final String concept3 = RandomSnomedIdentiferGenerator.generateConceptId();
+		
+		indexRevision(MAIN, 
+			concept(concept1).moduleId(Concepts.MODULE_B2I_EXTENSION).build(),
+			concept(concept2).moduleId(Concepts.MODULE_B2I_EXTENSION).build()
+		);
+		
+		final Map<String, Object> ruleQuery = ImmutableMap.<String, Object>builder()
+				.put("componentType", "concept")
+				.put("active", true)
+				.put("module", Concepts.MODULE_B2I_EXTENSION)
+				.build();
+		
+		final String ruleId = createSnomedQueryRule(ruleQuery);
+		incremental = true;
+		
+		// without a checkpoint the first run evaluates the rule on the entire branch
+		final ValidationIssues initialIssues = validate(ruleId);
+		assertAffectedComponents(initialIssues, 
+			ComponentIdentifier.of(SnomedConcept.TYPE, concept1), 
+			ComponentIdentifier.of(SnomedConcept.TYPE, concept2));
+		
+		// remove the issue of an unchanged component, incremental runs should not bring it back
+		final ValidationIssue concept2Issue = initialIssues.stream()
+			.filter(issue -> concept2.equals(issue.getAffectedComponent().getComponentId()))
+			.findFirst()
+			.get();
+		context().service(ValidationRepository.class).remove(ValidationIssue.class, concept2Issue.getId());
+		
+		indexChange(MAIN, 
+			concept(concept1).moduleId(Concepts.MODULE_B2I_EXTENSION).build(), 
+			concept(concept1).active(false).moduleId(Concepts.MODULE_B2I_EXTENSION).build());
+		indexRevision(MAIN, concept(concept3).moduleId(Concepts.MODULE_B2I_EXTENSION).build());
+		
+		assertAffectedComponents(validate(ruleId), ComponentIdentifier.of(SnomedConcept.TYPE, concept3));
+		
+		// full runs evaluate the rule on every component again
+		incremental = false;
+		assertAffectedComponents(validate(ruleId), 
+			ComponentIdentifier.of(SnomedConcept.TYPE, concept2),
+			ComponentIdentifier.of(SnomedConcept.TYPE, concept3));
+	}
+	
 	private String createSnomedQueryRule(final Map<String, Object> ruleQuery) throws JsonProcessingException {
 		return ValidationRequests.rules().prepareCreate()
 			.setType(evaluator.type())
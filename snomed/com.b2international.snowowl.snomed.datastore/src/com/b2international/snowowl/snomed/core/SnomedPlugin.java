@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2018-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -59,6 +59,8 @@ import com.b2international.snowowl.snomed.datastore.request.ModuleRequest.Module
 import com.b2international.snowowl.snomed.validation.SnomedQueryValidationRuleEvaluator;
 import com.google.common.collect.ImmutableList;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * @since 7.0
  */
@@ -84,6 +86,18 @@ public final class SnomedPlugin extends TerminologyRepositoryPlugin {
 		ValidationRuleEvaluator.Registry.register(new SnomedQueryValidationRuleEvaluator());
 	}
 	
+	@Override
+	public void preRun(SnowOwlConfiguration configuration, Environment env) throws Exception {
+		if (env.isServer()) {
+			final long conceptCacheSize = env.service(SnomedCoreConfiguration.class).getConceptCacheSize();
+			if (conceptCacheSize > 0) {
+				final SnomedConceptFetchCache conceptCache = new SnomedConceptFetchCache(conceptCacheSize);
+				conceptCache.bindTo(env.service(MeterRegistry.class));
+				env.services().registerService(SnomedConceptFetchCache.class, conceptCache);
+			}
+		}
+	}
+	
 	@Override
 	protected ResourceURLSchemaSupport getTerminologyURISupport() {
 		return new SnomedURLSchemaSupport();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2018-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,6 +28,7 @@ import com.b2international.index.Index;
 import com.b2international.index.IndexClientFactory;
 import com.b2international.index.query.Query;
 import com.b2international.index.revision.Commit;
+import com.b2international.index.revision.CommitDetails;
 import com.b2international.index.revision.RevisionBranch;
 import com.b2international.index.revision.RevisionBranchPoint;
 import com.b2international.index.revision.RevisionIndex;
@@ -280,7 +281,7 @@ public final class SnomedCommand extends Command {
 										.stream()
 										.findFirst()
 										.ifPresent(commit -> {
-											out.println("\t-> %s pushed commit '%s' with details '%s'", commit.getAuthor(), commit.getComment(), commit.getDetailsByObject(conceptId));
+											out.println("\t-> %s pushed commit '%s' with details '%s'", commit.getAuthor(), commit.getComment(), CommitDetails.load(searcher.searcher(), commit).getDetailsByObject(conceptId));
 										});
 							} catch (Exception e) {
 								if (e instanceof NotFoundException) {
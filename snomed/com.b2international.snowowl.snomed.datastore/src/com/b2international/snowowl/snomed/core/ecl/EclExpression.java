@@ -17,12 +17,16 @@ package com.b2international.snowowl.snomed.core.ecl;
 
 import static com.google.common.collect.Lists.newArrayListWithCapacity;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
 import javax.annotation.Nullable;
 import jakarta.validation.constraints.NotNull;
 
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongSet;
+import com.b2international.commons.collect.LongSets;
 import com.b2international.commons.options.Options;
 import com.b2international.index.query.Expression;
 import com.b2international.index.query.Expressions;
@@ -50,6 +54,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
+import com.google.common.collect.Sets;
 
 /**
  * @since 5.4
@@ -66,6 +71,7 @@ public final class EclExpression {
 	private final String expressionForm;
 	
 	private Promise<Set<String>> promise;
+	private Promise<LongSet> idSetPromise;
 	private Promise<Expression> expressionPromise;
 	private Promise<SnomedConcepts> conceptPromise;
 	private Promise<Multimap<String, Integer>> conceptsWithGroups;
@@ -97,11 +103,30 @@ public final class EclExpression {
 	public Promise<Set<String>> resolve(final BranchContext context) {
 		if (promise == null) {
 			promise = resolveToExpression(context)
-				.then(EclEvaluationRequest.resolveIds(context, SnomedConceptDocument.class));
+				.thenWith(EclEvaluationRequest.resolveIds(context, SnomedConceptDocument.class));
 		}
 		return promise;
 	}
 	
+	/**
+	 * Resolves the expression to the set of matching concept IDs, represented as primitive longs. The promise completes with
+	 * <code>null</code> if any of the matching IDs is not numeric, in which case {@link #resolve(BranchContext)} should be used instead.
+	 */
+	public Promise<LongSet> resolveToIdSet(final BranchContext context) {
+		if (idSetPromise == null) {
+			idSetPromise = resolve(context).then(EclExpression::toIdSet);
+		}
+		return idSetPromise;
+	}
+	
+	/**
+	 * Returns <code>true</code> if the matching concept IDs of this expression have already been requested, in which case set operations
+	 * against it can be evaluated in memory instead of being sent to the index as part of a compound query.
+	 */
+	private boolean isResolved() {
+		return promise != null;
+	}
+	
 	public Promise<SnomedConcepts> resolveConcepts(final BranchContext context) {
 		if (conceptPromise == null) {
 			String eclToEvaluate;
@@ -142,14 +167,21 @@ public final class EclExpression {
 	}
 
 	public Promise<Expression> resolveToExclusionExpression(final BranchContext context, final Set<String> excludedMatches) {
-		return resolveToExpression(context)
-				.then(it -> {
-					if (!excludedMatches.isEmpty()) {
-						return Expressions.bool().filter(it).mustNot(RevisionDocument.Expressions.ids(excludedMatches)).build();
-					} else {
-						return it;
-					}
-				});
+		if (excludedMatches.isEmpty()) {
+			return resolveToExpression(context);
+		} else if (isResolved()) {
+			final LongSet excludedIds = toIdSet(excludedMatches);
+			return resolveToIdSet(context).thenWith(focusConceptIds -> {
+				if (focusConceptIds == null || excludedIds == null) {
+					return resolve(context).then(focusConceptStringIds -> matchIdsOrNone(Sets.difference(focusConceptStringIds, excludedMatches)));
+				} else {
+					return Promise.immediate(toIdsExpression(LongSets.difference(focusConceptIds, excludedIds)));
+				}
+			});
+		} else {
+			return resolveToExpression(context)
+					.then(it -> Expressions.bool().filter(it).mustNot(RevisionDocument.Expressions.ids(excludedMatches)).build());
+		}
 	}
 	
 	public Promise<Multimap<String, Integer>> resolveToConceptsWithGroups(final BranchContext context) {
@@ -237,7 +269,20 @@ public final class EclExpression {
 		if (matchingIds.isEmpty()) {
 			return Promise.immediate(Expressions.matchNone());
 		} else if (isAnyExpression()) {
-			return Promise.immediate(SnomedEclEvaluationRequest.matchIdsOrNone().apply(matchingIds));
+			return Promise.immediate(matchIdsOrNone(matchingIds));
+		} else if (isResolved()) {
+			final LongSet matchingIdSet = toIdSet(matchingIds);
+			return resolveToIdSet(context).thenWith(focusConceptIds -> {
+				if (focusConceptIds == null || matchingIdSet == null) {
+					return resolve(context).then(focusConceptStringIds -> matchIdsOrNone(focusConceptStringIds.size() < matchingIds.size()
+							? Sets.intersection(focusConceptStringIds, matchingIds)
+							: Sets.intersection(matchingIds, focusConceptStringIds)));
+				} else {
+					return Promise.immediate(toIdsExpression(focusConceptIds.size() < matchingIdSet.size() 
+							? LongSets.intersection(focusConceptIds, matchingIdSet) 
+							: LongSets.intersection(matchingIdSet, focusConceptIds)));
+				}
+			});
 		} else {
 			return resolveToExpression(context)
 					.then(left -> {
@@ -249,4 +294,43 @@ public final class EclExpression {
 		}
 	}
 	
+	/**
+	 * Converts the given SNOMED CT concept IDs to a primitive set. Returns <code>null</code> if any of the IDs is not numeric, as it
+	 * would not survive the conversion; callers should keep working with the original IDs in that case.
+	 */
+	@Nullable
+	/*package*/ static LongSet toIdSet(final Collection<String> ids) {
+		final LongSet idSet = PrimitiveSets.newLongOpenHashSetWithExpectedSize(ids.size());
+		for (String id : ids) {
+			if (!isNumeric(id)) {
+				return null;
+			}
+			idSet.add(Long.parseLong(id));
+		}
+		return idSet;
+	}
+	
+	private static boolean isNumeric(final String id) {
+		// SCTIDs are at most 18 digits long without leading zeroes, so they always convert back to the same string
+		final int length = id.length();
+		if (length == 0 || length > 18 || id.charAt(0) == '0') {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			final char c = id.charAt(i);
+			if (c < '0' || c > '9') {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private static Expression toIdsExpression(final LongSet ids) {
+		return matchIdsOrNone(LongSets.toStringSet(ids));
+	}
+	
+	private static Expression matchIdsOrNone(final Set<String> ids) {
+		return SnomedEclEvaluationRequest.matchIdsOrNone().apply(ids);
+	}
+	
 }
@@ -213,7 +213,7 @@ final class SnomedEclEvaluationRequest extends EclEvaluationRequest<BranchContex
 		final Operator op = Operator.fromString(moduleFilter.getOp());
 		final FilterValue moduleId = moduleFilter.getModuleId();
 		return evaluate(context, moduleId)
-			.then(resolveIds(context))
+			.thenWith(resolveIds(context))
 			.then((moduleIds) -> {
 				Expression expression = SnomedDocument.Expressions.modules(moduleIds);
 				if (op == Operator.NOT_EQUALS) {
@@ -265,7 +265,7 @@ final class SnomedEclEvaluationRequest extends EclEvaluationRequest<BranchContex
 		final FilterValue definitionStatus = definitionStatusIdFilter.getDefinitionStatus();
 		
 		return evalDefinitionStatus(evaluate(context, definitionStatus)
-				.then(resolveIds(context)),
+				.thenWith(resolveIds(context)),
 				Operator.NOT_EQUALS.equals(eclOperator));
 	}
 	
@@ -321,28 +321,28 @@ final class SnomedEclEvaluationRequest extends EclEvaluationRequest<BranchContex
 	protected Promise<Expression> eval(BranchContext context, final TypeIdFilter typeIdFilter) {
 		final FilterValue type = typeIdFilter.getType();
 		return evaluate(context, type)
-			.then(resolveIds(context))
+			.thenWith(resolveIds(context))
 			.then(SnomedDescriptionIndexEntry.Expressions::types);
 	}
 	
 	protected Promise<Expression> eval(BranchContext context, final PreferredInFilter preferredInFilter) {
 		final FilterValue languageRefSetId = preferredInFilter.getLanguageRefSetId();
 		return evaluate(context, languageRefSetId)
-			.then(resolveIds(context))
+			.thenWith(resolveIds(context))
 			.then(SnomedDescriptionIndexEntry.Expressions::preferredIn);
 	}
 	
 	protected Promise<Expression> eval(BranchContext context, final AcceptableInFilter acceptableInFilter) {
 		final FilterValue languageRefSetId = acceptableInFilter.getLanguageRefSetId();
 		return evaluate(context, languageRefSetId)
-			.then(resolveIds(context))
+			.thenWith(resolveIds(context))
 			.then(SnomedDescriptionIndexEntry.Expressions::acceptableIn);
 	}
 	
 	protected Promise<Expression> eval(BranchContext context, final LanguageRefSetFilter languageRefSetFilter) {
 		final FilterValue languageRefSetId = languageRefSetFilter.getLanguageRefSetId();
 		return evaluate(context, languageRefSetId)
-			.then(resolveIds(context))
+			.thenWith(resolveIds(context))
 			.then(languageRefsetIds -> {
 				return Expressions.bool()
 					.should(SnomedDescriptionIndexEntry.Expressions.acceptableIn(languageRefsetIds))
@@ -354,7 +354,7 @@ final class SnomedEclEvaluationRequest extends EclEvaluationRequest<BranchContex
 	protected Promise<Expression> eval(BranchContext context, final CaseSignificanceFilter caseSignificanceFilter) {
 		final FilterValue caseSignificanceId = caseSignificanceFilter.getCaseSignificanceId();
 		return evaluate(context, caseSignificanceId)
-			.then(resolveIds(context))
+			.thenWith(resolveIds(context))
 			.then(SnomedDescriptionIndexEntry.Expressions::caseSignificances);
 	}
 	
@@ -507,7 +507,7 @@ final class SnomedEclEvaluationRequest extends EclEvaluationRequest<BranchContex
 			final Set<String> refsetIds = evaluateProfile(context, historySupplement).getSync(3, TimeUnit.MINUTES);
 			
 			return evaluate(context, supplementExpression.getConstraint())
-					.then(resolveIds(context))
+					.thenWith(resolveIds(context))
 					.then(focusConceptIds -> {
 						if (!focusConceptIds.isEmpty() || !refsetIds.isEmpty()) {
 							final Collection<String> historicalIds = Query.select(String.class)
@@ -562,7 +562,7 @@ final class SnomedEclEvaluationRequest extends EclEvaluationRequest<BranchContex
 			default: throw new UnsupportedOperationException("Unsupported history profile: " + historyProfileType);
 			}
 		} else if (historyProfile instanceof NestedExpression) {
-			return evaluate(context, historyProfile).then(resolveIds(context));
+			return evaluate(context, historyProfile).thenWith(resolveIds(context));
 		} else {
 			throw new BadRequestException("Unsupported history supplement profile: %s", historyProfile);
 		}
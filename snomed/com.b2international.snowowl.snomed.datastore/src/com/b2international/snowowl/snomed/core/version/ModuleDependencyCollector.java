@@ -0,0 +1,174 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.core.version;
+
+import java.util.*;
+
+import com.b2international.collections.PrimitiveMaps;
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongIterator;
+import com.b2international.collections.longs.LongKeyLongMap;
+import com.b2international.collections.longs.LongKeyMap;
+import com.b2international.collections.longs.LongSet;
+import com.b2international.index.Hits;
+import com.b2international.index.query.Query;
+import com.b2international.index.revision.RevisionSearcher;
+import com.b2international.snowowl.core.date.EffectiveTimes;
+import com.b2international.snowowl.snomed.cis.SnomedIdentifiers;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedComponentDocument;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Multimap;
+
+/**
+ * Collects the components referenced by unpublished components and reference set members, grouped by the module of the referring
+ * component, and resolves them to module dependencies and the latest effective time of each target module.
+ * <p>
+ * Referenced and unpublished core component identifiers are kept in primitive collections keyed by their numeric SCTID. Referenced
+ * components that are unpublished themselves are resolved from the collected data, only the rest of them are looked up in the index, each
+ * one only once. Instances are not thread-safe, concurrent scans should register into their own collector and {@link #merge(ModuleDependencyCollector) merge}
+ * them when done.
+ *
+ * @since 9.3
+ */
+final class ModuleDependencyCollector {
+
+	// module IDs are repeated in every scanned document, keep a single instance of each
+	private static final Interner<String> MODULES = Interners.newWeakInterner();
+
+	// referring module to the SCTIDs of referenced components
+	private final Map<String, LongSet> referencedIdsByModule = new HashMap<>();
+
+	// SCTIDs of unpublished core components to their module
+	private final LongKeyMap<String> unpublishedModules = PrimitiveMaps.newLongKeyOpenHashMap();
+
+	void registerUnpublished(String componentId, String moduleId) {
+		unpublishedModules.put(Long.parseLong(componentId), MODULES.intern(moduleId));
+	}
+
+	void registerDependency(String moduleId, String dependencyId) {
+		if (dependencyId != null) {
+			referencedIds(MODULES.intern(moduleId)).add(Long.parseLong(dependencyId));
+		}
+	}
+
+	void registerMemberField(String moduleId, String value) {
+		// member fields may hold values other than SNOMED CT identifiers
+		if (SnomedIdentifiers.isValid(value)) {
+			registerDependency(moduleId, value);
+		}
+	}
+
+	void merge(ModuleDependencyCollector other) {
+		other.referencedIdsByModule.forEach((module, referencedIds) -> referencedIds(module).addAll(referencedIds));
+		final LongIterator ids = other.unpublishedModules.keySet().iterator();
+		while (ids.hasNext()) {
+			final long id = ids.next();
+			unpublishedModules.put(id, other.unpublishedModules.get(id));
+		}
+	}
+
+	private LongSet referencedIds(String module) {
+		return referencedIdsByModule.computeIfAbsent(module, key -> PrimitiveSets.newLongOpenHashSet());
+	}
+
+	/**
+	 * Resolves the module and effective time of all referenced components and collects the dependencies between modules.
+	 *
+	 * @param searcher - the searcher to look up the referenced components that are not unpublished with
+	 * @param types - the component types to look up referenced components in
+	 * @param pageSize - the number of referenced components to look up at once
+	 * @param moduleDependencies - receives the target modules keyed by the source module, for components in different modules
+	 * @param moduleToLatestEffectiveTime - receives the latest effective time of each target module, or
+	 *            {@link EffectiveTimes#UNSET_EFFECTIVE_TIME} if the module has unpublished components
+	 */
+	void collect(RevisionSearcher searcher, List<Class<? extends SnomedComponentDocument>> types, int pageSize,
+			Multimap<String, String> moduleDependencies, Map<String, Long> moduleToLatestEffectiveTime) {
+
+		// look up each published dependency only once, regardless of the number of modules referring to it
+		final LongSet publishedIds = PrimitiveSets.newLongOpenHashSet();
+		for (LongSet referencedIds : referencedIdsByModule.values()) {
+			final LongIterator ids = referencedIds.iterator();
+			while (ids.hasNext()) {
+				final long id = ids.next();
+				if (!unpublishedModules.containsKey(id)) {
+					publishedIds.add(id);
+				}
+			}
+		}
+
+		final LongKeyMap<String> publishedModules = PrimitiveMaps.newLongKeyOpenHashMapWithExpectedSize(publishedIds.size());
+		final LongKeyLongMap publishedEffectiveTimes = PrimitiveMaps.newLongKeyLongOpenHashMapWithExpectedSize(publishedIds.size());
+		for (List<String> batch : Iterables.partition(toStrings(publishedIds), pageSize)) {
+			for (Class<? extends SnomedComponentDocument> type : types) {
+				Query.select(String[].class)
+					.from(type)
+					.fields(SnomedComponentDocument.Fields.ID, SnomedComponentDocument.Fields.MODULE_ID, SnomedComponentDocument.Fields.EFFECTIVE_TIME)
+					.where(SnomedComponentDocument.Expressions.ids(batch))
+					.limit(pageSize)
+					.build()
+					.stream(searcher)
+					.flatMap(Hits::stream)
+					.forEachOrdered(dependency -> {
+						final long id = Long.parseLong(dependency[0]);
+						publishedModules.put(id, MODULES.intern(dependency[1]));
+						publishedEffectiveTimes.put(id, Long.parseLong(dependency[2]));
+					});
+			}
+		}
+
+		referencedIdsByModule.forEach((module, referencedIds) -> {
+			final LongIterator ids = referencedIds.iterator();
+			while (ids.hasNext()) {
+				final long id = ids.next();
+				final String targetModule;
+				final long targetEffectiveTime;
+				if (unpublishedModules.containsKey(id)) {
+					targetModule = unpublishedModules.get(id);
+					targetEffectiveTime = EffectiveTimes.UNSET_EFFECTIVE_TIME;
+				} else if (publishedModules.containsKey(id)) {
+					targetModule = publishedModules.get(id);
+					targetEffectiveTime = publishedEffectiveTimes.get(id);
+				} else {
+					// not a core component (or does not exist)
+					continue;
+				}
+
+				if (!module.equals(targetModule)) {
+					moduleDependencies.put(module, targetModule);
+				}
+				moduleToLatestEffectiveTime.merge(targetModule, targetEffectiveTime, (oldEffectiveTime, newEffectiveTime) -> {
+					if (oldEffectiveTime == EffectiveTimes.UNSET_EFFECTIVE_TIME || newEffectiveTime == EffectiveTimes.UNSET_EFFECTIVE_TIME) {
+						return EffectiveTimes.UNSET_EFFECTIVE_TIME;
+					} else {
+						return Math.max(oldEffectiveTime, newEffectiveTime);
+					}
+				});
+			}
+		});
+	}
+
+	private static List<String> toStrings(LongSet ids) {
+		final List<String> values = new ArrayList<>(ids.size());
+		final LongIterator iterator = ids.iterator();
+		while (iterator.hasNext()) {
+			values.add(Long.toString(iterator.next()));
+		}
+		return values;
+	}
+
+}
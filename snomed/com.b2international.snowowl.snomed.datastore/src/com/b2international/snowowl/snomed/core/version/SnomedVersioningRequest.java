@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,13 +18,15 @@ package com.b2international.snowowl.snomed.core.version;
 import static com.google.common.collect.Maps.newHashMap;
 import static com.google.common.collect.Sets.newHashSet;
 
+import java.io.IOException;
 import java.util.*;
-import java.util.stream.Stream;
+import java.util.concurrent.Executors;
 
 import org.slf4j.Logger;
 
 import com.b2international.commons.CompareUtils;
 import com.b2international.index.Hits;
+import com.b2international.index.query.Expressions;
 import com.b2international.index.query.Query;
 import com.b2international.index.revision.Commit;
 import com.b2international.index.revision.RevisionSearcher;
@@ -32,8 +34,8 @@ import com.b2international.snowowl.core.date.EffectiveTimes;
 import com.b2international.snowowl.core.domain.TransactionContext;
 import com.b2international.snowowl.core.request.version.VersioningConfiguration;
 import com.b2international.snowowl.core.request.version.VersioningRequest;
+import com.b2international.snowowl.core.util.ConcurrentTasks;
 import com.b2international.snowowl.snomed.cis.AbstractSnomedIdentifierService.SctIdStatusException;
-import com.b2international.snowowl.snomed.cis.SnomedIdentifiers;
 import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
 import com.b2international.snowowl.snomed.common.SnomedRf2Headers;
 import com.b2international.snowowl.snomed.core.domain.refset.SnomedRefSetType;
@@ -41,6 +43,7 @@ import com.b2international.snowowl.snomed.core.domain.refset.SnomedReferenceSetM
 import com.b2international.snowowl.snomed.datastore.index.entry.*;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
 import com.google.common.collect.*;
+import com.google.common.util.concurrent.ListeningExecutorService;
 
 
 /**
@@ -56,6 +59,9 @@ public final class SnomedVersioningRequest extends VersioningRequest {
 
 	private static final long serialVersionUID = 1L;
 
+	// Component scans of all versioning requests share these threads, one per scanned component type
+	private static final ListeningExecutorService SCAN_EXECUTOR = ConcurrentTasks.newExecutor("snomed-versioning-%d", 4);
+
 	private static final List<Class<? extends SnomedComponentDocument>> CORE_COMPONENT_TYPES = ImmutableList.of(
 		SnomedConceptDocument.class,
 		SnomedDescriptionIndexEntry.class, 
@@ -76,68 +82,47 @@ public final class SnomedVersioningRequest extends VersioningRequest {
 		
 		log.info("Publishing SNOMED CT components [effectiveTime: {}]...", EffectiveTimes.format(config().getEffectiveTime()));
 		
-		// sourceModuleId to targetModuleId map
-		final Multimap<String, String> componentIdsByReferringModule = HashMultimap.create();
 		final RevisionSearcher searcher = context.service(RevisionSearcher.class);
-		final Stream<Hits<? extends SnomedDocument>> documentsToVersion = Streams.concat(
-			Query.select(SnomedConceptDocument.class)
-				.where(SnomedDocument.Expressions.effectiveTime(EffectiveTimes.UNSET_EFFECTIVE_TIME))
-				.limit(context.getCommitLimit())
-				.build()
-				.stream(searcher),
-			
-			Query.select(SnomedDescriptionIndexEntry.class)
-				.where(SnomedDocument.Expressions.effectiveTime(EffectiveTimes.UNSET_EFFECTIVE_TIME))
-				.limit(context.getCommitLimit())
-				.build()
-				.stream(searcher),
+		final int pageSize = context.getPageSize();
 		
-			Query.select(SnomedRelationshipIndexEntry.class)
-				.where(SnomedDocument.Expressions.effectiveTime(EffectiveTimes.UNSET_EFFECTIVE_TIME))
-				.limit(context.getCommitLimit())
-				.build()
-				.stream(searcher),
-				
-			Query.select(SnomedRefSetMemberIndexEntry.class)
-				.where(SnomedDocument.Expressions.effectiveTime(EffectiveTimes.UNSET_EFFECTIVE_TIME))
-				.limit(context.getCommitLimit())
+		// collect the IDs of unpublished components and the components they refer to, scanning only the required fields of each type at once 
+		log.info("Collecting unpublished components...");
+		final List<ComponentScan> scans = List.of(
+			new ComponentScan(SnomedConceptDocument.class, SnomedConceptDocument.Fields.DEFINITION_STATUS_ID),
+			new ComponentScan(SnomedDescriptionIndexEntry.class, 
+				SnomedDescriptionIndexEntry.Fields.CONCEPT_ID, 
+				SnomedDescriptionIndexEntry.Fields.TYPE_ID, 
+				SnomedDescriptionIndexEntry.Fields.CASE_SIGNIFICANCE_ID),
+			new ComponentScan(SnomedRelationshipIndexEntry.class, 
+				SnomedRelationshipIndexEntry.Fields.SOURCE_ID, 
+				SnomedRelationshipIndexEntry.Fields.TYPE_ID,
+				// Values do not contribute to module dependencies, destination is not set on relationships with a value
+				SnomedRelationshipIndexEntry.Fields.DESTINATION_ID,
+				SnomedRelationshipIndexEntry.Fields.MODIFIER_ID,
+				SnomedRelationshipIndexEntry.Fields.CHARACTERISTIC_TYPE_ID),
+			new ComponentScan(SnomedRefSetMemberIndexEntry.class, ImmutableList.<String>builder()
+				.add(SnomedRefSetMemberIndexEntry.Fields.REFSET_ID, SnomedRefSetMemberIndexEntry.Fields.REFERENCED_COMPONENT_ID)
+				.addAll(SnomedRf2Headers.MEMBER_FIELDS_WITH_COMPONENT_ID)
 				.build()
-				.stream(searcher));
+				.toArray(String[]::new))
+		);
+		ConcurrentTasks.run(SCAN_EXECUTOR, scans.stream()
+			.map(scan -> Executors.callable(() -> scan.run(searcher, pageSize)))
+			.toList());
+		
+		final ModuleDependencyCollector dependencies = new ModuleDependencyCollector();
+		scans.forEach(scan -> dependencies.merge(scan.dependencies));
+		log.info("Collecting unpublished components successfully finished.");
 		
-		documentsToVersion.forEachOrdered(componentsToVersion -> 
-			versionComponents(context, componentsToVersion, componentIdsByReferringModule));
+		// stamp the effective time on the unpublished components, the capped context commits the changes in batches of the commit limit
+		for (ComponentScan scan : scans) {
+			versionComponents(context, searcher, scan.type, scan.componentIds);
+		}
 		
-		// iterate over each module and get modules of all components registered to componentsByReferringModule
 		log.info("Collecting module dependencies of changed components...");
 		final Multimap<String, String> moduleDependencies = HashMultimap.create();
 		final Map<String, Long> moduleToLatestEffectiveTime = newHashMap();
-		
-		for (String module : ImmutableSet.copyOf(componentIdsByReferringModule.keySet())) {
-			final Collection<String> dependencies = componentIdsByReferringModule.removeAll(module);
-			for (Class<? extends SnomedComponentDocument> type : CORE_COMPONENT_TYPES) {
-				Query.select(String[].class)
-					.from(type)
-					.fields(SnomedComponentDocument.Fields.ID, SnomedComponentDocument.Fields.MODULE_ID, SnomedComponentDocument.Fields.EFFECTIVE_TIME)
-					.where(SnomedComponentDocument.Expressions.ids(dependencies))
-					.limit(context.getPageSize())
-					.build()
-					.stream(searcher)
-					.flatMap(Hits::stream)
-					.forEachOrdered(dependency -> {
-						String targetModule = dependency[1];
-						if (!module.equals(targetModule)) {
-							moduleDependencies.put(module, targetModule);
-						}
-						moduleToLatestEffectiveTime.merge(targetModule, Long.parseLong(dependency[2]), (oldEffectiveTime, newEffectiveTime) -> {
-							if (oldEffectiveTime == EffectiveTimes.UNSET_EFFECTIVE_TIME || newEffectiveTime == EffectiveTimes.UNSET_EFFECTIVE_TIME) {
-								return EffectiveTimes.UNSET_EFFECTIVE_TIME;
-							} else {
-								return Math.max(oldEffectiveTime, newEffectiveTime);
-							}
-						});
-					});
-			}
-		}
+		dependencies.collect(searcher, CORE_COMPONENT_TYPES, pageSize, moduleDependencies, moduleToLatestEffectiveTime);
 		log.info("Collecting module dependencies of changed components successfully finished.");
 		
 		log.info("Adjusting effective time changes on module dependency...");
@@ -146,64 +131,93 @@ public final class SnomedVersioningRequest extends VersioningRequest {
 		
 	}
 	
-	private void versionComponents(TransactionContext context, Iterable<? extends SnomedDocument> componentsToVersion, Multimap<String, String> componentIdsByReferringModule) {
-		
-		for (SnomedDocument componentToVersion : componentsToVersion) {
-			// register IDs for publication
-			if (componentToVersion instanceof SnomedComponentDocument) {
-				componentIdsToPublish.add(componentToVersion.getId());
-			}
+	private void versionComponents(TransactionContext context, RevisionSearcher searcher, Class<? extends SnomedDocument> type, List<String> componentIds) throws IOException {
+		for (List<String> batch : Lists.partition(componentIds, context.getCommitLimit())) {
+			final Hits<? extends SnomedDocument> componentsToVersion = Query.select(type)
+				.where(Expressions.bool()
+					.filter(SnomedDocument.Expressions.ids(batch))
+					.filter(SnomedDocument.Expressions.effectiveTime(EffectiveTimes.UNSET_EFFECTIVE_TIME))
+					.build())
+				.limit(batch.size())
+				.build()
+				.search(searcher);
 			
-			// stage update on components based on actual type
-			final SnomedDocument.Builder<?, ?> updatedComponent;
-			if (componentToVersion instanceof SnomedConceptDocument) {
-				final SnomedConceptDocument concept = (SnomedConceptDocument) componentToVersion;
-				componentIdsByReferringModule.put(concept.getModuleId(), concept.getDefinitionStatusId());
-				updatedComponent = SnomedConceptDocument.builder(concept);
-			} else if (componentToVersion instanceof SnomedDescriptionIndexEntry) {
-				final SnomedDescriptionIndexEntry description = (SnomedDescriptionIndexEntry) componentToVersion;
-				componentIdsByReferringModule.put(description.getModuleId(), description.getConceptId());
-				componentIdsByReferringModule.put(description.getModuleId(), description.getTypeId());
-				componentIdsByReferringModule.put(description.getModuleId(), description.getCaseSignificanceId());
-				updatedComponent = SnomedDescriptionIndexEntry.builder(description);
-			} else if (componentToVersion instanceof SnomedRelationshipIndexEntry) {
-				final SnomedRelationshipIndexEntry relationship = (SnomedRelationshipIndexEntry) componentToVersion;
-				componentIdsByReferringModule.put(relationship.getModuleId(), relationship.getSourceId());
-				componentIdsByReferringModule.put(relationship.getModuleId(), relationship.getTypeId());
-				if (!relationship.hasValue()) {
-					// Values do not contribute to module dependencies
-					componentIdsByReferringModule.put(relationship.getModuleId(), relationship.getDestinationId());
+			for (SnomedDocument componentToVersion : componentsToVersion) {
+				// register IDs for publication
+				if (componentToVersion instanceof SnomedComponentDocument) {
+					componentIdsToPublish.add(componentToVersion.getId());
 				}
-				componentIdsByReferringModule.put(relationship.getModuleId(), relationship.getModifierId());
-				componentIdsByReferringModule.put(relationship.getModuleId(), relationship.getCharacteristicTypeId());
-				updatedComponent = SnomedRelationshipIndexEntry.builder(relationship);
-			} else if (componentToVersion instanceof SnomedRefSetMemberIndexEntry) {
-				final SnomedRefSetMemberIndexEntry member = (SnomedRefSetMemberIndexEntry) componentToVersion;
-				componentIdsByReferringModule.put(member.getModuleId(), member.getRefsetId());
-				
-				registerIfConcept(componentIdsByReferringModule, member.getModuleId(), member.getReferencedComponentId());
-				
-				final Map<String, Object> additionalFields = member.getAdditionalFields();
-				SnomedRf2Headers.MEMBER_FIELDS_WITH_COMPONENT_ID.forEach(field -> {
-					registerIfConcept(componentIdsByReferringModule, member.getModuleId(), (String) additionalFields.get(field));
-				});
 				
-				updatedComponent = SnomedRefSetMemberIndexEntry.builder(member);
-			} else {
-				throw new UnsupportedOperationException("Not implemented case for: " + componentToVersion);
+				context.update(
+					componentToVersion, 
+					toBuilder(componentToVersion)
+						.effectiveTime(effectiveTime)
+						.released(true)
+					.build()
+				);
 			}
-			
-			context.update(
-				componentToVersion, 
-				updatedComponent
-					.effectiveTime(effectiveTime)
-					.released(true)
+		}
+	}
+	
+	private static SnomedDocument.Builder<?, ?> toBuilder(SnomedDocument componentToVersion) {
+		// stage update on components based on actual type
+		if (componentToVersion instanceof SnomedConceptDocument concept) {
+			return SnomedConceptDocument.builder(concept);
+		} else if (componentToVersion instanceof SnomedDescriptionIndexEntry description) {
+			return SnomedDescriptionIndexEntry.builder(description);
+		} else if (componentToVersion instanceof SnomedRelationshipIndexEntry relationship) {
+			return SnomedRelationshipIndexEntry.builder(relationship);
+		} else if (componentToVersion instanceof SnomedRefSetMemberIndexEntry member) {
+			return SnomedRefSetMemberIndexEntry.builder(member);
+		} else {
+			throw new UnsupportedOperationException("Not implemented case for: " + componentToVersion);
+		}
+	}
+	
+	/*
+	 * Scans the ID, module and the given referenced component fields of unpublished components of a single type.
+	 */
+	private static final class ComponentScan {
+		
+		private final Class<? extends SnomedDocument> type;
+		private final String[] fields;
+		private final List<String> componentIds = new ArrayList<>();
+		private final ModuleDependencyCollector dependencies = new ModuleDependencyCollector();
+		
+		ComponentScan(Class<? extends SnomedDocument> type, String...referenceFields) {
+			this.type = type;
+			this.fields = ObjectArrays.concat(new String[] { SnomedDocument.Fields.ID, SnomedDocument.Fields.MODULE_ID }, referenceFields, String.class);
+		}
+		
+		void run(RevisionSearcher searcher, int pageSize) {
+			final boolean coreComponent = SnomedComponentDocument.class.isAssignableFrom(type);
+			Query.select(String[].class)
+				.from(type)
+				.fields(fields)
+				.where(SnomedDocument.Expressions.effectiveTime(EffectiveTimes.UNSET_EFFECTIVE_TIME))
+				.limit(pageSize)
 				.build()
-			);
+				.stream(searcher)
+				.flatMap(Hits::stream)
+				.forEachOrdered(component -> {
+					final String id = component[0];
+					final String moduleId = component[1];
+					componentIds.add(id);
+					if (coreComponent) {
+						dependencies.registerUnpublished(id, moduleId);
+						for (int i = 2; i < component.length; i++) {
+							dependencies.registerDependency(moduleId, component[i]);
+						}
+					} else {
+						for (int i = 2; i < component.length; i++) {
+							dependencies.registerMemberField(moduleId, component[i]);
+						}
+					}
+				});
 		}
 		
 	}
-
+	
 	private void adjustDependencyRefSetMembers(TransactionContext context, Multimap<String, String> moduleDependencies, Map<String, Long> moduleToLatestEffectiveTime, long effectiveTime) {
 		// Update existing, add new members to moduleDependencyRefSet
 		if (!CompareUtils.isEmpty(moduleDependencies)) {
@@ -263,12 +277,6 @@ public final class SnomedVersioningRequest extends VersioningRequest {
 		}
 	}
 
-	private void registerIfConcept(Multimap<String, String> componentIdsByReferringModule, String moduleId, String dependency) {
-		if (SnomedIdentifiers.isValid(dependency)) {
-			componentIdsByReferringModule.put(moduleId, dependency);
-		}
-	}
-	
 	@Override
 	protected void onCommit(TransactionContext context, Commit commit) {
 		if (!CompareUtils.isEmpty(componentIdsToPublish)) {
@@ -34,6 +34,7 @@ public class SnomedCoreConfiguration {
 	public static final int DEFAULT_MAXIMUM_REASONER_COUNT = 2;
 	public static final int DEFAULT_MAXIMUM_REASONER_RUNS = 1000;
 	public static final long DEFAULT_CLASSIFICATION_CLEANUP_INTERVAL = 30L;
+	public static final long DEFAULT_CONCEPT_CACHE_SIZE = 100_000L;
 	
 	@Min(1)
 	@Max(3)
@@ -67,6 +68,13 @@ public class SnomedCoreConfiguration {
 	
 	private boolean concreteDomainSupport = false;
 	
+	@Min(0)
+	private long conceptCacheSize = DEFAULT_CONCEPT_CACHE_SIZE;
+	
+	@Min(0)
+	@Max(1_000)
+	private int classificationStateCacheSize = 0;
+	
 	/**
 	 * @return the number of reasoners that are permitted to run simultaneously.
 	 */
@@ -246,4 +254,31 @@ public class SnomedCoreConfiguration {
 		return classificationCleanUpInterval;
 	}
 	
+	/**
+	 * @return the maximum number of expanded concepts to keep in memory for reuse between requests, <code>0</code> disables caching
+	 */
+	@JsonProperty
+	public long getConceptCacheSize() {
+		return conceptCacheSize;
+	}
+	
+	@JsonProperty
+	public void setConceptCacheSize(long conceptCacheSize) {
+		this.conceptCacheSize = conceptCacheSize;
+	}
+	
+	/**
+	 * @return the maximum number of branches for which the state of the last classification run is kept in memory to speed up repeated
+	 *         classifications, <code>0</code> disables caching
+	 */
+	@JsonProperty
+	public int getClassificationStateCacheSize() {
+		return classificationStateCacheSize;
+	}
+	
+	@JsonProperty
+	public void setClassificationStateCacheSize(int classificationStateCacheSize) {
+		this.classificationStateCacheSize = classificationStateCacheSize;
+	}
+	
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,6 +28,7 @@ import javax.annotation.Nullable;
 import com.b2international.commons.collect.LongSets;
 import com.b2international.index.query.Query;
 import com.b2international.index.revision.ObjectId;
+import com.b2international.index.revision.Revision;
 import com.b2international.index.revision.RevisionSearcher;
 import com.b2international.index.revision.StagingArea;
 import com.b2international.index.revision.StagingArea.RevisionDiff;
@@ -110,6 +111,16 @@ public final class ConceptChangeProcessor extends ChangeSetProcessorBase {
 		this.inferredTaxonomy = inferredTaxonomy;
 		this.memberChangeProcessor = new ReferringMemberChangeProcessor(SnomedConcept.TYPE);
 	}
+
+	@Override
+	public Set<Class<? extends Revision>> getReadTypes() {
+		return Set.of(SnomedConceptDocument.class, SnomedDescriptionIndexEntry.class, SnomedRefSetMemberIndexEntry.class);
+	}
+	
+	@Override
+	public Set<Class<? extends Revision>> getWriteTypes() {
+		return Set.of(SnomedConceptDocument.class);
+	}
 	
 	@Override
 	public void process(StagingArea staging, RevisionSearcher searcher) throws IOException {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2021 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -32,6 +32,7 @@ import com.b2international.snowowl.snomed.core.domain.Acceptability;
 import com.b2international.snowowl.snomed.core.domain.SnomedDescription;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedDescriptionIndexEntry;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedDescriptionIndexEntry.Builder;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRefSetMemberIndexEntry;
 import com.b2international.snowowl.snomed.datastore.index.refset.RefSetMemberChange;
 import com.b2international.snowowl.snomed.datastore.index.update.ReferenceSetMembershipUpdater;
 import com.google.common.collect.*;
@@ -48,6 +49,16 @@ public class DescriptionChangeProcessor extends ChangeSetProcessorBase {
 		this.memberChangeProcessor = new ReferringMemberChangeProcessor(SnomedDescription.TYPE);
 	}
 
+	@Override
+	public Set<Class<? extends Revision>> getReadTypes() {
+		return Set.of(SnomedDescriptionIndexEntry.class, SnomedRefSetMemberIndexEntry.class);
+	}
+	
+	@Override
+	public Set<Class<? extends Revision>> getWriteTypes() {
+		return Set.of(SnomedDescriptionIndexEntry.class);
+	}
+
 	@Override
 	public void process(StagingArea staging, RevisionSearcher searcher) throws IOException {
 		final Map<String, Multimap<Acceptability, RefSetMemberChange>> acceptabilityChangesByDescription = 
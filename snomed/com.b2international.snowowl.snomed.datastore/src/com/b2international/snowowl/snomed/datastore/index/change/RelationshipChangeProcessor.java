@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2021 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,6 +28,7 @@ import com.b2international.index.revision.RevisionSearcher;
 import com.b2international.index.revision.StagingArea;
 import com.b2international.snowowl.core.repository.ChangeSetProcessorBase;
 import com.b2international.snowowl.snomed.core.domain.SnomedRelationship;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRefSetMemberIndexEntry;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntry;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntry.Builder;
 import com.b2international.snowowl.snomed.datastore.index.refset.RefSetMemberChange;
@@ -47,6 +48,16 @@ public class RelationshipChangeProcessor extends ChangeSetProcessorBase {
 		this.memberChangeProcessor = new ReferringMemberChangeProcessor(SnomedRelationship.TYPE);
 	}
 
+	@Override
+	public Set<Class<? extends Revision>> getReadTypes() {
+		return Set.of(SnomedRelationshipIndexEntry.class, SnomedRefSetMemberIndexEntry.class);
+	}
+	
+	@Override
+	public Set<Class<? extends Revision>> getWriteTypes() {
+		return Set.of(SnomedRelationshipIndexEntry.class);
+	}
+
 	@Override
 	public void process(StagingArea staging, RevisionSearcher searcher) throws IOException {
 		final Multimap<String, RefSetMemberChange> referringRefSets = memberChangeProcessor.process(staging, searcher);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -128,51 +128,6 @@ public final class SnomedRepositoryPreCommitHook extends BaseRepositoryPreCommit
 				collectIds(statedSourceIds, statedDestinationIds, detachedOwlMember, expressionConverter);
 			});
 		
-		final LongSet statedConceptIds = PrimitiveSets.newLongOpenHashSet();
-		final LongSet inferredConceptIds = PrimitiveSets.newLongOpenHashSet();
-		
-		if (!statedDestinationIds.isEmpty()) {
-			for (List<String> statedDestinationIdsPartition : Iterables.partition(statedDestinationIds, partitionSize)) {
-				Query.select(SnomedConceptDocument.class)
-					// make sure we only load the necessary parent arrays, not everything
-					.fields(SnomedConceptDocument.Fields.ID, SnomedConceptDocument.Fields.STATED_PARENTS, SnomedConceptDocument.Fields.STATED_ANCESTORS)
-					.where(SnomedConceptDocument.Expressions.ids(statedDestinationIdsPartition))
-					.limit(statedDestinationIdsPartition.size())
-					.build()
-					.search(index)
-					.forEach(statedDestinationConcept -> {
-						statedConceptIds.add(Long.parseLong(statedDestinationConcept.getId()));
-						if (statedDestinationConcept.getStatedParents() != null) {
-							statedConceptIds.addAll(statedDestinationConcept.getStatedParents());
-						}
-						if (statedDestinationConcept.getStatedAncestors() != null) {
-							statedConceptIds.addAll(statedDestinationConcept.getStatedAncestors());
-						}
-					});
-			}
-		}
-		
-		if (!inferredDestinationIds.isEmpty()) {
-			for (List<String> inferredDestinationIdsPartition : Iterables.partition(inferredDestinationIds, partitionSize)) {
-				Query.select(SnomedConceptDocument.class)
-					// make sure we only load the necessary parent arrays, not everything
-					.fields(SnomedConceptDocument.Fields.ID, SnomedConceptDocument.Fields.PARENTS, SnomedConceptDocument.Fields.ANCESTORS)
-					.where(SnomedConceptDocument.Expressions.ids(inferredDestinationIdsPartition))
-					.limit(inferredDestinationIdsPartition.size())
-					.build()
-					.search(index)
-					.forEach(inferredDestinationConcept -> {
-						inferredConceptIds.add(Long.parseLong(inferredDestinationConcept.getId()));
-						if (inferredDestinationConcept.getParents() != null) {
-							inferredConceptIds.addAll(inferredDestinationConcept.getParents());
-						}
-						if (inferredDestinationConcept.getAncestors() != null) {
-							inferredConceptIds.addAll(inferredDestinationConcept.getAncestors());
-						}
-					});
-			}
-		}
-		
 		staging.getRemovedObjects(SnomedDescriptionIndexEntry.class).forEach(removedDescription -> {
 			if (removedDescription.isFsn() && removedDescription.isActive()) {
 				statedSourceIds.add(removedDescription.getConceptId());
@@ -196,56 +151,20 @@ public final class SnomedRepositoryPreCommitHook extends BaseRepositoryPreCommit
 				inferredSourceIds.add(newDescription.getConceptId());
 			});
 
-		if (!statedSourceIds.isEmpty()) {
-			for (List<String> statedSourceIdsPartition : Iterables.partition(statedSourceIds, partitionSize)) {
-				Query.select(SnomedConceptDocument.class)
-					// make sure we only load the necessary parent arrays, not everything
-					.fields(SnomedConceptDocument.Fields.ID, SnomedConceptDocument.Fields.STATED_PARENTS, SnomedConceptDocument.Fields.STATED_ANCESTORS)
-					.where(Expressions.bool()
-							.should(SnomedConceptDocument.Expressions.ids(statedSourceIdsPartition))
-							.should(SnomedConceptDocument.Expressions.statedParents(statedSourceIdsPartition))
-							.should(SnomedConceptDocument.Expressions.statedAncestors(statedSourceIdsPartition))
-							.build())
-					.limit(pageSize)
-					.build()
-					.stream(index)
-					.flatMap(Hits::stream)
-					.forEach(statedSourceConcept -> {
-						statedConceptIds.add(Long.parseLong(statedSourceConcept.getId()));
-						if (statedSourceConcept.getStatedParents() != null) {
-							statedConceptIds.addAll(statedSourceConcept.getStatedParents());
-						}
-						if (statedSourceConcept.getStatedAncestors() != null) {
-							statedConceptIds.addAll(statedSourceConcept.getStatedAncestors());
-						}
-					});
-			}
-		}
+		final LongSet statedConceptIds = PrimitiveSets.newLongOpenHashSet();
+		final LongSet inferredConceptIds = PrimitiveSets.newLongOpenHashSet();
 		
-		if (!inferredSourceIds.isEmpty()) {
-			for (List<String> inferredSourceIdsPartition : Iterables.partition(inferredSourceIds, partitionSize)) {
-				Query.select(SnomedConceptDocument.class)
-					.fields(SnomedConceptDocument.Fields.ID, SnomedConceptDocument.Fields.PARENTS, SnomedConceptDocument.Fields.ANCESTORS)
-					.where(Expressions.bool()
-							.should(SnomedConceptDocument.Expressions.ids(inferredSourceIdsPartition))
-							.should(SnomedConceptDocument.Expressions.parents(inferredSourceIdsPartition))
-							.should(SnomedConceptDocument.Expressions.ancestors(inferredSourceIdsPartition))
-							.build())
-					.limit(pageSize)
-					.build()
-					.stream(index)
-					.flatMap(Hits::stream)
-					.forEach(inferredSourceConcept -> {
-						inferredConceptIds.add(Long.parseLong(inferredSourceConcept.getId()));
-						if (inferredSourceConcept.getParents() != null) {
-							inferredConceptIds.addAll(inferredSourceConcept.getParents());
-						}
-						if (inferredSourceConcept.getAncestors() != null) {
-							inferredConceptIds.addAll(inferredSourceConcept.getAncestors());
-						}
-					});
+		// stated and inferred ancestries are independent of each other, look them up concurrently for larger commits
+		runConcurrently(staging, List.of(
+			() -> {
+				collectStatedConceptIds(index, statedSourceIds, statedDestinationIds, partitionSize, pageSize, statedConceptIds);
+				return null;
+			},
+			() -> {
+				collectInferredConceptIds(index, inferredSourceIds, inferredDestinationIds, partitionSize, pageSize, inferredConceptIds);
+				return null;
 			}
-		}
+		));
 		
 		staging.getNewObjects(SnomedConceptDocument.class).forEach(newConcept -> {
 			long longId = Long.parseLong(newConcept.getId());
@@ -302,6 +221,103 @@ public final class SnomedRepositoryPreCommitHook extends BaseRepositoryPreCommit
 		}
 	}
 
+	private void collectStatedConceptIds(RevisionSearcher index, Set<String> sourceIds, Set<String> destinationIds, int partitionSize, int pageSize, LongSet conceptIds) throws IOException {
+		if (!destinationIds.isEmpty()) {
+			for (List<String> destinationIdsPartition : Iterables.partition(destinationIds, partitionSize)) {
+				Query.select(SnomedConceptDocument.class)
+					// make sure we only load the necessary parent arrays, not everything
+					.fields(SnomedConceptDocument.Fields.ID, SnomedConceptDocument.Fields.STATED_PARENTS, SnomedConceptDocument.Fields.STATED_ANCESTORS)
+					.where(SnomedConceptDocument.Expressions.ids(destinationIdsPartition))
+					.limit(destinationIdsPartition.size())
+					.build()
+					.search(index)
+					.forEach(statedDestinationConcept -> {
+						conceptIds.add(Long.parseLong(statedDestinationConcept.getId()));
+						if (statedDestinationConcept.getStatedParents() != null) {
+							conceptIds.addAll(statedDestinationConcept.getStatedParents());
+						}
+						if (statedDestinationConcept.getStatedAncestors() != null) {
+							conceptIds.addAll(statedDestinationConcept.getStatedAncestors());
+						}
+					});
+			}
+		}
+		
+		if (!sourceIds.isEmpty()) {
+			for (List<String> sourceIdsPartition : Iterables.partition(sourceIds, partitionSize)) {
+				Query.select(SnomedConceptDocument.class)
+					// make sure we only load the necessary parent arrays, not everything
+					.fields(SnomedConceptDocument.Fields.ID, SnomedConceptDocument.Fields.STATED_PARENTS, SnomedConceptDocument.Fields.STATED_ANCESTORS)
+					.where(Expressions.bool()
+							.should(SnomedConceptDocument.Expressions.ids(sourceIdsPartition))
+							.should(SnomedConceptDocument.Expressions.statedParents(sourceIdsPartition))
+							.should(SnomedConceptDocument.Expressions.statedAncestors(sourceIdsPartition))
+							.build())
+					.limit(pageSize)
+					.build()
+					.stream(index)
+					.flatMap(Hits::stream)
+					.forEach(statedSourceConcept -> {
+						conceptIds.add(Long.parseLong(statedSourceConcept.getId()));
+						if (statedSourceConcept.getStatedParents() != null) {
+							conceptIds.addAll(statedSourceConcept.getStatedParents());
+						}
+						if (statedSourceConcept.getStatedAncestors() != null) {
+							conceptIds.addAll(statedSourceConcept.getStatedAncestors());
+						}
+					});
+			}
+		}
+	}
+	
+	private void collectInferredConceptIds(RevisionSearcher index, Set<String> sourceIds, Set<String> destinationIds, int partitionSize, int pageSize, LongSet conceptIds) throws IOException {
+		if (!destinationIds.isEmpty()) {
+			for (List<String> destinationIdsPartition : Iterables.partition(destinationIds, partitionSize)) {
+				Query.select(SnomedConceptDocument.class)
+					// make sure we only load the necessary parent arrays, not everything
+					.fields(SnomedConceptDocument.Fields.ID, SnomedConceptDocument.Fields.PARENTS, SnomedConceptDocument.Fields.ANCESTORS)
+					.where(SnomedConceptDocument.Expressions.ids(destinationIdsPartition))
+					.limit(destinationIdsPartition.size())
+					.build()
+					.search(index)
+					.forEach(inferredDestinationConcept -> {
+						conceptIds.add(Long.parseLong(inferredDestinationConcept.getId()));
+						if (inferredDestinationConcept.getParents() != null) {
+							conceptIds.addAll(inferredDestinationConcept.getParents());
+						}
+						if (inferredDestinationConcept.getAncestors() != null) {
+							conceptIds.addAll(inferredDestinationConcept.getAncestors());
+						}
+					});
+			}
+		}
+		
+		if (!sourceIds.isEmpty()) {
+			for (List<String> sourceIdsPartition : Iterables.partition(sourceIds, partitionSize)) {
+				Query.select(SnomedConceptDocument.class)
+					.fields(SnomedConceptDocument.Fields.ID, SnomedConceptDocument.Fields.PARENTS, SnomedConceptDocument.Fields.ANCESTORS)
+					.where(Expressions.bool()
+							.should(SnomedConceptDocument.Expressions.ids(sourceIdsPartition))
+							.should(SnomedConceptDocument.Expressions.parents(sourceIdsPartition))
+							.should(SnomedConceptDocument.Expressions.ancestors(sourceIdsPartition))
+							.build())
+					.limit(pageSize)
+					.build()
+					.stream(index)
+					.flatMap(Hits::stream)
+					.forEach(inferredSourceConcept -> {
+						conceptIds.add(Long.parseLong(inferredSourceConcept.getId()));
+						if (inferredSourceConcept.getParents() != null) {
+							conceptIds.addAll(inferredSourceConcept.getParents());
+						}
+						if (inferredSourceConcept.getAncestors() != null) {
+							conceptIds.addAll(inferredSourceConcept.getAncestors());
+						}
+					});
+			}
+		}
+	}
+	
 	private void collectIds(final Set<String> sourceIds, final Set<String> destinationIds, Stream<SnomedRelationshipIndexEntry> relationships, String characteristicTypeId) {
 		relationships
 			.filter(relationship -> Concepts.IS_A.equals(relationship.getTypeId()))
@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2020 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2018-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -77,6 +77,25 @@ public final class InternalIdEdges {
 			return this;
 		}
 
+		public Builder addAll(final Builder other) {
+			checkArgument(edges.length == other.edges.length, 
+					"Builders have a different number of internal IDs (this: %s, other: %s)", edges.length, other.edges.length);
+
+			for (int i = 0; i < other.edges.length; i++) {
+				if (other.edges[i] == null) {
+					continue;
+				}
+
+				if (edges[i] == null) {
+					edges[i] = PrimitiveSets.newIntOpenHashSet();
+				}
+
+				edges[i].addAll(other.edges[i]);
+			}
+
+			return this;
+		}
+
 		public InternalIdEdges build() {
 			// Convert IntLists to arrays
 			final int[][] builtEdges = Arrays.asList(edges)
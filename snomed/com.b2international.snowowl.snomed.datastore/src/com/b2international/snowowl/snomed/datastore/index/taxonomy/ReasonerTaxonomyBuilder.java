@@ -28,8 +28,12 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.Sets.newHashSetWithExpectedSize;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -54,6 +58,8 @@ import com.b2international.index.query.SortBy;
 import com.b2international.index.query.SortBy.Order;
 import com.b2international.index.revision.RevisionSearcher;
 import com.b2international.index.util.DecimalUtils;
+import com.b2international.snowowl.core.api.SnowowlRuntimeException;
+import com.b2international.snowowl.core.util.ConcurrentTasks;
 import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
 import com.b2international.snowowl.snomed.common.SnomedRf2Headers;
 import com.b2international.snowowl.snomed.core.domain.*;
@@ -65,6 +71,7 @@ import com.b2international.snowowl.snomed.datastore.index.taxonomy.InternalIdMul
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ListeningExecutorService;
 
 /**
  * Builds a snapshot of the ontology for reasoner input and normal form generation.
@@ -77,12 +84,16 @@ public final class ReasonerTaxonomyBuilder {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger("reasoner-taxonomy");
 
+	// Shared by all builders, so that concurrent classifications do not multiply the number of loader threads
+	private static final ListeningExecutorService LOADER_EXECUTOR = ConcurrentTasks.newExecutor("reasoner-taxonomy-%d", Runtime.getRuntime().availableProcessors());
+
 	private static final Set<String> CD_CHARACTERISTIC_TYPE_IDS = ImmutableSet.of(
 			Concepts.STATED_RELATIONSHIP, 
 			Concepts.ADDITIONAL_RELATIONSHIP,
 			Concepts.INFERRED_RELATIONSHIP);
 	
 	private final Stopwatch stopwatch;
+	private final Map<String, Stopwatch> phaseStopwatches = Collections.synchronizedMap(new LinkedHashMap<>());
 	private final Set<String> excludedModuleIds;
 	private final int pageSize;
 	
@@ -125,16 +136,82 @@ public final class ReasonerTaxonomyBuilder {
 		this.conceptMapBuilder = InternalIdMap.builder();
 	}			
 
-	private void entering(final String taskName) {
+	private String entering(final String taskName) {
 		LOGGER.info(">>> {}", taskName);
+		phaseStopwatches.computeIfAbsent(taskName, key -> Stopwatch.createUnstarted()).start();
+		return taskName;
 	}
 
 	private void leaving(final String taskName) {
-		LOGGER.info("<<< {} [@{}]", taskName, TimeUtil.toString(stopwatch));
+		final Stopwatch phaseStopwatch = phaseStopwatches.get(taskName);
+		checkState(phaseStopwatch != null, "Phase '%s' was not entered on taxonomy builder.", taskName);
+		phaseStopwatch.stop();
+		LOGGER.info("<<< {} [{}] [@{}]", taskName, TimeUtil.toString(phaseStopwatch), TimeUtil.toString(stopwatch));
+	}
+	
+	/**
+	 * Returns the time spent in each loading phase so far, in milliseconds, keyed by the description of the phase.
+	 */
+	public Map<String, Long> getPhaseTimings() {
+		final Map<String, Long> phaseTimings = new LinkedHashMap<>();
+		phaseStopwatches.forEach((taskName, phaseStopwatch) -> phaseTimings.put(taskName, phaseStopwatch.elapsed(TimeUnit.MILLISECONDS)));
+		return phaseTimings;
+	}
+	
+	/**
+	 * Runs the given loader functions concurrently, and waits for all of them to complete. Loaders added via a single call may only
+	 * register information that is independent of each other; the set of active concepts must already be fixed by calling
+	 * {@link #finishConcepts()}.
+	 * 
+	 * @param loaders - the loaders to run, eg. <code>builder -> builder.addActiveStatedRelationships(searcher)</code>
+	 * @return this builder
+	 */
+	public ReasonerTaxonomyBuilder addConcurrently(final List<Consumer<ReasonerTaxonomyBuilder>> loaders) {
+		checkState(conceptMap != null, "finishConcepts() method was not called on taxonomy builder.");
+		
+		if (loaders.size() <= 1) {
+			loaders.forEach(loader -> loader.accept(this));
+			return this;
+		}
+		
+		try {
+			ConcurrentTasks.run(LOADER_EXECUTOR, loaders.stream()
+					.map(loader -> Executors.callable(() -> loader.accept(this)))
+					.toList());
+		} catch (final IOException e) {
+			throw new SnowowlRuntimeException(e);
+		}
+		
+		return this;
+	}
+	
+	/*
+	 * IS A edges are registered both from relationships and OWL axioms, which may be loaded concurrently. Each loader collects
+	 * its own edges, and only merging them into the shared builders is serialized.
+	 */
+	private static final class StatedEdges {
+		
+		private final InternalIdEdges.Builder ancestors;
+		private final InternalIdEdges.Builder descendants;
+		
+		private StatedEdges(final InternalIdMap conceptMap) {
+			this.ancestors = InternalIdEdges.builder(conceptMap);
+			this.descendants = InternalIdEdges.builder(conceptMap);
+		}
+		
+		private void add(final List<String> sourceIds, final List<String> destinationIds) {
+			ancestors.addEdges(sourceIds, destinationIds);
+			descendants.addEdges(destinationIds, sourceIds);
+		}
+	}
+	
+	private synchronized void mergeStatedEdges(final StatedEdges edges) {
+		statedAncestors.addAll(edges.ancestors);
+		statedDescendants.addAll(edges.descendants);
 	}
 
 	public ReasonerTaxonomyBuilder addActiveConceptIds(final RevisionSearcher searcher) {
-		entering("Registering active concept IDs using revision searcher");
+		final String phase = entering("Registering active concept IDs using revision searcher");
 
 		final ExpressionBuilder whereExpressionBuilder = Expressions.bool().filter(active());
 		
@@ -160,12 +237,12 @@ public final class ReasonerTaxonomyBuilder {
 				conceptIds.clear();
 			});
 
-		leaving("Registering active concept IDs using revision searcher");
+		leaving(phase);
 		return this;
 	}
 
 	public ReasonerTaxonomyBuilder addActiveConceptIds(final Stream<SnomedConcept> concepts) {
-		entering("Registering concept IDs from stream");
+		final String phase = entering("Registering concept IDs from stream");
 
 		Stream<SnomedConcept> filteredConcepts = concepts.filter(c -> c.isActive() 
 				&& !excludedModuleIds.contains(c.getModuleId()));
@@ -179,7 +256,7 @@ public final class ReasonerTaxonomyBuilder {
 			conceptIds.clear();
 		}
 
-		leaving("Registering concept IDs from stream");
+		leaving(phase);
 		return this;
 	}
 
@@ -211,7 +288,7 @@ public final class ReasonerTaxonomyBuilder {
 	}
 	
 	public ReasonerTaxonomyBuilder addFullySpecifiedNames(final RevisionSearcher searcher) {
-		entering("Registering fully specified names using revision searcher");
+		final String phase = entering("Registering fully specified names using revision searcher");
 		checkState(fullySpecifiedNames == null, "Fully specified names should only be collected once");
 
 		fullySpecifiedNames = PrimitiveMaps.newLongKeyOpenHashMapWithExpectedSize(conceptMap.size());
@@ -253,12 +330,13 @@ public final class ReasonerTaxonomyBuilder {
 				terms.clear();
 			});
 		
-		leaving("Registering fully specified names using revision searcher");
+		leaving(phase);
 		return this;
 	}
 
 	public ReasonerTaxonomyBuilder addActiveStatedEdges(final RevisionSearcher searcher) {
-		entering("Registering active stated IS A graph edges using revision searcher");
+		final String phase = entering("Registering active stated IS A graph edges using revision searcher");
+		final StatedEdges edges = new StatedEdges(conceptMap);
 
 		final ExpressionBuilder whereExpressionBuilder = Expressions.bool()
 				.filter(active())
@@ -292,18 +370,19 @@ public final class ReasonerTaxonomyBuilder {
 					}
 				}
 	
-				statedAncestors.addEdges(sourceIds, destinationIds);
-				statedDescendants.addEdges(destinationIds, sourceIds);
+				edges.add(sourceIds, destinationIds);
 				sourceIds.clear();
 				destinationIds.clear();
 			});
 
-		leaving("Registering active stated IS A graph edges using revision searcher");
+		mergeStatedEdges(edges);
+		leaving(phase);
 		return this;
 	}
 
 	public ReasonerTaxonomyBuilder addActiveStatedEdges(final Stream<SnomedRelationship> relationships) {
-		entering("Registering active stated IS A graph edges from relationship stream");
+		final String phase = entering("Registering active stated IS A graph edges from relationship stream");
+		final StatedEdges edges = new StatedEdges(conceptMap);
 
 		Stream<SnomedRelationship> filteredRelationships = relationships.filter(r -> r.isActive()
 				&& !r.hasValue() // Not strictly needed for IS A-s, just to be sure
@@ -326,23 +405,23 @@ public final class ReasonerTaxonomyBuilder {
 				}
 			}
 
-			statedAncestors.addEdges(sourceIds, destinationIds);
-			statedDescendants.addEdges(destinationIds, sourceIds);
+			edges.add(sourceIds, destinationIds);
 			sourceIds.clear();
 			destinationIds.clear();
 		}
 
-		leaving("Registering active stated IS A graph edges from relationship stream");
+		mergeStatedEdges(edges);
+		leaving(phase);
 		return this;
 	}
 
 	public ReasonerTaxonomyBuilder addConceptFlags(final RevisionSearcher searcher) {
-		entering("Registering active concept flags (fully defined, exhaustive) using revision searcher");
+		final String phase = entering("Registering active concept flags (fully defined, exhaustive) using revision searcher");
 
 		addConceptFlags(searcher, definitionStatusId(Concepts.FULLY_DEFINED), definingConcepts);
 		addConceptFlags(searcher, exhaustive(), exhaustiveConcepts);
 
-		leaving("Registering active concept flags (fully defined, exhaustive) using revision searcher");
+		leaving(phase);
 		return this;
 	}
 
@@ -379,7 +458,7 @@ public final class ReasonerTaxonomyBuilder {
 	}
 
 	public ReasonerTaxonomyBuilder addConceptFlags(final Stream<SnomedConcept> concepts) {
-		entering("Registering active concept flags (fully defined, exhaustive) using concept ID stream");
+		final String phase = entering("Registering active concept flags (fully defined, exhaustive) using concept ID stream");
 
 		Stream<SnomedConcept> filteredConcepts = concepts.filter(c -> {
 			final boolean fullyDefined = !c.isPrimitive();
@@ -409,12 +488,12 @@ public final class ReasonerTaxonomyBuilder {
 			exhaustiveIds.clear();
 		}
 
-		leaving("Registering active concept flags (fully definied, exhaustive) using concept ID stream");
+		leaving(phase);
 		return this;
 	}
 
 	public ReasonerTaxonomyBuilder addActiveStatedRelationships(final RevisionSearcher searcher) {
-		entering("Registering active stated relationships using revision searcher");
+		final String phase = entering("Registering active stated relationships using revision searcher");
 
 		final ExpressionBuilder whereExpressionBuilder = Expressions.bool()
 				.filter(active())
@@ -426,12 +505,12 @@ public final class ReasonerTaxonomyBuilder {
 		
 		addRelationships(searcher, whereExpressionBuilder, statedRelationships);
 
-		leaving("Registering active stated relationships using revision searcher");
+		leaving(phase);
 		return this;
 	}
 
 	public ReasonerTaxonomyBuilder addActiveStatedRelationships(final Stream<SnomedRelationship> sortedRelationships) {
-		entering("Registering active stated relationships using relationship stream");
+		final String phase = entering("Registering active stated relationships using relationship stream");
 	
 		Predicate<SnomedRelationship> predicate = relationship -> relationship.isActive() 
 				&& Concepts.STATED_RELATIONSHIP.equals(relationship.getCharacteristicTypeId())
@@ -439,12 +518,12 @@ public final class ReasonerTaxonomyBuilder {
 		
 		addRelationships(sortedRelationships.filter(predicate), statedRelationships);
 	
-		leaving("Registering active stated relationships using relationship stream");
+		leaving(phase);
 		return this;
 	}
 
 	public ReasonerTaxonomyBuilder addActiveAdditionalGroupedRelationships(final RevisionSearcher searcher) {
-		entering("Registering active additional grouped relationships using revision searcher");
+		final String phase = entering("Registering active additional grouped relationships using revision searcher");
 	
 		final ExpressionBuilder whereExpressionBuilder = Expressions.bool()
 				.filter(active())
@@ -457,12 +536,12 @@ public final class ReasonerTaxonomyBuilder {
 		
 		addRelationships(searcher, whereExpressionBuilder, additionalGroupedRelationships);
 	
-		leaving("Registering active additional grouped relationships using revision searcher");
+		leaving(phase);
 		return this;
 	}
 
 	public ReasonerTaxonomyBuilder addActiveAdditionalGroupedRelationships(final Stream<SnomedRelationship> sortedRelationships) {
-		entering("Registering active additional grouped relationships using relationship stream");
+		final String phase = entering("Registering active additional grouped relationships using relationship stream");
 	
 		Predicate<SnomedRelationship> predicate = relationship -> relationship.isActive() 
 				&& Concepts.ADDITIONAL_RELATIONSHIP.equals(relationship.getCharacteristicTypeId())
@@ -471,12 +550,12 @@ public final class ReasonerTaxonomyBuilder {
 		
 		addRelationships(sortedRelationships.filter(predicate), additionalGroupedRelationships);
 	
-		leaving("Registering active additional grouped relationships using relationship stream");
+		leaving(phase);
 		return this;
 	}
 
 	public ReasonerTaxonomyBuilder addActiveInferredRelationships(final RevisionSearcher searcher) {
-		entering("Registering active inferred relationships using revision searcher");
+		final String phase = entering("Registering active inferred relationships using revision searcher");
 		
 		final ExpressionBuilder whereExpressionBuilder = Expressions.bool()
 				.filter(active())
@@ -488,12 +567,12 @@ public final class ReasonerTaxonomyBuilder {
 		
 		addRelationships(searcher, whereExpressionBuilder, existingInferredRelationships);
 				
-		leaving("Registering active inferred relationships using revision searcher");
+		leaving(phase);
 		return this;
 	}
 
 	public ReasonerTaxonomyBuilder addActiveInferredRelationships(final Stream<SnomedRelationship> sortedRelationships) {
-		entering("Registering active inferred relationships using relationship stream");
+		final String phase = entering("Registering active inferred relationships using relationship stream");
 		
 		final Predicate<SnomedRelationship> predicate = relationship -> relationship.isActive() 
 				&& Concepts.INFERRED_RELATIONSHIP.equals(relationship.getCharacteristicTypeId())
@@ -501,7 +580,7 @@ public final class ReasonerTaxonomyBuilder {
 		
 		addRelationships(sortedRelationships.filter(predicate), existingInferredRelationships);
 		
-		leaving("Registering active inferred relationships using relationship stream");
+		leaving(phase);
 		return this;
 	}
 
@@ -662,7 +741,8 @@ public final class ReasonerTaxonomyBuilder {
 	}
 	
 	public ReasonerTaxonomyBuilder addActiveAxioms(final RevisionSearcher searcher) {
-		entering("Registering active stated OWL axioms using revision searcher");
+		final String phase = entering("Registering active stated OWL axioms using revision searcher");
+		final StatedEdges edges = new StatedEdges(conceptMap);
 
 		final ExpressionBuilder whereExpressionBuilder = Expressions.bool()
 				.filter(SnomedRefSetMemberIndexEntry.Expressions.active())
@@ -700,8 +780,7 @@ public final class ReasonerTaxonomyBuilder {
 						if (conceptMap.containsKey(lastReferencedComponentId[0])) {
 							axiomNonIsaRelationships.putAll(lastReferencedComponentId[0], nonIsAFragments);
 							statedAxioms.putAll(lastReferencedComponentId[0], axioms);
-							statedAncestors.addEdges(sourceIds, destinationIds);
-							statedDescendants.addEdges(destinationIds, sourceIds);
+							edges.add(sourceIds, destinationIds);
 						} else {
 							LOGGER.debug("Not registering OWL axioms for concept {} as it is inactive.", lastReferencedComponentId[0]);
 						}
@@ -817,8 +896,7 @@ public final class ReasonerTaxonomyBuilder {
 			if (conceptMap.containsKey(lastReferencedComponentId[0])) {
 				axiomNonIsaRelationships.putAll(lastReferencedComponentId[0], nonIsAFragments);
 				statedAxioms.putAll(lastReferencedComponentId[0], axioms);
-				statedAncestors.addEdges(sourceIds, destinationIds);
-				statedDescendants.addEdges(destinationIds, sourceIds);
+				edges.add(sourceIds, destinationIds);
 			} else {
 				LOGGER.debug("Not registering OWL axioms for concept {} as it is inactive.", lastReferencedComponentId[0]);
 			}
@@ -828,12 +906,13 @@ public final class ReasonerTaxonomyBuilder {
 			destinationIds.clear();
 		}
 		
-		leaving("Registering active stated OWL axioms using revision searcher");
+		mergeStatedEdges(edges);
+		leaving(phase);
 		return this;
 	}
 	
 	public ReasonerTaxonomyBuilder addNeverGroupedTypeIds(final RevisionSearcher searcher) {
-		entering("Registering 'never grouped' type IDs using revision searcher");
+		final String phase = entering("Registering 'never grouped' type IDs using revision searcher");
 		
 		final ExpressionBuilder whereExpressionBuilder = Expressions.bool()
 			.filter(SnomedRefSetMemberIndexEntry.Expressions.active())
@@ -866,12 +945,12 @@ public final class ReasonerTaxonomyBuilder {
 				fragments.clear();
 			});
 		
-		leaving("Registering 'never grouped' type IDs using revision searcher");
+		leaving(phase);
 		return this;
 	}
 	
 	public ReasonerTaxonomyBuilder addActiveConcreteDomainMembers(final RevisionSearcher searcher) {
-		entering("Registering active concrete domain members using revision searcher");
+		final String phase = entering("Registering active concrete domain members using revision searcher");
 
 		final ExpressionBuilder whereExpressionBuilder = Expressions.bool()
 				.filter(active())
@@ -953,7 +1032,7 @@ public final class ReasonerTaxonomyBuilder {
 			additionalGroupedFragments.clear();
 		}
 
-		leaving("Registering active concrete domain members using revision searcher");
+		leaving(phase);
 		return this;
 	}
 
@@ -961,7 +1040,7 @@ public final class ReasonerTaxonomyBuilder {
 	 * XXX: sortedMembers should be sorted by referenced component ID; we can not verify this in advance
 	 */
 	public ReasonerTaxonomyBuilder addActiveConcreteDomainMembers(final Stream<SnomedReferenceSetMember> sortedMembers) {
-		entering("Registering active concrete domain members using stream");
+		final String phase = entering("Registering active concrete domain members using stream");
 
 		final List<ConcreteDomainFragment> statedFragments = new ArrayList<>(pageSize);
 		final List<ConcreteDomainFragment> inferredFragments = new ArrayList<>(pageSize);
@@ -1032,7 +1111,7 @@ public final class ReasonerTaxonomyBuilder {
 			additionalGroupedFragments.clear();
 		}
 
-		leaving("Registering active concrete domain members using stream");
+		leaving(phase);
 		return this;
 	}
 
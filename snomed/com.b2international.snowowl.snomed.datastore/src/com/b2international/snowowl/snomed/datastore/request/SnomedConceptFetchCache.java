@@ -0,0 +1,196 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.request;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.*;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.b2international.commons.http.ExtendedLocale;
+import com.b2international.commons.options.Options;
+import com.b2international.index.revision.RevisionBranchRef;
+import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.Maps;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+
+/**
+ * Application-wide, size-bounded cache of {@link SnomedConcept} instances fetched by {@link SnomedConceptRequestCache}. Entries are keyed by the
+ * branch path and head timestamp of the branch they were read from, along with the concept ID and the expand and locale options of the fetch, so
+ * any new commit on a branch results in cache misses for subsequent reads from that branch; older entries are evicted eventually.
+ * <p>
+ * Concepts are cached as serialized snapshots, so each read returns new instances that callers are free to modify, and modifying a concept
+ * after it has been cached does not change the cached value either.
+ *
+ * @since 9.3
+ */
+public final class SnomedConceptFetchCache {
+
+	public static final String METRICS_NAME = "snomed.concept.fetch.cache";
+
+	private static final Logger LOG = LoggerFactory.getLogger(SnomedConceptFetchCache.class);
+	
+	private static final long EXPIRE_AFTER_ACCESS_MINUTES = 10L;
+
+	private final Cache<Key, byte[]> cache;
+
+	public SnomedConceptFetchCache(long maximumSize) {
+		checkArgument(maximumSize > 0, "Maximum size should be greater than zero, got: %s", maximumSize);
+		this.cache = CacheBuilder.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterAccess(EXPIRE_AFTER_ACCESS_MINUTES, TimeUnit.MINUTES)
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * Registers hit, miss, eviction and size metrics of this cache in the given registry.
+	 *
+	 * @param registry - the registry to publish metrics to
+	 */
+	public void bindTo(MeterRegistry registry) {
+		GuavaCacheMetrics.monitor(registry, cache, METRICS_NAME);
+	}
+
+	/**
+	 * Returns the cached concepts for the given IDs that were fetched from the same state of the branch with the same options. IDs with no
+	 * cached value are not present in the returned map. Returned concepts are copies of the cached values.
+	 */
+	public Map<String, SnomedConcept> getAll(RevisionBranchRef branch, Iterable<String> ids, Options expand, List<ExtendedLocale> locales) {
+		final String branchPath = branch.path();
+		final long headTimestamp = branch.head();
+		final Map<String, SnomedConcept> hits = Maps.newHashMap();
+		for (String id : ids) {
+			final Key key = new Key(branchPath, headTimestamp, id, expand, locales);
+			final byte[] snapshot = cache.getIfPresent(key);
+			if (snapshot != null) {
+				try {
+					hits.put(id, fromSnapshot(snapshot));
+				} catch (IOException | ClassNotFoundException e) {
+					LOG.warn("Couldn't read cached concept '{}', fetching it again.", id, e);
+					cache.invalidate(key);
+				}
+			}
+		}
+		return hits;
+	}
+
+	/**
+	 * Caches a snapshot of the given concepts fetched from the current state of the branch with the given options. Concepts that can not be
+	 * serialized are not cached.
+	 */
+	public void putAll(RevisionBranchRef branch, Map<String, SnomedConcept> concepts, Options expand, List<ExtendedLocale> locales) {
+		final String branchPath = branch.path();
+		final long headTimestamp = branch.head();
+		concepts.forEach((id, concept) -> {
+			try {
+				cache.put(new Key(branchPath, headTimestamp, id, expand, locales), toSnapshot(concept));
+			} catch (IOException e) {
+				LOG.warn("Couldn't cache concept '{}'.", id, e);
+			}
+		});
+	}
+
+	public CacheStats stats() {
+		return cache.stats();
+	}
+
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	private static byte[] toSnapshot(SnomedConcept concept) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(concept);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static SnomedConcept fromSnapshot(byte[] snapshot) throws IOException, ClassNotFoundException {
+		try (ObjectInputStream in = new SnapshotInputStream(new ByteArrayInputStream(snapshot))) {
+			return (SnomedConcept) in.readObject();
+		}
+	}
+
+	/*
+	 * Resolves classes with the class loader of the cache, which sees the component model classes that a concept and its expanded properties consist of
+	 */
+	private static final class SnapshotInputStream extends ObjectInputStream {
+
+		SnapshotInputStream(InputStream in) throws IOException {
+			super(in);
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			try {
+				return Class.forName(desc.getName(), false, SnomedConceptFetchCache.class.getClassLoader());
+			} catch (ClassNotFoundException e) {
+				return super.resolveClass(desc);
+			}
+		}
+
+	}
+
+	private static final class Key {
+
+		private final String branchPath;
+		private final long headTimestamp;
+		private final String id;
+		private final Options expand;
+		private final List<ExtendedLocale> locales;
+
+		Key(String branchPath, long headTimestamp, String id, Options expand, List<ExtendedLocale> locales) {
+			this.branchPath = branchPath;
+			this.headTimestamp = headTimestamp;
+			this.id = id;
+			this.expand = expand;
+			this.locales = locales;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(branchPath, headTimestamp, id, expand, locales);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) return true;
+			if (obj == null) return false;
+			if (getClass() != obj.getClass()) return false;
+			Key other = (Key) obj;
+			return headTimestamp == other.headTimestamp
+					&& Objects.equals(branchPath, other.branchPath)
+					&& Objects.equals(id, other.id)
+					&& Objects.equals(expand, other.expand)
+					&& Objects.equals(locales, other.locales);
+		}
+
+	}
+
+}
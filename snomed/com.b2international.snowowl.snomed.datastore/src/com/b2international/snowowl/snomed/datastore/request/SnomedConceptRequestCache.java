@@ -1,5 +1,5 @@
 /*
- * Copyright 2021-2022 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2021-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,8 +21,11 @@ import java.util.stream.Collectors;
 
 import com.b2international.commons.http.ExtendedLocale;
 import com.b2international.commons.options.Options;
+import com.b2international.index.revision.RevisionBranchRef;
+import com.b2international.index.revision.RevisionSearcher;
 import com.b2international.snowowl.core.domain.BranchContext;
 import com.b2international.snowowl.core.domain.IComponent;
+import com.b2international.snowowl.core.domain.TransactionContext;
 import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableMap;
@@ -89,16 +92,27 @@ public class SnomedConceptRequestCache {
 		// search for configs using the same expand and locales, merge the IDs and fetch all of them together
 		final Set<String> ids = configsToFetch.stream().flatMap(cfg -> cfg.ids.stream()).collect(Collectors.toSet());
 		
-		context.log().trace("Fetching concepts: ids={}, expand={}, locales={}", ids, toEvaluate.expand, toEvaluate.locales);
-		Map<String, SnomedConcept> fetchedConcepts = SnomedRequests.prepareSearchConcept()
-				.setLimit(ids.size())
-				.filterByIds(ids)
-				.setExpand(toEvaluate.expand)
-				.setLocales(toEvaluate.locales)
-				.build()
-				.execute(context)
-				.stream()
-				.collect(Collectors.toMap(IComponent::getId, c -> c));
+		// reuse concepts fetched by earlier requests from the same state of the branch
+		final Optional<SnomedConceptFetchCache> sharedCache = getSharedCache(context);
+		final RevisionBranchRef branch = sharedCache.isPresent() ? context.service(RevisionSearcher.class).ref() : null;
+		final Map<String, SnomedConcept> fetchedConcepts = new HashMap<>();
+		sharedCache.ifPresent(cache -> fetchedConcepts.putAll(cache.getAll(branch, ids, toEvaluate.expand, toEvaluate.locales)));
+		ids.removeAll(fetchedConcepts.keySet());
+		
+		if (!ids.isEmpty()) {
+			context.log().trace("Fetching concepts: ids={}, expand={}, locales={}", ids, toEvaluate.expand, toEvaluate.locales);
+			final Map<String, SnomedConcept> concepts = SnomedRequests.prepareSearchConcept()
+					.setLimit(ids.size())
+					.filterByIds(ids)
+					.setExpand(toEvaluate.expand)
+					.setLocales(toEvaluate.locales)
+					.build()
+					.execute(context)
+					.stream()
+					.collect(Collectors.toMap(IComponent::getId, c -> c));
+			fetchedConcepts.putAll(concepts);
+			sharedCache.ifPresent(cache -> cache.putAll(branch, concepts, toEvaluate.expand, toEvaluate.locales));
+		}
 		
 		// populate the cache for each fetch config and call the callback
 		configsToFetch.forEach(cfg -> {
@@ -116,6 +130,14 @@ public class SnomedConceptRequestCache {
 		});
 	}
 	
+	private Optional<SnomedConceptFetchCache> getSharedCache(BranchContext context) {
+		// transactions might see their own uncommitted changes, which should not be shared with others
+		if (context instanceof TransactionContext) {
+			return Optional.empty();
+		}
+		return context.optionalService(SnomedConceptFetchCache.class);
+	}
+	
 	private static final class FetchConfig {
 		
 		private final SortedSet<String> ids;
@@ -16,6 +16,7 @@
 package com.b2international.snowowl.snomed.datastore.request.rf2;
 
 import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
 import static com.google.common.collect.Sets.newHashSet;
 import static com.google.common.collect.Sets.newTreeSet;
 import static java.util.Collections.singleton;
@@ -34,6 +35,7 @@ import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -68,6 +70,7 @@ import com.b2international.snowowl.core.request.ResourceRequest;
 import com.b2international.snowowl.core.request.ResourceRequests;
 import com.b2international.snowowl.core.request.SearchResourceRequest;
 import com.b2international.snowowl.core.request.SearchResourceRequest.Sort;
+import com.b2international.snowowl.core.util.ConcurrentTasks;
 import com.b2international.snowowl.core.version.Version;
 import com.b2international.snowowl.core.version.VersionDocument;
 import com.b2international.snowowl.core.version.Versions;
@@ -89,6 +92,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Strings;
 import com.google.common.collect.*;
 import com.google.common.collect.ImmutableList.Builder;
+import com.google.common.util.concurrent.ListeningExecutorService;
 
 /**
  * @since 5.7
@@ -333,6 +337,9 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 		Multimap<String, String> availableLanguageCodes = getLanguageCodes(context, branchesToExport);
 		
 		Path exportDirectory = null;
+		
+		// one thread for each exported component type
+		final ListeningExecutorService executor = ConcurrentTasks.newExecutor("rf2-export-%d", componentTypes.size());
 
 		try {
 			
@@ -348,7 +355,8 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 			// create main folder including release status and archive effective date
 			final Path releaseDirectory = createReleaseDirectory(exportDirectory, archiveEffectiveDate);
 
-			final Set<String> visitedComponentEffectiveTimes = newHashSet();
+			// rows are deduplicated per component type, as identifiers can not collide between different component types
+			final Map<String, VisitedComponentEffectiveTimes> visitedComponentEffectiveTimes = newHashMap();
 			
 			final long effectiveTimeStart = startEffectiveTime != null ? EffectiveTimes.getEffectiveTime(startEffectiveTime) : 0;
 			final long effectiveTimeEnd =  endEffectiveTime != null ? EffectiveTimes.getEffectiveTime(endEffectiveTime) : Long.MAX_VALUE;
@@ -363,7 +371,8 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 						effectiveTimeStart,
 						effectiveTimeEnd,
 						visitedComponentEffectiveTimes,
-						availableLanguageCodes.get(branch));
+						availableLanguageCodes.get(branch),
+						executor);
 				
 			}
 			
@@ -382,7 +391,8 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 						EffectiveTimes.UNSET_EFFECTIVE_TIME,
 						EffectiveTimes.UNSET_EFFECTIVE_TIME,
 						visitedComponentEffectiveTimes,
-						availableLanguageCodes.get(referenceBranch));
+						availableLanguageCodes.get(referenceBranch),
+						executor);
 			}
 
 			// Step 6: compress to archive and upload to the file registry
@@ -394,6 +404,7 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 		} catch (final Exception e) {
 			throw new SnowowlRuntimeException("Failed to export terminology content to RF2.", e);
 		} finally {
+			executor.shutdownNow();
 			if (exportDirectory != null) {
 				FileUtils.deleteDirectory(exportDirectory.toFile());
 			}
@@ -709,88 +720,120 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 			final String archiveEffectiveTime, 
 			final long effectiveTimeFilterStart, 
 			final long effectiveTimeFilterEnd,
-			final Set<String> visitedComponentEffectiveTimes,
-			final Collection<String> languageCodes) throws IOException {
+			final Map<String, VisitedComponentEffectiveTimes> visitedComponentEffectiveTimesByType,
+			final Collection<String> languageCodes,
+			final ListeningExecutorService executor) throws IOException {
 
+		// each component type is written to its own set of files, so they can be exported in parallel
+		final List<Callable<Void>> exports = newArrayList();
 		for (final String componentToExport : componentTypes) {
-			switch (componentToExport) {
-				case SnomedConcept.TYPE:
-					exportConcepts(releaseDirectory, 
+			final VisitedComponentEffectiveTimes visitedComponentEffectiveTimes = visitedComponentEffectiveTimesByType.computeIfAbsent(componentToExport, 
+					key -> new VisitedComponentEffectiveTimes());
+			
+			exports.add(() -> {
+				exportComponentType(releaseDirectory, 
+						context, 
+						branch, 
+						archiveEffectiveTime, 
+						effectiveTimeFilterStart, 
+						effectiveTimeFilterEnd, 
+						componentToExport, 
+						visitedComponentEffectiveTimes, 
+						languageCodes);
+				return null;
+			});
+		}
+		
+		ConcurrentTasks.run(executor, exports);
+		
+		if (Boolean.valueOf(System.getProperty("so.snomed.refsetdescriptor_preview", "false"))) {
+			exportRefSetDescriptor(releaseDirectory,
+					context,
+					branch,
+					archiveEffectiveTime,
+					effectiveTimeFilterStart,
+					effectiveTimeFilterEnd,
+					languageCodes,
+					visitedComponentEffectiveTimesByType.computeIfAbsent(SnomedReferenceSetMember.TYPE, key -> new VisitedComponentEffectiveTimes()));
+		}
+	}
+	
+	private void exportComponentType(final Path releaseDirectory, 
+			final RepositoryContext context, 
+			final String branch, 
+			final String archiveEffectiveTime, 
+			final long effectiveTimeFilterStart, 
+			final long effectiveTimeFilterEnd,
+			final String componentToExport,
+			final VisitedComponentEffectiveTimes visitedComponentEffectiveTimes,
+			final Collection<String> languageCodes) throws IOException {
+		
+		switch (componentToExport) {
+			case SnomedConcept.TYPE:
+				exportConcepts(releaseDirectory, 
+						context,
+						branch,
+						archiveEffectiveTime,
+						effectiveTimeFilterStart,
+						effectiveTimeFilterEnd,
+						visitedComponentEffectiveTimes);
+				break;
+
+			case SnomedDescription.TYPE:
+				for (final String languageCode : languageCodes) {
+					exportDescriptions(releaseDirectory, 
 							context,
 							branch,
 							archiveEffectiveTime,
 							effectiveTimeFilterStart,
 							effectiveTimeFilterEnd,
+							languageCode,
 							visitedComponentEffectiveTimes);
-					break;
-	
-				case SnomedDescription.TYPE:
-					for (final String languageCode : languageCodes) {
-						exportDescriptions(releaseDirectory, 
-								context,
-								branch,
-								archiveEffectiveTime,
-								effectiveTimeFilterStart,
-								effectiveTimeFilterEnd,
-								languageCode,
-								visitedComponentEffectiveTimes);
-					}
-					break;
-	
-				case SnomedRelationship.TYPE:
-					exportRelationships(releaseDirectory, 
+				}
+				break;
+
+			case SnomedRelationship.TYPE:
+				exportRelationships(releaseDirectory, 
+						context,
+						branch,
+						archiveEffectiveTime,
+						effectiveTimeFilterStart,
+						effectiveTimeFilterEnd,
+						visitedComponentEffectiveTimes);
+				
+				exportConcreteValues(releaseDirectory, 
+						context,
+						branch,
+						archiveEffectiveTime,
+						effectiveTimeFilterStart,
+						effectiveTimeFilterEnd,
+						visitedComponentEffectiveTimes);
+				break;
+
+			case SnomedReferenceSetMember.TYPE:
+				if (Rf2RefSetExportLayout.COMBINED.equals(refSetExportLayout)) {
+					exportCombinedRefSets(releaseDirectory,
 							context,
 							branch,
 							archiveEffectiveTime,
 							effectiveTimeFilterStart,
 							effectiveTimeFilterEnd,
+							languageCodes,
 							visitedComponentEffectiveTimes);
-					
-					exportConcreteValues(releaseDirectory, 
+				} else {
+					exportIndividualRefSets(releaseDirectory,
 							context,
 							branch,
 							archiveEffectiveTime,
 							effectiveTimeFilterStart,
 							effectiveTimeFilterEnd,
+							languageCodes,
 							visitedComponentEffectiveTimes);
-					break;
-	
-				case SnomedReferenceSetMember.TYPE:
-					if (Rf2RefSetExportLayout.COMBINED.equals(refSetExportLayout)) {
-						exportCombinedRefSets(releaseDirectory,
-								context,
-								branch,
-								archiveEffectiveTime,
-								effectiveTimeFilterStart,
-								effectiveTimeFilterEnd,
-								languageCodes,
-								visitedComponentEffectiveTimes);
-					} else {
-						exportIndividualRefSets(releaseDirectory,
-								context,
-								branch,
-								archiveEffectiveTime,
-								effectiveTimeFilterStart,
-								effectiveTimeFilterEnd,
-								languageCodes,
-								visitedComponentEffectiveTimes);
-					}
-				break;
+				}
+			break;
 
-			default:
-				throw new IllegalStateException("Component type '" + componentToExport + "' can not be exported.");
-			}
-		}
-		
-		if (Boolean.valueOf(System.getProperty("so.snomed.refsetdescriptor_preview", "false"))) {
-			exportRefSetDescriptor(releaseDirectory,
-					context,
-					branch,
-					archiveEffectiveTime,
-					effectiveTimeFilterStart,
-					effectiveTimeFilterEnd,
-					languageCodes,
-					visitedComponentEffectiveTimes);
+		default:
+			throw new IllegalStateException("Component type '" + componentToExport + "' can not be exported.");
 		}
 	}
 
@@ -801,7 +844,7 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 			long effectiveTimeFilterStart, 
 			long effectiveTimeFilterEnd, 
 			Collection<String> languageCodes, 
-			Set<String> visitedComponentEffectiveTimes) throws IOException {
+			VisitedComponentEffectiveTimes visitedComponentEffectiveTimes) throws IOException {
 		final Rf2RefSetDescriptorRefSetExporter exporter = new Rf2RefSetDescriptorRefSetExporter(releaseType, 
 				countryNamespaceElement, 
 				namespaceFilter,
@@ -818,7 +861,7 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 			final String archiveEffectiveTime, 
 			final long effectiveTimeFilterStart,
 			final long effectiveTimeFilterEnd,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
+			final VisitedComponentEffectiveTimes visitedComponentEffectiveTimes) throws IOException {
 
 		final Rf2ConceptExporter conceptExporter = new Rf2ConceptExporter(releaseType, 
 				countryNamespaceElement, 
@@ -838,7 +881,7 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 			final long effectiveTimeFilterStart,
 			final long effectiveTimeFilterEnd, 
 			final String languageCode,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
+			final VisitedComponentEffectiveTimes visitedComponentEffectiveTimes) throws IOException {
 
 		final Set<String> descriptionTypes = execute(context, getBranchOrRangeTarget(branch), SnomedRequests.prepareSearchConcept()
 			.all()
@@ -885,7 +928,7 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 			final String archiveEffectiveTime, 
 			final long effectiveTimeFilterStart,
 			final long effectiveTimeFilterEnd,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
+			final VisitedComponentEffectiveTimes visitedComponentEffectiveTimes) throws IOException {
 
 		final Set<String> characteristicTypes = execute(context, getBranchOrRangeTarget(branch), SnomedRequests.prepareSearchConcept()
 				.all()
@@ -922,7 +965,7 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 			final String archiveEffectiveTime, 
 			final long effectiveTimeFilterStart,
 			final long effectiveTimeFilterEnd,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
+			final VisitedComponentEffectiveTimes visitedComponentEffectiveTimes) throws IOException {
 		
 		final Rf2ConcreteValueExporter concreteValueExporter = new Rf2ConcreteValueExporter(releaseType, 
 				countryNamespaceElement, 
@@ -941,7 +984,7 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 			final long effectiveTimeFilterStart,
 			final long effectiveTimeFilterEnd,  
 			final Collection<String> languageCodes,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
+			final VisitedComponentEffectiveTimes visitedComponentEffectiveTimes) throws IOException {
 
 		final Multimap<SnomedRefSetType, SnomedConcept> referenceSetsByType = FluentIterable.from(getIdentifierConcepts(context, getBranchOrRangeTarget(branch)))
 				.index(c -> c.getReferenceSet().getType());
@@ -985,7 +1028,7 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 			final long effectiveTimeFilterStart,
 			final long effectiveTimeFilterEnd, 
 			final Collection<String> languageCodes,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
+			final VisitedComponentEffectiveTimes visitedComponentEffectiveTimes) throws IOException {
 
 		final Multimap<SnomedRefSetType, SnomedConcept> referenceSetsByType = FluentIterable.from(getIdentifierConcepts(context, getBranchOrRangeTarget(revisionRange)))
 				.index(c -> c.getReferenceSet().getType());
@@ -1033,7 +1076,7 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 			final long effectiveTimeFilterEnd, 
 			final Collection<String> languageCodes, 
 			final Collection<SnomedConcept> languageRefSets,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
+			final VisitedComponentEffectiveTimes visitedComponentEffectiveTimes) throws IOException {
 
 		if (languageRefSets.isEmpty()) {
 			return;
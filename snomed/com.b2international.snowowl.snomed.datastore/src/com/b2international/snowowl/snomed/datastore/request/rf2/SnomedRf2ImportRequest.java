@@ -16,6 +16,7 @@
 package com.b2international.snowowl.snomed.datastore.request.rf2;
 
 import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Lists.newArrayListWithExpectedSize;
 
 import java.io.File;
 import java.io.IOException;
@@ -27,6 +28,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
@@ -39,6 +41,8 @@ import org.mapdb.DBMaker.Maker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.b2international.collections.PrimitiveLists;
+import com.b2international.collections.ints.IntList;
 import com.b2international.commons.CompareUtils;
 import com.b2international.commons.StringUtils;
 import com.b2international.commons.exceptions.ApiException;
@@ -70,6 +74,7 @@ import com.b2international.snowowl.core.request.io.ImportDefectAcceptor;
 import com.b2international.snowowl.core.request.io.ImportDefectAcceptor.ImportDefectBuilder;
 import com.b2international.snowowl.core.request.io.ImportResponse;
 import com.b2international.snowowl.core.uri.ComponentURI;
+import com.b2international.snowowl.core.util.ConcurrentTasks;
 import com.b2international.snowowl.core.version.Version;
 import com.b2international.snowowl.eventbus.IEventBus;
 import com.b2international.snowowl.snomed.common.SnomedTerminologyComponentConstants;
@@ -97,6 +102,8 @@ import com.google.common.base.Stopwatch;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.Uninterruptibles;
 
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -111,6 +118,11 @@ final class SnomedRf2ImportRequest implements Request<BranchContext, ImportRespo
 
 	private static final String TXT_EXT = ".txt";
 	
+	private static final int MAX_IMPORT_THREADS = 4;
+	
+	// number of parsed rows to register in effective time slices at once
+	private static final int REGISTER_CHUNK_SIZE = 1000;
+	
 	public static final AtomicBoolean disableVersionsOnChildBranches = new AtomicBoolean(true);
 	
 	@NotNull
@@ -251,56 +263,73 @@ final class SnomedRf2ImportRequest implements Request<BranchContext, ImportRespo
 			.orElse(LocalDate.EPOCH), DateFormats.SHORT);
 		
 		try (final DB db = createDb()) {
+			final ListeningExecutorService executor = ConcurrentTasks.newExecutor("rf2-import-%d", getImportThreadCount());
+			try {
 
-			// Read effective time slices from import files
-			String importUntilEffectiveTime = importUntil == null ? null : EffectiveTimes.format(importUntil, DateFormats.SHORT);
-			final Rf2EffectiveTimeSlices effectiveTimeSlices = new Rf2EffectiveTimeSlices(db, isLoadOnDemandEnabled(), latestVersionEffectiveTime, importUntilEffectiveTime, batchSize);
-			Stopwatch w = Stopwatch.createStarted();
-			read(rf2Archive, effectiveTimeSlices, reporter);
-			log.info("Preparing RF2 import took: {}", w);
-			w.reset().start();
-			
-			// Log issues with rows from the import files, at most 1000 warnings and 1000 errors to log into the log file, everything else should be in the response object
-			logValidationIssues(reporter, 1000);
-			if (reporter.hasErrors()) {
-				return ImportResponse.defects(reporter.getDefects());
-			}
-			
-			// Run validation that takes current terminology content into account
-			final List<Rf2EffectiveTimeSlice> orderedEffectiveTimeSlices = effectiveTimeSlices.consumeInOrder();
-			final Rf2GlobalValidator globalValidator = new Rf2GlobalValidator(log, ignoreMissingReferencesIn);
-			
-			/* 
-			 * TODO: Use Attachment to get the release file name and/or track file and line number sources for each row 
-			 * so that they can be referenced in this stage as well
-			 */
-			final ImportDefectAcceptor globalDefectAcceptor = reporter.getDefectAcceptor("RF2 release");
-			globalValidator.validateTerminologyComponents(orderedEffectiveTimeSlices, globalDefectAcceptor, context);
-//			globalValidator.validateMembers(orderedEffectiveTimeSlices, globalDefectAcceptor, context);
-			
-			// Log validation issues (but just the ones found during global validation)
-			logValidationIssues(globalDefectAcceptor);
-			if (reporter.hasErrors()) {
-				return ImportResponse.defects(reporter.getDefects());
-			}
-			
-			// Import effective time slices in chronological order
-			final ImmutableSet.Builder<ComponentURI> visitedComponents = ImmutableSet.builder(); 
-			
-			// if not a dryRun, perform import
-			if (!dryRun) {
-				// Import effective time slices in chronological order
-				for (Rf2EffectiveTimeSlice slice : orderedEffectiveTimeSlices) {
-					slice.doImport(context, codeSystemUri, importconfig, visitedComponents);
+				// Read effective time slices from import files
+				String importUntilEffectiveTime = importUntil == null ? null : EffectiveTimes.format(importUntil, DateFormats.SHORT);
+				final Rf2EffectiveTimeSlices effectiveTimeSlices = new Rf2EffectiveTimeSlices(db, isLoadOnDemandEnabled(), latestVersionEffectiveTime, importUntilEffectiveTime, batchSize);
+				Stopwatch w = Stopwatch.createStarted();
+				read(rf2Archive, effectiveTimeSlices, reporter, executor);
+				log.info("Preparing RF2 import took: {}", w);
+				w.reset().start();
+				
+				// Log issues with rows from the import files, at most 1000 warnings and 1000 errors to log into the log file, everything else should be in the response object
+				logValidationIssues(reporter, 1000);
+				if (reporter.hasErrors()) {
+					return ImportResponse.defects(reporter.getDefects());
 				}
+				
+				// Run validation that takes current terminology content into account
+				final List<Rf2EffectiveTimeSlice> orderedEffectiveTimeSlices = effectiveTimeSlices.consumeInOrder();
+				final Rf2GlobalValidator globalValidator = new Rf2GlobalValidator(log, ignoreMissingReferencesIn);
+				
+				/* 
+				 * TODO: Use Attachment to get the release file name and/or track file and line number sources for each row 
+				 * so that they can be referenced in this stage as well
+				 */
+				final ImportDefectAcceptor globalDefectAcceptor = reporter.getDefectAcceptor("RF2 release");
+				globalValidator.validateTerminologyComponents(orderedEffectiveTimeSlices, globalDefectAcceptor, context);
+//				globalValidator.validateMembers(orderedEffectiveTimeSlices, globalDefectAcceptor, context);
+				
+				// Log validation issues (but just the ones found during global validation)
+				logValidationIssues(globalDefectAcceptor);
+				if (reporter.hasErrors()) {
+					return ImportResponse.defects(reporter.getDefects());
+				}
+				
+				// Import effective time slices in chronological order
+				final ImmutableSet.Builder<ComponentURI> visitedComponents = ImmutableSet.builder(); 
+				
+				// if not a dryRun, perform import
+				if (!dryRun) {
+					// Import effective time slices in chronological order, preparing the next slice while the current one is being imported
+					if (!orderedEffectiveTimeSlices.isEmpty()) {
+						orderedEffectiveTimeSlices.get(0).prepareImport(executor);
+					}
+					for (int i = 0; i < orderedEffectiveTimeSlices.size(); i++) {
+						if (i + 1 < orderedEffectiveTimeSlices.size()) {
+							orderedEffectiveTimeSlices.get(i + 1).prepareImport(executor);
+						}
+						orderedEffectiveTimeSlices.get(i).doImport(context, codeSystemUri, importconfig, visitedComponents);
+					}
 					
-			    // Update locales registered on the code system
-				updateCodeSystemSettings(context, codeSystemUri);
+				    // Update locales registered on the code system
+					updateCodeSystemSettings(context, codeSystemUri);
+				}
+				
+				return ImportResponse.success(visitedComponents.build(), reporter.getDefects());
+			} finally {
+				// Slices read from and write to the database on the executor's threads, so these have to stop before it is closed
+				executor.shutdownNow();
+				Uninterruptibles.awaitTerminationUninterruptibly(executor);
 			}
-			
-			return ImportResponse.success(visitedComponents.build(), reporter.getDefects());
 		}
 	}
+	
+	private static int getImportThreadCount() {
+		return Math.max(2, Math.min(MAX_IMPORT_THREADS, Runtime.getRuntime().availableProcessors()));
+	}
 
 	private void logValidationIssues(final Rf2ValidationIssueReporter reporter, int numberOfIssuesToLog) {
 		reporter.logWarnings(log, numberOfIssuesToLog);
@@ -322,7 +351,7 @@ final class SnomedRf2ImportRequest implements Request<BranchContext, ImportRespo
 		return Rf2ReleaseType.DELTA == releaseType;
 	}
 	
-	private void read(File rf2Archive, Rf2EffectiveTimeSlices slices, Rf2ValidationIssueReporter reporter) {
+	private void read(File rf2Archive, Rf2EffectiveTimeSlices slices, Rf2ValidationIssueReporter reporter, ListeningExecutorService executor) {
 		final CsvMapper csvMapper = new CsvMapper();
 		csvMapper.enable(CsvParser.Feature.WRAP_AS_ARRAY);
 		csvMapper.enable(CsvParser.Feature.SKIP_EMPTY_LINES);
@@ -333,20 +362,27 @@ final class SnomedRf2ImportRequest implements Request<BranchContext, ImportRespo
 				.withLineSeparator("\r\n");
 		final ObjectReader oReader = csvMapper.readerFor(String[].class).with(schema);
 
-		final Stopwatch w = Stopwatch.createStarted();
 		try (final ZipFile zip = new ZipFile(rf2Archive, Charsets.UTF_8)) {
+			// Files are parsed in parallel, parsed rows are registered in the slices in chunks, one file at a time
+			final List<Callable<Void>> tasks = newArrayList();
 			for (ZipEntry entry : Collections.list(zip.entries())) {
 				final String fileName = Paths.get(entry.getName()).getFileName().toString().toLowerCase();
 				if (fileName.endsWith(TXT_EXT)) {
 					if (fileName.contains(releaseType.toString().toLowerCase())) {
-						w.reset().start();
-						try (final InputStream in = zip.getInputStream(entry)) {
-							readFile(entry, in, oReader, slices, reporter);
-						}
-						log.info("{} - {}", entry.getName(), w);
+						final ImportDefectAcceptor defectAcceptor = reporter.getDefectAcceptor(entry.getName());
+						tasks.add(() -> {
+							final Stopwatch w = Stopwatch.createStarted();
+							try (final InputStream in = zip.getInputStream(entry)) {
+								readFile(entry, in, oReader, slices, defectAcceptor);
+							}
+							log.info("{} - {}", entry.getName(), w);
+							return null;
+						});
 					}
 				}
 			}
+			
+			ConcurrentTasks.run(executor, tasks);
 		} catch (IOException e) {
 			throw new SnowowlRuntimeException(e);
 		}
@@ -354,14 +390,15 @@ final class SnomedRf2ImportRequest implements Request<BranchContext, ImportRespo
 		slices.flushAll();
 	}
 
-	private void readFile(ZipEntry entry, final InputStream in, final ObjectReader oReader, Rf2EffectiveTimeSlices effectiveTimeSlices, Rf2ValidationIssueReporter reporter)
+	private void readFile(ZipEntry entry, final InputStream in, final ObjectReader oReader, Rf2EffectiveTimeSlices effectiveTimeSlices, ImportDefectAcceptor defectAcceptor)
 			throws IOException, JsonProcessingException {
 		
 		final String entryName = entry.getName();
-		final ImportDefectAcceptor defectAcceptor = reporter.getDefectAcceptor(entryName);
 		
 		boolean header = true;
 		Rf2ContentType<?> resolver = null;
+		final List<String[]> lines = newArrayListWithExpectedSize(REGISTER_CHUNK_SIZE);
+		final IntList lineNumbers = PrimitiveLists.newIntArrayList();
 		
 		MappingIterator<String[]> mi = oReader.readValues(in);
 		while (mi.hasNext()) {
@@ -383,7 +420,25 @@ final class SnomedRf2ImportRequest implements Request<BranchContext, ImportRespo
 				
 				header = false;
 			} else {
-				final ImportDefectBuilder defectBuilder = defectAcceptor.on(Integer.toString(lineNumber));
+				lines.add(line);
+				lineNumbers.add(lineNumber);
+				if (lines.size() >= REGISTER_CHUNK_SIZE) {
+					register(resolver, lines, lineNumbers, effectiveTimeSlices, defectAcceptor);
+				}
+			}
+		}
+		
+		if (!lines.isEmpty()) {
+			register(resolver, lines, lineNumbers, effectiveTimeSlices, defectAcceptor);
+		}
+	}
+	
+	private void register(Rf2ContentType<?> resolver, List<String[]> lines, IntList lineNumbers, Rf2EffectiveTimeSlices effectiveTimeSlices, ImportDefectAcceptor defectAcceptor) {
+		// slices are shared between files
+		synchronized (effectiveTimeSlices) {
+			for (int i = 0; i < lines.size(); i++) {
+				final String[] line = lines.get(i);
+				final ImportDefectBuilder defectBuilder = defectAcceptor.on(Integer.toString(lineNumbers.get(i)));
 				if (line.length == 0) {
 					// line is empty, skip it (TODO do we need a warning here?)
 				} else if (line.length == resolver.getHeaderColumns().length) {
@@ -395,6 +450,9 @@ final class SnomedRf2ImportRequest implements Request<BranchContext, ImportRespo
 				}
 			}
 		}
+		
+		lines.clear();
+		lineNumbers.clear();
 	}
 
 	private String getEffectiveTimeKey(final String effectiveTime) {
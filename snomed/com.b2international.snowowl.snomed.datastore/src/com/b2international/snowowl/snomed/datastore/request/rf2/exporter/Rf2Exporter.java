@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2018-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,14 +18,17 @@ package com.b2international.snowowl.snomed.datastore.request.rf2.exporter;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
-import java.util.Set;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
@@ -53,6 +56,11 @@ public abstract class Rf2Exporter<B extends SnomedSearchRequestBuilder<B, R>, R
 	private static final Joiner TAB_JOINER = Joiner.on('\t');
 	
 	private static final String CR_LF = "\r\n";
+	
+	private static final int WRITE_BUFFER_SIZE = 1 << 20; // 1 MiB
+	
+	// exporters running on the same thread write their files one after the other, so they can share a single direct buffer
+	private static final ThreadLocal<ByteBuffer> WRITE_BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE));
 
 	// Parameters used for file name calculations
 	protected final Rf2ReleaseType releaseType;
@@ -111,7 +119,7 @@ public abstract class Rf2Exporter<B extends SnomedSearchRequestBuilder<B, R>, R
 			final String branch, 
 			final long effectiveTimeStart, 
 			final long effectiveTimeEnd,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
+			final VisitedComponentEffectiveTimes visitedComponentEffectiveTimes) throws IOException {
 
 		LOG.info("Exporting {} branch to '{}'", branch, getFileName());
 
@@ -122,11 +130,13 @@ public abstract class Rf2Exporter<B extends SnomedSearchRequestBuilder<B, R>, R
 		final Path exportFile = exportFileDirectory.resolve(getFileName());
 		try (RandomAccessFile randomAccessFile = new RandomAccessFile(exportFile.toFile(), "rw")) {
 			try (FileChannel fileChannel = randomAccessFile.getChannel()) {
+				
+				final RowWriter rowWriter = new RowWriter(fileChannel, WRITE_BUFFER.get());
 
 				// Add a header if the file is empty
 				if (randomAccessFile.length() == 0L) {
-					fileChannel.write(toByteBuffer(TAB_JOINER.join(getHeader())));
-					fileChannel.write(toByteBuffer(CR_LF));
+					rowWriter.write(Arrays.asList(getHeader()));
+					rowWriter.flush();
 				}
 
 				// We want to append rows, if the file already exists, so jump to the end
@@ -155,13 +165,12 @@ public abstract class Rf2Exporter<B extends SnomedSearchRequestBuilder<B, R>, R
 								String id = row.get(0);
 								String effectiveTime = row.get(1);
 								
-								if (!visitedComponentEffectiveTimes.add(String.join("_", id, effectiveTime))) {
+								if (!visitedComponentEffectiveTimes.add(id, effectiveTime)) {
 									return;
 								}
 								
 								try {
-									fileChannel.write(toByteBuffer(TAB_JOINER.join(row)));
-									fileChannel.write(toByteBuffer(CR_LF));
+									rowWriter.write(row);
 								} catch (final IOException e) {
 									throw new SnowowlRuntimeException("Failed to write contents for file '" + exportFile.getFileName() + "'.");
 								}
@@ -170,11 +179,54 @@ public abstract class Rf2Exporter<B extends SnomedSearchRequestBuilder<B, R>, R
 						return null;
 					}
 				).execute(context);
+				
+				rowWriter.flush();
 			}
 		}
 	}
 
-	private static ByteBuffer toByteBuffer(final String s) {
-		return ByteBuffer.wrap(s.getBytes(Charsets.UTF_8));
+	/**
+	 * Encodes rows into a reusable buffer and writes it to the file channel only when it is full (or when flushed explicitly).
+	 */
+	private static final class RowWriter {
+		
+		private final FileChannel fileChannel;
+		private final ByteBuffer buffer;
+		private final CharsetEncoder encoder = Charsets.UTF_8.newEncoder()
+				// same behavior as String.getBytes(Charset)
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		private final StringBuilder line = new StringBuilder();
+		
+		RowWriter(final FileChannel fileChannel, final ByteBuffer buffer) {
+			this.fileChannel = fileChannel;
+			this.buffer = buffer;
+			this.buffer.clear();
+		}
+		
+		void write(final List<String> row) throws IOException {
+			line.setLength(0);
+			TAB_JOINER.appendTo(line, row).append(CR_LF);
+			
+			final CharBuffer chars = CharBuffer.wrap(line);
+			CoderResult result;
+			while ((result = encoder.encode(chars, buffer, true)).isOverflow()) {
+				flush();
+			}
+			
+			if (result.isError()) {
+				result.throwException();
+			}
+			
+			encoder.reset();
+		}
+		
+		void flush() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				fileChannel.write(buffer);
+			}
+			buffer.clear();
+		}
 	}
 }
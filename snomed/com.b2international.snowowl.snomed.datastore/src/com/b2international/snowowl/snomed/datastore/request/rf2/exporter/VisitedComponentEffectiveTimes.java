@@ -0,0 +1,111 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.request.rf2.exporter;
+
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Sets.newHashSet;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongSet;
+
+/**
+ * Keeps track of the component ID - effective time pairs that have already been written to an RF2 export, so the same component state is not
+ * written twice when multiple version branches are exported into the same file.
+ * <p>
+ * Pairs are partitioned by effective time. Within a partition, SNOMED CT identifiers are stored as primitive longs and reference set member
+ * UUIDs as {@link UUID} instances; other identifiers are kept as-is. Instances are not thread-safe, each exporter thread should use its own
+ * instance.
+ *
+ * @since 9.3
+ */
+public final class VisitedComponentEffectiveTimes {
+
+	private static final int MAX_NUMERIC_ID_LENGTH = 18;
+	private static final int UUID_LENGTH = 36;
+
+	private final Map<String, Partition> partitionsByEffectiveTime = newHashMap();
+
+	/**
+	 * Records the given component ID - effective time pair.
+	 *
+	 * @param id - the component identifier
+	 * @param effectiveTime - the effective time of the component as written to the export file
+	 * @return <code>true</code> if the pair was not recorded before, <code>false</code> otherwise
+	 */
+	public boolean add(final String id, final String effectiveTime) {
+		return partitionsByEffectiveTime.computeIfAbsent(effectiveTime, key -> new Partition()).add(id);
+	}
+
+	private static final class Partition {
+
+		private final LongSet numericIds = PrimitiveSets.newLongOpenHashSet();
+		private final Set<UUID> uuids = newHashSet();
+		private final Set<String> otherIds = newHashSet();
+
+		boolean add(final String id) {
+			if (isNumeric(id)) {
+				return numericIds.add(Long.parseLong(id));
+			} else if (isUuid(id)) {
+				return uuids.add(UUID.fromString(id));
+			} else {
+				return otherIds.add(id);
+			}
+		}
+
+		// leading zeroes would map different strings to the same number, those go to the general set
+		private static boolean isNumeric(final String id) {
+			final int length = id.length();
+			if (length == 0 || length > MAX_NUMERIC_ID_LENGTH || id.charAt(0) == '0') {
+				return false;
+			}
+
+			for (int i = 0; i < length; i++) {
+				final char c = id.charAt(i);
+				if (c < '0' || c > '9') {
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		// only the canonical (lower case) form converts back to the same string
+		private static boolean isUuid(final String id) {
+			if (id.length() != UUID_LENGTH) {
+				return false;
+			}
+
+			for (int i = 0; i < UUID_LENGTH; i++) {
+				final char c = id.charAt(i);
+				if (i == 8 || i == 13 || i == 18 || i == 23) {
+					if (c != '-') {
+						return false;
+					}
+				} else if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+	}
+
+}
@@ -26,6 +26,7 @@ import com.b2international.snowowl.core.domain.BranchContext;
 import com.b2international.snowowl.core.request.io.ImportDefectAcceptor.ImportDefectBuilder;
 import com.b2international.snowowl.core.uri.ComponentURI;
 import com.google.common.collect.ImmutableSet.Builder;
+import com.google.common.util.concurrent.ListeningExecutorService;
 
 /**
  * An {@link Rf2EffectiveTimeSlice} implementation that ignores every method call and it does not register the given read RF2 rows at all inside it, essentially skips all content.
@@ -75,6 +76,10 @@ final class IgnoredRf2EffectiveTimeSlice extends BaseRf2EffectiveTimeSlice {
 		return emptyMembers;
 	}
 
+	@Override
+	public void prepareImport(ListeningExecutorService executor) {
+	}
+	
 	@Override
 	public void doImport(BranchContext context, ResourceURI codeSystemUri, Rf2ImportConfiguration importConfig, Builder<ComponentURI> visitedComponents) throws Exception {
 		context.log().info(message);
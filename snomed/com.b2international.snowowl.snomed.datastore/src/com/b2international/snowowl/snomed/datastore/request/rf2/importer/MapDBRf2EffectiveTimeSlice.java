@@ -21,6 +21,9 @@ import static com.google.common.collect.Sets.newHashSet;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.mapdb.DB;
 import org.mapdb.HTreeMap;
@@ -33,6 +36,7 @@ import com.b2international.commons.collect.LongSets;
 import com.b2international.commons.graph.LongTarjan;
 import com.b2international.commons.options.Options;
 import com.b2international.snowowl.core.ResourceURI;
+import com.b2international.snowowl.core.api.SnowowlRuntimeException;
 import com.b2international.snowowl.core.domain.BranchContext;
 import com.b2international.snowowl.core.domain.IComponent;
 import com.b2international.snowowl.core.domain.TransactionContext;
@@ -49,10 +53,14 @@ import com.b2international.snowowl.snomed.core.domain.refset.SnomedReferenceSetM
 import com.b2international.snowowl.snomed.datastore.index.entry.*;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
 import com.google.common.base.Stopwatch;
+import com.google.common.base.Throwables;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
 
 /**
  * @since 6.0
@@ -68,6 +76,9 @@ final class MapDBRf2EffectiveTimeSlice extends BaseRf2EffectiveTimeSlice {
 	private final boolean loadOnDemand;
 	private final int batchSize;
 	
+	private ListeningExecutorService executor;
+	private ListenableFuture<List<LongSet>> importPlan;
+	
 	@SuppressWarnings("unchecked")
 	public MapDBRf2EffectiveTimeSlice(String effectiveTime, DB db, boolean loadOnDemand, int batchSize) {
 		super(effectiveTime);
@@ -170,6 +181,14 @@ final class MapDBRf2EffectiveTimeSlice extends BaseRf2EffectiveTimeSlice {
 		return new LongTarjan(batchSize, dependenciesByComponent::get).run(dependenciesByComponent.keySet());
 	}
 	
+	@Override
+	public void prepareImport(ListeningExecutorService executor) {
+		if (this.executor == null) {
+			this.executor = executor;
+			this.importPlan = executor.submit(this::getImportPlan);
+		}
+	}
+	
 	@Override
 	public void doImport(
 			final BranchContext context, 
@@ -188,52 +207,10 @@ final class MapDBRf2EffectiveTimeSlice extends BaseRf2EffectiveTimeSlice {
 		
 		context.log().info(importingMessage);
 		try (Rf2TransactionContext tx = new Rf2TransactionContext(openTransaction(context, author), loadOnDemand, importConfig)) {
-			final Iterator<LongSet> importPlan = getImportPlan().iterator();
-			while (importPlan.hasNext()) {
-				LongSet componentsToImportInBatch = importPlan.next();
-				LongIterator it = componentsToImportInBatch.iterator();
-				final Collection<SnomedComponent> componentsToImport = newArrayListWithExpectedSize(componentsToImportInBatch.size());
-				while (it.hasNext()) {
-					long componentToImportL = it.next();
-					String componentToImport = Long.toString(componentToImportL);
-					final SnomedComponent component = getComponent(componentToImport);
-					if (component != null) {
-						componentsToImport.add(component);
-						
-						// Record value types across the entire effective time slice
-						if (component instanceof SnomedRelationship) {
-							final SnomedRelationship relationship = (SnomedRelationship) component;
-							final RelationshipValue relationshipValue = relationship.getValueAsObject();
-							if (relationshipValue != null) {
-								if (RelationshipValueType.INTEGER.equals(relationshipValue.type())) {
-									integerTypeIdsByValueId.put(componentToImportL, Long.parseLong(relationship.getTypeId()));
-								}
-							}
-						}
-						
-						// Register container concept as visited component 
-						final String conceptId = getConceptId(component); 
-						visitedComponents.add(ComponentURI.of(codeSystemUri, SnomedConcept.TYPE, conceptId));
-					}
-					// add all members of this component to this batch as well
-					final Set<String> containerComponents = membersByReferencedComponent.remove(componentToImportL);
-					if (containerComponents != null) {
-						for (String containedComponentId : containerComponents) {
-							SnomedReferenceSetMember containedComponent = getComponent(containedComponentId);
-							if (containedComponent != null) {
-								componentsToImport.add(containedComponent);
-								
-								// Register reference set as visited component
-								final String refSetId = containedComponent.getRefsetId();
-								visitedComponents.add(ComponentURI.of(codeSystemUri, SnomedConcept.REFSET_TYPE, refSetId));
-							}
-						}
-					}
-				}
-				
-				tx.add(componentsToImport, getDependencies(componentsToImport));
+			readBatches(codeSystemUri, integerTypeIdsByValueId, visitedComponents, (components, dependencies) -> {
+				tx.add(components, dependencies);
 				tx.commit(commitMessage);
-			}
+			});
 			
 			// Check if any integer values should actually be decimals, indicated by the range constraint on MRCM members
 			final LongSet decimalTypeIds = collectAttributesWithRangeConstraint(context, "dec(>#0..)");
@@ -256,6 +233,110 @@ final class MapDBRf2EffectiveTimeSlice extends BaseRf2EffectiveTimeSlice {
 		
 		context.log().info("{} in {}", commitMessage, w);
 	}
+	
+	/*
+	 * Components of the next batch are read from the temporary store and converted while the current batch is consumed. Only one batch
+	 * is read at a time, so the state shared between reads is never accessed concurrently.
+	 */
+	void readBatches(
+			final ResourceURI codeSystemUri, 
+			final LongKeyLongMap integerTypeIdsByValueId, 
+			final ImmutableSet.Builder<ComponentURI> visitedComponents,
+			final BatchConsumer consumer) throws Exception {
+		
+		final Iterator<LongSet> importPlan = getPreparedImportPlan().iterator();
+		
+		ListenableFuture<ImportBatch> nextBatch = importPlan.hasNext() ? readBatch(importPlan.next(), codeSystemUri, integerTypeIdsByValueId, visitedComponents) : null;
+		while (nextBatch != null) {
+			final ImportBatch batch = getUnchecked(nextBatch);
+			nextBatch = importPlan.hasNext() ? readBatch(importPlan.next(), codeSystemUri, integerTypeIdsByValueId, visitedComponents) : null;
+			
+			consumer.accept(batch.components, batch.dependencies);
+		}
+	}
+	
+	private List<LongSet> getPreparedImportPlan() {
+		return (importPlan != null) ? getUnchecked(importPlan) : getImportPlan();
+	}
+	
+	private ListenableFuture<ImportBatch> readBatch(
+			final LongSet componentsToImportInBatch, 
+			final ResourceURI codeSystemUri, 
+			final LongKeyLongMap integerTypeIdsByValueId, 
+			final ImmutableSet.Builder<ComponentURI> visitedComponents) {
+		
+		final Callable<ImportBatch> task = () -> readBatchNow(componentsToImportInBatch, codeSystemUri, integerTypeIdsByValueId, visitedComponents);
+		if (executor != null) {
+			return executor.submit(task);
+		}
+		
+		try {
+			return Futures.immediateFuture(task.call());
+		} catch (Exception e) {
+			return Futures.immediateFailedFuture(e);
+		}
+	}
+
+	private ImportBatch readBatchNow(
+			final LongSet componentsToImportInBatch, 
+			final ResourceURI codeSystemUri, 
+			final LongKeyLongMap integerTypeIdsByValueId, 
+			final ImmutableSet.Builder<ComponentURI> visitedComponents) {
+		
+		LongIterator it = componentsToImportInBatch.iterator();
+		final Collection<SnomedComponent> componentsToImport = newArrayListWithExpectedSize(componentsToImportInBatch.size());
+		while (it.hasNext()) {
+			long componentToImportL = it.next();
+			String componentToImport = Long.toString(componentToImportL);
+			final SnomedComponent component = getComponent(componentToImport);
+			if (component != null) {
+				componentsToImport.add(component);
+				
+				// Record value types across the entire effective time slice
+				if (component instanceof SnomedRelationship) {
+					final SnomedRelationship relationship = (SnomedRelationship) component;
+					final RelationshipValue relationshipValue = relationship.getValueAsObject();
+					if (relationshipValue != null) {
+						if (RelationshipValueType.INTEGER.equals(relationshipValue.type())) {
+							integerTypeIdsByValueId.put(componentToImportL, Long.parseLong(relationship.getTypeId()));
+						}
+					}
+				}
+				
+				// Register container concept as visited component 
+				final String conceptId = getConceptId(component); 
+				visitedComponents.add(ComponentURI.of(codeSystemUri, SnomedConcept.TYPE, conceptId));
+			}
+			// add all members of this component to this batch as well
+			final Set<String> containerComponents = membersByReferencedComponent.remove(componentToImportL);
+			if (containerComponents != null) {
+				for (String containedComponentId : containerComponents) {
+					SnomedReferenceSetMember containedComponent = getComponent(containedComponentId);
+					if (containedComponent != null) {
+						componentsToImport.add(containedComponent);
+						
+						// Register reference set as visited component
+						final String refSetId = containedComponent.getRefsetId();
+						visitedComponents.add(ComponentURI.of(codeSystemUri, SnomedConcept.REFSET_TYPE, refSetId));
+					}
+				}
+			}
+		}
+		
+		return new ImportBatch(componentsToImport, getDependencies(componentsToImport));
+	}
+	
+	private static <T> T getUnchecked(final Future<T> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SnowowlRuntimeException(e);
+		} catch (ExecutionException e) {
+			Throwables.throwIfUnchecked(e.getCause());
+			throw new SnowowlRuntimeException(e.getCause());
+		}
+	}
 
 	private TransactionContext openTransaction(final BranchContext context, final String author) {
 		// The default commit comment will not be used
@@ -386,4 +467,23 @@ final class MapDBRf2EffectiveTimeSlice extends BaseRf2EffectiveTimeSlice {
 		default: throw new UnsupportedOperationException(String.format("Cannot determine document type from component ID and type: [%s,%s]", componentId, type));
 		}
 	}
+	
+	@FunctionalInterface
+	interface BatchConsumer {
+		
+		void accept(Collection<SnomedComponent> components, Multimap<Class<? extends SnomedDocument>, String> dependencies) throws Exception;
+		
+	}
+	
+	private static final class ImportBatch {
+		
+		private final Collection<SnomedComponent> components;
+		private final Multimap<Class<? extends SnomedDocument>, String> dependencies;
+		
+		ImportBatch(Collection<SnomedComponent> components, Multimap<Class<? extends SnomedDocument>, String> dependencies) {
+			this.components = components;
+			this.dependencies = dependencies;
+		}
+		
+	}
 }
@@ -25,6 +25,7 @@ import com.b2international.snowowl.core.domain.BranchContext;
 import com.b2international.snowowl.core.request.io.ImportDefectAcceptor.ImportDefectBuilder;
 import com.b2international.snowowl.core.uri.ComponentURI;
 import com.google.common.collect.ImmutableSet.Builder;
+import com.google.common.util.concurrent.ListeningExecutorService;
 
 /**
  * @since 8.0
@@ -51,6 +52,15 @@ public interface Rf2EffectiveTimeSlice {
 
 	LongKeyMap<Set<String>> getMembersByReferencedComponent();
 
+	/**
+	 * Starts computing the import plan of this slice on the given executor, so that it can be prepared while previous slices are being
+	 * imported. The executor is also used for reading the components of the next batch while the current one is committed. Dependencies of
+	 * the slice should not change after this method is called.
+	 * 
+	 * @param executor - the executor to use for background work during import
+	 */
+	void prepareImport(ListeningExecutorService executor);
+	
 	void doImport(BranchContext context, ResourceURI codeSystemUri, Rf2ImportConfiguration importConfig, Builder<ComponentURI> visitedComponents) throws Exception;
 	
 }
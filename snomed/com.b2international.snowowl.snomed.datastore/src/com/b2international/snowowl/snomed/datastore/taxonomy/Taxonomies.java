@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -54,7 +54,6 @@ import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationsh
 import com.b2international.snowowl.snomed.datastore.request.SnomedOWLExpressionConverter;
 import com.b2international.snowowl.snomed.datastore.request.SnomedOWLExpressionConverterResult;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Sets;
 
 /**
  * @since 4.7
@@ -80,8 +79,6 @@ public final class Taxonomies {
 			
 			final TaxonomyGraph oldTaxonomy = new TaxonomyGraph(conceptIds.size(), isaStatements.size());
 			oldTaxonomy.setCheckCycles(checkCycles);
-			final TaxonomyGraph newTaxonomy = new TaxonomyGraph(conceptIds.size(), isaStatements.size());
-			newTaxonomy.setCheckCycles(checkCycles);
 
 			// populate nodes
 			LongIterator conceptIdsIt = conceptIds.iterator();
@@ -91,38 +88,41 @@ public final class Taxonomies {
 					continue;
 				}
 				oldTaxonomy.addNode(nodeId);
-				newTaxonomy.addNode(nodeId);
 			}
 			
 			// populate edges
 			for (Object[] isaStatement : isaStatements) {
 				oldTaxonomy.addEdge((String) isaStatement[0], (long) isaStatement[1], (long[]) isaStatement[2]);
-				newTaxonomy.addEdge((String) isaStatement[0], (long) isaStatement[1], (long[]) isaStatement[2]);
 			}
 			
 			isaStatements = null;
 			
 			oldTaxonomy.update();
 			
-			final TaxonomyGraphStatus status = updateTaxonomy(searcher, expressionConverter, staging, newTaxonomy, characteristicTypeId); 
+			// the new state only needs to process the staged changes on top of the old one 
+			final TaxonomyGraph newTaxonomy = oldTaxonomy.copy();
+			applyChanges(searcher, expressionConverter, staging, newTaxonomy, characteristicTypeId);
 			
-			final Set<String> newKeys = newTaxonomy.getEdgeIds();
-			final Set<String> oldKeys = oldTaxonomy.getEdgeIds();
-			
-			// new edges
-			final Set<String> newEdges = Sets.difference(newKeys, oldKeys);
-			// changed edges
-			final Set<String> changedEdges = Sets.newHashSet();
-			for (String nextEdge : Sets.intersection(newKeys, oldKeys)) {
-				Edges oldValue = oldTaxonomy.getEdge(nextEdge);
-				Edges newValue = newTaxonomy.getEdge(nextEdge);
-				if (!oldValue.equals(newValue)) {
-					changedEdges.add(nextEdge);
+			// only edges touched by the changes can differ between the two states
+			final Set<String> newEdges = newHashSet();
+			final Set<String> changedEdges = newHashSet();
+			final Set<String> detachedEdges = newHashSet();
+			for (String edgeId : newTaxonomy.getChangedEdgeIds()) {
+				final Edges oldValue = oldTaxonomy.getEdge(edgeId);
+				final Edges newValue = newTaxonomy.getEdge(edgeId);
+				if (newValue == null) {
+					if (oldValue != null) {
+						detachedEdges.add(edgeId);
+					}
+				} else if (oldValue == null) {
+					newEdges.add(edgeId);
+				} else if (!oldValue.equals(newValue)) {
+					changedEdges.add(edgeId);
 				}
 			}
 			
-			// detached edges
-			final Set<String> detachedEdges = Sets.difference(oldKeys, newKeys);
+			LOGGER.trace("Updating taxonomic information based on the changes.");
+			final TaxonomyGraphStatus status = newTaxonomy.update();
 			
 			return new Taxonomy(newTaxonomy, oldTaxonomy, status, newEdges, changedEdges, detachedEdges);
 		} catch (IOException e) {
@@ -130,7 +130,7 @@ public final class Taxonomies {
 		}
 	}
 
-	private static TaxonomyGraphStatus updateTaxonomy(RevisionSearcher searcher, 
+	private static void applyChanges(RevisionSearcher searcher, 
 			SnomedOWLExpressionConverter expressionConverter, 
 			StagingArea staging, 
 			TaxonomyGraph graphToUpdate, 
@@ -217,9 +217,6 @@ public final class Taxonomies {
 				graphToUpdate.addEdge(relationship[0], Long.parseLong(relationship[1]), new long[] { Long.parseLong(relationship[2]) });
 			}
 		}
-		
-		LOGGER.trace("Rebuilding taxonomic information based on the changes.");
-		return graphToUpdate.update();
 	}
 	
 	private static void updateConcept(SnomedConceptDocument concept, TaxonomyGraph graphToUpdate) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2019-2022 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2019-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,10 +18,8 @@ package com.b2international.snowowl.snomed.datastore.taxonomy;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.Iterables.isEmpty;
 
-import java.util.BitSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
+import java.util.Map.Entry;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +34,7 @@ import com.b2international.snowowl.core.status.Statuses;
 import com.b2international.snowowl.snomed.datastore.taxonomy.InvalidRelationship.MissingConcept;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 /**
  * @since 6.14
@@ -44,6 +43,8 @@ public final class TaxonomyGraph {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(TaxonomyGraph.class);
 	
+	private static final int[] EMPTY = new int[0];
+	
 	/**
 	 * Matrix for storing ancestors by internal IDs.
 	 */
@@ -69,9 +70,47 @@ public final class TaxonomyGraph {
 	 */
 	private final Map<String, Edges> edges;
 	
+	/**
+	 * Map for storing the state of edges before they were first added, changed or removed since the last update. New edges are mapped to <code>null</code>.
+	 */
+	private final Map<String, Edges> edgeChanges;
+	
+	/**
+	 * Set of edges referencing a missing node at the time of the last update.
+	 */
+	private final Set<String> invalidEdgeIds;
+	
+	/**Flag indicating that internal IDs of nodes are no longer stable, the matrices have to be rebuilt from scratch on the next update.*/
+	private boolean nodesRemoved;
+	
 	public TaxonomyGraph(int numberOfExpectedNodes, int numberOfExpectedEdges) {
 		this.nodes = new LongOrderedSetImpl(numberOfExpectedNodes);
 		this.edges = Maps.newHashMapWithExpectedSize(numberOfExpectedEdges);
+		this.edgeChanges = Maps.newHashMap();
+		this.invalidEdgeIds = Sets.newHashSet();
+	}
+	
+	private TaxonomyGraph(TaxonomyGraph original) {
+		this.nodes = new LongOrderedSetImpl(original.nodes);
+		this.edges = Maps.newHashMap(original.edges);
+		this.edgeChanges = Maps.newHashMap();
+		this.invalidEdgeIds = Sets.newHashSet(original.invalidEdgeIds);
+		this.checkCycles = original.checkCycles;
+		// rows are always replaced, never modified in place, so they can be shared between the original and the copy
+		this.ancestors = original.ancestors == null ? null : original.ancestors.clone();
+		this.descendants = original.descendants == null ? null : original.descendants.clone();
+	}
+	
+	/**
+	 * Creates a copy of this graph that can be modified and {@link #update() updated} independently of this instance. Subsequent updates of the
+	 * copy only process the changes made after the copy was created instead of rebuilding the entire graph, unless nodes are removed.
+	 * 
+	 * @return a copy of this graph
+	 * @throws IllegalStateException - if this graph is in dirty state
+	 */
+	public TaxonomyGraph copy() {
+		checkState();
+		return new TaxonomyGraph(this);
 	}
 	
 	public void setCheckCycles(boolean checkCycles) {
@@ -97,10 +136,29 @@ public final class TaxonomyGraph {
 		if (null != edges) {
 			edges.clear();
 		}
+		
+		edgeChanges.clear();
+		invalidEdgeIds.clear();
+		nodesRemoved = false;
 	}
 	
 	public TaxonomyGraphStatus update() {
+		final TaxonomyGraphStatus result;
+		if (ancestors == null || nodesRemoved) {
+			result = rebuild();
+		} else {
+			result = updateIncrementally();
+		}
+		
+		edgeChanges.clear();
+		nodesRemoved = false;
+		dirty = false;
+		return result;
+	}
+	
+	private TaxonomyGraphStatus rebuild() {
 		final List<InvalidRelationship> invalidRelationships = Lists.newArrayList();
+		invalidEdgeIds.clear();
 
 		// allocate data
 		final int conceptCount = nodes.size();
@@ -124,8 +182,9 @@ public final class TaxonomyGraph {
 		nodes.compact();
 		
 		// refresh all RelationshipMini concepts, since they may have been modified
-		for (final Edges statements : edges.values()) {
+		for (final Entry<String, Edges> entry : edges.entrySet()) {
 
+			final Edges statements = entry.getValue();
 			final long sourceId = statements.sourceId;
 			final long[] destinationIds = statements.destinationIds;
 			final int sourceConceptInternalId = nodes.indexOf(sourceId);
@@ -147,6 +206,8 @@ public final class TaxonomyGraph {
 				if (!edgeSkipped) {
 					outgoingIsaHistogram[sourceConceptInternalId]++;
 					incomingIsaHistogram[destinationConceptInternalId]++;
+				} else {
+					invalidEdgeIds.add(entry.getKey());
 				}
 				
 				_conceptInternalIds[count][0] = sourceConceptInternalId;
@@ -155,39 +216,128 @@ public final class TaxonomyGraph {
 			}
 		}
 
-		final TaxonomyGraphStatus result;
+		for (int i = 0; i < conceptCount; i++) {
+			ancestors[i] = new int[outgoingIsaHistogram[i]];
+			descendants[i] = new int[incomingIsaHistogram[i]];
+		}
+
+		// create index matrices for relationships
+		final int[] tailsSuperTypes = new int[conceptCount];
+		final int[] tailsSubTypes = new int[conceptCount];
+
+		for (int i = 0; i < _conceptInternalIds.length; i++) {
 			
-			for (int i = 0; i < conceptCount; i++) {
-				ancestors[i] = new int[outgoingIsaHistogram[i]];
-				descendants[i] = new int[incomingIsaHistogram[i]];
+			final int subjectId = _conceptInternalIds[i][0];
+			final int objectId = _conceptInternalIds[i][1];
+
+			if (objectId != -1 && subjectId != -1) {
+				ancestors[subjectId][tailsSuperTypes[subjectId]++] = objectId;
+				descendants[objectId][tailsSubTypes[objectId]++] = subjectId;
 			}
+
+		}
+		
+		return toStatus(invalidRelationships);
+	}
 	
-			// create index matrices for relationships
-			final int[] tailsSuperTypes = new int[conceptCount];
-			final int[] tailsSubTypes = new int[conceptCount];
+	private TaxonomyGraphStatus updateIncrementally() {
+		final List<InvalidRelationship> invalidRelationships = Lists.newArrayList();
+		
+		// without node removals internal IDs are stable, new nodes are appended to the end
+		final int previousConceptCount = ancestors.length;
+		final int conceptCount = getConceptCount();
+		if (conceptCount > previousConceptCount) {
+			ancestors = Arrays.copyOf(ancestors, conceptCount);
+			descendants = Arrays.copyOf(descendants, conceptCount);
+			Arrays.fill(ancestors, previousConceptCount, conceptCount, EMPTY);
+			Arrays.fill(descendants, previousConceptCount, conceptCount, EMPTY);
+		}
+		
+		// edges skipped during the last update might have become valid since then
+		for (final String invalidEdgeId : invalidEdgeIds) {
+			if (!edgeChanges.containsKey(invalidEdgeId)) {
+				edgeChanges.put(invalidEdgeId, edges.get(invalidEdgeId));
+			}
+		}
+		invalidEdgeIds.clear();
+		
+		for (final Entry<String, Edges> change : edgeChanges.entrySet()) {
+			
+			// unregister the previous state, only pairs between nodes present at the last update were registered
+			final Edges previousStatements = change.getValue();
+			if (previousStatements != null) {
+				final int sourceConceptInternalId = nodes.indexOf(previousStatements.sourceId);
+				for (final long destinationId : previousStatements.destinationIds) {
+					final int destinationConceptInternalId = nodes.indexOf(destinationId);
+					if (isRegistered(sourceConceptInternalId, previousConceptCount) && isRegistered(destinationConceptInternalId, previousConceptCount)) {
+						ancestors[sourceConceptInternalId] = remove(ancestors[sourceConceptInternalId], destinationConceptInternalId);
+						descendants[destinationConceptInternalId] = remove(descendants[destinationConceptInternalId], sourceConceptInternalId);
+					}
+				}
+			}
+			
+			// register the current state
+			final Edges statements = edges.get(change.getKey());
+			if (statements != null) {
+				final long sourceId = statements.sourceId;
+				final int sourceConceptInternalId = nodes.indexOf(sourceId);
+				for (final long destinationId : statements.destinationIds) {
+					boolean edgeSkipped = false;
+					
+					if (sourceConceptInternalId < 0) {
+						invalidRelationships.add(new InvalidRelationship(sourceId, destinationId, MissingConcept.SOURCE));
+						edgeSkipped |= true;
+					}
+					
+					final int destinationConceptInternalId = nodes.indexOf(destinationId);
+					if (destinationConceptInternalId < 0) {
+						invalidRelationships.add(new InvalidRelationship(sourceId, destinationId, MissingConcept.DESTINATION));
+						edgeSkipped |= true;
+					}
+					
+					if (!edgeSkipped) {
+						ancestors[sourceConceptInternalId] = append(ancestors[sourceConceptInternalId], destinationConceptInternalId);
+						descendants[destinationConceptInternalId] = append(descendants[destinationConceptInternalId], sourceConceptInternalId);
+					} else {
+						invalidEdgeIds.add(change.getKey());
+					}
+				}
+			}
+		}
+		
+		return toStatus(invalidRelationships);
+	}
 	
-			for (int i = 0; i < _conceptInternalIds.length; i++) {
-				
-				final int subjectId = _conceptInternalIds[i][0];
-				final int objectId = _conceptInternalIds[i][1];
+	private static boolean isRegistered(final int internalId, final int previousConceptCount) {
+		return internalId >= 0 && internalId < previousConceptCount;
+	}
 	
-				if (objectId != -1 && subjectId != -1) {
-					ancestors[subjectId][tailsSuperTypes[subjectId]++] = objectId;
-					descendants[objectId][tailsSubTypes[objectId]++] = subjectId;
-				}
+	private static int[] append(final int[] internalIds, final int internalId) {
+		final int[] result = Arrays.copyOf(internalIds, internalIds.length + 1);
+		result[internalIds.length] = internalId;
+		return result;
+	}
 	
+	private static int[] remove(final int[] internalIds, final int internalId) {
+		for (int i = 0; i < internalIds.length; i++) {
+			if (internalIds[i] == internalId) {
+				final int[] result = new int[internalIds.length - 1];
+				System.arraycopy(internalIds, 0, result, 0, i);
+				System.arraycopy(internalIds, i + 1, result, i, internalIds.length - i - 1);
+				return result;
 			}
-			
+		}
+		return internalIds;
+	}
+	
+	private TaxonomyGraphStatus toStatus(final List<InvalidRelationship> invalidRelationships) {
 		if (isEmpty(invalidRelationships)) {
-			result = new TaxonomyGraphStatus(Statuses.ok());
+			return new TaxonomyGraphStatus(Statuses.ok());
 		} else {
 			LOGGER.warn("Taxonomy builder encountered relationships referencing inactive / non-existent concepts");
-			result = new TaxonomyGraphStatus(
+			return new TaxonomyGraphStatus(
 					Statuses.error("Taxonomy builder encountered relationships referencing inactive / non-existent concepts"), invalidRelationships);
 		}
-
-		dirty = false;
-		return result;
 	}
 
 	public boolean containsNode(final long nodeId) {
@@ -195,7 +345,7 @@ public final class TaxonomyGraph {
 	}
 	
 	public void addEdge(final String edgeId, final long sourceId, final long[] destinationIds) {
-		edges.put(edgeId, new Edges(sourceId, destinationIds));
+		recordChange(edgeId, edges.put(edgeId, new Edges(sourceId, destinationIds)));
 		dirty = true;
 	}
 
@@ -208,16 +358,24 @@ public final class TaxonomyGraph {
 	}
 	
 	public void removeEdge(final String edgeId) {
-		edges.remove(edgeId);
+		recordChange(edgeId, edges.remove(edgeId));
 		dirty = true;
 	}
 	
+	private void recordChange(final String edgeId, final Edges previousEdges) {
+		if (!edgeChanges.containsKey(edgeId)) {
+			edgeChanges.put(edgeId, previousEdges);
+		}
+	}
+	
 	public void removeNode(final String nodeId) {
 		removeNode(Long.parseLong(nodeId));
 	}
 
 	private void removeNode(long nodeIdLong) {
-		nodes.remove(nodeIdLong);
+		if (nodes.remove(nodeIdLong)) {
+			nodesRemoved = true;
+		}
 		dirty = true;
 	}
 
@@ -271,6 +429,13 @@ public final class TaxonomyGraph {
 		return edges.keySet();
 	}
 	
+	/**
+	 * @return the IDs of edges that were added, changed or removed since the last update (or since this graph was {@link #copy() copied})
+	 */
+	public Set<String> getChangedEdgeIds() {
+		return Collections.unmodifiableSet(edgeChanges.keySet());
+	}
+	
 	Edges getEdge(String edgeId) {
 		return edges.get(edgeId);
 	}
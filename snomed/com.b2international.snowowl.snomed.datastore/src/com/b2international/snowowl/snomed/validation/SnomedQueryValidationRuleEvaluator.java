@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2017-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package com.b2international.snowowl.snomed.validation;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.Lists.newArrayListWithExpectedSize;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -88,6 +89,11 @@ public final class SnomedQueryValidationRuleEvaluator implements ValidationRuleE
 			expressionBuilder.filter(SnomedDocument.Expressions.effectiveTime(EffectiveTimes.UNSET_EFFECTIVE_TIME));
 		}
 		
+		// incremental validation runs restrict the evaluation to the components changed since the last run
+		if (params != null && params.containsKey(ValidationConfiguration.COMPONENT_IDS)) {
+			expressionBuilder.filter(SnomedDocument.Expressions.ids((Collection<String>) params.get(ValidationConfiguration.COMPONENT_IDS)));
+		}
+		
 		Expression where = expressionBuilder.build();
 		
 		// TODO check if the expression contains only the ID list, then skip scrolling and just report them
@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2019 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2018-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,9 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
+import com.b2international.snowowl.snomed.reasoner.classification.ReasonerTaxonomyBuilderTest;
+import com.b2international.snowowl.snomed.reasoner.classification.ReasonerTaxonomyCacheTest;
+import com.b2international.snowowl.snomed.reasoner.classification.ReasonerTaxonomyDiffTest;
 import com.b2international.snowowl.snomed.reasoner.index.entry.ClassificationTaskSerializationTest;
 import com.b2international.snowowl.snomed.reasoner.index.entry.ConcreteDomainChangeSerializationTest;
 import com.b2international.snowowl.snomed.reasoner.index.entry.EquivalentConceptSetSerializationTest;
@@ -33,6 +36,9 @@ import com.b2international.snowowl.snomed.reasoner.index.entry.RelationshipChang
 	EquivalentConceptSetSerializationTest.class,
 	RelationshipChangeSerializationTest.class,
 	ConcreteDomainChangeSerializationTest.class,
+	ReasonerTaxonomyDiffTest.class,
+	ReasonerTaxonomyCacheTest.class,
+	ReasonerTaxonomyBuilderTest.class,
 })
 public class AllSnomedReasonerTests {
 
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.classification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
+import com.b2international.snowowl.snomed.core.domain.SnomedRelationship;
+import com.b2international.snowowl.snomed.core.domain.SubclassDefinitionStatus;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomy;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomyBuilder;
+
+/**
+ * Checks that loading stream-based content into a {@link ReasonerTaxonomyBuilder} concurrently gives the same taxonomy as loading it
+ * sequentially.
+ *
+ * @since 9.3
+ */
+public class ReasonerTaxonomyBuilderTest {
+
+	private static final String BODY_STRUCTURE = "123037004";
+	private static final String HEART = "80891009";
+	private static final String CLINICAL_FINDING = "404684003";
+	private static final String HEART_DISEASE = "56265001";
+	private static final String MYOCARDIAL_INFARCTION = "22298006";
+
+	private final Map<String, SnomedConcept> concepts = new LinkedHashMap<>();
+	private final List<SnomedRelationship> relationships = new ArrayList<>();
+	private long nextRelationshipId = 100_000_120L;
+
+	public ReasonerTaxonomyBuilderTest() {
+		addConcept(Concepts.ROOT_CONCEPT, null, Concepts.PRIMITIVE);
+		addConcept(Concepts.IS_A, Concepts.ROOT_CONCEPT, Concepts.PRIMITIVE);
+		addConcept(Concepts.FINDING_SITE, Concepts.ROOT_CONCEPT, Concepts.PRIMITIVE);
+		addConcept(BODY_STRUCTURE, Concepts.ROOT_CONCEPT, Concepts.PRIMITIVE);
+		addConcept(HEART, BODY_STRUCTURE, Concepts.PRIMITIVE);
+		addConcept(CLINICAL_FINDING, Concepts.ROOT_CONCEPT, Concepts.PRIMITIVE);
+		addConcept(HEART_DISEASE, CLINICAL_FINDING, Concepts.FULLY_DEFINED);
+		addConcept(MYOCARDIAL_INFARCTION, HEART_DISEASE, Concepts.PRIMITIVE);
+
+		concepts.get(BODY_STRUCTURE).setSubclassDefinitionStatus(SubclassDefinitionStatus.DISJOINT_SUBCLASSES);
+		addRelationship(HEART_DISEASE, Concepts.FINDING_SITE, HEART, 1);
+	}
+
+	private void addConcept(final String conceptId, final String parentId, final String definitionStatusId) {
+		final SnomedConcept concept = new SnomedConcept(conceptId);
+		concept.setActive(true);
+		concept.setModuleId(Concepts.MODULE_SCT_CORE);
+		concept.setDefinitionStatusId(definitionStatusId);
+		concepts.put(conceptId, concept);
+
+		if (parentId != null) {
+			addRelationship(conceptId, Concepts.IS_A, parentId, 0);
+		}
+	}
+
+	private void addRelationship(final String sourceId, final String typeId, final String destinationId, final int group) {
+		final SnomedRelationship relationship = new SnomedRelationship(Long.toString(nextRelationshipId++));
+		relationship.setActive(true);
+		relationship.setModuleId(Concepts.MODULE_SCT_CORE);
+		relationship.setCharacteristicTypeId(Concepts.STATED_RELATIONSHIP);
+		relationship.setSourceId(sourceId);
+		relationship.setTypeId(typeId);
+		relationship.setDestinationId(destinationId);
+		relationship.setDestinationNegated(false);
+		relationship.setRelationshipGroup(group);
+		relationship.setUnionGroup(0);
+		relationship.setModifierId(Concepts.EXISTENTIAL_RESTRICTION_MODIFIER);
+		relationships.add(relationship);
+	}
+
+	private Stream<SnomedRelationship> sortedRelationships() {
+		return relationships.stream().sorted(Comparator.comparing(SnomedRelationship::getSourceId).thenComparing(SnomedRelationship::getId));
+	}
+
+	private ReasonerTaxonomyBuilder newBuilder() {
+		// A small page size makes the loaders register their content in several chunks
+		return new ReasonerTaxonomyBuilder(2)
+				.addActiveConceptIds(concepts.values().stream())
+				.finishConcepts();
+	}
+
+	@Test
+	public void conceptFlagsFromStream() throws Exception {
+		final ReasonerTaxonomyBuilder builder = newBuilder().addConceptFlags(concepts.values().stream());
+		final ReasonerTaxonomy taxonomy = builder.build();
+
+		assertTrue(taxonomy.getDefiningConcepts().contains(HEART_DISEASE));
+		assertFalse(taxonomy.getDefiningConcepts().contains(MYOCARDIAL_INFARCTION));
+		assertTrue(taxonomy.getExhaustiveConcepts().contains(BODY_STRUCTURE));
+		assertFalse(taxonomy.getExhaustiveConcepts().contains(HEART));
+		assertTrue(builder.getPhaseTimings().containsKey("Registering active concept flags (fully defined, exhaustive) using concept ID stream"));
+	}
+
+	@Test
+	public void concurrentLoadingMatchesSequentialLoading() throws Exception {
+		final ReasonerTaxonomy sequential = newBuilder()
+				.addConceptFlags(concepts.values().stream())
+				.addActiveStatedEdges(relationships.stream())
+				.addActiveStatedRelationships(sortedRelationships())
+				.build();
+
+		final ReasonerTaxonomy concurrent = newBuilder()
+				.addConcurrently(List.of(
+					builder -> builder.addConceptFlags(concepts.values().stream()),
+					builder -> builder.addActiveStatedEdges(relationships.stream()),
+					builder -> builder.addActiveStatedRelationships(sortedRelationships())))
+				.build();
+
+		for (final String conceptId : concepts.keySet()) {
+			assertEquals(conceptId, sequential.getStatedAncestors().getDestinations(conceptId, false), concurrent.getStatedAncestors().getDestinations(conceptId, false));
+			assertEquals(conceptId, sequential.getStatedDescendants().getDestinations(conceptId, false), concurrent.getStatedDescendants().getDestinations(conceptId, false));
+			assertEquals(conceptId, sequential.getDefiningConcepts().contains(conceptId), concurrent.getDefiningConcepts().contains(conceptId));
+			assertEquals(conceptId, sequential.getExhaustiveConcepts().contains(conceptId), concurrent.getExhaustiveConcepts().contains(conceptId));
+			assertEquals(conceptId, sequential.getStatedRelationships().get(conceptId).size(), concurrent.getStatedRelationships().get(conceptId).size());
+		}
+
+		assertEquals(Set.of(BODY_STRUCTURE, Concepts.ROOT_CONCEPT), concurrent.getStatedAncestors().getDestinations(HEART, false));
+	}
+}
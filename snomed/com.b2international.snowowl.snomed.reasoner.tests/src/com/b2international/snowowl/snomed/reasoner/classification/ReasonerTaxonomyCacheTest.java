@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.classification;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import com.b2international.collections.PrimitiveSets;
+
+/**
+ * @since 9.3
+ */
+public class ReasonerTaxonomyCacheTest {
+
+	private static final String BRANCH_PATH = "MAIN/a";
+	private static final String OTHER_BRANCH_PATH = "MAIN/b";
+	private static final long BRANCH_ID = 2L;
+	private static final long BASE_TIMESTAMP = 1_000L;
+	
+	private final ReasonerTaxonomyCache cache = new ReasonerTaxonomyCache(10L);
+	
+	private static ReasonerTaxonomyCache.Entry createEntry(final long branchId, final long baseTimestamp) {
+		return new ReasonerTaxonomyCache.Entry(branchId, baseTimestamp, "reasonerId", null, false, PrimitiveSets.newLongOpenHashSet());
+	}
+	
+	@Test
+	public void sameBranch() throws Exception {
+		final ReasonerTaxonomyCache.Entry entry = createEntry(BRANCH_ID, BASE_TIMESTAMP);
+		cache.put(BRANCH_PATH, entry);
+		
+		assertSame(entry, cache.get(BRANCH_PATH, BRANCH_ID, BASE_TIMESTAMP));
+		assertSame(entry, cache.get(BRANCH_PATH, BRANCH_ID, BASE_TIMESTAMP));
+		assertNull(cache.get(OTHER_BRANCH_PATH, BRANCH_ID, BASE_TIMESTAMP));
+	}
+	
+	@Test
+	public void branchRebased() throws Exception {
+		cache.put(BRANCH_PATH, createEntry(BRANCH_ID, BASE_TIMESTAMP));
+		
+		assertNull(cache.get(BRANCH_PATH, BRANCH_ID, BASE_TIMESTAMP + 1L));
+		// The entry was discarded
+		assertNull(cache.get(BRANCH_PATH, BRANCH_ID, BASE_TIMESTAMP));
+	}
+	
+	@Test
+	public void branchRecreated() throws Exception {
+		cache.put(BRANCH_PATH, createEntry(BRANCH_ID, BASE_TIMESTAMP));
+		
+		assertNull(cache.get(BRANCH_PATH, BRANCH_ID + 1L, BASE_TIMESTAMP));
+		assertNull(cache.get(BRANCH_PATH, BRANCH_ID, BASE_TIMESTAMP));
+	}
+	
+	@Test
+	public void otherBranchMoved() throws Exception {
+		final ReasonerTaxonomyCache.Entry entry = createEntry(BRANCH_ID, BASE_TIMESTAMP);
+		cache.put(BRANCH_PATH, entry);
+		cache.put(OTHER_BRANCH_PATH, createEntry(BRANCH_ID + 1L, BASE_TIMESTAMP));
+		
+		assertNull(cache.get(OTHER_BRANCH_PATH, BRANCH_ID + 1L, BASE_TIMESTAMP + 1L));
+		assertSame(entry, cache.get(BRANCH_PATH, BRANCH_ID, BASE_TIMESTAMP));
+	}
+	
+}
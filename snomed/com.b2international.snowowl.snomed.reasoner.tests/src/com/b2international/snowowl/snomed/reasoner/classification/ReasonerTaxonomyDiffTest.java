@@ -0,0 +1,324 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.classification;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.stream.Stream;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.Test;
+
+import com.b2international.collections.PrimitiveLists;
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongIterator;
+import com.b2international.collections.longs.LongList;
+import com.b2international.collections.longs.LongSet;
+import com.b2international.commons.collect.LongSets;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
+import com.b2international.snowowl.snomed.core.domain.SnomedRelationship;
+import com.b2international.snowowl.snomed.datastore.ConcreteDomainFragment;
+import com.b2international.snowowl.snomed.datastore.StatementFragment;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.*;
+import com.b2international.snowowl.snomed.reasoner.diff.OntologyChangeProcessor;
+import com.b2international.snowowl.snomed.reasoner.normalform.NormalFormGenerator;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Checks that a repeated classification which starts from the taxonomy of the previous run on the branch computes the same changes as a
+ * full run. Concepts in these tests are all primitive, so the inferred hierarchy is the same as the stated one.
+ * 
+ * @since 9.3
+ */
+public class ReasonerTaxonomyDiffTest {
+
+	private static final String FINDING_SITE = Concepts.FINDING_SITE;
+	private static final String ASSOCIATED_MORPHOLOGY = "116676008";
+	private static final String BODY_STRUCTURE = "123037004";
+	private static final String HEART = "80891009";
+	private static final String INFARCT = "55641003";
+	private static final String CLINICAL_FINDING = "404684003";
+	private static final String HEART_DISEASE = "56265001";
+	private static final String ISCHEMIC_HEART_DISEASE = "414545008";
+	private static final String MYOCARDIAL_INFARCTION = "22298006";
+	private static final String DIABETES = "73211009";
+
+	/**
+	 * Holds the stated and existing inferred content of a branch.
+	 */
+	private static final class Fixture {
+
+		private final Map<String, String> parentIds = new LinkedHashMap<>();
+		private final List<SnomedRelationship> relationships = new ArrayList<>();
+		private long nextRelationshipId = 100_000_120L;
+
+		Fixture() {
+			addConcept(Concepts.ROOT_CONCEPT, null);
+			addConcept(Concepts.IS_A, Concepts.ROOT_CONCEPT);
+			addConcept(FINDING_SITE, Concepts.ROOT_CONCEPT);
+			addConcept(ASSOCIATED_MORPHOLOGY, Concepts.ROOT_CONCEPT);
+			addConcept(BODY_STRUCTURE, Concepts.ROOT_CONCEPT);
+			addConcept(HEART, BODY_STRUCTURE);
+			addConcept(INFARCT, BODY_STRUCTURE);
+			addConcept(CLINICAL_FINDING, Concepts.ROOT_CONCEPT);
+			addConcept(HEART_DISEASE, CLINICAL_FINDING);
+			addConcept(MYOCARDIAL_INFARCTION, HEART_DISEASE);
+			addConcept(DIABETES, CLINICAL_FINDING);
+
+			addRelationship(Concepts.STATED_RELATIONSHIP, HEART_DISEASE, FINDING_SITE, HEART, 1);
+			addRelationship(Concepts.INFERRED_RELATIONSHIP, HEART_DISEASE, FINDING_SITE, HEART, 1);
+			// The inherited finding site of myocardial infarction is missing from the existing inferred relationships
+		}
+
+		void addConcept(final String conceptId, final String parentId) {
+			parentIds.put(conceptId, parentId);
+			if (parentId != null) {
+				addRelationship(Concepts.STATED_RELATIONSHIP, conceptId, Concepts.IS_A, parentId, 0);
+				addRelationship(Concepts.INFERRED_RELATIONSHIP, conceptId, Concepts.IS_A, parentId, 0);
+			}
+		}
+
+		void moveConcept(final String conceptId, final String newParentId) {
+			final String oldParentId = parentIds.put(conceptId, newParentId);
+			for (final SnomedRelationship relationship : relationships) {
+				if (conceptId.equals(relationship.getSourceId()) 
+						&& Concepts.IS_A.equals(relationship.getTypeId())
+						&& oldParentId.equals(relationship.getDestinationId())) {
+					relationship.setDestinationId(newParentId);
+				}
+			}
+		}
+
+		void addRelationship(final String characteristicTypeId, final String sourceId, final String typeId, final String destinationId, final int group) {
+			final SnomedRelationship relationship = new SnomedRelationship(Long.toString(nextRelationshipId++));
+			relationship.setActive(true);
+			relationship.setModuleId(Concepts.MODULE_SCT_CORE);
+			relationship.setCharacteristicTypeId(characteristicTypeId);
+			relationship.setSourceId(sourceId);
+			relationship.setTypeId(typeId);
+			relationship.setDestinationId(destinationId);
+			relationship.setDestinationNegated(false);
+			relationship.setRelationshipGroup(group);
+			relationship.setUnionGroup(0);
+			relationship.setModifierId(Concepts.EXISTENTIAL_RESTRICTION_MODIFIER);
+			relationships.add(relationship);
+		}
+
+		ReasonerTaxonomy build() {
+			return new ReasonerTaxonomyBuilder(10)
+					.addActiveConceptIds(parentIds.keySet().stream().map(Fixture::createConcept))
+					.finishConcepts()
+					.addActiveStatedEdges(relationships.stream())
+					.addActiveStatedRelationships(sortedRelationships())
+					.addActiveInferredRelationships(sortedRelationships())
+					.build();
+		}
+
+		private Stream<SnomedRelationship> sortedRelationships() {
+			return relationships.stream().sorted(Comparator.comparing(SnomedRelationship::getSourceId).thenComparing(SnomedRelationship::getId));
+		}
+
+		private static SnomedConcept createConcept(final String conceptId) {
+			final SnomedConcept concept = new SnomedConcept(conceptId);
+			concept.setActive(true);
+			concept.setModuleId(Concepts.MODULE_SCT_CORE);
+			concept.setDefinitionStatusId(Concepts.PRIMITIVE);
+			return concept;
+		}
+	}
+
+	/**
+	 * Records changes reported by the normal form generator in a comparable form.
+	 */
+	private static final class ChangeCollector<T extends Serializable> extends OntologyChangeProcessor<T> {
+
+		private final SortedSet<String> changes;
+
+		ChangeCollector(final SortedSet<String> changes) {
+			this.changes = changes;
+		}
+
+		@Override
+		protected void handleAddedSubject(final String conceptId, final T addedSubject) {
+			changes.add(conceptId + " + " + addedSubject);
+		}
+
+		@Override
+		protected void handleRemovedSubject(final String conceptId, final T removedSubject) {
+			changes.add(conceptId + " - " + removedSubject);
+		}
+	}
+
+	/*
+	 * Stands in for the reasoner: all concepts are primitive, so the inferred parents are the stated ones. The iteration order lists
+	 * concepts in breadth-first order, with a marker at the end of each layer.
+	 */
+	private static ReasonerTaxonomy classify(final ReasonerTaxonomy taxonomy) {
+		final InternalIdMap conceptMap = taxonomy.getConceptMap();
+		final InternalIdEdges.Builder inferredAncestors = InternalIdEdges.builder(conceptMap);
+		final LongList iterationOrder = PrimitiveLists.newLongArrayList();
+
+		LongSet currentLayer = PrimitiveSets.newLongOpenHashSet();
+		for (final LongIterator itr = conceptMap.getSctIds(); itr.hasNext(); /* empty */) {
+			final long conceptId = itr.next();
+			if (taxonomy.getStatedAncestors().getDestinations(conceptId, true).isEmpty()) {
+				currentLayer.add(conceptId);
+			}
+		}
+
+		final LongSet visited = PrimitiveSets.newLongOpenHashSet();
+		while (!currentLayer.isEmpty()) {
+			final LongSet nextLayer = PrimitiveSets.newLongOpenHashSet();
+
+			for (final LongIterator itr = currentLayer.iterator(); itr.hasNext(); /* empty */) {
+				final long conceptId = itr.next();
+				final List<String> parentIds = LongSets.toStringList(taxonomy.getStatedAncestors().getDestinations(conceptId, true));
+				inferredAncestors.addEdges(Collections.nCopies(parentIds.size(), Long.toString(conceptId)), parentIds);
+				iterationOrder.add(conceptId);
+				visited.add(conceptId);
+				nextLayer.addAll(taxonomy.getStatedDescendants().getDestinations(conceptId, true));
+			}
+
+			iterationOrder.add(ReasonerTaxonomyInferrer.DEPTH_CHANGE);
+			nextLayer.removeAll(visited);
+			currentLayer = nextLayer;
+		}
+
+		return taxonomy.withInferences(inferredAncestors.build(), 
+				InternalSctIdSet.builder(conceptMap).build(), 
+				InternalSctIdMultimap.builder(conceptMap).build(), 
+				iterationOrder);
+	}
+
+	private static SortedSet<String> computeChanges(final NormalFormGenerator generator) {
+		final SortedSet<String> changes = new TreeSet<>();
+		generator.computeChanges(new NullProgressMonitor(), new ChangeCollector<StatementFragment>(changes), new ChangeCollector<ConcreteDomainFragment>(changes));
+		return changes;
+	}
+
+	private static void assertIds(final LongSet actual, final String... expectedIds) {
+		assertEquals(ImmutableSet.copyOf(expectedIds), LongSets.toStringSet(actual));
+	}
+
+	@Test
+	public void definitionChanged() throws Exception {
+		final Fixture fixture = new Fixture();
+		final ReasonerTaxonomy previous = classify(fixture.build());
+		final NormalFormGenerator previousGenerator = new NormalFormGenerator(previous, false);
+		computeChanges(previousGenerator);
+		assertIds(previousGenerator.getChangedConceptIds(), MYOCARDIAL_INFARCTION);
+
+		fixture.addRelationship(Concepts.STATED_RELATIONSHIP, HEART_DISEASE, ASSOCIATED_MORPHOLOGY, INFARCT, 1);
+		final ReasonerTaxonomy current = fixture.build();
+
+		final ReasonerTaxonomyDiff diff = ReasonerTaxonomyDiff.compare(previous, current);
+		assertFalse(diff.isDefinitionUnchanged());
+		assertIds(diff.getChangedDefinitions(), HEART_DISEASE);
+
+		final ReasonerTaxonomy currentInferred = classify(current);
+		final LongSet conceptIdsToRevisit = diff.getConceptIdsToRevisit(previous, currentInferred, previousGenerator.getChangedConceptIds());
+		assertIds(conceptIdsToRevisit, HEART_DISEASE, MYOCARDIAL_INFARCTION);
+
+		final SortedSet<String> expectedChanges = computeChanges(new NormalFormGenerator(currentInferred, false));
+		assertEquals(3, expectedChanges.size());
+		assertEquals(expectedChanges, computeChanges(new NormalFormGenerator(currentInferred, false, conceptIdsToRevisit)));
+	}
+
+	@Test
+	public void definitionUnchanged() throws Exception {
+		final Fixture fixture = new Fixture();
+		final ReasonerTaxonomy previous = classify(fixture.build());
+		final NormalFormGenerator previousGenerator = new NormalFormGenerator(previous, false);
+		final SortedSet<String> previousChanges = computeChanges(previousGenerator);
+
+		final ReasonerTaxonomy current = fixture.build();
+		final ReasonerTaxonomyDiff diff = ReasonerTaxonomyDiff.compare(previous, current);
+		assertTrue(diff.isDefinitionUnchanged());
+		assertTrue(diff.getChangedNormalFormInputs().isEmpty());
+
+		// Inferences taken over from the previous run should match the ones computed by the reasoner
+		final ReasonerTaxonomy reusedInferred = ReasonerTaxonomyDiff.reuseInferences(previous, current);
+		final ReasonerTaxonomy currentInferred = classify(current);
+		for (final LongIterator itr = current.getConceptMap().getSctIds(); itr.hasNext(); /* empty */) {
+			final long conceptId = itr.next();
+			assertEquals(LongSets.toStringSet(currentInferred.getInferredAncestors().getDestinations(conceptId, true)), 
+					LongSets.toStringSet(reusedInferred.getInferredAncestors().getDestinations(conceptId, true)));
+		}
+		assertArrayEquals(currentInferred.getIterationOrder().toArray(), reusedInferred.getIterationOrder().toArray());
+
+		final LongSet conceptIdsToRevisit = diff.getConceptIdsToRevisit(previous, reusedInferred, previousGenerator.getChangedConceptIds());
+		assertIds(conceptIdsToRevisit, MYOCARDIAL_INFARCTION);
+
+		final SortedSet<String> expectedChanges = computeChanges(new NormalFormGenerator(currentInferred, false));
+		assertEquals(previousChanges, expectedChanges);
+		assertEquals(expectedChanges, computeChanges(new NormalFormGenerator(reusedInferred, false, conceptIdsToRevisit)));
+	}
+
+	@Test
+	public void inferredContentChanged() throws Exception {
+		final Fixture fixture = new Fixture();
+		final ReasonerTaxonomy previous = classify(fixture.build());
+		final NormalFormGenerator previousGenerator = new NormalFormGenerator(previous, false);
+		computeChanges(previousGenerator);
+
+		// Changes of the previous run were saved
+		fixture.addRelationship(Concepts.INFERRED_RELATIONSHIP, MYOCARDIAL_INFARCTION, FINDING_SITE, HEART, 1);
+		final ReasonerTaxonomy current = fixture.build();
+
+		final ReasonerTaxonomyDiff diff = ReasonerTaxonomyDiff.compare(previous, current);
+		assertTrue(diff.isDefinitionUnchanged());
+		assertIds(diff.getChangedNormalFormInputs(), MYOCARDIAL_INFARCTION);
+
+		final ReasonerTaxonomy reusedInferred = ReasonerTaxonomyDiff.reuseInferences(previous, current);
+		final LongSet conceptIdsToRevisit = diff.getConceptIdsToRevisit(previous, reusedInferred, previousGenerator.getChangedConceptIds());
+		assertIds(conceptIdsToRevisit, MYOCARDIAL_INFARCTION);
+
+		final SortedSet<String> expectedChanges = computeChanges(new NormalFormGenerator(classify(current), false));
+		assertTrue(expectedChanges.isEmpty());
+		assertEquals(expectedChanges, computeChanges(new NormalFormGenerator(reusedInferred, false, conceptIdsToRevisit)));
+	}
+
+	@Test
+	public void hierarchyChanged() throws Exception {
+		final Fixture fixture = new Fixture();
+		final ReasonerTaxonomy previous = classify(fixture.build());
+		final NormalFormGenerator previousGenerator = new NormalFormGenerator(previous, false);
+		computeChanges(previousGenerator);
+
+		fixture.addConcept(ISCHEMIC_HEART_DISEASE, HEART_DISEASE);
+		fixture.moveConcept(MYOCARDIAL_INFARCTION, ISCHEMIC_HEART_DISEASE);
+		final ReasonerTaxonomy current = fixture.build();
+
+		final ReasonerTaxonomyDiff diff = ReasonerTaxonomyDiff.compare(previous, current);
+		assertFalse(diff.isDefinitionUnchanged());
+		assertIds(diff.getChangedDefinitions(), ISCHEMIC_HEART_DISEASE, MYOCARDIAL_INFARCTION);
+
+		final ReasonerTaxonomy currentInferred = classify(current);
+		final LongSet conceptIdsToRevisit = diff.getConceptIdsToRevisit(previous, currentInferred, previousGenerator.getChangedConceptIds());
+		assertIds(conceptIdsToRevisit, ISCHEMIC_HEART_DISEASE, MYOCARDIAL_INFARCTION);
+
+		final SortedSet<String> expectedChanges = computeChanges(new NormalFormGenerator(currentInferred, false));
+		assertFalse(expectedChanges.isEmpty());
+		assertEquals(expectedChanges, computeChanges(new NormalFormGenerator(currentInferred, false, conceptIdsToRevisit)));
+	}
+
+}
@@ -30,6 +30,7 @@ import com.b2international.snowowl.core.setup.Plugin;
 import com.b2international.snowowl.snomed.common.SnomedTerminologyComponentConstants;
 import com.b2international.snowowl.snomed.datastore.config.SnomedCoreConfiguration;
 import com.b2international.snowowl.snomed.reasoner.classification.ClassificationTracker;
+import com.b2international.snowowl.snomed.reasoner.classification.ReasonerTaxonomyCache;
 import com.b2international.snowowl.snomed.reasoner.equivalence.IEquivalentConceptMerger;
 import com.b2international.snowowl.snomed.reasoner.index.*;
 
@@ -49,6 +50,11 @@ public final class SnomedReasonerPlugin extends Plugin implements TerminologyRep
 			final ClassificationTracker classificationTracker = new ClassificationTracker(repositoryIndex, maximumReasonerRuns, TimeUnit.MINUTES.toMillis(classificationCleanUpInterval));
 			env.services().registerService(ClassificationTracker.class, classificationTracker);
 			
+			final int classificationStateCacheSize = snomedConfig.getClassificationStateCacheSize();
+			if (classificationStateCacheSize > 0) {
+				env.services().registerService(ReasonerTaxonomyCache.class, new ReasonerTaxonomyCache(classificationStateCacheSize));
+			}
+			
 			final ClassPathScanner scanner = env.service(ClassPathScanner.class);
 			env.services().registerService(IEquivalentConceptMerger.Registry.class, new IEquivalentConceptMerger.Registry(scanner));
 		}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.classification;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.concurrent.TimeUnit;
+
+import com.b2international.collections.longs.LongSet;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomy;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Keeps the outcome of the most recent classification run on each branch in memory, so that repeated classifications of the same branch
+ * can skip the reasoner when the definitions did not change, and only revisit concepts affected by the changes when generating the
+ * distribution normal form. The number of branches kept is bounded; least recently used entries are evicted first, and entries that are
+ * not used for a while expire. Entries are also discarded when the branch moves to a new base, ie. it is rebased, or deleted and
+ * recreated under the same path.
+ *
+ * @since 9.3
+ */
+public final class ReasonerTaxonomyCache {
+
+	private static final long EXPIRE_AFTER_ACCESS_MINUTES = 60L;
+
+	/**
+	 * The state of a completed classification run. Taxonomies lazily compute and cache some of their values, so readers should synchronize
+	 * on the entry instance.
+	 */
+	public static final class Entry {
+
+		private final long branchId;
+		private final long baseTimestamp;
+		private final String reasonerId;
+		private final ReasonerTaxonomy inferredTaxonomy;
+		private final boolean concreteDomainSupported;
+		private final LongSet changedConceptIds;
+
+		public Entry(final long branchId, 
+				final long baseTimestamp,
+				final String reasonerId, 
+				final ReasonerTaxonomy inferredTaxonomy, 
+				final boolean concreteDomainSupported, 
+				final LongSet changedConceptIds) {
+			
+			this.branchId = branchId;
+			this.baseTimestamp = baseTimestamp;
+			this.reasonerId = reasonerId;
+			this.inferredTaxonomy = inferredTaxonomy;
+			this.concreteDomainSupported = concreteDomainSupported;
+			this.changedConceptIds = changedConceptIds;
+		}
+
+		/**
+		 * @return the internal ID of the branch the classification run was started on
+		 */
+		public long getBranchId() {
+			return branchId;
+		}
+
+		/**
+		 * @return the base timestamp of the branch when the classification run was started
+		 */
+		public long getBaseTimestamp() {
+			return baseTimestamp;
+		}
+
+		public String getReasonerId() {
+			return reasonerId;
+		}
+
+		/**
+		 * @return the reasoner input of the classification run, along with the inferences computed
+		 */
+		public ReasonerTaxonomy getInferredTaxonomy() {
+			return inferredTaxonomy;
+		}
+
+		public boolean isConcreteDomainSupported() {
+			return concreteDomainSupported;
+		}
+
+		/**
+		 * @return the IDs of concepts for which relationship or concrete domain member changes were recorded
+		 */
+		public LongSet getChangedConceptIds() {
+			return changedConceptIds;
+		}
+	}
+
+	private final Cache<String, Entry> entries;
+
+	public ReasonerTaxonomyCache(final long maximumSize) {
+		checkArgument(maximumSize > 0, "Maximum size should be greater than zero, got: %s", maximumSize);
+		this.entries = CacheBuilder.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterAccess(EXPIRE_AFTER_ACCESS_MINUTES, TimeUnit.MINUTES)
+				.build();
+	}
+
+	/**
+	 * Returns the state of the last classification run on the given branch. If the branch was rebased, or deleted and recreated since, the
+	 * entry is discarded.
+	 *
+	 * @param branchPath - the path of the branch
+	 * @param branchId - the current internal ID of the branch
+	 * @param baseTimestamp - the current base timestamp of the branch
+	 * @return the state of the last classification run on the given branch, or <code>null</code> if not available
+	 */
+	public Entry get(final String branchPath, final long branchId, final long baseTimestamp) {
+		final Entry entry = entries.getIfPresent(branchPath);
+		if (entry == null) {
+			return null;
+		}
+
+		if (entry.getBranchId() != branchId || entry.getBaseTimestamp() != baseTimestamp) {
+			entries.asMap().remove(branchPath, entry);
+			return null;
+		}
+
+		return entry;
+	}
+
+	public void put(final String branchPath, final Entry entry) {
+		entries.put(branchPath, entry);
+	}
+
+	public void invalidate(final String branchPath) {
+		entries.invalidate(branchPath);
+	}
+
+	public void invalidateAll() {
+		entries.invalidateAll();
+	}
+
+}
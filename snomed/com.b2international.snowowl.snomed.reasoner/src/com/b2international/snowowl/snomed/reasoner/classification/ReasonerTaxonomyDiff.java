@@ -0,0 +1,283 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.classification;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import com.b2international.collections.PrimitiveLists;
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongIterator;
+import com.b2international.collections.longs.LongList;
+import com.b2international.collections.longs.LongSet;
+import com.b2international.commons.collect.LongSets;
+import com.b2international.snowowl.snomed.datastore.ConcreteDomainFragment;
+import com.b2international.snowowl.snomed.datastore.StatementFragment;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.*;
+import com.b2international.snowowl.snomed.reasoner.diff.concretedomain.ConcreteDomainChangeOrdering;
+import com.b2international.snowowl.snomed.reasoner.diff.relationship.StatementFragmentOrdering;
+import com.google.common.collect.Ordering;
+
+/**
+ * Compares the reasoner input of two classification runs on the same branch, identifying concepts by their SCTID (internal IDs are not
+ * stable between runs).
+ * <p>
+ * Changes are collected on two levels: <i>definition</i> changes affect the ontology handed over to the reasoner, while <i>normal form
+ * input</i> changes (a superset of the former) also include existing inferred relationships and concrete domain members, which are only
+ * used when computing the differences to the distribution normal form.
+ *
+ * @since 9.3
+ */
+public final class ReasonerTaxonomyDiff {
+
+	private final boolean conceptsChanged;
+	private final boolean globalsChanged;
+	private final LongSet changedDefinitions;
+	private final LongSet changedNormalFormInputs;
+
+	private ReasonerTaxonomyDiff(final boolean conceptsChanged,
+			final boolean globalsChanged,
+			final LongSet changedDefinitions,
+			final LongSet changedNormalFormInputs) {
+
+		this.conceptsChanged = conceptsChanged;
+		this.globalsChanged = globalsChanged;
+		this.changedDefinitions = changedDefinitions;
+		this.changedNormalFormInputs = changedNormalFormInputs;
+	}
+
+	/**
+	 * Compares the input part of two taxonomies.
+	 *
+	 * @param previous - the taxonomy used in an earlier classification run
+	 * @param current - the taxonomy to be classified
+	 * @return the differences between the two
+	 */
+	public static ReasonerTaxonomyDiff compare(final ReasonerTaxonomy previous, final ReasonerTaxonomy current) {
+		final LongSet previousConceptIds = previous.getConceptMap().keySet();
+		final LongSet currentConceptIds = current.getConceptMap().keySet();
+
+		final boolean conceptsChanged = previousConceptIds.size() != currentConceptIds.size() || !previousConceptIds.containsAll(currentConceptIds);
+		final boolean globalsChanged = !sameIds(previous.getNeverGroupedTypeIds(), current.getNeverGroupedTypeIds())
+				|| !Objects.equals(previous.getPropertyChains(), current.getPropertyChains());
+
+		final LongSet changedDefinitions = PrimitiveSets.newLongOpenHashSet();
+		final LongSet changedNormalFormInputs = PrimitiveSets.newLongOpenHashSet();
+
+		for (final LongIterator itr = currentConceptIds.iterator(); itr.hasNext(); /* empty */) {
+			final long conceptId = itr.next();
+
+			if (!previousConceptIds.contains(conceptId)) {
+				changedDefinitions.add(conceptId);
+				changedNormalFormInputs.add(conceptId);
+			} else if (isDefinitionChanged(previous, current, conceptId)) {
+				changedDefinitions.add(conceptId);
+				changedNormalFormInputs.add(conceptId);
+			} else if (isInferredContentChanged(previous, current, conceptId)) {
+				changedNormalFormInputs.add(conceptId);
+			}
+		}
+
+		return new ReasonerTaxonomyDiff(conceptsChanged, globalsChanged, changedDefinitions, changedNormalFormInputs);
+	}
+
+	private static boolean isDefinitionChanged(final ReasonerTaxonomy previous, final ReasonerTaxonomy current, final long conceptId) {
+		final String referencedComponentId = Long.toString(conceptId);
+
+		return previous.getDefiningConcepts().contains(conceptId) != current.getDefiningConcepts().contains(conceptId)
+				|| previous.getExhaustiveConcepts().contains(conceptId) != current.getExhaustiveConcepts().contains(conceptId)
+				|| !sameIds(previous.getStatedAncestors().getDestinations(conceptId, true), current.getStatedAncestors().getDestinations(conceptId, true))
+				|| !sameContent(previous.getStatedRelationships().get(conceptId), current.getStatedRelationships().get(conceptId), StatementFragmentOrdering.INSTANCE)
+				|| !sameContent(previous.getAxiomNonIsARelationships().get(conceptId), current.getAxiomNonIsARelationships().get(conceptId), StatementFragmentOrdering.INSTANCE)
+				|| !sameContent(previous.getAdditionalGroupedRelationships().get(conceptId), current.getAdditionalGroupedRelationships().get(conceptId), StatementFragmentOrdering.INSTANCE)
+				|| !sameContent(previous.getAxioms().get(conceptId), current.getAxioms().get(conceptId), Ordering.natural())
+				|| !sameContent(previous.getStatedConcreteDomainMembers().get(referencedComponentId), current.getStatedConcreteDomainMembers().get(referencedComponentId), ConcreteDomainChangeOrdering.INSTANCE)
+				|| !sameContent(previous.getAdditionalGroupedConcreteDomainMembers().get(referencedComponentId), current.getAdditionalGroupedConcreteDomainMembers().get(referencedComponentId), ConcreteDomainChangeOrdering.INSTANCE);
+	}
+
+	private static boolean isInferredContentChanged(final ReasonerTaxonomy previous, final ReasonerTaxonomy current, final long conceptId) {
+		final String referencedComponentId = Long.toString(conceptId);
+
+		// Identifiers of existing inferred components are part of the computed changes, so they also need to match
+		return !sameStatements(previous.getExistingInferredRelationships().get(conceptId), current.getExistingInferredRelationships().get(conceptId))
+				|| !sameMembers(previous.getInferredConcreteDomainMembers().get(referencedComponentId), current.getInferredConcreteDomainMembers().get(referencedComponentId));
+	}
+
+	private static boolean sameIds(final LongSet left, final LongSet right) {
+		return left.size() == right.size() && left.containsAll(right);
+	}
+
+	private static <T> boolean sameContent(final Collection<T> left, final Collection<T> right, final Ordering<? super T> ordering) {
+		if (left.size() != right.size()) {
+			return false;
+		}
+
+		final List<T> sortedLeft = ordering.sortedCopy(left);
+		final List<T> sortedRight = ordering.sortedCopy(right);
+		for (int i = 0; i < sortedLeft.size(); i++) {
+			if (ordering.compare(sortedLeft.get(i), sortedRight.get(i)) != 0) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static boolean sameStatements(final Collection<StatementFragment> left, final Collection<StatementFragment> right) {
+		if (!sameContent(left, right, StatementFragmentOrdering.INSTANCE)) {
+			return false;
+		}
+
+		final List<StatementFragment> sortedLeft = StatementFragmentOrdering.INSTANCE.sortedCopy(left);
+		final List<StatementFragment> sortedRight = StatementFragmentOrdering.INSTANCE.sortedCopy(right);
+		for (int i = 0; i < sortedLeft.size(); i++) {
+			final StatementFragment l = sortedLeft.get(i);
+			final StatementFragment r = sortedRight.get(i);
+			if (l.getStatementId() != r.getStatementId() || l.isReleased() != r.isReleased()) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static boolean sameMembers(final Collection<ConcreteDomainFragment> left, final Collection<ConcreteDomainFragment> right) {
+		if (!sameContent(left, right, ConcreteDomainChangeOrdering.INSTANCE)) {
+			return false;
+		}
+
+		final List<ConcreteDomainFragment> sortedLeft = ConcreteDomainChangeOrdering.INSTANCE.sortedCopy(left);
+		final List<ConcreteDomainFragment> sortedRight = ConcreteDomainChangeOrdering.INSTANCE.sortedCopy(right);
+		for (int i = 0; i < sortedLeft.size(); i++) {
+			final ConcreteDomainFragment l = sortedLeft.get(i);
+			final ConcreteDomainFragment r = sortedRight.get(i);
+			if (!Objects.equals(l.getMemberId(), r.getMemberId()) || l.isReleased() != r.isReleased()) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return <code>true</code> if the reasoner would receive the same ontology for both taxonomies, <code>false</code> otherwise
+	 */
+	public boolean isDefinitionUnchanged() {
+		return !conceptsChanged && !globalsChanged && changedDefinitions.isEmpty();
+	}
+
+	/**
+	 * Copies the inferences of the previous taxonomy to the current one. Should only be called if {@link #isDefinitionUnchanged()} returns
+	 * <code>true</code>.
+	 *
+	 * @param previousInferred - the previous taxonomy, including inferences
+	 * @param current - the taxonomy to be classified, without inferences
+	 * @return the current taxonomy with the inferences of the previous classification run
+	 */
+	public static ReasonerTaxonomy reuseInferences(final ReasonerTaxonomy previousInferred, final ReasonerTaxonomy current) {
+		final InternalIdMap conceptMap = current.getConceptMap();
+		final InternalIdEdges.Builder inferredAncestors = InternalIdEdges.builder(conceptMap);
+		final InternalSctIdSet.Builder unsatisfiableConcepts = InternalSctIdSet.builder(conceptMap);
+		final InternalSctIdMultimap.Builder equivalentConcepts = InternalSctIdMultimap.builder(conceptMap);
+
+		for (final LongIterator itr = conceptMap.getSctIds(); itr.hasNext(); /* empty */) {
+			final long conceptId = itr.next();
+			final List<String> parentIds = LongSets.toStringList(previousInferred.getInferredAncestors().getDestinations(conceptId, true));
+			if (!parentIds.isEmpty()) {
+				final String sourceId = Long.toString(conceptId);
+				inferredAncestors.addEdges(Collections.nCopies(parentIds.size(), sourceId), parentIds);
+			}
+		}
+
+		unsatisfiableConcepts.addAll(PrimitiveSets.newLongOpenHashSet(previousInferred.getUnsatisfiableConcepts().toLongList()));
+
+		final InternalSctIdMultimap previousEquivalents = previousInferred.getEquivalentConcepts();
+		for (final LongIterator itr = previousEquivalents.keySet().iterator(); itr.hasNext(); /* empty */) {
+			final long representativeId = itr.next();
+			equivalentConcepts.putAll(Long.toString(representativeId), LongSets.toStringSet(previousEquivalents.get(representativeId)));
+		}
+
+		final LongList iterationOrder = PrimitiveLists.newLongArrayList(previousInferred.getIterationOrder());
+		return current.withInferences(inferredAncestors.build(), unsatisfiableConcepts.build(), equivalentConcepts.build(), iterationOrder);
+	}
+
+	/**
+	 * Computes the set of concepts for which the distribution normal form needs to be computed again. A concept can be skipped if neither
+	 * its own normal form input nor the normal form of any of its inferred ancestors changed, and the previous run did not record any
+	 * changes for it, as the outcome would be the same as in the previous classification run.
+	 *
+	 * @param previousInferred - the previous taxonomy, including inferences
+	 * @param currentInferred - the current taxonomy, including inferences
+	 * @param previousChangedConceptIds - concepts for which the previous classification run recorded changes
+	 * @return the IDs of concepts to revisit, or <code>null</code> if all concepts should be revisited
+	 */
+	public LongSet getConceptIdsToRevisit(final ReasonerTaxonomy previousInferred,
+			final ReasonerTaxonomy currentInferred,
+			final LongSet previousChangedConceptIds) {
+
+		// Property chains make normal forms depend on concepts other than ancestors
+		if (globalsChanged || !currentInferred.getPropertyChains().isEmpty()) {
+			return null;
+		}
+
+		final LongSet seeds = PrimitiveSets.newLongOpenHashSet(changedNormalFormInputs);
+		seeds.addAll(previousChangedConceptIds);
+
+		final InternalSctIdSet previousUnsatisfiable = previousInferred.getUnsatisfiableConcepts();
+		final InternalSctIdSet currentUnsatisfiable = currentInferred.getUnsatisfiableConcepts();
+
+		final LongSet conceptIdsToRevisit = PrimitiveSets.newLongOpenHashSet();
+		final LongList iterationOrder = currentInferred.getIterationOrder();
+
+		// Iteration order visits all parents before their children
+		for (final LongIterator itr = iterationOrder.iterator(); itr.hasNext(); /* empty */) {
+			final long conceptId = itr.next();
+			if (conceptId == ReasonerTaxonomyInferrer.DEPTH_CHANGE) {
+				continue;
+			}
+
+			final LongSet parentIds = currentInferred.getInferredAncestors().getDestinations(conceptId, true);
+			if (seeds.contains(conceptId)
+					|| previousUnsatisfiable.contains(conceptId) != currentUnsatisfiable.contains(conceptId)
+					|| !sameIds(parentIds, previousInferred.getInferredAncestors().getDestinations(conceptId, true))
+					|| containsAny(conceptIdsToRevisit, parentIds)) {
+				conceptIdsToRevisit.add(conceptId);
+			}
+		}
+
+		return conceptIdsToRevisit;
+	}
+
+	private static boolean containsAny(final LongSet ids, final LongSet candidates) {
+		for (final LongIterator itr = candidates.iterator(); itr.hasNext(); /* empty */) {
+			if (ids.contains(itr.next())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public LongSet getChangedDefinitions() {
+		return changedDefinitions;
+	}
+
+	public LongSet getChangedNormalFormInputs() {
+		return changedNormalFormInputs;
+	}
+
+}
@@ -73,6 +73,8 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 	private final LongKeyMap<Collection<ConcreteDomainFragment>> concreteDomainCache = PrimitiveMaps.newLongKeyOpenHashMap();
 	private final Map<Long, NodeGraph> transitiveNodeGraphs = newHashMap();
 	private final boolean inferConcreteDomainRefsetMembers;
+	private final LongSet conceptIdsToRevisit;
+	private final LongSet changedConceptIds = PrimitiveSets.newLongOpenHashSet();
 	
 	/**
 	 * Creates a new distribution normal form generator instance.
@@ -82,8 +84,31 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 	 *                         contents of the branch (may not be {@code null})
 	 */
 	public NormalFormGenerator(final ReasonerTaxonomy reasonerTaxonomy, final boolean inferConcreteDomainRefsetMembers) {
+		this(reasonerTaxonomy, inferConcreteDomainRefsetMembers, null);
+	}
+	
+	/**
+	 * Creates a new distribution normal form generator instance that only reports changes for the specified concepts.
+	 *
+	 * @param reasonerTaxonomy used for querying the concept hierarchy inferred by
+	 *                         the reasoner, as well as the pre-classification
+	 *                         contents of the branch (may not be {@code null})
+	 * @param conceptIdsToRevisit the concepts to compute changes for; the normal form of 
+	 *                         their ancestors is also computed, but not compared. If
+	 *                         {@code null}, all concepts are visited.
+	 */
+	public NormalFormGenerator(final ReasonerTaxonomy reasonerTaxonomy, final boolean inferConcreteDomainRefsetMembers, final LongSet conceptIdsToRevisit) {
 		this.reasonerTaxonomy = reasonerTaxonomy;
 		this.inferConcreteDomainRefsetMembers = inferConcreteDomainRefsetMembers;
+		this.conceptIdsToRevisit = conceptIdsToRevisit;
+	}
+	
+	/**
+	 * @return the IDs of concepts where {@link #computeChanges(IProgressMonitor, OntologyChangeProcessor, OntologyChangeProcessor)} found
+	 *         differences between the existing and the computed relationships or concrete domain members
+	 */
+	public LongSet getChangedConceptIds() {
+		return changedConceptIds;
 	}
 
 	@Override
@@ -154,6 +179,13 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 		
 			LOGGER.info("--- Use node graphs for hierarchy computation");
 			
+			// Property chains make the normal form depend on concepts other than ancestors, so a partial run is not possible in that case
+			final boolean partial = conceptIdsToRevisit != null && !propertyChainsPresent;
+			final LongSet requiredConceptIds = partial ? getRequiredConceptIds(entries) : null;
+			if (partial) {
+				LOGGER.info("--- Revisiting {} concepts, computing normal form for {} concepts", conceptIdsToRevisit.size(), requiredConceptIds.size());
+			}
+			
 			// Round 2: record changes using the hierarchies
 			for (final LongIterator itr = entries.iterator(); itr.hasNext(); /* empty */) {
 				final long conceptId = itr.next();
@@ -168,9 +200,20 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 					continue;
 				}
 
+				if (partial && !requiredConceptIds.contains(conceptId)) {
+					subMonitor.worked(2);
+					continue;
+				}
+				
 				// Run costly comparison of property chain hierarchies only if there are any
 				precomputeProperties(conceptId, propertyChainsPresent);
 
+				// Ancestors of revisited concepts are only needed for their normal form
+				if (partial && !conceptIdsToRevisit.contains(conceptId)) {
+					subMonitor.worked(2);
+					continue;
+				}
+				
 				final Collection<StatementFragment> existingStatements = reasonerTaxonomy.getExistingInferredRelationships().get(conceptId);
 				final Collection<StatementFragment> targetStatements = getTargetRelationships(conceptId);
 				statementProcessor.apply(conceptId, existingStatements, targetStatements, StatementFragmentOrdering.INSTANCE, subMonitor.newChild(1));
@@ -178,6 +221,11 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 				final Collection<ConcreteDomainFragment> existingMembers = reasonerTaxonomy.getInferredConcreteDomainMembers().get(Long.toString(conceptId));
 				final Collection<ConcreteDomainFragment> targetMembers = getTargetMembers(conceptId);
 				concreteDomainProcessor.apply(conceptId, existingMembers, targetMembers, ConcreteDomainChangeOrdering.INSTANCE, subMonitor.newChild(1));
+				
+				if (hasChanges(existingStatements, targetStatements, StatementFragmentOrdering.INSTANCE) 
+						|| hasChanges(existingMembers, targetMembers, ConcreteDomainChangeOrdering.INSTANCE)) {
+					changedConceptIds.add(conceptId);
+				}
 			}
 
 		} finally {
@@ -186,6 +234,46 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 		}
 	}
 
+	/*
+	 * Collects concepts to revisit along with all of their inferred ancestors. Parents always precede their children in the iteration order,
+	 * so walking it backwards visits each concept after all of its descendants.
+	 */
+	private LongSet getRequiredConceptIds(final LongList entries) {
+		final LongSet requiredConceptIds = PrimitiveSets.newLongOpenHashSet(conceptIdsToRevisit);
+		
+		for (int i = entries.size() - 1; i >= 0; i--) {
+			final long conceptId = entries.get(i);
+			if (conceptId != ReasonerTaxonomyInferrer.DEPTH_CHANGE && requiredConceptIds.contains(conceptId)) {
+				requiredConceptIds.addAll(reasonerTaxonomy.getInferredAncestors().getDestinations(conceptId, true));
+			}
+		}
+		
+		return requiredConceptIds;
+	}
+	
+	/*
+	 * Mirrors the comparison in OntologyChangeProcessor: any difference in the sorted collections, or a duplicate among existing items
+	 * results in a change being reported.
+	 */
+	private static <T> boolean hasChanges(final Collection<T> existing, final Collection<T> target, final Ordering<T> ordering) {
+		if (existing.size() != target.size()) {
+			return true;
+		}
+		
+		final List<T> sortedExisting = ordering.sortedCopy(existing);
+		final List<T> sortedTarget = ordering.sortedCopy(target);
+		for (int i = 0; i < sortedExisting.size(); i++) {
+			if (ordering.compare(sortedExisting.get(i), sortedTarget.get(i)) != 0) {
+				return true;
+			}
+			if (i > 0 && ordering.compare(sortedExisting.get(i - 1), sortedExisting.get(i)) == 0) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+
 	/**
 	 * Indicates that the breadth-first iteration has reached a new level in the tree.
 	 * Generators are free to drop caches associated with components in the previous
@@ -35,8 +35,10 @@ import org.semanticweb.owlapi.reasoner.ReasonerInterruptedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.b2international.collections.longs.LongSet;
 import com.b2international.commons.collections.Collections3;
 import com.b2international.commons.exceptions.LockedException;
+import com.b2international.index.revision.RevisionBranchRef;
 import com.b2international.index.revision.RevisionSearcher;
 import com.b2international.snowowl.core.TerminologyResource;
 import com.b2international.snowowl.core.authorization.AccessControl;
@@ -54,6 +56,8 @@ import com.b2international.snowowl.snomed.datastore.config.SnomedCoreConfigurati
 import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomy;
 import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomyBuilder;
 import com.b2international.snowowl.snomed.reasoner.classification.ClassificationTracker;
+import com.b2international.snowowl.snomed.reasoner.classification.ReasonerTaxonomyCache;
+import com.b2international.snowowl.snomed.reasoner.classification.ReasonerTaxonomyDiff;
 import com.b2international.snowowl.snomed.reasoner.classification.ReasonerTaxonomyInferrer;
 import com.b2international.snowowl.snomed.reasoner.exceptions.ReasonerApiException;
 import com.b2international.snowowl.snomed.reasoner.normalform.NormalFormGenerator;
@@ -140,6 +144,48 @@ final class ClassificationJobRequest implements Request<BranchContext, Boolean>,
 			throw new ReasonerApiException("Couldn't acquire exclusive access to terminology store for classification; %s", e.getMessage(), e);
 		}
 		
+		final ReasonerTaxonomyCache cache = context.optionalService(ReasonerTaxonomyCache.class).orElse(null);
+		final RevisionBranchRef branchRef = revisionSearcher.ref();
+		final ReasonerTaxonomyCache.Entry previous = (cache != null) ? cache.get(context.path(), branchRef.branchId(), branchRef.base()) : null;
+		
+		final ReasonerTaxonomy inferredTaxonomy;
+		final LongSet conceptIdsToRevisit;
+		
+		if (previous != null && reasonerId.equals(previous.getReasonerId()) && previous.isConcreteDomainSupported() == concreteDomainSupported) {
+			// The previous taxonomy caches lookups lazily, access to it is serialized
+			synchronized (previous) {
+				final ReasonerTaxonomy previousTaxonomy = previous.getInferredTaxonomy();
+				final ReasonerTaxonomyDiff diff = ReasonerTaxonomyDiff.compare(previousTaxonomy, taxonomy);
+				
+				if (diff.isDefinitionUnchanged()) {
+					LOGGER.info("Reasoner input is unchanged since the last classification of '{}', reusing inferences", context.path());
+					inferredTaxonomy = ReasonerTaxonomyDiff.reuseInferences(previousTaxonomy, taxonomy);
+				} else {
+					LOGGER.info("Definitions of {} concepts changed since the last classification of '{}'", diff.getChangedDefinitions().size(), context.path());
+					inferredTaxonomy = inferTaxonomy(context, taxonomy);
+				}
+				
+				conceptIdsToRevisit = diff.getConceptIdsToRevisit(previousTaxonomy, inferredTaxonomy, previous.getChangedConceptIds());
+			}
+		} else {
+			inferredTaxonomy = inferTaxonomy(context, taxonomy);
+			conceptIdsToRevisit = null;
+		}
+		
+		final NormalFormGenerator normalFormGenerator = new NormalFormGenerator(inferredTaxonomy, concreteDomainSupported, conceptIdsToRevisit);
+		tracker.classificationCompleted(classificationId, inferredTaxonomy, normalFormGenerator);
+		
+		if (cache != null) {
+			cache.put(context.path(), new ReasonerTaxonomyCache.Entry(branchRef.branchId(), 
+					branchRef.base(), 
+					reasonerId, 
+					inferredTaxonomy, 
+					concreteDomainSupported, 
+					normalFormGenerator.getChangedConceptIds()));
+		}
+	}
+	
+	private ReasonerTaxonomy inferTaxonomy(final BranchContext context, final ReasonerTaxonomy taxonomy) {
 		final OWLOntologyManager ontologyManager = OWLManager.createOWLOntologyManager();
 		ontologyManager.getOntologyFactories().add(new DelegateOntologyFactory(taxonomy));
 		final IRI ontologyIRI = IRI.create(DelegateOntology.NAMESPACE_SCTM + Concepts.MODULE_SCT_CORE); // TODO: custom moduleId in ontology IRI?
@@ -148,10 +194,7 @@ final class ClassificationJobRequest implements Request<BranchContext, Boolean>,
 
 			final DelegateOntology ontology = (DelegateOntology) ontologyManager.createOntology(ontologyIRI);
 			final ReasonerTaxonomyInferrer inferrer = new ReasonerTaxonomyInferrer(reasonerId, ontology, context);
-			final ReasonerTaxonomy inferredTaxonomy = inferrer.addInferences(taxonomy);
-			final NormalFormGenerator normalFormGenerator = new NormalFormGenerator(inferredTaxonomy, concreteDomainSupported);
-			
-			tracker.classificationCompleted(classificationId, inferredTaxonomy, normalFormGenerator);
+			return inferrer.addInferences(taxonomy);
 
 		} catch (final OWLOntologyCreationException e) {
 			throw new ReasonerApiException("Exception caught while creating ontology instance.", e);
@@ -167,18 +210,20 @@ final class ClassificationJobRequest implements Request<BranchContext, Boolean>,
 		taxonomyBuilder.addActiveConceptIds(additionalConcepts.stream());
 		taxonomyBuilder.finishConcepts();
 		
-		taxonomyBuilder.addConceptFlags(revisionSearcher);
-		taxonomyBuilder.addActiveStatedEdges(revisionSearcher);
-		taxonomyBuilder.addActiveStatedRelationships(revisionSearcher);
-		taxonomyBuilder.addActiveInferredRelationships(revisionSearcher);
-		taxonomyBuilder.addActiveAdditionalGroupedRelationships(revisionSearcher);
-		
-		taxonomyBuilder.addNeverGroupedTypeIds(revisionSearcher);
-		taxonomyBuilder.addActiveAxioms(revisionSearcher);
-
-		if (concreteDomainSupported) {
-			taxonomyBuilder.addActiveConcreteDomainMembers(revisionSearcher);
-		}
+		// Each of these scans populates a separate part of the taxonomy, so they can run at the same time
+		taxonomyBuilder.addConcurrently(List.of(
+			builder -> builder.addConceptFlags(revisionSearcher),
+			builder -> builder.addActiveStatedEdges(revisionSearcher),
+			builder -> builder.addActiveStatedRelationships(revisionSearcher),
+			builder -> builder.addActiveInferredRelationships(revisionSearcher),
+			builder -> builder.addActiveAdditionalGroupedRelationships(revisionSearcher),
+			builder -> builder.addNeverGroupedTypeIds(revisionSearcher),
+			builder -> builder.addActiveAxioms(revisionSearcher),
+			builder -> {
+				if (concreteDomainSupported) {
+					builder.addActiveConcreteDomainMembers(revisionSearcher);
+				}
+			}));
 
 		// Add the extra definitions
 		taxonomyBuilder.addConceptFlags(additionalConcepts.stream());
@@ -198,7 +243,9 @@ final class ClassificationJobRequest implements Request<BranchContext, Boolean>,
 			taxonomyBuilder.addActiveConcreteDomainMembers(conceptMembers);
 		}
 		
-		return taxonomyBuilder.build();
+		final ReasonerTaxonomy taxonomy = taxonomyBuilder.build();
+		taxonomyBuilder.getPhaseTimings().forEach((phase, elapsedMillis) -> LOGGER.info("Classification taxonomy phase '{}' took {} ms", phase, elapsedMillis));
+		return taxonomy;
 	}
 	
 	@Override
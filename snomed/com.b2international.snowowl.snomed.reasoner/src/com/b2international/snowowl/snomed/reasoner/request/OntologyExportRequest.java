@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ForkJoinTask;
@@ -89,17 +90,18 @@ final class OntologyExportRequest implements Request<BranchContext, String>, Acc
 		taxonomyBuilder.addActiveConceptIds(revisionSearcher);
 		taxonomyBuilder.finishConcepts();
 		
-		taxonomyBuilder.addFullySpecifiedNames(revisionSearcher);
-		taxonomyBuilder.addConceptFlags(revisionSearcher);
-		taxonomyBuilder.addActiveStatedEdges(revisionSearcher);
-		taxonomyBuilder.addActiveStatedRelationships(revisionSearcher);
-		
-		taxonomyBuilder.addNeverGroupedTypeIds(revisionSearcher);
-		taxonomyBuilder.addActiveAxioms(revisionSearcher);
-
-		if (concreteDomainSupportEnabled) {
-			taxonomyBuilder.addActiveConcreteDomainMembers(revisionSearcher);
-		}
+		taxonomyBuilder.addConcurrently(List.of(
+			builder -> builder.addFullySpecifiedNames(revisionSearcher),
+			builder -> builder.addConceptFlags(revisionSearcher),
+			builder -> builder.addActiveStatedEdges(revisionSearcher),
+			builder -> builder.addActiveStatedRelationships(revisionSearcher),
+			builder -> builder.addNeverGroupedTypeIds(revisionSearcher),
+			builder -> builder.addActiveAxioms(revisionSearcher),
+			builder -> {
+				if (concreteDomainSupportEnabled) {
+					builder.addActiveConcreteDomainMembers(revisionSearcher);
+				}
+			}));
 
 		final ReasonerTaxonomy taxonomy = taxonomyBuilder.build();
 		final OWLOntologyManager ontologyManager = OWLManager.createOWLOntologyManager();
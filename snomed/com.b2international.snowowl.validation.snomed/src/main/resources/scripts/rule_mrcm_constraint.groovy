@@ -35,61 +35,70 @@ Set<ComponentIdentifier> issues = Sets.newHashSet();
 final String integerTypeRangePrefix = "int";
 final String decimalTypeRangePrefix = "dec";
 
-Map<String, String> allowedRanges = Maps.newHashMap();
-
-List<String> moduleIds = SnomedRequests.prepareSearchConcept()
-	.filterByEcl(params.modules)
-	.filterByActive(true)
-	.all()
-	.build()
-	.execute(ctx)
-	.collect({it.getId()})
+// modules and MRCM reference sets in scope are the same for all MRCM rules of a validation run
+List<String> moduleIds = shared.get("mrcmModuleIds:" + params.modules) {
+	SnomedRequests.prepareSearchConcept()
+		.filterByEcl(params.modules)
+		.filterByActive(true)
+		.all()
+		.build()
+		.execute(ctx)
+		.collect({it.getId()})
+}
 
-Set<String> inScopeRefSets = SnomedRequests.prepareSearchMember()
-	.all()
-	.filterByActive(true)
-	.filterByRefSet(Concepts.REFSET_MRCM_MODULE_SCOPE)
-	.filterByReferencedComponent(moduleIds)
-	.build()
-	.execute(ctx)
-	.collect { SnomedReferenceSetMember m -> m.getProperties().get(SnomedRf2Headers.FIELD_MRCM_RULE_REFSET_ID)} as Set
+Set<String> inScopeRefSets = shared.get("mrcmInScopeRefSets:" + params.modules) {
+	SnomedRequests.prepareSearchMember()
+		.all()
+		.filterByActive(true)
+		.filterByRefSet(Concepts.REFSET_MRCM_MODULE_SCOPE)
+		.filterByReferencedComponent(moduleIds)
+		.build()
+		.execute(ctx)
+		.collect { SnomedReferenceSetMember m -> m.getProperties().get(SnomedRf2Headers.FIELD_MRCM_RULE_REFSET_ID)} as Set
+}
 	
 if (inScopeRefSets.isEmpty()) {
 	return issues as List;
 }
 
-final ExpressionBuilder mrcmRangeMemberQueryBuilder = Expressions.bool()
-	.filter(SnomedRefSetMemberIndexEntry.Expressions.active())
-	.filter(SnomedRefSetMemberIndexEntry.Expressions.refsetIds(inScopeRefSets))
-	.filter(SnomedRefSetMemberIndexEntry.Expressions.refSetTypes([SnomedRefSetType.MRCM_ATTRIBUTE_RANGE]))	
+Map<String, String> allowedRanges = shared.get("mrcmAttributeRanges:" + params.modules) {
+	Map<String, String> ranges = Maps.newHashMap();
 
-final Query<String[]> mrcmRangeMemberQuery = Query.select(String[].class)
-	.from(SnomedRefSetMemberIndexEntry.class)
-	.fields(SnomedRf2Headers.FIELD_MRCM_CONTENT_TYPE_ID,
-			SnomedRefSetMemberIndexEntry.Fields.REFERENCED_COMPONENT_ID,
-			SnomedRf2Headers.FIELD_MRCM_RANGE_CONSTRAINT)
-	.where(mrcmRangeMemberQueryBuilder.build())
-	.limit(Integer.MAX_VALUE)
-	.build();
+	final ExpressionBuilder mrcmRangeMemberQueryBuilder = Expressions.bool()
+		.filter(SnomedRefSetMemberIndexEntry.Expressions.active())
+		.filter(SnomedRefSetMemberIndexEntry.Expressions.refsetIds(inScopeRefSets))
+		.filter(SnomedRefSetMemberIndexEntry.Expressions.refSetTypes([SnomedRefSetType.MRCM_ATTRIBUTE_RANGE]))	
 
-searcher.search(mrcmRangeMemberQuery).each { hit ->
-	String contentType = hit[0];
-	String typeId = hit[1];
-	String rangeConstraint = hit[2];
+	final Query<String[]> mrcmRangeMemberQuery = Query.select(String[].class)
+		.from(SnomedRefSetMemberIndexEntry.class)
+		.fields(SnomedRf2Headers.FIELD_MRCM_CONTENT_TYPE_ID,
+				SnomedRefSetMemberIndexEntry.Fields.REFERENCED_COMPONENT_ID,
+				SnomedRf2Headers.FIELD_MRCM_RANGE_CONSTRAINT)
+		.where(mrcmRangeMemberQueryBuilder.build())
+		.limit(Integer.MAX_VALUE)
+		.build();
+
+	searcher.search(mrcmRangeMemberQuery).each { hit ->
+		String contentType = hit[0];
+		String typeId = hit[1];
+		String rangeConstraint = hit[2];
 	
-	if (rangeConstraint.startsWith(integerTypeRangePrefix) || rangeConstraint.startsWith(decimalTypeRangePrefix)) {
-		//Do nothing, skip concrete value type range validation for now
-	} else {
-		if (allowedRanges.containsKey(typeId)) {
-			if (ALL_PRECOORDINATED_CONTENT.equals(contentType)) {
-				allowedRanges.put(typeId, rangeConstraint);
+		if (rangeConstraint.startsWith(integerTypeRangePrefix) || rangeConstraint.startsWith(decimalTypeRangePrefix)) {
+			//Do nothing, skip concrete value type range validation for now
+		} else {
+			if (ranges.containsKey(typeId)) {
+				if (ALL_PRECOORDINATED_CONTENT.equals(contentType)) {
+					ranges.put(typeId, rangeConstraint);
+				} else {
+					//Do nothing, the already mapped member should be chosen over this
+				}
 			} else {
-				//Do nothing, the already mapped member should be chosen over this
+				ranges.put(typeId, rangeConstraint);
 			}
-		} else {
-			allowedRanges.put(typeId, rangeConstraint);
 		}
 	}
+	
+	return ranges
 }
 
 EclParser eclParser = ctx.service(EclParser.class);
@@ -39,22 +39,27 @@ Set<ComponentIdentifier> potentialIssues = Sets.newHashSet();
 Set<String> unsupportedAxiomMarkers = [ "TransitiveObjectProperty", "ReflexiveObjectProperty",
  "SubDataPropertyOf", "SubObjectPropertyOf", "ObjectPropertyChain"];
 
-List<String> moduleIds = SnomedRequests.prepareSearchConcept()
-	.filterByEcl(params.modules)
-	.filterByActive(true)
-	.all()
-	.build()
-	.execute(ctx)
-	.collect({it.getId()})
+// modules and MRCM reference sets in scope are the same for all MRCM rules of a validation run
+List<String> moduleIds = shared.get("mrcmModuleIds:" + params.modules) {
+	SnomedRequests.prepareSearchConcept()
+		.filterByEcl(params.modules)
+		.filterByActive(true)
+		.all()
+		.build()
+		.execute(ctx)
+		.collect({it.getId()})
+}
 
-Set<String> inScopeRefSets = SnomedRequests.prepareSearchMember()
-	.all()
-	.filterByActive(true)
-	.filterByRefSet(Concepts.REFSET_MRCM_MODULE_SCOPE)
-	.filterByReferencedComponent(moduleIds)
-	.build()
-	.execute(ctx)
-	.collect { SnomedReferenceSetMember m -> m.getProperties().get(SnomedRf2Headers.FIELD_MRCM_RULE_REFSET_ID)} as Set
+Set<String> inScopeRefSets = shared.get("mrcmInScopeRefSets:" + params.modules) {
+	SnomedRequests.prepareSearchMember()
+		.all()
+		.filterByActive(true)
+		.filterByRefSet(Concepts.REFSET_MRCM_MODULE_SCOPE)
+		.filterByReferencedComponent(moduleIds)
+		.build()
+		.execute(ctx)
+		.collect { SnomedReferenceSetMember m -> m.getProperties().get(SnomedRf2Headers.FIELD_MRCM_RULE_REFSET_ID)} as Set
+}
 
 if (inScopeRefSets.isEmpty()) {
 	return issues as List;